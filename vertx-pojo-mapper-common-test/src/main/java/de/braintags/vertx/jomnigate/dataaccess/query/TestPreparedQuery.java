@@ -0,0 +1,125 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-json
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.dataaccess.query;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import de.braintags.vertx.jomnigate.dataaccess.query.impl.FieldCondition;
+import de.braintags.vertx.jomnigate.dataaccess.query.impl.IQueryExpression;
+import de.braintags.vertx.jomnigate.dataaccess.query.impl.VariableFieldCondition;
+import de.braintags.vertx.jomnigate.testdatastore.DatastoreBaseTest;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.MiniMapper;
+import io.vertx.codegen.annotations.Nullable;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+
+/**
+ * Tests for queries, which are marked by {@link IQuery#setPrepared(boolean)}
+ *
+ * @author Michael Remme
+ *
+ */
+public class TestPreparedQuery extends DatastoreBaseTest {
+
+  /**
+   * Creates a prepared query that is executed two times with different values for the variable.
+   * The fixed condition must be built only once by the compilation and must not be touched by the second execution
+   *
+   * @param context
+   */
+  @Test
+  public void testPreparedQuery(TestContext context) {
+    clearTable(context, MiniMapper.class);
+    saveRecord(context, new MiniMapper("first"));
+    saveRecord(context, new MiniMapper("second"));
+    Async async = context.async();
+
+    IQuery<MiniMapper> query = getDataStore(context).createQuery(MiniMapper.class);
+    query.setPrepared(true);
+    TestFieldCondition fixedCondition = new TestFieldCondition(MiniMapper.NAME, QueryOperator.NOT_EQUALS, "unknown");
+    VariableFieldCondition variableCondition = new VariableFieldCondition(MiniMapper.NAME, QueryOperator.EQUALS,
+        "${variable}");
+    query.setSearchCondition(ISearchCondition.and(fixedCondition, variableCondition));
+    final AtomicInteger variableResolved = new AtomicInteger(0);
+    query.execute(resolve -> {
+      variableResolved.incrementAndGet();
+      return "first";
+    }, 10, 0, result1 -> {
+      context.assertTrue(result1.succeeded());
+      context.assertEquals(1, result1.result().size());
+      query.execute(resolve -> {
+        variableResolved.incrementAndGet();
+        return "second";
+      }, 10, 0, result2 -> {
+        context.assertTrue(result2.succeeded());
+        context.assertEquals(1, result2.result().size());
+        context.assertEquals(2, variableResolved.get());
+        // the fixed condition is built by the compilation only
+        context.assertEquals(1, fixedCondition.resultCached);
+        context.assertEquals(0, fixedCondition.cachedResultReturned);
+        result2.result().iterator().next(entity -> {
+          context.assertTrue(entity.succeeded());
+          context.assertEquals("second", entity.result().name);
+          async.complete();
+        });
+      });
+    });
+  }
+
+  /**
+   * A prepared query without a resolver must fail, if the search condition contains a variable
+   *
+   * @param context
+   */
+  @Test
+  public void testMissingResolver(TestContext context) {
+    Async async = context.async();
+    IQuery<MiniMapper> query = getDataStore(context).createQuery(MiniMapper.class);
+    query.setPrepared(true);
+    query.setSearchCondition(new VariableFieldCondition(MiniMapper.NAME, QueryOperator.EQUALS, "${variable}"));
+    query.execute(null, 10, 0, result -> {
+      context.assertTrue(result.failed());
+      async.complete();
+    });
+  }
+
+  /**
+   * Extension of field condition to check the cache access
+   */
+  private class TestFieldCondition extends FieldCondition {
+
+    private int cachedResultReturned = 0;
+    private int resultCached = 0;
+
+    public TestFieldCondition(IIndexedField field, QueryOperator logic, @Nullable Object value) {
+      super(field, logic, value);
+    }
+
+    @Override
+    public Object getIntermediateResult(Class<? extends IQueryExpression> queryExpressionClass) {
+      Object intermediateResult = super.getIntermediateResult(queryExpressionClass);
+      if (intermediateResult != null)
+        cachedResultReturned++;
+      return intermediateResult;
+    }
+
+    @Override
+    public void setIntermediateResult(Class<? extends IQueryExpression> queryExpressionClass, Object result) {
+      resultCached++;
+      super.setIntermediateResult(queryExpressionClass, result);
+    }
+  }
+
+}
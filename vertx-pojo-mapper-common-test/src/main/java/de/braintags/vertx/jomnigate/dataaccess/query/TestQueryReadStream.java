@@ -14,8 +14,12 @@ package de.braintags.vertx.jomnigate.dataaccess.query;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -26,10 +30,14 @@ import de.braintags.vertx.jomnigate.testdatastore.mapper.MiniMapper;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.typehandler.ReferenceMapper_Array;
 import de.braintags.vertx.util.ExceptionUtil;
 import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.file.AsyncFile;
 import io.vertx.core.file.OpenOptions;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.streams.Pump;
+import io.vertx.core.streams.ReadStream;
 import io.vertx.core.streams.WriteStream;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
@@ -73,6 +81,34 @@ public class TestQueryReadStream extends DatastoreBaseTest {
     execute(context, qr);
   }
 
+  @Test
+  public void testStream_Keyset(final TestContext context) throws IOException {
+    IQuery<MiniMapper> q = getDataStore(context).createQuery(MiniMapper.class);
+    QueryReadStreamBuffer<MiniMapper> qr = new QueryReadStreamBuffer<>(q, 10);
+    qr.setKeysetPagination();
+    execute(context, qr);
+    context.assertTrue(q.getSortDefinitions().isEmpty(), "sort argument of the stream was not removed");
+  }
+
+  @Test
+  public void testStream_KeysetField(final TestContext context) throws IOException {
+    IQuery<MiniMapper> q = getDataStore(context).createQuery(MiniMapper.class);
+    QueryReadStreamBuffer<MiniMapper> qr = new QueryReadStreamBuffer<>(q, 7);
+    qr.setKeysetField("name");
+    execute(context, qr);
+  }
+
+  @Test
+  public void testStream_KeysetWithCondition(final TestContext context) throws IOException {
+    IQuery<MiniMapper> q = getDataStore(context).createQuery(MiniMapper.class);
+    q.setSearchCondition(ISearchCondition.startsWith(MiniMapper.NAME, "test 1"));
+    QueryReadStreamBuffer<MiniMapper> qr = new QueryReadStreamBuffer<>(q, 3);
+    qr.setKeysetPagination();
+    execute(context, qr, true, 11);
+    context.assertTrue(q.getSearchCondition() instanceof IFieldCondition, "original condition was not restored");
+    context.assertTrue(q.getSortDefinitions().isEmpty(), "sort argument of the stream was not removed");
+  }
+
   @Test
   public void testStream_Embedded(final TestContext context) throws IOException {
     clearTable(context, ReferenceMapper_Array.class.getSimpleName());
@@ -107,6 +143,84 @@ public class TestQueryReadStream extends DatastoreBaseTest {
     execute(context, qr, false, 0);
   }
 
+  @Test
+  public void testStream_Chunked(final TestContext context) throws IOException {
+    IQuery<MiniMapper> q = getDataStore(context).createQuery(MiniMapper.class);
+    QueryReadStreamBuffer<MiniMapper> qr = new QueryReadStreamBuffer<>(q, 30, Json.mapper, null, 1024, false);
+    BufferWriteStream ws = new BufferWriteStream();
+    execute(context, qr, ws);
+    context.assertTrue(ws.count < recCount, "instances were not collected into chunks");
+    context.assertEquals(recCount, ws.buffer.toString().split("\n").length, "not all instances were written");
+    context.assertEquals(recCount, qr.getStreamResult().getSucceeded(), "not all instances were written");
+  }
+
+  @Test
+  public void testStream_DefaultChunkSize(final TestContext context) throws IOException {
+    IQuery<MiniMapper> q = getDataStore(context).createQuery(MiniMapper.class);
+    QueryReadStreamBuffer<MiniMapper> qr = new QueryReadStreamBuffer<>(q, 30);
+    BufferWriteStream ws = new BufferWriteStream();
+    execute(context, qr, ws);
+    context.assertEquals(1, ws.count, "instances were not collected into one chunk");
+    context.assertEquals(recCount, ws.buffer.toString().split("\n").length, "not all instances were written");
+  }
+
+  @Test
+  public void testStream_JsonArray(final TestContext context) throws IOException {
+    IQuery<MiniMapper> q = getDataStore(context).createQuery(MiniMapper.class);
+    QueryReadStreamBuffer<MiniMapper> qr = new QueryReadStreamBuffer<>(q, 30, Json.mapper, null,
+        QueryReadStreamBuffer.DEFAULT_CHUNK_SIZE, true);
+    BufferWriteStream ws = new BufferWriteStream();
+    execute(context, qr, ws);
+    context.assertEquals(1, ws.count, "expected one chunk");
+    context.assertEquals(recCount, new JsonArray(ws.buffer.toString()).size(), "not all instances were written");
+  }
+
+  @Test
+  public void testStream_JsonArrayEmptySelection(final TestContext context) throws IOException {
+    IQuery<MiniMapper> q = getDataStore(context).createQuery(MiniMapper.class);
+    q.setSearchCondition(ISearchCondition.condition("name", QueryOperator.EQUALS, "NOT_EXISTS"));
+    QueryReadStreamBuffer<MiniMapper> qr = new QueryReadStreamBuffer<>(q, 30, Json.mapper, null,
+        QueryReadStreamBuffer.DEFAULT_CHUNK_SIZE, true);
+    BufferWriteStream ws = new BufferWriteStream();
+    execute(context, qr, ws);
+    context.assertEquals("[]", ws.buffer.toString());
+  }
+
+  /**
+   * Pumps into a slow write stream and checks, that the write queue never grows above its limit and that every
+   * instance is delivered exactly once
+   */
+  @Test
+  public void testStream_SlowWriteStream(final TestContext context) throws IOException {
+    IQuery<MiniMapper> q = getDataStore(context).createQuery(MiniMapper.class);
+    QueryReadStreamBuffer<MiniMapper> qr = new QueryReadStreamBuffer<>(q, 30, Json.mapper, null, 1, false);
+    SlowWriteStream ws = new SlowWriteStream(getDataStore(context).getVertx(), 5);
+    Async async = context.async();
+    qr.exceptionHandler(new ErrorHandler(context, async));
+    qr.endHandler(end -> ws.whenDrained(async::complete));
+    Pump.pump(qr, ws).start();
+    async.await();
+    context.assertEquals(recCount, ws.count, "not all instances were written");
+    context.assertEquals(recCount, ws.written.size(), "instances were written more than once");
+    context.assertTrue(ws.maxQueueSize <= 5, "write queue exceeded its limit: " + ws.maxQueueSize);
+  }
+
+  @Test
+  public void testExecuteStream(final TestContext context) throws IOException {
+    IQuery<MiniMapper> q = getDataStore(context).createQuery(MiniMapper.class);
+    ReadStream<MiniMapper> rs = q.executeStream(null, 7);
+    int[] count = { 0 };
+    Async async = context.async();
+    rs.exceptionHandler(new ErrorHandler(context, async));
+    rs.endHandler(end -> async.complete());
+    rs.handler(mm -> {
+      context.assertNotNull(mm.name);
+      count[0]++;
+    });
+    async.await();
+    context.assertEquals(recCount, count[0], "not all instances were streamed");
+  }
+
   @BeforeClass
   public static final void beforeClass(final TestContext context) {
     clearTable(context, MiniMapper.class);
@@ -159,7 +273,8 @@ public class TestQueryReadStream extends DatastoreBaseTest {
     } else {
       context.assertFalse(ws.buffer.length() > 0, "buffer should not be written");
     }
-    context.assertEquals(succeededCount, ws.count, "not all instances were written");
+    int lines = ws.buffer.length() == 0 ? 0 : ws.buffer.toString().split("\n").length;
+    context.assertEquals(succeededCount, lines, "not all instances were written");
     context.assertEquals(succeededCount, qr.getStreamResult().getSucceeded(), "not all instances were written");
     context.assertEquals(failedCount, qr.getStreamResult().getFailed(), "failed instances not correct");
 
@@ -255,4 +370,94 @@ public class TestQueryReadStream extends DatastoreBaseTest {
     }
 
   }
+
+  /**
+   * A WriteStream which writes one element per timer tick and records the maximum size of its write queue
+   * 
+   * 
+   * @author Michael Remme
+   *
+   */
+  public static class SlowWriteStream implements WriteStream<Buffer> {
+    private final Vertx vertx;
+    private final Deque<Buffer> queue = new ArrayDeque<>();
+    private final Set<String> written = new HashSet<>();
+    private int maxSize;
+    private int maxQueueSize;
+    private int count;
+    private boolean writing;
+    private Handler<Void> drainHandler;
+    private Runnable drainedCallback;
+
+    SlowWriteStream(final Vertx vertx, final int maxSize) {
+      this.vertx = vertx;
+      this.maxSize = maxSize;
+    }
+
+    void whenDrained(final Runnable callback) {
+      if (queue.isEmpty()) {
+        callback.run();
+      } else {
+        this.drainedCallback = callback;
+      }
+    }
+
+    @Override
+    public WriteStream<Buffer> exceptionHandler(final Handler<Throwable> handler) {
+      return this;
+    }
+
+    @Override
+    public WriteStream<Buffer> write(final Buffer data) {
+      queue.add(data);
+      maxQueueSize = Math.max(maxQueueSize, queue.size());
+      if (!writing) {
+        writing = true;
+        vertx.setTimer(1, id -> writeNext());
+      }
+      return this;
+    }
+
+    private void writeNext() {
+      Buffer data = queue.poll();
+      ++count;
+      written.add(data.toString());
+      if (queue.isEmpty()) {
+        writing = false;
+      } else {
+        vertx.setTimer(1, id -> writeNext());
+      }
+      if (queue.size() <= maxSize / 2 && drainHandler != null) {
+        Handler<Void> handler = drainHandler;
+        drainHandler = null;
+        handler.handle(null);
+      }
+      if (queue.isEmpty() && drainedCallback != null) {
+        drainedCallback.run();
+        drainedCallback = null;
+      }
+    }
+
+    @Override
+    public WriteStream<Buffer> setWriteQueueMaxSize(final int maxSize) {
+      this.maxSize = maxSize;
+      return this;
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+      return queue.size() >= maxSize;
+    }
+
+    @Override
+    public WriteStream<Buffer> drainHandler(final Handler<Void> handler) {
+      this.drainHandler = handler;
+      return this;
+    }
+
+    @Override
+    public void end() {
+    }
+
+  }
 }
@@ -18,6 +18,7 @@ import org.junit.runners.Suite.SuiteClasses;
 
 import de.braintags.vertx.jomnigate.dataaccess.DataTypesTestSuite;
 import de.braintags.vertx.jomnigate.dataaccess.query.TestFieldConditionCache;
+import de.braintags.vertx.jomnigate.dataaccess.query.TestPreparedQuery;
 import de.braintags.vertx.jomnigate.dataaccess.query.TestQueryInterator;
 import de.braintags.vertx.jomnigate.dataaccess.query.TestQueryReadStream;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.TestIndexedFields;
@@ -31,10 +32,11 @@ import de.braintags.vertx.jomnigate.dataaccess.query.impl.TestIndexedFields;
 @RunWith(Suite.class)
 @SuiteClasses({ TestBaseTest.class, TestMapping.class, TestObserverMapping.class, TestSimpleMapper.class,
     TestStoreObject.class, TestQuery.class, TestQueryHelper.class, TestIndex.class, TestRoundtrip.class,
-    TestOnlyIdMapper.class, TestTrigger.class, TestMassInsert.class, TestKeyGenerator.class, TestGeoSearch.class,
-    TestEncoder.class, TestListExtrems.class, TestReferenced.class, TestFieldConditionCache.class,
-    TestQueryInterator.class, TestQueryReadStream.class, DataTypesTestSuite.class, TestUpdate.class,
-    ObserverSuite.class, TestClearDatastore.class, TestIndexedFields.class })
+    TestOnlyIdMapper.class, TestTrigger.class, TestMassInsert.class, TestKeyGenerator.class, TestBulkWrite.class,
+    TestGeoSearch.class, TestEncoder.class, TestListExtrems.class, TestReferenced.class, TestFieldConditionCache.class,
+    TestPreparedQuery.class, TestQueryInterator.class, TestQueryReadStream.class, DataTypesTestSuite.class,
+    TestUpdate.class, ObserverSuite.class, TestClearDatastore.class, TestIndexedFields.class,
+    TestEntityCache.class, TestQueryResultCache.class, TestTransaction.class })
 public class AllTestsCommon {
 
 }
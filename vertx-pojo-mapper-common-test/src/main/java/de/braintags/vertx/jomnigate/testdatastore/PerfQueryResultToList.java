@@ -0,0 +1,105 @@
+/*-
+ * #%L
+ * vertx-pojo-mapper-common-test
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.testdatastore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.SimpleMapper;
+import de.braintags.vertx.jomnigate.util.QueryHelper;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+
+/**
+ * Compares the sequential creation of pojos by {@link QueryHelper#queryResultToList(IQueryResult, io.vertx.core.Handler)}
+ * with {@link IQueryResult#toList(int, io.vertx.core.Handler)} for different values of concurrency. The benchmark is
+ * not part of {@link AllTestsCommon}, it is executed against the datastore, which is defined by the system properties
+ * of the test environment, like for MongoDb or MySql
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class PerfQueryResultToList extends DatastoreBaseTest {
+  private static final io.vertx.core.logging.Logger LOGGER = io.vertx.core.logging.LoggerFactory
+      .getLogger(PerfQueryResultToList.class);
+  private static final int RECORDS = 10000;
+  private static final int LOOPS = 5;
+  private static final int[] CONCURRENCIES = { 1, 8, 32, 128 };
+
+  @Test
+  public void benchmark(final TestContext context) {
+    // warm up
+    execute(context, 0);
+    execute(context, 8);
+
+    LOGGER.info("sequential: " + average(context, 0) + " records per second");
+    for (int concurrency : CONCURRENCIES) {
+      LOGGER.info("concurrency " + concurrency + ": " + average(context, concurrency) + " records per second");
+    }
+  }
+
+  private long average(final TestContext context, final int concurrency) {
+    long time = 0;
+    for (int i = 0; i < LOOPS; i++) {
+      time += execute(context, concurrency);
+    }
+    return RECORDS * LOOPS * 1000L / Math.max(time, 1);
+  }
+
+  /**
+   * Executes the query and creates the pojos. A concurrency of 0 uses the sequential method
+   * 
+   * @return the duration of the creation of the pojos in milliseconds
+   */
+  @SuppressWarnings("unchecked")
+  private long execute(final TestContext context, final int concurrency) {
+    IQuery<SimpleMapper> q = getDataStore(context).createQuery(SimpleMapper.class);
+    IQueryResult<SimpleMapper> qr = (IQueryResult<SimpleMapper>) find(context, q, RECORDS).queryResult;
+    long[] time = new long[1];
+    Async async = context.async();
+    long start = System.currentTimeMillis();
+    if (concurrency == 0) {
+      QueryHelper.queryResultToList(qr, res -> handleResult(context, async, res.failed() ? res.cause() : null, start,
+          time));
+    } else {
+      qr.toList(concurrency, res -> handleResult(context, async, res.failed() ? res.cause() : null, start, time));
+    }
+    async.await();
+    return time[0];
+  }
+
+  private void handleResult(final TestContext context, final Async async, final Throwable cause, final long start,
+      final long[] time) {
+    time[0] = System.currentTimeMillis() - start;
+    if (cause != null) {
+      context.fail(cause);
+    }
+    async.complete();
+  }
+
+  @BeforeClass
+  public static void beforeClass(final TestContext context) {
+    clearTable(context, SimpleMapper.class);
+    List<SimpleMapper> records = new ArrayList<>();
+    for (int i = 0; i < RECORDS; i++) {
+      records.add(new SimpleMapper("name " + i, "second " + i));
+    }
+    saveRecords(context, records);
+  }
+
+}
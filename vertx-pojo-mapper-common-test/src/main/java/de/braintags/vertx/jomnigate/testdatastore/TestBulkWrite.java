@@ -0,0 +1,231 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common-test
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.testdatastore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Test;
+
+import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
+import de.braintags.vertx.jomnigate.dataaccess.write.IWrite;
+import de.braintags.vertx.jomnigate.dataaccess.write.IWriteEntry;
+import de.braintags.vertx.jomnigate.dataaccess.write.IWriteResult;
+import de.braintags.vertx.jomnigate.dataaccess.write.WriteAction;
+import de.braintags.vertx.jomnigate.exception.DuplicateKeyException;
+import de.braintags.vertx.jomnigate.init.ObserverDefinition;
+import de.braintags.vertx.jomnigate.init.ObserverMapperSettings;
+import de.braintags.vertx.jomnigate.mapping.impl.keygen.DebugGenerator;
+import de.braintags.vertx.jomnigate.observer.ObserverEventType;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.KeyGeneratorMapperDebugGenerator;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.MiniMapperIndexUnique;
+import de.braintags.vertx.jomnigate.testdatastore.observer.QueryCountObserver;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+
+/**
+ * Tests the bulk writes of the MongoDataStore, which are split into chunks and executed ordered or unordered,
+ * depending on the properties of the datastore. Other datastores are skipped
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class TestBulkWrite extends DatastoreBaseTest {
+  private static final String BULK_CHUNK_SIZE = "bulkChunkSize";
+  private static final String BULK_ORDERED = "bulkOrdered";
+
+  private JsonObject originalProperties;
+
+  @After
+  public void restoreProperties(final TestContext context) {
+    if (originalProperties != null) {
+      JsonObject properties = getDataStore(context).getProperties();
+      properties.remove(BULK_CHUNK_SIZE);
+      properties.remove(BULK_ORDERED);
+      properties.mergeIn(originalProperties);
+      originalProperties = null;
+    }
+  }
+
+  /**
+   * Duplicate ids of an unordered write are replaced by new keys, while the other instances of the chunk are written
+   * 
+   * @param context
+   */
+  @Test
+  public void testKeyExistsUnordered(final TestContext context) {
+    if (!isMongo(context)) {
+      return;
+    }
+    setBulkProperties(context, 2, false);
+    checkKeyExistsInChunks(context, 1);
+  }
+
+  /**
+   * Duplicate ids inside and at the start of a chunk of an ordered write are replaced by new keys and the following
+   * chunks are written
+   * 
+   * @param context
+   */
+  @Test
+  public void testKeyExistsOrderedMultiChunk(final TestContext context) {
+    if (!isMongo(context)) {
+      return;
+    }
+    setBulkProperties(context, 2, true);
+    checkKeyExistsInChunks(context, 2);
+  }
+
+  /**
+   * An instance of an unordered write, which can't be written cause of a unique index, is reported as FAILED, the
+   * other instances are written. After save observers are not executed for the failed instance
+   * 
+   * @param context
+   */
+  @Test
+  public void testUnorderedFailed(final TestContext context) {
+    if (!isMongo(context)) {
+      return;
+    }
+    setBulkProperties(context, 2, false);
+    clearTable(context, MiniMapperIndexUnique.class);
+    saveRecord(context, new MiniMapperIndexUnique("duplicate"));
+
+    ObserverDefinition<QueryCountObserver> os = new ObserverDefinition<>(QueryCountObserver.class);
+    os.getMapperSettings().add(new ObserverMapperSettings(MiniMapperIndexUnique.class.getName()));
+    os.getEventTypeList().add(ObserverEventType.AFTER_INSERT);
+    getDataStore(context).getSettings().getObserverSettings().add(os);
+    getDataStore(context).getMapperFactory().reset();
+    try {
+      QueryCountObserver.count.set(0);
+      List<MiniMapperIndexUnique> records = Arrays.asList(new MiniMapperIndexUnique("first"),
+          new MiniMapperIndexUnique("duplicate"), new MiniMapperIndexUnique("second"));
+      IWriteResult result = save(context, records, null);
+      context.assertEquals(3, result.size());
+      Iterator<IWriteEntry> entries = result.iterator();
+      context.assertEquals(WriteAction.INSERT, entries.next().getAction());
+      IWriteEntry failed = entries.next();
+      context.assertEquals(WriteAction.FAILED, failed.getAction());
+      context.assertTrue(failed.getFailure() instanceof DuplicateKeyException, String.valueOf(failed.getFailure()));
+      context.assertEquals(WriteAction.INSERT, entries.next().getAction());
+      context.assertEquals(2, QueryCountObserver.count.get(), "AFTER_INSERT must not be executed for failed instance");
+      find(context, getDataStore(context).createQuery(MiniMapperIndexUnique.class), 3);
+    } finally {
+      getDataStore(context).getSettings().getObserverSettings().reset();
+      getDataStore(context).getMapperFactory().reset();
+    }
+  }
+
+  /**
+   * An update by a query, which violates a unique index, is reported as FAILED by an unordered write, a following
+   * update by query is executed
+   * 
+   * @param context
+   */
+  @Test
+  public void testQueryUpdateFailed(final TestContext context) {
+    if (!isMongo(context)) {
+      return;
+    }
+    setBulkProperties(context, 2, false);
+    clearTable(context, MiniMapperIndexUnique.class);
+    MiniMapperIndexUnique record = new MiniMapperIndexUnique("record");
+    saveRecords(context, Arrays.asList(record, new MiniMapperIndexUnique("duplicate")));
+
+    record.name = "duplicate";
+    IWriteResult result = save(context, Arrays.asList(record), createNameQuery(context, "record"));
+    IWriteEntry entry = result.iterator().next();
+    context.assertEquals(WriteAction.FAILED, entry.getAction());
+    context.assertTrue(entry.getFailure() instanceof DuplicateKeyException, String.valueOf(entry.getFailure()));
+
+    record.name = "updated";
+    result = save(context, Arrays.asList(record), createNameQuery(context, "record"));
+    context.assertEquals(WriteAction.UPDATE, result.iterator().next().getAction());
+    find(context, createNameQuery(context, "updated"), 1);
+  }
+
+  private void checkKeyExistsInChunks(final TestContext context, final int existing) {
+    clearTable(context, KeyGeneratorMapperDebugGenerator.class);
+    DebugGenerator gen = (DebugGenerator) getDataStore(context).getKeyGenerator(DebugGenerator.NAME);
+    gen.resetCounter();
+    for (int i = 0; i < existing; i++) {
+      KeyGeneratorMapperDebugGenerator km = new KeyGeneratorMapperDebugGenerator();
+      km.name = "existing" + i;
+      saveRecord(context, km);
+    }
+    gen.resetCounter();
+
+    List<KeyGeneratorMapperDebugGenerator> records = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      KeyGeneratorMapperDebugGenerator km = new KeyGeneratorMapperDebugGenerator();
+      km.name = "batch" + i;
+      records.add(km);
+    }
+    ResultContainer resultContainer = saveRecords(context, records);
+    for (IWriteEntry entry : resultContainer.writeResult) {
+      context.assertEquals(WriteAction.INSERT, entry.getAction());
+    }
+    Set<String> ids = new HashSet<>();
+    records.forEach(km -> ids.add(km.id));
+    context.assertEquals(5, ids.size(), "ids are not unique: " + ids);
+    for (int i = 1; i <= existing; i++) {
+      context.assertFalse(ids.contains(String.valueOf(i)), "an existing id was used again: " + ids);
+    }
+    find(context, getDataStore(context).createQuery(KeyGeneratorMapperDebugGenerator.class), 5 + existing);
+  }
+
+  private IQuery<MiniMapperIndexUnique> createNameQuery(final TestContext context, final String name) {
+    IQuery<MiniMapperIndexUnique> query = getDataStore(context).createQuery(MiniMapperIndexUnique.class);
+    query.setSearchCondition(ISearchCondition.isEqual("name", name));
+    return query;
+  }
+
+  private IWriteResult save(final TestContext context, final List<MiniMapperIndexUnique> records,
+      final IQuery<MiniMapperIndexUnique> query) {
+    IWrite<MiniMapperIndexUnique> write = getDataStore(context).createWrite(MiniMapperIndexUnique.class);
+    records.forEach(write::add);
+    write.setQuery(query);
+    IWriteResult[] result = new IWriteResult[1];
+    Async async = context.async();
+    write.save(context.asyncAssertSuccess(wr -> {
+      result[0] = wr;
+      async.complete();
+    }));
+    async.await();
+    return result[0];
+  }
+
+  private void setBulkProperties(final TestContext context, final int chunkSize, final boolean ordered) {
+    JsonObject properties = getDataStore(context).getProperties();
+    originalProperties = new JsonObject();
+    if (properties.containsKey(BULK_CHUNK_SIZE)) {
+      originalProperties.put(BULK_CHUNK_SIZE, properties.getValue(BULK_CHUNK_SIZE));
+    }
+    if (properties.containsKey(BULK_ORDERED)) {
+      originalProperties.put(BULK_ORDERED, properties.getValue(BULK_ORDERED));
+    }
+    properties.put(BULK_CHUNK_SIZE, chunkSize).put(BULK_ORDERED, ordered);
+  }
+
+  private boolean isMongo(final TestContext context) {
+    return getDataStore(context).getClass().getName().contains("Mongo");
+  }
+
+}
@@ -53,6 +53,28 @@ public class TestEncoder extends DatastoreBaseTest {
 
   }
 
+  @Test
+  public void testNoReEncoding(TestContext context) {
+    String pw = "gghhgg";
+    checkEncoderDefined(context);
+    clearTable(context, MiniMapperEncoded.class.getSimpleName());
+    MiniMapperEncoded sm = new MiniMapperEncoded();
+    sm.password = pw;
+    saveRecord(context, sm);
+    String encoded = sm.password;
+    saveRecord(context, sm);
+    context.assertEquals(encoded, sm.password, "an encoded value must not be encoded again");
+
+    IQuery<MiniMapperEncoded> query = getDataStore(context).createQuery(MiniMapperEncoded.class);
+    MiniMapperEncoded found = (MiniMapperEncoded) findFirst(context, query);
+    saveRecord(context, found);
+    context.assertEquals(encoded, found.password, "a loaded value must not be encoded again");
+
+    found.password = pw;
+    saveRecord(context, found);
+    context.assertNotEquals(pw, found.password);
+  }
+
   @Test
   public void testWrongFieldClass(TestContext context) {
     checkEncoderDefined(context);
@@ -0,0 +1,175 @@
+/*-
+ * #%L
+ * vertx-pojo-mapper-common-test
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.testdatastore;
+
+import org.junit.Test;
+
+import de.braintags.vertx.jomnigate.dataaccess.cache.IEntityCache;
+import de.braintags.vertx.jomnigate.dataaccess.delete.IDelete;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.dataaccess.write.WriteAction;
+import de.braintags.vertx.jomnigate.init.ObserverDefinition;
+import de.braintags.vertx.jomnigate.init.ObserverMapperSettings;
+import de.braintags.vertx.jomnigate.mapping.IMapper;
+import de.braintags.vertx.jomnigate.observer.ObserverEventType;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.CachedMapper;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.MiniMapper;
+import de.braintags.vertx.jomnigate.testdatastore.observer.QueryCountObserver;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.TestContext;
+
+/**
+ * Tests for the {@link IEntityCache}
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class TestEntityCache extends DatastoreBaseTest {
+
+  @Test
+  public void testCacheHit(TestContext context) {
+    clearTable(context, CachedMapper.class);
+    CachedMapper record = new CachedMapper("cached");
+    saveRecord(context, record);
+    IEntityCache cache = getDataStore(context).getEntityCache();
+
+    long misses = cache.getMissCount();
+    CachedMapper first = findRecordByID(context, CachedMapper.class, record.id);
+    context.assertEquals(misses + 1, cache.getMissCount());
+    long hits = cache.getHitCount();
+    CachedMapper second = findRecordByID(context, CachedMapper.class, record.id);
+    context.assertEquals(hits + 1, cache.getHitCount());
+    context.assertFalse(first == second, "expected a new instance for each hit");
+    context.assertEquals(first.name, second.name);
+  }
+
+  @Test
+  public void testInvalidateBySave(TestContext context) {
+    clearTable(context, CachedMapper.class);
+    CachedMapper record = new CachedMapper("cached");
+    saveRecord(context, record);
+    findRecordByID(context, CachedMapper.class, record.id);
+
+    record.name = "changed";
+    saveRecord(context, record);
+    CachedMapper loaded = findRecordByID(context, CachedMapper.class, record.id);
+    context.assertEquals("changed", loaded.name);
+  }
+
+  /**
+   * Each hit must create a new instance with its own snapshot, so that the change of one caller is neither seen by
+   * other callers nor skipped as unchanged, when another caller saved its instance before
+   */
+  @Test
+  public void testNewInstanceForEachHit(TestContext context) {
+    clearTable(context, CachedMapper.class);
+    CachedMapper record = new CachedMapper("cached");
+    saveRecord(context, record);
+    findRecordByID(context, CachedMapper.class, record.id);
+    CachedMapper first = findRecordByID(context, CachedMapper.class, record.id);
+    CachedMapper second = findRecordByID(context, CachedMapper.class, record.id);
+    context.assertFalse(first == second, "expected a new instance for each hit");
+
+    first.name = "first";
+    context.assertEquals("cached", second.name, "unsaved change is seen by another caller");
+    context.assertEquals("cached", findRecordByID(context, CachedMapper.class, record.id).name,
+        "unsaved change is seen by the cache");
+
+    ResultContainer resultContainer = saveRecord(context, first);
+    context.assertEquals(WriteAction.UPDATE, resultContainer.writeResult.iterator().next().getAction());
+    second.name = "second";
+    resultContainer = saveRecord(context, second);
+    context.assertEquals(WriteAction.UPDATE, resultContainer.writeResult.iterator().next().getAction());
+    context.assertEquals("second", findRecordByID(context, CachedMapper.class, record.id).name);
+  }
+
+  /**
+   * The observers of AFTER_LOAD must be executed for the instance created by a hit like for a loaded instance
+   */
+  @Test
+  public void testAfterLoadForHit(TestContext context) {
+    clearTable(context, CachedMapper.class);
+    CachedMapper record = new CachedMapper("cached");
+    saveRecord(context, record);
+    ObserverDefinition<QueryCountObserver> os = new ObserverDefinition<>(QueryCountObserver.class);
+    os.getMapperSettings().add(new ObserverMapperSettings(CachedMapper.class.getName()));
+    os.getEventTypeList().add(ObserverEventType.AFTER_LOAD);
+    getDataStore(context).getSettings().getObserverSettings().add(os);
+    getDataStore(context).getMapperFactory().reset();
+    try {
+      QueryCountObserver.count.set(0);
+      findRecordByID(context, CachedMapper.class, record.id);
+      long hits = getDataStore(context).getEntityCache().getHitCount();
+      findRecordByID(context, CachedMapper.class, record.id);
+      context.assertEquals(hits + 1, getDataStore(context).getEntityCache().getHitCount());
+      context.assertEquals(2, QueryCountObserver.count.get(), "AFTER_LOAD not executed for each instance");
+    } finally {
+      getDataStore(context).getSettings().getObserverSettings().reset();
+      getDataStore(context).getMapperFactory().reset();
+    }
+  }
+
+  @Test
+  public void testInvalidateByDelete(TestContext context) {
+    clearTable(context, CachedMapper.class);
+    CachedMapper record = new CachedMapper("cached");
+    saveRecord(context, record);
+    findRecordByID(context, CachedMapper.class, record.id);
+
+    IDelete<CachedMapper> delete = getDataStore(context).createDelete(CachedMapper.class);
+    delete.add(record);
+    IQuery<CachedMapper> query = getDataStore(context).createQuery(CachedMapper.class);
+    delete(context, delete, query, 0);
+    context.assertNull(findRecordByID(context, CachedMapper.class, record.id));
+  }
+
+  /**
+   * A read, which started before an invalidation, must not put the outdated object back into the cache
+   */
+  @Test
+  public void testStalePutAfterInvalidation(TestContext context) {
+    IEntityCache cache = getDataStore(context).getEntityCache();
+    IMapper<CachedMapper> mapper = getDataStore(context).getMapperFactory().getMapper(CachedMapper.class);
+    String id = "staleId";
+    JsonObject stored = new JsonObject().put("name", "stale");
+    long generation = cache.getGeneration(mapper);
+    cache.invalidate(mapper, id);
+    cache.put(mapper, id, stored, generation);
+    context.assertNull(cache.get(mapper, id), "outdated object was cached");
+
+    cache.put(mapper, id, stored, cache.getGeneration(mapper));
+    context.assertTrue(cache.get(mapper, id) == stored, "current object was not cached");
+    cache.invalidate(mapper, id);
+  }
+
+
+  @Test
+  public void testEviction(TestContext context) {
+    clearTable(context, CachedMapper.class);
+    IEntityCache cache = getDataStore(context).getEntityCache();
+    long evictions = cache.getEvictionCount();
+    for (int i = 0; i < 3; i++) {
+      CachedMapper record = new CachedMapper("cached " + i);
+      saveRecord(context, record);
+      findRecordByID(context, CachedMapper.class, record.id);
+    }
+    context.assertEquals(evictions + 1, cache.getEvictionCount());
+  }
+
+  @Test
+  public void testNotCached(TestContext context) {
+    IEntityCache cache = getDataStore(context).getEntityCache();
+    context.assertFalse(cache.isCacheable(getDataStore(context).getMapperFactory().getMapper(MiniMapper.class)));
+  }
+
+}
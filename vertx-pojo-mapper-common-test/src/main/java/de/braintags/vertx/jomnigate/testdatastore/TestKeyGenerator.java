@@ -12,17 +12,29 @@
  */
 package de.braintags.vertx.jomnigate.testdatastore;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Test;
 
 import de.braintags.vertx.jomnigate.dataaccess.write.IWriteEntry;
 import de.braintags.vertx.jomnigate.dataaccess.write.WriteAction;
 import de.braintags.vertx.jomnigate.mapping.IKeyGenerator;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
+import de.braintags.vertx.jomnigate.mapping.impl.keygen.BlockKeyGenerator;
 import de.braintags.vertx.jomnigate.mapping.impl.keygen.DebugGenerator;
 import de.braintags.vertx.jomnigate.mapping.impl.keygen.DefaultKeyGenerator;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.KeyGeneratorMapper;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.KeyGeneratorMapperDebugGenerator;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.NoKeyGeneratorMapper;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 
 /**
@@ -143,6 +155,86 @@ public class TestKeyGenerator extends DatastoreBaseTest {
     context.assertEquals(id, 2, "expected first id as 2 cause of existing record");
   }
 
+  /**
+   * A duplicate id inside a write of several new instances must be replaced by a new key
+   * 
+   * @param context
+   */
+  @Test
+  public void testKeyExistsInBatch(final TestContext context) {
+    clearTable(context, "KeyGeneratorMapperDebugGenerator");
+    DebugGenerator gen = (DebugGenerator) getDataStore(context).getKeyGenerator(DebugGenerator.NAME);
+    gen.resetCounter();
+    doInsert(context, "existing");
+    gen.resetCounter();
+
+    List<KeyGeneratorMapperDebugGenerator> records = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      KeyGeneratorMapperDebugGenerator km = new KeyGeneratorMapperDebugGenerator();
+      km.name = "batch" + i;
+      records.add(km);
+    }
+    ResultContainer resultContainer = saveRecords(context, records);
+    Set<String> ids = new HashSet<>();
+    for (IWriteEntry entry : resultContainer.writeResult) {
+      context.assertEquals(WriteAction.INSERT, entry.getAction());
+    }
+    records.forEach(km -> ids.add(km.id));
+    context.assertEquals(3, ids.size(), "ids are not unique: " + ids);
+    context.assertFalse(ids.contains("1"), "the existing id was used again");
+    find(context, getDataStore(context).createQuery(KeyGeneratorMapperDebugGenerator.class), 4);
+  }
+
+  /**
+   * Several verticles request single keys and blocks of keys concurrently, all keys must be unique. Requests, which
+   * waited for a new block, must be answered on the context of the requesting verticle
+   * 
+   * @param context
+   */
+  @Test
+  public void testBlockKeyGeneratorConcurrent(final TestContext context) {
+    TestHelper.startKeyGeneratorVerticle(context);
+    BlockKeyGenerator gen = (BlockKeyGenerator) getDataStore(context).getKeyGenerator(BlockKeyGenerator.NAME);
+    IMapper mapper = getDataStore(context).getMapperFactory().getMapper(KeyGeneratorMapper.class);
+    TestContext testContext = context;
+    int verticles = 4;
+    int singleKeys = 500;
+    int bulkKeys = 1000;
+    Set<Object> keys = ConcurrentHashMap.newKeySet();
+    AtomicInteger generated = new AtomicInteger();
+    AtomicInteger openRequests = new AtomicInteger(verticles * (singleKeys + 1));
+    Async async = context.async();
+    for (int v = 0; v < verticles; v++) {
+      getDataStore(context).getVertx().deployVerticle(new AbstractVerticle() {
+        @Override
+        public void start() {
+          Context verticleContext = vertx.getOrCreateContext();
+          for (int i = 0; i < singleKeys; i++) {
+            gen.generateKey(mapper, testContext.asyncAssertSuccess(key -> {
+              testContext.assertTrue(Vertx.currentContext() == verticleContext, "answered on a foreign context");
+              keys.add(key.getKey());
+              generated.incrementAndGet();
+              if (openRequests.decrementAndGet() == 0) {
+                async.complete();
+              }
+            }));
+          }
+          gen.generateKeys(mapper, bulkKeys, testContext.asyncAssertSuccess(list -> {
+            testContext.assertTrue(Vertx.currentContext() == verticleContext, "answered on a foreign context");
+            list.forEach(key -> keys.add(key.getKey()));
+            generated.addAndGet(list.size());
+            if (openRequests.decrementAndGet() == 0) {
+              async.complete();
+            }
+          }));
+        }
+      });
+    }
+    async.await();
+    context.assertEquals(verticles * (singleKeys + bulkKeys), generated.get());
+    context.assertEquals(generated.get(), keys.size(), "generated keys are not unique");
+  }
+
   /**
    * @param context
    * @return
@@ -21,7 +21,12 @@ import static org.junit.Assert.fail;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -33,6 +38,7 @@ import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
 
+import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.annotation.Entity;
 import de.braintags.vertx.jomnigate.annotation.Index;
 import de.braintags.vertx.jomnigate.annotation.IndexOptions;
@@ -47,6 +53,8 @@ import de.braintags.vertx.jomnigate.mapping.IMethodProxy;
 import de.braintags.vertx.jomnigate.mapping.IObjectFactory;
 import de.braintags.vertx.jomnigate.mapping.IProperty;
 import de.braintags.vertx.jomnigate.mapping.IPropertyMapper;
+import de.braintags.vertx.jomnigate.mapping.IPropertyMapperFactory;
+import de.braintags.vertx.jomnigate.mapping.impl.AbstractMapperFactory;
 import de.braintags.vertx.jomnigate.mapping.impl.ParametrizedMappedField;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.Animal;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.MiniMapper;
@@ -54,7 +62,12 @@ import de.braintags.vertx.jomnigate.testdatastore.mapper.MiniMapper_BeanMethodWi
 import de.braintags.vertx.jomnigate.testdatastore.mapper.Person;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.PolyMapper;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.typehandler.PrivateIdMapper;
+import de.braintags.vertx.jomnigate.typehandler.ITypeHandlerFactory;
+import de.braintags.vertx.jomnigate.util.EntityScanner;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
 import io.vertx.core.json.Json;
+import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 
 /**
@@ -372,6 +385,124 @@ public class TestMapping extends DatastoreBaseTest {
     Assert.assertTrue("this mapper has referenced fields", mapperDef.hasReferencedFields());
   }
 
+  @Test
+  public void testGetMapperAsync(final TestContext context) {
+    Async async = context.async();
+    getDataStore(context).getMapperFactory().getMapperAsync(Person.class, result -> {
+      if (result.failed()) {
+        context.fail(result.cause());
+      } else {
+        context.assertTrue(result.result() == getDataStore(context).getMapperFactory().getMapper(Person.class),
+            "the same instance must be returned");
+        async.complete();
+      }
+    });
+  }
+
+  @Test
+  public void testGetMapperAsyncNoEntity(final TestContext context) {
+    Async async = context.async();
+    getDataStore(context).getMapperFactory().getMapperAsync(String.class, result -> {
+      context.assertTrue(result.failed());
+      context.assertTrue(result.cause() instanceof UnsupportedOperationException);
+      async.complete();
+    });
+  }
+
+  @Test
+  public void testConcurrentGetMapper(final TestContext context) {
+    CountingMapperFactory mapperFactory = new CountingMapperFactory(getDataStore(context));
+    Vertx vertx = getDataStore(context).getVertx();
+    Queue<IMapper<MiniMapper>> mappers = new ConcurrentLinkedQueue<>();
+    Async async = context.async(8);
+    for (int i = 0; i < 8; i++) {
+      // every call of getOrCreateContext outside of vertx creates a new event loop context
+      Context requestContext = vertx.getOrCreateContext();
+      boolean sync = i % 2 == 0;
+      requestContext.runOnContext(v -> {
+        if (sync) {
+          mappers.add(mapperFactory.getMapper(MiniMapper.class));
+          async.countDown();
+        } else {
+          mapperFactory.getMapperAsync(MiniMapper.class, context.asyncAssertSuccess(mapper -> {
+            context.assertTrue(Vertx.currentContext() == requestContext, "not informed on the requesting context");
+            mappers.add(mapper);
+            async.countDown();
+          }));
+        }
+      });
+    }
+    async.await();
+    IMapper<MiniMapper> mapper = mapperFactory.getMapper(MiniMapper.class);
+    context.assertEquals(8, mappers.size());
+    for (IMapper<MiniMapper> requested : mappers) {
+      context.assertTrue(mapper == requested, "the same instance must be returned");
+    }
+    context.assertEquals(1, mapperFactory.created.get(), "the mapper must be created only once");
+  }
+
+  @Test
+  public void testWarmUp(final TestContext context) {
+    CountingMapperFactory mapperFactory = new CountingMapperFactory(getDataStore(context));
+    Async async = context.async();
+    mapperFactory.warmUp(Arrays.asList(MiniMapper.class, Person.class), result -> {
+      if (result.failed()) {
+        context.fail(result.cause());
+      } else {
+        context.assertEquals(2, mapperFactory.created.get());
+        context.assertNotNull(mapperFactory.getMapper(MiniMapper.class));
+        context.assertEquals(2, mapperFactory.created.get(), "a warmed up mapper must not be created again");
+        async.complete();
+      }
+    });
+  }
+
+  @Test
+  public void testEntityScanner(final TestContext context) {
+    List<Class<?>> entities = EntityScanner.scan(getClass().getClassLoader(), Person.class.getPackage().getName());
+    context.assertTrue(entities.contains(Person.class));
+    context.assertTrue(entities.contains(MiniMapper.class));
+    context.assertTrue(entities.contains(PrivateIdMapper.class), "subpackages must be scanned");
+    context.assertFalse(entities.contains(Animal.class), "a class without annotation Entity was found");
+    context.assertEquals(entities.size(), new HashSet<>(entities).size(), "classes must be found only once");
+    context.assertTrue(EntityScanner.scan(getClass().getClassLoader(), "de.braintags.notexisting").isEmpty());
+  }
+
+  /**
+   * A mapper factory, which is used instead of the factory of the datastore, so that tests of the mapper registry don't
+   * drop the mappers of the datastore. The mappers are taken from the factory of the datastore, their creations are
+   * counted
+   */
+  private static class CountingMapperFactory extends AbstractMapperFactory {
+    private final AtomicInteger created = new AtomicInteger();
+
+    CountingMapperFactory(final IDataStore<?, ?> dataStore) {
+      super(dataStore);
+    }
+
+    @Override
+    protected <T> IMapper<T> createMapper(final Class<T> mapperClass) {
+      created.incrementAndGet();
+      try {
+        // keeps the creation pending for a moment, so that concurrent requests find it
+        Thread.sleep(20);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return getDataStore().getMapperFactory().getMapper(mapperClass);
+    }
+
+    @Override
+    public ITypeHandlerFactory getTypeHandlerFactory() {
+      return getDataStore().getMapperFactory().getTypeHandlerFactory();
+    }
+
+    @Override
+    public IPropertyMapperFactory getPropertyMapperFactory() {
+      return getDataStore().getMapperFactory().getPropertyMapperFactory();
+    }
+  }
+
   /**
    * @param mapper
    */
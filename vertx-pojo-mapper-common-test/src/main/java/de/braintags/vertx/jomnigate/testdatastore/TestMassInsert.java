@@ -13,18 +13,23 @@
 package de.braintags.vertx.jomnigate.testdatastore;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.Test;
 
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
 import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
+import de.braintags.vertx.jomnigate.dataaccess.write.IWriteEntry;
 import de.braintags.vertx.jomnigate.dataaccess.write.IWriteResult;
+import de.braintags.vertx.jomnigate.dataaccess.write.WriteAction;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.MiniNumberMapper;
 import io.vertx.ext.unit.TestContext;
 
 /**
- * 
+ * Stores a larger number of records by one write. Checks that one {@link IWriteEntry} with an own id per record is
+ * returned and logs the duration, so that the throughput of batched inserts can be compared
  * 
  * @author Michael Remme
  * 
@@ -42,7 +47,9 @@ public class TestMassInsert extends DatastoreBaseTest {
     for (int i = 0; i < LOOP; i++) {
       mapperList.add(new MiniNumberMapper("looper " + i, i));
     }
+    long start = System.currentTimeMillis();
     ResultContainer resultContainer = saveRecords(context, mapperList, 0);
+    LOGGER.info("inserted " + LOOP + " records in " + (System.currentTimeMillis() - start) + " ms");
 
     IWriteResult wr = resultContainer.writeResult;
     if (LOOP != wr.size()) {
@@ -54,6 +61,17 @@ public class TestMassInsert extends DatastoreBaseTest {
       context.assertEquals(LOOP, resultContainer.writeResult.size());
       context.fail("The write result hasn't got the right content, the records in the datastore are correct");
     }
+    Set<Object> ids = new HashSet<>();
+    for (IWriteEntry entry : wr) {
+      context.assertEquals(WriteAction.INSERT, entry.getAction());
+      context.assertNotNull(entry.getId());
+      context.assertTrue(ids.add(entry.getId()), "duplicate id in write result: " + entry.getId());
+    }
+    for (MiniNumberMapper mapper : mapperList) {
+      context.assertNotNull(mapper.id, "id was not set into the instance");
+    }
+    IQuery<MiniNumberMapper> query = getDataStore(context).createQuery(MiniNumberMapper.class);
+    find(context, query, LOOP);
 
   }
 
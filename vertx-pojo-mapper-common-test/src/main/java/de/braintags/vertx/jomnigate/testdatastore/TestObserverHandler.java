@@ -13,6 +13,7 @@
 package de.braintags.vertx.jomnigate.testdatastore;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Test;
@@ -23,15 +24,21 @@ import de.braintags.vertx.jomnigate.init.DataStoreSettings;
 import de.braintags.vertx.jomnigate.init.ObserverDefinition;
 import de.braintags.vertx.jomnigate.init.ObserverMapperSettings;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
+import de.braintags.vertx.jomnigate.observer.IObserver;
+import de.braintags.vertx.jomnigate.observer.IObserverHandler;
 import de.braintags.vertx.jomnigate.observer.ObserverEventType;
+import de.braintags.vertx.jomnigate.observer.impl.handler.AbstractEventHandler;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.Person;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.SimpleMapper;
 import de.braintags.vertx.jomnigate.testdatastore.observer.AfterMappingObserver;
+import de.braintags.vertx.jomnigate.testdatastore.observer.BatchObserver;
 import de.braintags.vertx.jomnigate.testdatastore.observer.BeforeDeleteObserver;
 import de.braintags.vertx.jomnigate.testdatastore.observer.BeforeLoadObserver;
 import de.braintags.vertx.jomnigate.testdatastore.observer.BeforeMappingObserver;
 import de.braintags.vertx.jomnigate.testdatastore.observer.BeforeSaveObserver;
+import de.braintags.vertx.jomnigate.testdatastore.observer.QueryCountObserver;
 import de.braintags.vertx.jomnigate.testdatastore.observer.SimpleMapperObserver;
+import io.vertx.core.Future;
 import io.vertx.ext.unit.TestContext;
 
 /**
@@ -320,4 +327,247 @@ public class TestObserverHandler extends AbstractObserverTest {
     }
   }
 
+  /**
+   * An {@link BatchObserver} must receive all loaded records in one call
+   * 
+   * @param context
+   */
+  @Test
+  public void test_AfterLoad_Batch(final TestContext context) {
+    DataStoreSettings settings = getDataStore(context).getSettings();
+    ObserverDefinition<BatchObserver> os = new ObserverDefinition<>(BatchObserver.class);
+    os.getEventTypeList().add(ObserverEventType.AFTER_LOAD);
+    settings.getObserverSettings().add(os);
+    clearTable(context, SimpleMapper.class);
+    List<SimpleMapper> selection = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      SimpleMapper sm = new SimpleMapper("testname", "nix");
+      sm.intValue = -1;
+      selection.add(sm);
+    }
+    saveRecords(context, selection);
+    BatchObserver.reset();
+
+    IQuery<SimpleMapper> query = getDataStore(context).createQuery(SimpleMapper.class);
+    List<SimpleMapper> sr = findAll(context, query);
+    context.assertEquals(selection.size(), sr.size(), "number of found records do not have the correct size");
+    context.assertEquals(1, BatchObserver.batchCalls, "records must be handled in one call");
+    context.assertEquals(0, BatchObserver.singleCalls, "records must not be handled one by one");
+    context.assertEquals(selection.size(), BatchObserver.handledEvents, "wrong number of handled records");
+    for (SimpleMapper sm : sr) {
+      context.assertEquals(1, sm.intValue, "Observer did not set number correct");
+    }
+  }
+
+  /**
+   * An {@link BatchObserver} must receive all inserted records in one call
+   * 
+   * @param context
+   */
+  @Test
+  public void test_AfterInsert_Batch(final TestContext context) {
+    addObserver(context, BatchObserver.class, ObserverEventType.AFTER_INSERT);
+    clearTable(context, SimpleMapper.class);
+    BatchObserver.reset();
+    List<SimpleMapper> selection = createSelection(5);
+    saveRecords(context, selection);
+    context.assertEquals(1, BatchObserver.batchCalls, "records must be handled in one call");
+    context.assertEquals(0, BatchObserver.singleCalls, "records must not be handled one by one");
+    context.assertEquals(selection.size(), BatchObserver.handledEvents, "wrong number of handled records");
+    for (SimpleMapper sm : selection) {
+      context.assertEquals(1, sm.intValue, "Observer did not set number correct");
+    }
+  }
+
+  /**
+   * An {@link BatchObserver} must receive all deleted records in one call
+   * 
+   * @param context
+   */
+  @Test
+  public void test_AfterDelete_Batch(final TestContext context) {
+    addObserver(context, BatchObserver.class, ObserverEventType.AFTER_DELETE);
+    clearTable(context, SimpleMapper.class);
+    List<SimpleMapper> selection = createSelection(3);
+    saveRecords(context, selection);
+    BatchObserver.reset();
+
+    IDelete<SimpleMapper> del = getDataStore(context).createDelete(SimpleMapper.class);
+    selection.forEach(del::add);
+    delete(context, del, getDataStore(context).createQuery(SimpleMapper.class), 0);
+    context.assertEquals(1, BatchObserver.batchCalls, "records must be handled in one call");
+    context.assertEquals(0, BatchObserver.singleCalls, "records must not be handled one by one");
+    context.assertEquals(selection.size(), BatchObserver.handledEvents, "wrong number of handled records");
+  }
+
+  /**
+   * The event BEFORE_LOAD concerns no entity and must be handed to an {@link BatchObserver} by handleEvent
+   * 
+   * @param context
+   */
+  @Test
+  public void test_BeforeLoad_Batch(final TestContext context) {
+    addObserver(context, BatchObserver.class, ObserverEventType.BEFORE_LOAD);
+    BatchObserver.reset();
+    findAll(context, getDataStore(context).createQuery(SimpleMapper.class));
+    context.assertEquals(0, BatchObserver.batchCalls, "BEFORE_LOAD must not be handled as batch");
+    context.assertEquals(1, BatchObserver.singleCalls, "BEFORE_LOAD must be handled once");
+  }
+
+  /**
+   * A batch observer and an observer, which handles each record, must both receive all events of the same access
+   * 
+   * @param context
+   */
+  @Test
+  public void test_AfterLoad_BatchAndSingle(final TestContext context) {
+    addObserver(context, BatchObserver.class, ObserverEventType.AFTER_LOAD);
+    addObserver(context, QueryCountObserver.class, ObserverEventType.AFTER_LOAD);
+    clearTable(context, SimpleMapper.class);
+    List<SimpleMapper> selection = createSelection(5);
+    saveRecords(context, selection);
+    BatchObserver.reset();
+    QueryCountObserver.count.set(0);
+
+    List<SimpleMapper> sr = findAll(context, getDataStore(context).createQuery(SimpleMapper.class));
+    context.assertEquals(selection.size(), sr.size(), "number of found records do not have the correct size");
+    context.assertEquals(1, BatchObserver.batchCalls, "records must be handled in one call");
+    context.assertEquals(0, BatchObserver.singleCalls, "records must not be handled one by one");
+    context.assertEquals(selection.size(), BatchObserver.handledEvents, "wrong number of records in batch");
+    context.assertEquals(selection.size(), QueryCountObserver.count.get(), "wrong number of single calls");
+    for (SimpleMapper sm : sr) {
+      context.assertEquals(1, sm.intValue, "Observer did not set number correct");
+    }
+  }
+
+  private void addObserver(final TestContext context, final Class<? extends IObserver> observerClass,
+      final ObserverEventType event) {
+    ObserverDefinition<?> os = new ObserverDefinition<>(observerClass);
+    os.getMapperSettings().add(new ObserverMapperSettings(SimpleMapper.class.getName()));
+    os.getEventTypeList().add(event);
+    getDataStore(context).getSettings().getObserverSettings().add(os);
+  }
+
+  private List<SimpleMapper> createSelection(final int count) {
+    List<SimpleMapper> selection = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      SimpleMapper sm = new SimpleMapper("testname", "nix");
+      sm.intValue = -1;
+      selection.add(sm);
+    }
+    return selection;
+  }
+
+  /**
+   * Definitions with the same observer class and the same properties must share one instance, definitions with
+   * different properties must get separate instances
+   * 
+   * @param context
+   */
+  @Test
+  public void test_PooledObserverIdentity(final TestContext context) {
+    DataStoreSettings settings = getDataStore(context).getSettings();
+    settings.getObserverSettings().add(createDefinition(SimpleMapper.class, ObserverEventType.AFTER_LOAD));
+    settings.getObserverSettings().add(createDefinition(Person.class, ObserverEventType.AFTER_LOAD));
+    ObserverDefinition<SimpleMapperObserver> os = createDefinition(Person.class, ObserverEventType.AFTER_DELETE);
+    os.getObserverProperties().put("key", "value");
+    settings.getObserverSettings().add(os);
+
+    IObserverHandler smHandler = getDataStore(context).getMapperFactory().getMapper(SimpleMapper.class)
+        .getObserverHandler();
+    IObserverHandler personHandler = getDataStore(context).getMapperFactory().getMapper(Person.class)
+        .getObserverHandler();
+    IObserver shared = smHandler.getObserver(ObserverEventType.AFTER_LOAD).get(0);
+    context.assertTrue(shared == personHandler.getObserver(ObserverEventType.AFTER_LOAD).get(0),
+        "observer with same properties must be shared");
+    IObserver separate = personHandler.getObserver(ObserverEventType.AFTER_DELETE).get(0);
+    context.assertFalse(shared == separate, "observer with other properties must not be shared");
+    context.assertEquals("value", separate.getObserverProperties().getProperty("key"));
+  }
+
+  /**
+   * The dispatch table must contain the observers only for the defined event types and must be built once
+   * 
+   * @param context
+   */
+  @Test
+  public void test_DispatchTable(final TestContext context) {
+    DataStoreSettings settings = getDataStore(context).getSettings();
+    ObserverDefinition<SimpleMapperObserver> os = createDefinition(SimpleMapper.class, ObserverEventType.AFTER_LOAD);
+    os.getEventTypeList().add(ObserverEventType.AFTER_INSERT);
+    settings.getObserverSettings().add(os);
+
+    IObserverHandler handler = getDataStore(context).getMapperFactory().getMapper(SimpleMapper.class)
+        .getObserverHandler();
+    for (ObserverEventType event : ObserverEventType.values()) {
+      List<IObserver> ol = handler.getObserver(event);
+      boolean defined = event == ObserverEventType.AFTER_LOAD || event == ObserverEventType.AFTER_INSERT;
+      context.assertEquals(defined ? 1 : 0, ol.size(), "wrong number of observers for event " + event);
+      context.assertTrue(ol == handler.getObserver(event), "dispatch table was built again for event " + event);
+      try {
+        ol.add(new SimpleMapperObserver());
+        context.fail("dispatch table must not be modifiable");
+      } catch (UnsupportedOperationException e) {
+        // expected
+      }
+    }
+    context.assertTrue(handler.getObserver(ObserverEventType.AFTER_LOAD).get(0) == handler
+        .getObserver(ObserverEventType.AFTER_INSERT).get(0), "one definition must create one observer");
+
+    checkObserver_AllEvents(context, getDataStore(context).getMapperFactory().getMapper(Person.class), 0);
+  }
+
+  /**
+   * A reset of the mapper factory must clear the pool, so that the observers are created again
+   * 
+   * @param context
+   */
+  @Test
+  public void test_ObserverPoolClearedOnReset(final TestContext context) {
+    ObserverDefinition<SimpleMapperObserver> os = createDefinition(SimpleMapper.class, ObserverEventType.AFTER_LOAD);
+    getDataStore(context).getSettings().getObserverSettings().add(os);
+    IObserver first = getDataStore(context).getMapperFactory().getMapper(SimpleMapper.class).getObserverHandler()
+        .getObserver(ObserverEventType.AFTER_LOAD).get(0);
+    context.assertTrue(first == getDataStore(context).getMapperFactory().getObserverPool().getObserver(os),
+        "observer is not pooled");
+
+    getDataStore(context).getMapperFactory().reset();
+    IObserver second = getDataStore(context).getMapperFactory().getMapper(SimpleMapper.class).getObserverHandler()
+        .getObserver(ObserverEventType.AFTER_LOAD).get(0);
+    context.assertFalse(first == second, "pool was not cleared by reset");
+  }
+
+  /**
+   * completeAll must skip Futures, which are null or completed already, and wait for the pending ones
+   * 
+   * @param context
+   */
+  @SuppressWarnings("rawtypes")
+  @Test
+  public void test_CompleteAll(final TestContext context) {
+    Future<Void> succeeded = Future.succeededFuture();
+    context.assertTrue(AbstractEventHandler.completeAll(Arrays.asList(null, succeeded)).succeeded(),
+        "completed Futures must give a completed result");
+
+    Future<Void> pending = Future.future();
+    Future<Void> result = AbstractEventHandler.completeAll(Arrays.asList(succeeded, null, pending));
+    context.assertFalse(result.isComplete(), "pending Future must be waited for");
+    pending.complete();
+    context.assertTrue(result.succeeded(), "result must complete with the pending Future");
+
+    Future<Void> failed = Future.failedFuture(new IllegalStateException("failed"));
+    List<Future> fl = Arrays.asList(succeeded, Future.future(), failed);
+    result = AbstractEventHandler.completeAll(fl);
+    context.assertTrue(result.failed(), "failed Future must fail the result");
+    context.assertTrue(result.cause() == failed.cause());
+  }
+
+  private ObserverDefinition<SimpleMapperObserver> createDefinition(final Class<?> mapperClass,
+      final ObserverEventType event) {
+    ObserverDefinition<SimpleMapperObserver> os = new ObserverDefinition<>(SimpleMapperObserver.class);
+    os.getMapperSettings().add(new ObserverMapperSettings(mapperClass.getName()));
+    os.getEventTypeList().add(event);
+    return os;
+  }
+
 }
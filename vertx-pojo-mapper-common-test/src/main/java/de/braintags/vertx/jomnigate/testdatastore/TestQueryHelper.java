@@ -12,9 +12,13 @@
  */
 package de.braintags.vertx.jomnigate.testdatastore;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.Test;
 
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.SimpleMapper;
 import de.braintags.vertx.jomnigate.util.QueryHelper;
 import io.vertx.ext.unit.Async;
@@ -51,4 +55,41 @@ public class TestQueryHelper extends DatastoreBaseTest {
     async.await();
   }
 
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testQueryResultToListConcurrent(TestContext context) {
+    clearTable(context, "SimpleMapper");
+    List<SimpleMapper> records = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      records.add(new SimpleMapper("name " + i, "second " + i));
+    }
+    saveRecords(context, records);
+
+    IQuery<SimpleMapper> q = getDataStore(context).createQuery(SimpleMapper.class);
+    q.addSort("name");
+    IQueryResult<SimpleMapper> sequentialResult = (IQueryResult<SimpleMapper>) find(context, q, 50).queryResult;
+    IQueryResult<SimpleMapper> concurrentResult = (IQueryResult<SimpleMapper>) find(context, q, 50).queryResult;
+
+    Async async = context.async();
+    QueryHelper.queryResultToList(sequentialResult, seqRes -> {
+      if (seqRes.failed()) {
+        context.fail(seqRes.cause());
+        async.complete();
+      } else {
+        QueryHelper.queryResultToList(concurrentResult, 8, conRes -> {
+          if (conRes.failed()) {
+            context.fail(conRes.cause());
+          } else {
+            context.assertEquals(seqRes.result().size(), conRes.result().size());
+            for (int i = 0; i < seqRes.result().size(); i++) {
+              context.assertEquals(seqRes.result().get(i), conRes.result().get(i), "order differs at " + i);
+            }
+          }
+          async.complete();
+        });
+      }
+    });
+    async.await();
+  }
+
 }
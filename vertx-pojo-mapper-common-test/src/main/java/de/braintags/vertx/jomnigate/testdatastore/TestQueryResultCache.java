@@ -0,0 +1,170 @@
+/*-
+ * #%L
+ * vertx-pojo-mapper-common-test
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.testdatastore;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.braintags.vertx.jomnigate.dataaccess.cache.IQueryResultCache;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
+import de.braintags.vertx.jomnigate.init.ObserverDefinition;
+import de.braintags.vertx.jomnigate.init.ObserverMapperSettings;
+import de.braintags.vertx.jomnigate.observer.ObserverEventType;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.MiniMapper;
+import de.braintags.vertx.jomnigate.testdatastore.observer.QueryCountObserver;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+
+/**
+ * Tests for the {@link IQueryResultCache}
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class TestQueryResultCache extends DatastoreBaseTest {
+
+  @Test
+  public void testCacheHit(TestContext context) {
+    clearTable(context, MiniMapper.class);
+    saveRecord(context, new MiniMapper("cached"));
+    IQueryResultCache cache = getDataStore(context).getQueryResultCache();
+
+    IQueryResult<?> first = find(context, createCachedQuery(context, "cached"), 1).queryResult;
+    long hits = cache.getHitCount();
+    IQueryResult<?> second = find(context, createCachedQuery(context, "cached"), 1).queryResult;
+    context.assertEquals(hits + 1, cache.getHitCount());
+    context.assertTrue(first == second, "expected the cached result");
+
+    IQueryResult<?> other = find(context, createCachedQuery(context, "other"), 0).queryResult;
+    context.assertFalse(first == other, "expected a new result for another query");
+  }
+
+  @Test
+  public void testInvalidateBySave(TestContext context) {
+    clearTable(context, MiniMapper.class);
+    saveRecord(context, new MiniMapper("cached"));
+    IQueryResult<?> first = find(context, createCachedQuery(context, "cached"), 1).queryResult;
+
+    saveRecord(context, new MiniMapper("cached"));
+    IQueryResult<?> second = find(context, createCachedQuery(context, "cached"), 2).queryResult;
+    context.assertFalse(first == second, "expected a new result after save");
+  }
+
+  /**
+   * The observers of AFTER_LOAD are executed when the result is loaded, but not for a result served by the cache
+   */
+  @Test
+  public void testAfterLoadNotForCachedResult(TestContext context) {
+    clearTable(context, MiniMapper.class);
+    saveRecord(context, new MiniMapper("cached"));
+    ObserverDefinition<QueryCountObserver> os = new ObserverDefinition<>(QueryCountObserver.class);
+    os.getMapperSettings().add(new ObserverMapperSettings(MiniMapper.class.getName()));
+    os.getEventTypeList().add(ObserverEventType.AFTER_LOAD);
+    getDataStore(context).getSettings().getObserverSettings().add(os);
+    getDataStore(context).getMapperFactory().reset();
+    try {
+      QueryCountObserver.count.set(0);
+      find(context, createCachedQuery(context, "cached"), 1);
+      context.assertEquals(1, QueryCountObserver.count.get(), "AFTER_LOAD not executed for loaded result");
+      find(context, createCachedQuery(context, "cached"), 1);
+      context.assertEquals(1, QueryCountObserver.count.get(), "AFTER_LOAD executed for cached result");
+    } finally {
+      getDataStore(context).getSettings().getObserverSettings().reset();
+      getDataStore(context).getMapperFactory().reset();
+    }
+  }
+
+  /**
+   * A result is generated completely, before it is cached, so that all callers get the same shared instances
+   */
+  @Test
+  public void testCachedResultGeneratedCompletely(TestContext context) {
+    clearTable(context, MiniMapper.class);
+    for (int i = 0; i < 3; i++) {
+      saveRecord(context, new MiniMapper("cached"));
+    }
+    IQueryResult<?> first = find(context, createCachedQuery(context, "cached"), 3).queryResult;
+    IQueryResult<?> second = find(context, createCachedQuery(context, "cached"), 3).queryResult;
+    List<?> firstList = toList(context, first);
+    List<?> secondList = toList(context, second);
+    for (int i = 0; i < firstList.size(); i++) {
+      context.assertTrue(firstList.get(i) == secondList.get(i), "expected the same instance");
+      context.assertFalse(getDataStore(context).getEntitySnapshots().contains(firstList.get(i)),
+          "shared instance has snapshot");
+    }
+  }
+
+  /**
+   * A query, which started before an invalidation, must not put its outdated result into the cache
+   */
+  @Test
+  public void testStalePutAfterInvalidation(TestContext context) {
+    clearTable(context, MiniMapper.class);
+    saveRecord(context, new MiniMapper("stale"));
+    IQueryResultCache cache = getDataStore(context).getQueryResultCache();
+    IQuery<MiniMapper> query = getDataStore(context).createQuery(MiniMapper.class);
+    query.setSearchCondition(ISearchCondition.isEqual(MiniMapper.NAME, "stale"));
+    @SuppressWarnings("unchecked")
+    IQueryResult<MiniMapper> result = (IQueryResult<MiniMapper>) find(context, query, 1).queryResult;
+    toList(context, result);
+
+    String key = "staleKey";
+    long generation = cache.getGeneration(MiniMapper.class);
+    cache.invalidate(MiniMapper.class);
+    cache.put(MiniMapper.class, key, result, Duration.ofMinutes(1), generation);
+    context.assertNull(cache.get(MiniMapper.class, key), "outdated result was cached");
+
+    cache.put(MiniMapper.class, key, result, Duration.ofMinutes(1), cache.getGeneration(MiniMapper.class));
+    context.assertTrue(cache.get(MiniMapper.class, key) == result, "current result was not cached");
+    cache.invalidate(MiniMapper.class);
+  }
+
+  @Test
+  public void testNotCacheable(TestContext context) {
+    clearTable(context, MiniMapper.class);
+    saveRecord(context, new MiniMapper("cached"));
+    IQuery<MiniMapper> query = getDataStore(context).createQuery(MiniMapper.class);
+    query.setSearchCondition(ISearchCondition.isEqual(MiniMapper.NAME, "cached"));
+    IQueryResult<?> first = find(context, query, 1).queryResult;
+    IQueryResult<?> second = find(context, query, 1).queryResult;
+    context.assertFalse(first == second, "expected a new result without caching");
+  }
+
+  private List<?> toList(TestContext context, IQueryResult<?> result) {
+    Async async = context.async();
+    List<Object> list = new ArrayList<>();
+    result.toList(2, res -> {
+      if (res.failed()) {
+        context.fail(res.cause());
+      } else {
+        list.addAll(res.result());
+      }
+      async.complete();
+    });
+    async.await();
+    return list;
+  }
+
+  private IQuery<MiniMapper> createCachedQuery(TestContext context, String name) {
+    IQuery<MiniMapper> query = getDataStore(context).createQuery(MiniMapper.class);
+    query.setSearchCondition(ISearchCondition.isEqual(MiniMapper.NAME, name));
+    query.setCacheable(Duration.ofMinutes(1));
+    return query;
+  }
+
+}
@@ -12,13 +12,20 @@
  */
 package de.braintags.vertx.jomnigate.testdatastore;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.Test;
 
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
+import de.braintags.vertx.jomnigate.init.ObserverDefinition;
+import de.braintags.vertx.jomnigate.init.ObserverMapperSettings;
+import de.braintags.vertx.jomnigate.observer.ObserverEventType;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.SimpleMapper;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.typehandler.ReferenceMapper_Single;
+import de.braintags.vertx.jomnigate.testdatastore.observer.QueryCountObserver;
+import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 
 /**
@@ -58,4 +65,58 @@ public class TestReferenced extends DatastoreBaseTest {
     context.assertNull(loaded.simpleMapper);
   }
 
+  /**
+   * Many records are referencing a few instances, which are loaded together for the whole query result
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testSharedReferences(TestContext context) {
+    clearTable(context, ReferenceMapper_Single.class.getSimpleName());
+    clearTable(context, SimpleMapper.class.getSimpleName());
+    List<SimpleMapper> referenced = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      referenced.add(new SimpleMapper("referenced " + i, "prop " + i));
+    }
+    saveRecords(context, referenced);
+    List<ReferenceMapper_Single> records = new ArrayList<>();
+    for (int i = 0; i < 30; i++) {
+      ReferenceMapper_Single record = new ReferenceMapper_Single();
+      record.simpleMapper = referenced.get(i % 3);
+      records.add(record);
+    }
+    saveRecords(context, records);
+
+    ObserverDefinition<QueryCountObserver> os = new ObserverDefinition<>(QueryCountObserver.class);
+    os.getMapperSettings().add(new ObserverMapperSettings(SimpleMapper.class.getName()));
+    os.getEventTypeList().add(ObserverEventType.BEFORE_LOAD);
+    getDataStore(context).getSettings().getObserverSettings().add(os);
+    getDataStore(context).getMapperFactory().reset();
+    try {
+      QueryCountObserver.count.set(0);
+      IQuery<ReferenceMapper_Single> query = getDataStore(context).createQuery(ReferenceMapper_Single.class);
+      IQueryResult<ReferenceMapper_Single> qr = (IQueryResult<ReferenceMapper_Single>) find(context, query,
+          30).queryResult;
+      Async async = context.async();
+      qr.toList(10, res -> {
+        if (res.failed()) {
+          context.fail(res.cause());
+        } else {
+          for (ReferenceMapper_Single loaded : res.result()) {
+            context.assertNotNull(loaded.simpleMapper);
+            context.assertTrue(loaded.simpleMapper.name.startsWith("referenced "));
+          }
+        }
+        async.complete();
+      });
+      async.await();
+      if (getDataStore(context).getClass().getName().contains("Mongo")) {
+        // the three shared instances are loaded by one query instead of one query per reference
+        context.assertEquals(1, QueryCountObserver.count.get(), "references were not loaded in one batch");
+      }
+    } finally {
+      getDataStore(context).getSettings().getObserverSettings().reset();
+      getDataStore(context).getMapperFactory().reset();
+    }
+  }
+
 }
@@ -0,0 +1,142 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common-test
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.testdatastore;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
+import de.braintags.vertx.jomnigate.dataaccess.transaction.ITransaction;
+import de.braintags.vertx.jomnigate.dataaccess.write.IWrite;
+import de.braintags.vertx.jomnigate.dataaccess.write.IWriteResult;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.MiniMapper;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.typehandler.ReferenceMapper_Single;
+import de.braintags.vertx.util.ResultObject;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+
+/**
+ * Tests for {@link de.braintags.vertx.jomnigate.IDataStore#inTransaction(Function, io.vertx.core.Handler)}
+ *
+ * @author Michael Remme
+ *
+ */
+public class TestTransaction extends DatastoreBaseTest {
+
+  @Test
+  public void testCommit(TestContext context) {
+    clearTable(context, MiniMapper.class);
+    AsyncResult<String> result = executeTransaction(context, tx -> save(tx, "committed", "committed")
+        .compose(wr -> save(tx, "committed")).map(wr -> "done"));
+    if (isSupported(context, result)) {
+      context.assertTrue(result.succeeded(), String.valueOf(result.cause()));
+      context.assertEquals("done", result.result());
+      find(context, createQuery(context, "committed"), 3);
+    }
+  }
+
+  @Test
+  public void testRollback(TestContext context) {
+    clearTable(context, MiniMapper.class);
+    AsyncResult<String> result = executeTransaction(context, tx -> save(tx, "rolledBack", "rolledBack")
+        .compose(wr -> Future.<String> failedFuture(new IllegalStateException("abort"))));
+    if (isSupported(context, result)) {
+      context.assertTrue(result.failed());
+      context.assertEquals("abort", result.cause().getMessage());
+      find(context, createQuery(context, "rolledBack"), 0);
+    }
+  }
+
+  /**
+   * A loaded instance, which was saved inside a rolled back transaction, must be written again by the next save
+   */
+  @Test
+  public void testRollbackKeepsSnapshot(TestContext context) {
+    clearTable(context, MiniMapper.class);
+    MiniMapper record = new MiniMapper("loaded");
+    saveRecord(context, record);
+    MiniMapper loaded = findRecordByID(context, MiniMapper.class, record.id);
+    loaded.name = "changed";
+    AsyncResult<String> result = executeTransaction(context, tx -> {
+      IWrite<MiniMapper> write = tx.createWrite(MiniMapper.class);
+      write.add(loaded);
+      Future<IWriteResult> f = Future.future();
+      write.save(f.completer());
+      return f.compose(wr -> Future.<String> failedFuture(new IllegalStateException("abort")));
+    });
+    if (isSupported(context, result)) {
+      context.assertTrue(result.failed());
+      find(context, createQuery(context, "changed"), 0);
+      saveRecord(context, loaded);
+      find(context, createQuery(context, "changed"), 1);
+    }
+  }
+
+  /**
+   * Referenced instances would be saved outside of the transaction, so that mappers with referenced fields are rejected
+   */
+  @Test
+  public void testReferencedFieldsRejected(TestContext context) {
+    clearTable(context, ReferenceMapper_Single.class);
+    AsyncResult<IWriteResult> result = executeTransaction(context, tx -> {
+      IWrite<ReferenceMapper_Single> write = tx.createWrite(ReferenceMapper_Single.class);
+      write.add(new ReferenceMapper_Single());
+      Future<IWriteResult> f = Future.future();
+      write.save(f.completer());
+      return f;
+    });
+    if (isSupported(context, result)) {
+      context.assertTrue(result.failed() && result.cause() instanceof UnsupportedOperationException);
+      find(context, getDataStore(context).createQuery(ReferenceMapper_Single.class), 0);
+    }
+  }
+
+  private boolean isSupported(TestContext context, AsyncResult<?> result) {
+    if (getDataStore(context).getClass().getName().contains("Mongo")) {
+      context.assertTrue(result.failed() && result.cause() instanceof UnsupportedOperationException);
+      return false;
+    }
+    return true;
+  }
+
+  private <V> AsyncResult<V> executeTransaction(TestContext context, Function<ITransaction, Future<V>> work) {
+    Async async = context.async();
+    ResultObject<AsyncResult<V>> ro = new ResultObject<>(null);
+    getDataStore(context).inTransaction(work, result -> {
+      ro.setResult(result);
+      async.complete();
+    });
+    async.await();
+    return ro.getResult();
+  }
+
+  private Future<IWriteResult> save(ITransaction transaction, String... names) {
+    IWrite<MiniMapper> write = transaction.createWrite(MiniMapper.class);
+    Arrays.stream(names).forEach(name -> write.add(new MiniMapper(name)));
+    Future<IWriteResult> f = Future.future();
+    write.save(f.completer());
+    return f;
+  }
+
+  private IQuery<MiniMapper> createQuery(TestContext context, String name) {
+    IQuery<MiniMapper> query = getDataStore(context).createQuery(MiniMapper.class);
+    query.setSearchCondition(ISearchCondition.isEqual(MiniMapper.NAME, name));
+    return query;
+  }
+
+}
@@ -16,6 +16,7 @@ import de.braintags.vertx.jomnigate.dataaccess.write.IWrite;
 import de.braintags.vertx.jomnigate.dataaccess.write.IWriteEntry;
 import de.braintags.vertx.jomnigate.dataaccess.write.WriteAction;
 import de.braintags.vertx.jomnigate.util.QueryHelper;
+import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 
 public class TestUpdate extends DatastoreBaseTest {
@@ -125,6 +126,131 @@ public class TestUpdate extends DatastoreBaseTest {
 
   }
 
+  @Test
+  public void testUpdateMultipleRecords(final TestContext context) {
+    checkUpdateMultipleRecords(context, false);
+  }
+
+  @Test
+  public void testPartialUpdateMultipleRecords(final TestContext context) {
+    checkUpdateMultipleRecords(context, true);
+  }
+
+  /**
+   * The records of one write, which exist, are reported as updated, even if another record of the same write does not
+   * exist
+   */
+  @Test
+  public void testUpdateMultipleRecords_NotExisting(final TestContext context) {
+    clearTable(context, UpdateTester.class);
+    saveRecords(context, Arrays.asList(new UpdateTester(TEST_ID_1, false, true),
+        new UpdateTester(TEST_ID_2, false, true)));
+
+    IWrite<UpdateTester> write = getDataStore(context).createWrite(UpdateTester.class);
+    write.add(new UpdateTester(TEST_ID_1, true, true));
+    write.add(new UpdateTester(TEST_ID_3, true, false));
+    write.add(new UpdateTester(TEST_ID_2, true, true));
+    Async async = context.async();
+    write.save(result -> {
+      if (result.failed()) {
+        context.fail(result.cause());
+      } else {
+        for (IWriteEntry entry : result.result()) {
+          checkEntry(context, entry);
+        }
+      }
+      async.complete();
+    });
+    async.await();
+  }
+
+  /**
+   * A record of a multi row update, whose values equal the stored ones, is not counted as changed row by MySQL, but it
+   * must be reported as updated
+   */
+  @Test
+  public void testUpdateMultipleRecords_OneUnchanged(final TestContext context) {
+    clearTable(context, UpdateTester.class);
+    saveRecords(context, Arrays.asList(new UpdateTester(TEST_ID_1, false, true),
+        new UpdateTester(TEST_ID_2, false, true)));
+
+    IWrite<UpdateTester> write = getDataStore(context).createWrite(UpdateTester.class);
+    write.add(new UpdateTester(TEST_ID_1, true, true));
+    write.add(new UpdateTester(TEST_ID_2, false, true));
+    ResultContainer resultContainer = write(context, write, getDataStore(context).createQuery(UpdateTester.class), 2);
+    for (IWriteEntry entry : resultContainer.writeResult) {
+      context.assertEquals(WriteAction.UPDATE, entry.getAction(), "wrong action for " + entry.getId());
+    }
+  }
+
+  private void checkEntry(final TestContext context, final IWriteEntry entry) {
+    if (TEST_ID_3.equals(String.valueOf(entry.getId()))) {
+      context.assertNotEquals(WriteAction.UPDATE, entry.getAction());
+    } else {
+      context.assertEquals(WriteAction.UPDATE, entry.getAction());
+    }
+  }
+
+  private void checkUpdateMultipleRecords(final TestContext context, final boolean partialUpdate) {
+    clearTable(context, UpdateTester.class);
+    saveRecords(context, Arrays.asList(new UpdateTester(TEST_ID_1, false, true),
+        new UpdateTester(TEST_ID_2, false, true), new UpdateTester(TEST_ID_3, false, false)));
+
+    IWrite<UpdateTester> write = getDataStore(context).createWrite(UpdateTester.class);
+    write.setPartialUpdate(partialUpdate);
+    List<UpdateTester> updated = Arrays.asList(new UpdateTester(TEST_ID_1, true, true),
+        new UpdateTester(TEST_ID_2, true, true), new UpdateTester(TEST_ID_3, true, false));
+    updated.forEach(write::add);
+    ResultContainer resultContainer = write(context, write, getDataStore(context).createQuery(UpdateTester.class), 3);
+    for (IWriteEntry entry : resultContainer.writeResult) {
+      context.assertEquals(WriteAction.UPDATE, entry.getAction());
+    }
+
+    List<UpdateTester> list = findAll(context, getDataStore(context).createQuery(UpdateTester.class));
+    context.assertEquals(3, list.size());
+    for (UpdateTester tester : updated) {
+      context.assertTrue(list.contains(tester), "not updated: " + tester);
+    }
+  }
+
+  @Test
+  public void testUnchangedRecordsAreSkipped(final TestContext context) {
+    clearTable(context, UpdateTester.class);
+    saveRecords(context,
+        Arrays.asList(new UpdateTester(TEST_ID_1, false, true), new UpdateTester(TEST_ID_2, false, true)));
+    List<UpdateTester> loaded = findAll(context, getDataStore(context).createQuery(UpdateTester.class));
+    context.assertEquals(2, loaded.size());
+    UpdateTester changed = loaded.get(0).setUpdated(true);
+
+    IWrite<UpdateTester> write = getDataStore(context).createWrite(UpdateTester.class);
+    loaded.forEach(write::add);
+    ResultContainer resultContainer = write(context, write, getDataStore(context).createQuery(UpdateTester.class), 2);
+    for (IWriteEntry entry : resultContainer.writeResult) {
+      WriteAction expected = entry.getStoreObject().getEntity() == changed ? WriteAction.UPDATE
+          : WriteAction.UNCHANGED;
+      context.assertEquals(expected, entry.getAction());
+    }
+    List<UpdateTester> list = findAll(context, getDataStore(context).createQuery(UpdateTester.class));
+    context.assertTrue(list.contains(changed), "not updated: " + changed);
+  }
+
+  @Test
+  public void testLoadedRecordWritesChangedFieldsOnly(final TestContext context) {
+    clearTable(context, UpdateTester.class);
+    saveRecord(context, new UpdateTester(TEST_ID_1, false, true));
+    List<UpdateTester> loaded = findAll(context, getDataStore(context).createQuery(UpdateTester.class));
+    context.assertEquals(1, loaded.size());
+
+    // a concurrent write of the record, which must not be overwritten by the unchanged field of the loaded instance
+    saveRecord(context, new UpdateTester(TEST_ID_1, false, false));
+    ResultContainer resultContainer = saveRecord(context, loaded.get(0).setUpdated(true));
+    context.assertEquals(WriteAction.UPDATE, resultContainer.writeResult.iterator().next().getAction());
+
+    List<UpdateTester> list = findAll(context, getDataStore(context).createQuery(UpdateTester.class));
+    context.assertEquals(1, list.size());
+    context.assertEquals(new UpdateTester(TEST_ID_1, true, false), list.get(0));
+  }
+
   @SuppressWarnings("unchecked")
   private void checkUpdateWithQuery(final UpdateTester toWrite, final UpdateTester expected,
       final WriteAction expectedAction, final IQuery<UpdateTester> query, final TestContext context) {
@@ -0,0 +1,41 @@
+/*-
+ * #%L
+ * vertx-pojo-mapper-common-test
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.testdatastore.mapper;
+
+import de.braintags.vertx.jomnigate.annotation.Entity;
+import de.braintags.vertx.jomnigate.annotation.EntityOption;
+import de.braintags.vertx.jomnigate.annotation.field.Id;
+import de.braintags.vertx.jomnigate.dataaccess.cache.IEntityCache;
+
+/**
+ * A mapper, which is held by the {@link IEntityCache}
+ * 
+ * @author Michael Remme
+ * 
+ */
+@Entity(options = { @EntityOption(key = IEntityCache.CACHE_SIZE, value = "2"),
+    @EntityOption(key = IEntityCache.CACHE_TTL, value = "60000") })
+public class CachedMapper {
+
+  @Id
+  public String id = null;
+  public String name = "testName";
+
+  public CachedMapper() {
+  }
+
+  public CachedMapper(String name) {
+    this.name = name;
+  }
+
+}
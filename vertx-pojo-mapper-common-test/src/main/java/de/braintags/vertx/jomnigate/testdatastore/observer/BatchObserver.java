@@ -0,0 +1,79 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common-test
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.testdatastore.observer;
+
+import java.util.List;
+
+import de.braintags.vertx.jomnigate.observer.IBatchObserver;
+import de.braintags.vertx.jomnigate.observer.IObserverContext;
+import de.braintags.vertx.jomnigate.observer.IObserverEvent;
+import de.braintags.vertx.jomnigate.observer.impl.AbstractObserver;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.SimpleMapper;
+import io.vertx.core.Future;
+
+/**
+ * An observer, which counts the calls of both methods and sets the intValue of handled instances of
+ * {@link SimpleMapper} to 1
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class BatchObserver extends AbstractObserver implements IBatchObserver {
+  public static int batchCalls = 0;
+  public static int singleCalls = 0;
+  public static int handledEvents = 0;
+
+  /**
+   * Reset all counters
+   */
+  public static void reset() {
+    batchCalls = 0;
+    singleCalls = 0;
+    handledEvents = 0;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * de.braintags.vertx.jomnigate.observer.IObserver#handleEvent(de.braintags.vertx.jomnigate.observer.IObserverEvent,
+   * de.braintags.vertx.jomnigate.observer.IObserverContext)
+   */
+  @Override
+  public Future<Void> handleEvent(IObserverEvent event, IObserverContext context) {
+    singleCalls++;
+    handle(event);
+    return Future.succeededFuture();
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.observer.IBatchObserver#handleEvents(java.util.List,
+   * de.braintags.vertx.jomnigate.observer.IObserverContext)
+   */
+  @Override
+  public Future<Void> handleEvents(List<IObserverEvent> events, IObserverContext context) {
+    batchCalls++;
+    events.forEach(this::handle);
+    return Future.succeededFuture();
+  }
+
+  private void handle(IObserverEvent event) {
+    handledEvents++;
+    if (event.getSource() instanceof SimpleMapper) {
+      ((SimpleMapper) event.getSource()).intValue = 1;
+    }
+  }
+
+}
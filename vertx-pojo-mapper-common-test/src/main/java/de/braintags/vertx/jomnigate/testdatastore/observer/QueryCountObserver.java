@@ -0,0 +1,45 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common-test
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.testdatastore.observer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.braintags.vertx.jomnigate.observer.IObserverContext;
+import de.braintags.vertx.jomnigate.observer.IObserverEvent;
+import de.braintags.vertx.jomnigate.observer.impl.AbstractObserver;
+import io.vertx.core.Future;
+
+/**
+ * Counts the events it is executed for. Registered for the event BEFORE_LOAD it counts the executed queries of a
+ * mapper
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class QueryCountObserver extends AbstractObserver {
+  public static final AtomicInteger count = new AtomicInteger();
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * de.braintags.vertx.jomnigate.observer.IObserver#handleEvent(de.braintags.vertx.jomnigate.observer.IObserverEvent,
+   * de.braintags.vertx.jomnigate.observer.IObserverContext)
+   */
+  @Override
+  public Future<Void> handleEvent(final IObserverEvent event, final IObserverContext context) {
+    count.incrementAndGet();
+    return Future.succeededFuture();
+  }
+
+}
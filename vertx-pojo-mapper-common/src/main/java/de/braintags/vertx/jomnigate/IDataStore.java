@@ -12,10 +12,16 @@
  */
 package de.braintags.vertx.jomnigate;
 
+import java.util.function.Function;
+
 import de.braintags.vertx.jomnigate.annotation.KeyGenerator;
+import de.braintags.vertx.jomnigate.dataaccess.cache.IEntityCache;
+import de.braintags.vertx.jomnigate.dataaccess.cache.IQueryResultCache;
 import de.braintags.vertx.jomnigate.dataaccess.delete.IDelete;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.dataaccess.transaction.ITransaction;
 import de.braintags.vertx.jomnigate.dataaccess.write.IWrite;
+import de.braintags.vertx.jomnigate.dataaccess.write.impl.EntitySnapshots;
 import de.braintags.vertx.jomnigate.exception.UnsupportedKeyGenerator;
 import de.braintags.vertx.jomnigate.init.DataStoreSettings;
 import de.braintags.vertx.jomnigate.mapping.IDataStoreSynchronizer;
@@ -26,8 +32,10 @@ import de.braintags.vertx.jomnigate.mapping.IStoreObjectFactory;
 import de.braintags.vertx.jomnigate.mapping.ITriggerContext;
 import de.braintags.vertx.jomnigate.mapping.ITriggerContextFactory;
 import de.braintags.vertx.jomnigate.mapping.datastore.ITableGenerator;
+import de.braintags.vertx.jomnigate.mapping.impl.EncoderExecutor;
 import de.braintags.vertx.util.security.crypt.IEncoder;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
@@ -57,6 +65,23 @@ public interface IDataStore<S, U> {
    */
   public static final String DEFAULT_QUERY_LIMIT = "defaultQueryLimit";
 
+  /**
+   * The name of the property that defines the number of worker threads, which are used to execute the encoders of
+   * properties in parallel
+   */
+  public static final String ENCODER_POOL_SIZE = "encoderPoolSize";
+
+  /**
+   * The default value for the property {@link #ENCODER_POOL_SIZE}
+   */
+  public static final int DEFAULT_ENCODER_POOL_SIZE = 4;
+
+  /**
+   * The name of the property that defines, wether loaded entities are tracked, so that a save writes only the changed
+   * values of an entity and skips unchanged entities. The tracking is enabled by default
+   */
+  public static final String DIRTY_TRACKING = "dirtyTracking";
+
   /**
    * Get the instance of {@link Vertx} where the current instance is belonging to
    *
@@ -202,6 +227,20 @@ public interface IDataStore<S, U> {
    */
   IEncoder getEncoder(String name);
 
+  /**
+   * Get the executor, which is used to execute the {@link IEncoder} of properties without blocking the event loop
+   *
+   * @return the executor of the current instance
+   */
+  EncoderExecutor getEncoderExecutor();
+
+  /**
+   * Get the snapshots of the loaded entities, which are used to write only the changed values of an entity
+   *
+   * @return the snapshots of the current instance
+   */
+  EntitySnapshots getEntitySnapshots();
+
   /**
    * Get the default limit for all queries where no limit is given
    *
@@ -216,4 +255,30 @@ public interface IDataStore<S, U> {
    */
   DataStoreSettings getSettings();
 
+  /**
+   * Get the cache of instances, which is used to answer requests by id
+   * 
+   * @return the cache of the current instance
+   */
+  IEntityCache getEntityCache();
+
+  /**
+   * Get the cache of query results, which is used by queries marked as cacheable
+   * 
+   * @return the cache of the current instance
+   */
+  IQueryResultCache getQueryResultCache();
+
+  /**
+   * Executes the given work inside one transaction. The work receives an {@link ITransaction}, by which it creates the
+   * writes and deletes to be executed. When the Future returned by the work succeeded, all actions are committed at
+   * once, otherwise they are rolled back. The handler is informed after the transaction was finished
+   * 
+   * @param work
+   *          the work to be executed inside the transaction
+   * @param resultHandler
+   *          the handler to be informed with the result of the work
+   */
+  <V> void inTransaction(Function<ITransaction, Future<V>> work, Handler<AsyncResult<V>> resultHandler);
+
 }
@@ -0,0 +1,137 @@
+/*-
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.dataaccess.cache;
+
+import de.braintags.vertx.jomnigate.annotation.Entity;
+import de.braintags.vertx.jomnigate.annotation.EntityOption;
+import de.braintags.vertx.jomnigate.mapping.IMapper;
+
+/**
+ * A cache of instances, which is identified by the mapper and the id of an instance. The cache holds the objects as
+ * they were read from the datastore, not the instances themselves, and each request creates a new instance from the
+ * cached object by the {@link de.braintags.vertx.jomnigate.mapping.IStoreObjectFactory}, so that callers never share
+ * an instance. The cache is used by
+ * {@link de.braintags.vertx.jomnigate.util.QueryHelper#findRecordById(de.braintags.vertx.jomnigate.IDataStore, Class, String, io.vertx.core.Handler)}
+ * and by the resolution of referenced instances and is invalidated by each write and delete action of the mapper.
+ * Only mappers, which define the option {@link #CACHE_SIZE} inside the annotation {@link Entity} are cached, for
+ * instance:
+ * 
+ * <pre>
+ * &#64;Entity(options = { &#64;EntityOption(key = IEntityCache.CACHE_SIZE, value = "500"),
+ *     &#64;EntityOption(key = IEntityCache.CACHE_TTL, value = "60000") })
+ * </pre>
+ * 
+ * A loader must fetch the current generation of the mapper by {@link #getGeneration(IMapper)} before it starts to
+ * read from the datastore and hand it to {@link #put(IMapper, Object, Object, long)}, so that a read, which was
+ * started before an invalidation, can't put the outdated instance back into the cache afterwards.
+ * 
+ * @author Michael Remme
+ * 
+ */
+public interface IEntityCache {
+
+  /**
+   * The key of the {@link EntityOption}, which defines the maximum number of cached instances of a mapper
+   */
+  public static final String CACHE_SIZE = "cacheSize";
+
+  /**
+   * The key of the {@link EntityOption}, which defines the time to live of a cached instance in milliseconds. If
+   * undefined or 0, instances are removed only by size or invalidation
+   */
+  public static final String CACHE_TTL = "cacheTtl";
+
+  /**
+   * Checks wether instances of the given mapper are cached
+   * 
+   * @param mapper
+   *          the mapper to check
+   * @return true, if the mapper defines a cache size
+   */
+  boolean isCacheable(IMapper<?> mapper);
+
+  /**
+   * Get the cached object of the instance with the given id, from which the caller creates a new instance
+   * 
+   * @param mapper
+   *          the mapper of the instance
+   * @param id
+   *          the id of the instance
+   * @return the object as read from the datastore or null, if none is cached or it is expired
+   */
+  Object get(IMapper<?> mapper, Object id);
+
+  /**
+   * Get the current generation of the given mapper, which is increased by each invalidation
+   * 
+   * @param mapper
+   *          the mapper
+   * @return the current generation
+   */
+  long getGeneration(IMapper<?> mapper);
+
+  /**
+   * Store the object of the instance with the given id as it was read from the datastore. If the mapper is not
+   * cacheable or if instances of the mapper were invalidated since the given generation was fetched, nothing happens
+   * 
+   * @param mapper
+   *          the mapper of the instance
+   * @param id
+   *          the id of the instance
+   * @param storedObject
+   *          the object as read from the datastore, which must not be modified afterwards
+   * @param generation
+   *          the generation of the mapper, fetched by {@link #getGeneration(IMapper)} before the instance was read
+   */
+  void put(IMapper<?> mapper, Object id, Object storedObject, long generation);
+
+  /**
+   * Remove the instance with the given id
+   * 
+   * @param mapper
+   *          the mapper of the instance
+   * @param id
+   *          the id of the instance
+   */
+  void invalidate(IMapper<?> mapper, Object id);
+
+  /**
+   * Remove all instances of the given mapper
+   * 
+   * @param mapper
+   *          the mapper to be cleared
+   */
+  void invalidateAll(IMapper<?> mapper);
+
+  /**
+   * Get the number of requests, which were answered by the cache
+   * 
+   * @return the number of hits
+   */
+  long getHitCount();
+
+  /**
+   * Get the number of requests for cacheable mappers, which were not answered by the cache
+   * 
+   * @return the number of misses
+   */
+  long getMissCount();
+
+  /**
+   * Get the number of instances, which were removed because of size limit or time to live
+   * 
+   * @return the number of evictions
+   */
+  long getEvictionCount();
+
+}
@@ -0,0 +1,99 @@
+/*-
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.dataaccess.cache;
+
+import java.time.Duration;
+
+import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
+import de.braintags.vertx.jomnigate.dataaccess.query.impl.IQueryExpression;
+
+/**
+ * A cache for the results of queries, which were marked by {@link IQuery#setCacheable(Duration)}. The results are
+ * identified by the mapper class and by {@link IQueryExpression#getCacheKey()}. All results of a mapper class are
+ * invalidated by each write and delete action of the mapper.<br/>
+ * Known limitation: the invalidation is done by the mapper class only, because the cache can't decide which query
+ * would be affected by a changed instance. Each write of a mapper therefore drops every cached query of that mapper,
+ * so caching is only effective for mappers, which are read much more often than written.<br/>
+ * A loader must fetch the current generation of the mapper class by {@link #getGeneration(Class)} before it starts to
+ * read from the datastore and hand it to {@link #put(Class, String, IQueryResult, Duration, long)}, so that a result,
+ * which was read before an invalidation, can't be cached afterwards.<br/>
+ * Note, that a cached result returns the same instances to all callers. Its instances are generated completely before
+ * it is cached and they are marked as shared, so that they are written completely by each save. The event AFTER_LOAD
+ * is executed only when a result is loaded from the datastore, not when it is served by the cache
+ * 
+ * @author Michael Remme
+ * 
+ */
+public interface IQueryResultCache {
+
+  /**
+   * Get the cached result
+   * 
+   * @param mapperClass
+   *          the mapper class of the query
+   * @param key
+   *          the key of the query
+   * @return the cached result or null, if none is cached or it is expired
+   */
+  <T> IQueryResult<T> get(Class<T> mapperClass, String key);
+
+  /**
+   * Get the current generation of the given mapper class, which is increased by each invalidation
+   * 
+   * @param mapperClass
+   *          the mapper class
+   * @return the current generation
+   */
+  long getGeneration(Class<?> mapperClass);
+
+  /**
+   * Store the result of a query. If results of the mapper class were invalidated since the given generation was
+   * fetched, nothing happens
+   * 
+   * @param mapperClass
+   *          the mapper class of the query
+   * @param key
+   *          the key of the query
+   * @param result
+   *          the result to be cached, whose instances are generated completely
+   * @param timeToLive
+   *          the time, after which the result expires
+   * @param generation
+   *          the generation of the mapper class, fetched by {@link #getGeneration(Class)} before the query was executed
+   */
+  <T> void put(Class<T> mapperClass, String key, IQueryResult<T> result, Duration timeToLive, long generation);
+
+  /**
+   * Remove all results of the given mapper class
+   * 
+   * @param mapperClass
+   *          the mapper class
+   */
+  void invalidate(Class<?> mapperClass);
+
+  /**
+   * Get the number of queries, which were answered by the cache
+   * 
+   * @return the number of hits
+   */
+  long getHitCount();
+
+  /**
+   * Get the number of cacheable queries, which were not answered by the cache
+   * 
+   * @return the number of misses
+   */
+  long getMissCount();
+
+}
@@ -0,0 +1,239 @@
+/*-
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.dataaccess.cache.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.braintags.vertx.jomnigate.annotation.Entity;
+import de.braintags.vertx.jomnigate.annotation.EntityOption;
+import de.braintags.vertx.jomnigate.dataaccess.cache.IEntityCache;
+import de.braintags.vertx.jomnigate.mapping.IMapper;
+
+/**
+ * Default implementation of {@link IEntityCache}. Each mapper gets its own region, which removes the least recently
+ * used object, when the size limit is reached, and expired objects, when they are requested
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class EntityCache implements IEntityCache {
+  private static final io.vertx.core.logging.Logger LOGGER = io.vertx.core.logging.LoggerFactory
+      .getLogger(EntityCache.class);
+  private static final Region NO_CACHE = new Region(0, 0);
+
+  private final Map<Class<?>, Region> regions = new ConcurrentHashMap<>();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.dataaccess.cache.IEntityCache#isCacheable(de.braintags.vertx.jomnigate.mapping.
+   * IMapper)
+   */
+  @Override
+  public boolean isCacheable(final IMapper<?> mapper) {
+    return getRegion(mapper) != NO_CACHE;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.dataaccess.cache.IEntityCache#get(de.braintags.vertx.jomnigate.mapping.IMapper,
+   * java.lang.Object)
+   */
+  @Override
+  public Object get(final IMapper<?> mapper, final Object id) {
+    Region region = getRegion(mapper);
+    if (region == NO_CACHE || id == null) {
+      return null;
+    }
+    Object storedObject = region.get(String.valueOf(id), this);
+    if (storedObject == null) {
+      misses.incrementAndGet();
+    } else {
+      hits.incrementAndGet();
+    }
+    return storedObject;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * de.braintags.vertx.jomnigate.dataaccess.cache.IEntityCache#getGeneration(de.braintags.vertx.jomnigate.mapping.
+   * IMapper)
+   */
+  @Override
+  public long getGeneration(final IMapper<?> mapper) {
+    return getRegion(mapper).getGeneration();
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.dataaccess.cache.IEntityCache#put(de.braintags.vertx.jomnigate.mapping.IMapper,
+   * java.lang.Object, java.lang.Object, long)
+   */
+  @Override
+  public void put(final IMapper<?> mapper, final Object id, final Object storedObject, final long generation) {
+    Region region = getRegion(mapper);
+    if (region != NO_CACHE && id != null && storedObject != null) {
+      region.put(String.valueOf(id), storedObject, generation, this);
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * de.braintags.vertx.jomnigate.dataaccess.cache.IEntityCache#invalidate(de.braintags.vertx.jomnigate.mapping.IMapper,
+   * java.lang.Object)
+   */
+  @Override
+  public void invalidate(final IMapper<?> mapper, final Object id) {
+    Region region = getRegion(mapper);
+    if (region != NO_CACHE && id != null) {
+      region.remove(String.valueOf(id));
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.dataaccess.cache.IEntityCache#invalidateAll(de.braintags.vertx.jomnigate.mapping.
+   * IMapper)
+   */
+  @Override
+  public void invalidateAll(final IMapper<?> mapper) {
+    Region region = getRegion(mapper);
+    if (region != NO_CACHE) {
+      region.clear();
+    }
+  }
+
+  @Override
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  @Override
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  @Override
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+
+  private Region getRegion(final IMapper<?> mapper) {
+    return regions.computeIfAbsent(mapper.getMapperClass(), mc -> createRegion(mapper));
+  }
+
+  /**
+   * Creates the region for the given mapper from the options of its annotation {@link Entity}
+   */
+  private Region createRegion(final IMapper<?> mapper) {
+    Entity entity = mapper.getEntity();
+    int size = 0;
+    long ttl = 0;
+    if (entity != null) {
+      for (EntityOption option : entity.options()) {
+        if (CACHE_SIZE.equals(option.key())) {
+          size = Integer.parseInt(option.value());
+        } else if (CACHE_TTL.equals(option.key())) {
+          ttl = Long.parseLong(option.value());
+        }
+      }
+    }
+    if (size <= 0) {
+      return NO_CACHE;
+    }
+    LOGGER.info("caching " + mapper.getMapperClass().getSimpleName() + " with size " + size + " and ttl " + ttl);
+    return new Region(size, ttl);
+  }
+
+  /**
+   * The cached objects of one mapper. The generation is increased by each invalidation, so that objects, which were
+   * read before, are rejected by {@link #put(String, Object, long, EntityCache)}. The generation is shared by all
+   * instances of the region, so an invalidation rejects pending reads of other ids as well
+   */
+  static class Region {
+    private final int maxSize;
+    private final long ttl;
+    private final LinkedHashMap<String, CacheEntry> entries;
+    private long generation;
+
+    Region(final int maxSize, final long ttl) {
+      this.maxSize = maxSize;
+      this.ttl = ttl;
+      this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    synchronized Object get(final String id, final EntityCache cache) {
+      CacheEntry entry = entries.get(id);
+      if (entry == null) {
+        return null;
+      }
+      if (ttl > 0 && System.currentTimeMillis() - entry.created > ttl) {
+        entries.remove(id);
+        cache.evictions.incrementAndGet();
+        return null;
+      }
+      return entry.storedObject;
+    }
+
+    synchronized long getGeneration() {
+      return generation;
+    }
+
+    synchronized void put(final String id, final Object storedObject, final long readGeneration,
+        final EntityCache cache) {
+      if (readGeneration != generation) {
+        LOGGER.debug("instance " + id + " was invalidated while it was loaded, not cached");
+        return;
+      }
+      entries.put(id, new CacheEntry(storedObject));
+      while (entries.size() > maxSize) {
+        String eldest = entries.keySet().iterator().next();
+        entries.remove(eldest);
+        cache.evictions.incrementAndGet();
+      }
+    }
+
+    synchronized void remove(final String id) {
+      generation++;
+      entries.remove(id);
+    }
+
+    synchronized void clear() {
+      generation++;
+      entries.clear();
+    }
+  }
+
+  static class CacheEntry {
+    private final Object storedObject;
+    private final long created = System.currentTimeMillis();
+
+    CacheEntry(final Object storedObject) {
+      this.storedObject = storedObject;
+    }
+  }
+
+}
@@ -0,0 +1,173 @@
+/*-
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.dataaccess.cache.impl;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.braintags.vertx.jomnigate.dataaccess.cache.IQueryResultCache;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
+
+/**
+ * Default implementation of {@link IQueryResultCache}. Each mapper class holds up to {@link #DEFAULT_MAX_ENTRIES}
+ * results, the least recently used result is removed, when the limit is reached. Each invalidation of a mapper class
+ * increases its generation, a result of an older generation is not stored
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class QueryResultCache implements IQueryResultCache {
+  /**
+   * The default number of results, which are held per mapper class
+   */
+  public static final int DEFAULT_MAX_ENTRIES = 100;
+
+  private final int maxEntries;
+  private final Map<Class<?>, Region> regions = new ConcurrentHashMap<>();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Create an instance, which holds up to {@link #DEFAULT_MAX_ENTRIES} results per mapper class
+   */
+  public QueryResultCache() {
+    this(DEFAULT_MAX_ENTRIES);
+  }
+
+  /**
+   * Create an instance, which holds up to maxEntries results per mapper class
+   * 
+   * @param maxEntries
+   *          the maximum number of results per mapper class
+   */
+  public QueryResultCache(final int maxEntries) {
+    this.maxEntries = maxEntries;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.dataaccess.cache.IQueryResultCache#get(java.lang.Class, java.lang.String)
+   */
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> IQueryResult<T> get(final Class<T> mapperClass, final String key) {
+    Region region = getRegion(mapperClass);
+    CachedResult entry;
+    synchronized (region) {
+      entry = region.entries.get(key);
+      if (entry != null && entry.expires < System.currentTimeMillis()) {
+        region.entries.remove(key);
+        entry = null;
+      }
+    }
+    if (entry == null) {
+      misses.incrementAndGet();
+      return null;
+    }
+    hits.incrementAndGet();
+    return (IQueryResult<T>) entry.result;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.dataaccess.cache.IQueryResultCache#getGeneration(java.lang.Class)
+   */
+  @Override
+  public long getGeneration(final Class<?> mapperClass) {
+    Region region = getRegion(mapperClass);
+    synchronized (region) {
+      return region.generation;
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.dataaccess.cache.IQueryResultCache#put(java.lang.Class, java.lang.String,
+   * de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult, java.time.Duration, long)
+   */
+  @Override
+  public <T> void put(final Class<T> mapperClass, final String key, final IQueryResult<T> result,
+      final Duration timeToLive, final long generation) {
+    Region region = getRegion(mapperClass);
+    synchronized (region) {
+      if (region.generation == generation) {
+        region.entries.put(key, new CachedResult(result, System.currentTimeMillis() + timeToLive.toMillis()));
+      }
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.dataaccess.cache.IQueryResultCache#invalidate(java.lang.Class)
+   */
+  @Override
+  public void invalidate(final Class<?> mapperClass) {
+    Region region = getRegion(mapperClass);
+    synchronized (region) {
+      region.generation++;
+      region.entries.clear();
+    }
+  }
+
+  @Override
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  @Override
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  private Region getRegion(final Class<?> mapperClass) {
+    return regions.computeIfAbsent(mapperClass, mc -> new Region(maxEntries));
+  }
+
+  /**
+   * The results of one mapper class together with the generation, which is increased by each invalidation. Access is
+   * synchronized on the region
+   */
+  static class Region {
+    private final Map<String, CachedResult> entries;
+    private long generation;
+
+    Region(final int maxEntries) {
+      entries = new LinkedHashMap<String, CachedResult>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, CachedResult> eldest) {
+          return size() > maxEntries;
+        }
+      };
+    }
+  }
+
+  static class CachedResult {
+    private final IQueryResult<?> result;
+    private final long expires;
+
+    CachedResult(final IQueryResult<?> result, final long expires) {
+      this.result = result;
+      this.expires = expires;
+    }
+  }
+
+}
@@ -18,8 +18,6 @@ import java.util.List;
 
 import de.braintags.vertx.jomnigate.dataaccess.delete.IDelete;
 import de.braintags.vertx.jomnigate.dataaccess.delete.IDeleteResult;
-import de.braintags.vertx.jomnigate.observer.IObserver;
-import de.braintags.vertx.jomnigate.observer.IObserverContext;
 import de.braintags.vertx.jomnigate.observer.IObserverEvent;
 import de.braintags.vertx.jomnigate.observer.ObserverEventType;
 import de.braintags.vertx.jomnigate.observer.impl.handler.AbstractEventHandler;
@@ -37,27 +35,18 @@ public class AfterDeleteHandler extends AbstractEventHandler<IDelete<?>, IDelete
    * (non-Javadoc)
    * 
    * @see
-   * de.braintags.vertx.jomnigate.observer.impl.AbstractEventHandler#createEntityFutureList(de.braintags.vertx.jomnigate
-   * .observer.IObserver, de.braintags.vertx.jomnigate.dataaccess.IDataAccessObject,
-   * de.braintags.vertx.jomnigate.observer.IObserverContext)
+   * de.braintags.vertx.jomnigate.observer.impl.handler.AbstractEventHandler#createEvents(java.lang.Object,
+   * de.braintags.vertx.jomnigate.dataaccess.IAccessResult)
    */
-  @SuppressWarnings("rawtypes")
   @Override
-  protected List<Future> createEntityFutureList(IObserver observer, IDelete<?> deleteObject, IDeleteResult result,
-      IObserverContext context) {
-    List<Future> fl = new ArrayList<>();
+  protected Future<List<IObserverEvent>> createEvents(IDelete<?> deleteObject, IDeleteResult result) {
+    List<IObserverEvent> events = new ArrayList<>();
     Iterator<?> selection = ((Delete<?>) deleteObject).getSelection();
     while (selection.hasNext()) {
-      IObserverEvent event = IObserverEvent.createEvent(ObserverEventType.AFTER_DELETE, selection.next(), null,
-          deleteObject, deleteObject.getDataStore());
-      if (observer.canHandleEvent(event, context)) {
-        Future tf = observer.handleEvent(event, context);
-        if (tf != null) {
-          fl.add(tf);
-        }
-      }
+      events.add(IObserverEvent.createEvent(ObserverEventType.AFTER_DELETE, selection.next(), null, deleteObject,
+          deleteObject.getDataStore()));
     }
-    return fl;
+    return Future.succeededFuture(events);
   }
 
 }
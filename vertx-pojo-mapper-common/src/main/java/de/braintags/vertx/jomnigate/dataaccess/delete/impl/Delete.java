@@ -21,6 +21,7 @@ import java.util.List;
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.annotation.lifecycle.AfterDelete;
 import de.braintags.vertx.jomnigate.annotation.lifecycle.BeforeDelete;
+import de.braintags.vertx.jomnigate.dataaccess.cache.IEntityCache;
 import de.braintags.vertx.jomnigate.dataaccess.delete.IDelete;
 import de.braintags.vertx.jomnigate.dataaccess.delete.IDeleteResult;
 import de.braintags.vertx.jomnigate.dataaccess.impl.AbstractDataAccessObject;
@@ -29,6 +30,7 @@ import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
 import de.braintags.vertx.jomnigate.dataaccess.query.IdField;
 import de.braintags.vertx.jomnigate.mapping.IIdInfo;
 import de.braintags.vertx.jomnigate.mapping.IProperty;
+import de.braintags.vertx.jomnigate.mapping.IPropertyAccessor;
 import de.braintags.vertx.jomnigate.observer.IObserverContext;
 import de.braintags.vertx.util.exception.ParameterRequiredException;
 import io.vertx.core.AsyncResult;
@@ -75,13 +77,38 @@ public abstract class Delete<T> extends AbstractDataAccessObject<T> implements I
   @Override
   public final void delete(final Handler<AsyncResult<IDeleteResult>> resultHandler) {
     if (getQuery() != null) {
-      deleteQuery(query, resultHandler);
+      deleteQuery(query, res -> {
+        afterCommit(this::invalidateCache);
+        resultHandler.handle(res);
+      });
     } else if (!recordList.isEmpty()) {
-      deleteRecords(resultHandler);
+      deleteRecords(res -> {
+        afterCommit(this::invalidateCache);
+        resultHandler.handle(res);
+      });
     } else
       throw new ParameterRequiredException("Nor query nor records defined to be deleted");
   }
 
+  /**
+   * Removes the cached query results of the mapper and the deleted instances from the {@link IEntityCache}. Deletions
+   * by a query remove all instances of the mapper. The snapshots of deleted instances are removed, so that a later save
+   * writes them completely. Inside a transaction this is done after the commit
+   */
+  private void invalidateCache() {
+    getDataStore().getQueryResultCache().invalidate(getMapperClass());
+    IEntityCache cache = getDataStore().getEntityCache();
+    if (cache.isCacheable(getMapper())) {
+      if (getQuery() != null) {
+        cache.invalidateAll(getMapper());
+      } else {
+        IPropertyAccessor accessor = getMapper().getIdInfo().getField().getPropertyAccessor();
+        recordList.forEach(entity -> cache.invalidate(getMapper(), accessor.readData(entity)));
+      }
+    }
+    recordList.forEach(getDataStore().getEntitySnapshots()::remove);
+  }
+
   @Override
   public int size() {
     return recordList.size();
@@ -14,6 +14,7 @@ package de.braintags.vertx.jomnigate.dataaccess.impl;
 
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.dataaccess.IDataAccessObject;
+import de.braintags.vertx.jomnigate.dataaccess.transaction.ITransaction;
 import de.braintags.vertx.jomnigate.mapping.IDataStoreSynchronizer;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
 import de.braintags.vertx.jomnigate.mapping.ISyncResult;
@@ -80,6 +81,31 @@ public abstract class AbstractDataAccessObject<T> implements IDataAccessObject<T
     return mapper;
   }
 
+  /**
+   * Get the transaction, inside which the current instance is executed
+   * 
+   * @return the transaction or null, if the current instance is not part of a transaction
+   */
+  protected ITransaction getTransaction() {
+    return null;
+  }
+
+  /**
+   * Executes an action, which depends on the changes of the current instance being stored, like the invalidation of
+   * caches. Inside a transaction the action is executed after the commit, otherwise it is executed immediately
+   * 
+   * @param action
+   *          the action to be executed
+   */
+  protected void afterCommit(final Runnable action) {
+    ITransaction transaction = getTransaction();
+    if (transaction != null) {
+      transaction.afterCommit(action);
+    } else {
+      action.run();
+    }
+  }
+
   /**
    * If a Synchronizer is defined, then it is executed
    * 
@@ -12,6 +12,7 @@
  */
 package de.braintags.vertx.jomnigate.dataaccess.query;
 
+import java.time.Duration;
 import java.util.List;
 
 import de.braintags.vertx.jomnigate.IDataStore;
@@ -19,6 +20,7 @@ import de.braintags.vertx.jomnigate.dataaccess.IDataAccessObject;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.IQueryExpression;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
+import io.vertx.core.streams.ReadStream;
 
 /**
  * Define and execute queries inside the connected {@link IDataStore}
@@ -54,6 +56,28 @@ public interface IQuery<T> extends IDataAccessObject<T> {
   void execute(IFieldValueResolver resolver, int limit, int offset,
       Handler<AsyncResult<IQueryResult<T>>> resultHandler);
 
+  /**
+   * Execute the query and deliver the complete selection as {@link ReadStream} of mapper instances. Any variables in
+   * the search condition will result in an error. See {@link #executeStream(IFieldValueResolver, int)}
+   *
+   * @return a stream, which starts to read, when a handler is set
+   */
+  ReadStream<T> executeStream();
+
+  /**
+   * Execute the query and deliver the complete selection as {@link ReadStream} of mapper instances. The records are
+   * read from the datastore in batches of the given size; implementations which support server side cursors keep one
+   * cursor open for the whole stream, others execute one query per batch. The stream respects pause and resume, so
+   * it can be pumped into slow destinations without reading the complete selection into memory.
+   *
+   * @param resolver
+   *          replaces potential variables in the search condition with an actual value, can be null
+   * @param batchSize
+   *          the number of records which are read from the datastore at once
+   * @return a stream, which starts to read, when a handler is set
+   */
+  ReadStream<T> executeStream(IFieldValueResolver resolver, int batchSize);
+
   /**
    * Execute the query by counting the fitting objects. Any variables in the search condition will result in an error.
    * For queries with variables, see {@link #executeCount(IFieldValueResolver, Handler)}
@@ -101,6 +125,45 @@ public interface IQuery<T> extends IDataAccessObject<T> {
    */
   IQuery<T> setReturnCompleteCount(boolean returnCompleteCount);
 
+  /**
+   * Mark the query as cacheable. The result of the query is stored in the
+   * {@link IDataStore#getQueryResultCache()} for the given time and is returned to each query, which builds the same
+   * {@link IQueryExpression}. Each write or delete action of the mapper class removes the cached results.
+   * Note, that all callers will get the same instances, which should not be modified therefore
+   *
+   * @param timeToLive
+   *          the time, for which the result is cached; null switches caching off
+   * @return the query itself for fluent access
+   */
+  IQuery<T> setCacheable(Duration timeToLive);
+
+  /**
+   * Mark the query as prepared. A prepared query compiles its search condition at the first execution into a template
+   * of the native query. Later executions only bind the actual values of the {@link IVariableFieldCondition}s by the
+   * {@link IFieldValueResolver}, without parsing the search condition again. This is useful for queries, which are
+   * executed often with different values. The search condition must not be modified after the first execution,
+   * otherwise {@link #setSearchCondition(ISearchCondition)} must be called again.
+   *
+   * @param prepared
+   *          true, if the search condition shall be compiled into a template
+   * @return the query itself for fluent access
+   */
+  IQuery<T> setPrepared(boolean prepared);
+
+  /**
+   * Get the info, whether the search condition is compiled into a template
+   *
+   * @return true, if the query is prepared
+   */
+  boolean isPrepared();
+
+  /**
+   * Get the time, for which the result of the query is cached
+   *
+   * @return the time to live or null, if the query is not cacheable
+   */
+  Duration getCacheTimeToLive();
+
   /**
    * Add a field to sort the resulting selection by. This method is the same than addSort( fieldName, true )
    *
@@ -121,6 +184,13 @@ public interface IQuery<T> extends IDataAccessObject<T> {
    */
   ISortDefinition<T> addSort(String sortField, boolean ascending);
 
+  /**
+   * Get the sort definitions of the current instance
+   *
+   * @return the {@link ISortDefinition}
+   */
+  ISortDefinition<T> getSortDefinitions();
+
   /**
    * Add a command, which is a database specific object like an sql string or a JsonObject for mongo. If a native
    * command is added, other parameters are ignored on execution. When the IQuery is executed later, then the native
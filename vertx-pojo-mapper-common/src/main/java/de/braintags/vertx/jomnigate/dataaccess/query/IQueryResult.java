@@ -12,11 +12,15 @@
  */
 package de.braintags.vertx.jomnigate.dataaccess.query;
 
+import java.util.List;
+
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.dataaccess.IAccessResult;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.IQueryExpression;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
 import de.braintags.vertx.util.CollectionAsync;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
 
 /**
  * The result of an executed {@link IQuery}. Acts as an unmodifyable {@link CollectionAsync}, so that implementations
@@ -60,4 +64,16 @@ public interface IQueryResult<E> extends CollectionAsync<E>, IAccessResult {
    */
   public long getCompleteResult();
 
+  /**
+   * Create all instances of the result and return them as {@link List}. Up to concurrency instances are generated at
+   * the same time, so that the lookup of referenced or embedded objects of several records can overlap. The order of
+   * the list is the order of the result
+   * 
+   * @param concurrency
+   *          the maximum number of instances, which are generated at the same time
+   * @param handler
+   *          the handler to be informed
+   */
+  public void toList(int concurrency, Handler<AsyncResult<List<E>>> handler);
+
 }
@@ -40,6 +40,15 @@ public interface ISortDefinition<T> {
    */
   ISortDefinition<T> addSort(String sortField, boolean ascending);
 
+  /**
+   * Remove the last sort argument, which was added for the given field
+   *
+   * @param sortField
+   *          the field, which was added before
+   * @return an instance of {@link ISortDefinition} for fluent access
+   */
+  ISortDefinition<T> removeSort(String sortField);
+
   /**
    * @return true if there is no sort definition, otherwise false
    */
@@ -23,6 +23,7 @@ import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
 import de.braintags.vertx.jomnigate.dataaccess.query.ISearchConditionContainer;
 import de.braintags.vertx.jomnigate.dataaccess.query.IVariableFieldCondition;
 import de.braintags.vertx.jomnigate.dataaccess.query.exception.InvalidQueryValueException;
+import de.braintags.vertx.jomnigate.dataaccess.query.exception.QueryExpressionBuildException;
 import de.braintags.vertx.jomnigate.dataaccess.query.exception.UnknownQueryLogicException;
 import de.braintags.vertx.jomnigate.dataaccess.query.exception.UnknownQueryOperatorException;
 import de.braintags.vertx.jomnigate.dataaccess.query.exception.UnknownSearchConditionException;
@@ -69,6 +70,139 @@ public abstract class AbstractQueryExpression<T> implements IQueryExpression {
     });
   }
 
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.impl.IQueryExpression#compileSearchCondition(de.braintags.vertx.
+   * jomnigate.dataaccess.query.ISearchCondition, io.vertx.core.Handler)
+   */
+  @Override
+  public void compileSearchCondition(final ISearchCondition searchCondition,
+      final Handler<AsyncResult<CompiledSearchCondition<?>>> handler) {
+    compileNode(searchCondition, result -> {
+      if (result.failed()) {
+        handler.handle(Future.failedFuture(result.cause()));
+      } else {
+        CompiledSearchCondition<?> compiled = new CompiledSearchCondition<>(getClass(), result.result());
+        handler.handle(Future.succeededFuture(compiled));
+      }
+    });
+  }
+
+  /**
+   * Compiles one part of a search condition. Parts without variables are built into their native result, so that they
+   * are not parsed again, when the compiled condition is bound
+   *
+   * @param searchCondition
+   *          the part of the search condition
+   * @param handler
+   *          returns the compiled part
+   */
+  private void compileNode(final ISearchCondition searchCondition,
+      final Handler<AsyncResult<CompiledSearchCondition.Node<T>>> handler) {
+    if (!CompiledSearchCondition.containsVariable(searchCondition)) {
+      internalBuildSearchCondition(searchCondition, null, result -> {
+        if (result.failed()) {
+          handler.handle(Future.failedFuture(result.cause()));
+        } else {
+          handler.handle(Future.succeededFuture(CompiledSearchCondition.Node.createStatic(result.result())));
+        }
+      });
+    } else if (searchCondition instanceof IFieldCondition) {
+      IFieldCondition fieldCondition = (IFieldCondition) searchCondition;
+      String columnName = fieldCondition.getField().getColumnName(getMapper());
+      handler.handle(Future.succeededFuture(CompiledSearchCondition.Node.createVariable(fieldCondition, columnName)));
+    } else {
+      ISearchConditionContainer container = (ISearchConditionContainer) searchCondition;
+      @SuppressWarnings("rawtypes")
+      List<Future> futures = new ArrayList<>();
+      for (ISearchCondition sub : container.getConditions()) {
+        Future<CompiledSearchCondition.Node<T>> future = Future.future();
+        futures.add(future);
+        compileNode(sub, future.completer());
+      }
+      CompositeFuture.all(futures).setHandler(result -> {
+        if (result.failed()) {
+          handler.handle(Future.failedFuture(result.cause()));
+        } else {
+          List<CompiledSearchCondition.Node<T>> children = result.result().list();
+          handler.handle(Future.succeededFuture(CompiledSearchCondition.Node.createContainer(container, children)));
+        }
+      });
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.impl.IQueryExpression#buildSearchCondition(de.braintags.vertx.
+   * jomnigate.dataaccess.query.impl.CompiledSearchCondition,
+   * de.braintags.vertx.jomnigate.dataaccess.query.IFieldValueResolver, io.vertx.core.Handler)
+   */
+  @SuppressWarnings("unchecked")
+  @Override
+  public void buildSearchCondition(final CompiledSearchCondition<?> compiledCondition,
+      final IFieldValueResolver resolver, final Handler<AsyncResult<Void>> handler) {
+    if (compiledCondition.getQueryExpressionClass() != getClass()) {
+      handler.handle(Future.failedFuture(new IllegalArgumentException("The condition was compiled by "
+          + compiledCondition.getQueryExpressionClass().getName() + " and can not be used by " + getClass().getName())));
+      return;
+    }
+    T result;
+    try {
+      result = bindNode(((CompiledSearchCondition<T>) compiledCondition).getRoot(), resolver);
+    } catch (Exception e) {
+      handler.handle(Future.failedFuture(e));
+      return;
+    }
+    handleFinishedSearchCondition(result);
+    handler.handle(Future.succeededFuture());
+  }
+
+  /**
+   * Binds the actual values of the variables into a compiled part of a search condition. The parts without variables
+   * are taken as they were built by the compilation
+   *
+   * @param node
+   *          the compiled part
+   * @param resolver
+   *          the resolver for the variables
+   * @return the internal object that represents the bound part
+   */
+  private T bindNode(final CompiledSearchCondition.Node<T> node, final IFieldValueResolver resolver)
+      throws QueryExpressionBuildException, VariableSyntaxException {
+    if (node.isStatic()) {
+      return copyTemplate(node.result);
+    } else if (node.variableCondition != null) {
+      if (resolver == null) {
+        throw new VariableSyntaxException(
+            "No resolver defined for variable " + node.variableCondition.getValue().textValue());
+      }
+      JsonNode fieldValue = FieldCondition
+          .transformObject(resolver.resolve(node.variableCondition.getValue().textValue()));
+      return buildFieldConditionResult(node.variableCondition, node.columnName, fieldValue);
+    } else {
+      List<T> parsedConditionList = new ArrayList<>(node.children.size());
+      for (CompiledSearchCondition.Node<T> child : node.children) {
+        parsedConditionList.add(bindNode(child, resolver));
+      }
+      return parseContainerContents(parsedConditionList, node.container);
+    }
+  }
+
+  /**
+   * Creates the part of a search condition, which is bound by one execution, from a part of a compiled condition. The
+   * compiled condition is used by all executions of a prepared query, so that implementations, whose native results
+   * are modified by the execution, must return a copy. The default implementation returns the template itself
+   *
+   * @param template
+   *          the part of the compiled condition without variables
+   * @return the part to be used by the current execution
+   */
+  protected T copyTemplate(final T template) {
+    return template;
+  }
+
   /**
    * Method to process the final result of the search condition building process, mostly to save it to a field and/or do
    * some final manipulation
@@ -278,4 +412,16 @@ public abstract class AbstractQueryExpression<T> implements IQueryExpression {
   public IMapper<?> getMapper() {
     return mapper;
   }
+
+  /**
+   * The default implementation uses the String representation of the expression. Implementations should overwrite
+   * this method, if toString does not contain all arguments of the query
+   * 
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.impl.IQueryExpression#getCacheKey()
+   */
+  @Override
+  public String getCacheKey() {
+    return toString();
+  }
+
 }
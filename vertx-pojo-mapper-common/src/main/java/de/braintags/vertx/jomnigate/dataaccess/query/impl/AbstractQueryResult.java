@@ -13,9 +13,14 @@
 
 package de.braintags.vertx.jomnigate.dataaccess.query.impl;
 
+import java.util.Arrays;
+import java.util.List;
+
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
+import de.braintags.vertx.jomnigate.dataaccess.write.impl.EntitySnapshots;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
+import de.braintags.vertx.jomnigate.mapping.IStoreObject;
 import de.braintags.vertx.util.AbstractCollectionAsync;
 import de.braintags.vertx.util.IteratorAsync;
 import io.vertx.core.AsyncResult;
@@ -39,6 +44,7 @@ public abstract class AbstractQueryResult<T> extends AbstractCollectionAsync<T>
   private final T[] pojoResult;
   private final IQueryExpression originalQuery;
   private long completeResult;
+  private volatile boolean shared;
 
   /**
    * Constructor
@@ -80,6 +86,55 @@ public abstract class AbstractQueryResult<T> extends AbstractCollectionAsync<T>
    */
   protected abstract void generatePojo(int i, Handler<AsyncResult<T>> handler);
 
+  /**
+   * Remembers the container of the given {@link IStoreObject} as snapshot of the created pojo, so that a later save
+   * writes only the changed values. Implementations call this method from {@link #generatePojo(int, Handler)}; the
+   * container must not be modified afterwards
+   *
+   * @param storeObject
+   *          the store object, which was used to create the pojo
+   */
+  protected void takeSnapshot(final IStoreObject<T, ?> storeObject) {
+    if (shared) {
+      datastore.getEntitySnapshots().share(storeObject.getEntity());
+    } else {
+      datastore.getEntitySnapshots().put(storeObject.getEntity(), storeObject.getContainer());
+    }
+  }
+
+  /**
+   * Marks the current result as shared by several callers, like it is done by the query result cache. The pojos of a
+   * shared result are marked by {@link EntitySnapshots#share(Object)}, so that they are written completely by each
+   * save. All pojos must be generated before, so that the result is only read by its callers
+   * 
+   * @throws IllegalStateException
+   *           if a pojo of the result was not generated yet
+   */
+  public void share() {
+    for (T pojo : pojoResult) {
+      if (pojo == null) {
+        throw new IllegalStateException("a shared result must be generated completely");
+      }
+    }
+    shared = true;
+    for (T pojo : pojoResult) {
+      datastore.getEntitySnapshots().share(pojo);
+    }
+  }
+
+  /**
+   * Get the object at position index as it was read from the datastore, from which the pojo is created. The
+   * {@link de.braintags.vertx.jomnigate.dataaccess.cache.IEntityCache} keeps those objects to create a new pojo for
+   * each request. Implementations, which return null, are not cached
+   * 
+   * @param index
+   *          the position inside the result from the datastore
+   * @return the object as read from the datastore or null, if the implementation does not support it
+   */
+  public Object getStoredObject(final int index) {
+    return null;
+  }
+
   /*
    * (non-Javadoc)
    * 
@@ -115,6 +170,84 @@ public abstract class AbstractQueryResult<T> extends AbstractCollectionAsync<T>
     return new QueryResultIterator();
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult#toList(int, io.vertx.core.Handler)
+   */
+  @Override
+  public void toList(final int concurrency, final Handler<AsyncResult<List<T>>> handler) {
+    if (concurrency < 1) {
+      throw new IllegalArgumentException("concurrency must be larger than 0");
+    }
+    new ListGenerator(concurrency, handler).generate();
+  }
+
+  /**
+   * Generates the pojos of the result with a limited number of generations running at the same time. Each finished
+   * generation starts the next open index, the pojos are stored at their position inside the internal array
+   */
+  class ListGenerator {
+    private final int concurrency;
+    private final Handler<AsyncResult<List<T>>> handler;
+    private int nextIndex = 0;
+    private int running = 0;
+    private int finished = 0;
+    private boolean launching;
+    private boolean done;
+
+    ListGenerator(final int concurrency, final Handler<AsyncResult<List<T>>> handler) {
+      this.concurrency = concurrency;
+      this.handler = handler;
+    }
+
+    void generate() {
+      if (launching || done) {
+        return;
+      }
+      // a loop instead of recursion, cause generatePojo may answer synchronously
+      launching = true;
+      try {
+        while (!done && running < concurrency && nextIndex < pojoResult.length) {
+          int index = nextIndex++;
+          if (pojoResult[index] != null) {
+            finished++;
+          } else {
+            running++;
+            generatePojo(index, result -> handleResult(index, result));
+          }
+        }
+        checkFinished();
+      } finally {
+        launching = false;
+      }
+    }
+
+    private void handleResult(final int index, final AsyncResult<T> result) {
+      running--;
+      if (done) {
+        return;
+      }
+      if (result.failed()) {
+        done = true;
+        handler.handle(Future.failedFuture(result.cause()));
+      } else {
+        pojoResult[index] = result.result();
+        finished++;
+        if (!launching) {
+          generate();
+        }
+      }
+    }
+
+    private void checkFinished() {
+      if (!done && finished == pojoResult.length) {
+        done = true;
+        handler.handle(Future.succeededFuture(Arrays.asList(pojoResult.clone())));
+      }
+    }
+  }
+
   class QueryResultIterator implements IteratorAsync<T> {
     private int currentIndex = 0;
 
@@ -0,0 +1,114 @@
+/*-
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.dataaccess.query.impl;
+
+import java.util.List;
+
+import de.braintags.vertx.jomnigate.dataaccess.query.IFieldCondition;
+import de.braintags.vertx.jomnigate.dataaccess.query.IFieldValueResolver;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchConditionContainer;
+import de.braintags.vertx.jomnigate.dataaccess.query.IVariableFieldCondition;
+
+/**
+ * A search condition, which was compiled by an {@link IQueryExpression} into a template of the native query. All parts
+ * of the condition, which don't contain an {@link IVariableFieldCondition}, are built once into their native result.
+ * Only the variables are resolved by an {@link IFieldValueResolver} and bound into the template, when the expression is
+ * built by {@link IQueryExpression#buildSearchCondition(CompiledSearchCondition, IFieldValueResolver,
+ * io.vertx.core.Handler)}
+ *
+ * @param <T>
+ *          the internal result type of the query expression, which compiled the condition
+ * @author Michael Remme
+ *
+ */
+public class CompiledSearchCondition<T> {
+  private final Class<? extends IQueryExpression> queryExpressionClass;
+  private final Node<T> root;
+
+  CompiledSearchCondition(final Class<? extends IQueryExpression> queryExpressionClass, final Node<T> root) {
+    this.queryExpressionClass = queryExpressionClass;
+    this.root = root;
+  }
+
+  /**
+   * Get the class of the query expression, which compiled the condition and which is able to bind it
+   *
+   * @return the queryExpressionClass
+   */
+  public Class<? extends IQueryExpression> getQueryExpressionClass() {
+    return queryExpressionClass;
+  }
+
+  Node<T> getRoot() {
+    return root;
+  }
+
+  /**
+   * Checks, whether the given search condition or one of its children contains a variable
+   *
+   * @param searchCondition
+   *          the condition to check
+   * @return true, if the condition contains an {@link IVariableFieldCondition}
+   */
+  public static boolean containsVariable(final ISearchCondition searchCondition) {
+    if (searchCondition instanceof IVariableFieldCondition) {
+      return true;
+    } else if (searchCondition instanceof ISearchConditionContainer) {
+      for (ISearchCondition sub : ((ISearchConditionContainer) searchCondition).getConditions()) {
+        if (containsVariable(sub)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * One part of the compiled condition. It is either the native result of a part without variables, a variable
+   * condition or a container of compiled parts
+   */
+  static class Node<T> {
+    final T result;
+    final IFieldCondition variableCondition;
+    final String columnName;
+    final ISearchConditionContainer container;
+    final List<Node<T>> children;
+
+    private Node(final T result, final IFieldCondition variableCondition, final String columnName,
+        final ISearchConditionContainer container, final List<Node<T>> children) {
+      this.result = result;
+      this.variableCondition = variableCondition;
+      this.columnName = columnName;
+      this.container = container;
+      this.children = children;
+    }
+
+    static <T> Node<T> createStatic(final T result) {
+      return new Node<>(result, null, null, null, null);
+    }
+
+    static <T> Node<T> createVariable(final IFieldCondition condition, final String columnName) {
+      return new Node<>(null, condition, columnName, null, null);
+    }
+
+    static <T> Node<T> createContainer(final ISearchConditionContainer container, final List<Node<T>> children) {
+      return new Node<>(null, null, null, container, children);
+    }
+
+    boolean isStatic() {
+      return variableCondition == null && container == null;
+    }
+  }
+
+}
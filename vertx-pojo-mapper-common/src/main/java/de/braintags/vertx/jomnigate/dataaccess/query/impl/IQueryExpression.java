@@ -63,6 +63,32 @@ public interface IQueryExpression {
   void buildSearchCondition(ISearchCondition searchCondition, IFieldValueResolver resolver,
       Handler<AsyncResult<Void>> handler);
 
+  /**
+   * Compile a search condition into a template of the native query. The template can be reused by all expressions of
+   * the same class to build a query, where only the variables of the condition are bound with their actual value
+   *
+   * @param searchCondition
+   *          the implementation independent search condition
+   * @param handler
+   *          the handler to be informed with the compiled condition
+   */
+  void compileSearchCondition(ISearchCondition searchCondition,
+      Handler<AsyncResult<CompiledSearchCondition<?>>> handler);
+
+  /**
+   * Build the concrete query expression from a search condition, which was compiled before by
+   * {@link #compileSearchCondition(ISearchCondition, Handler)}
+   *
+   * @param compiledCondition
+   *          the compiled search condition
+   * @param resolver
+   *          replaces the variables in the search condition with an actual value, can be null, if the condition does
+   *          not contain variables
+   * @param handler
+   */
+  void buildSearchCondition(CompiledSearchCondition<?> compiledCondition, IFieldValueResolver resolver,
+      Handler<AsyncResult<Void>> handler);
+
   /**
    * Adds the given {@link ISortDefinition} into the current instance like it is needed by the implementation
    *
@@ -99,4 +125,12 @@ public interface IQueryExpression {
    *          the use fields to set
    */
   void setUseFields(List<String> useFields);
+
+  /**
+   * Get a key, which identifies the native query completely, including limit, offset and sort. Two expressions with
+   * the same key must return the same result from the datastore
+   * 
+   * @return the key, which is used by the cache of query results
+   */
+  String getCacheKey();
 }
@@ -12,10 +12,12 @@
  */
 package de.braintags.vertx.jomnigate.dataaccess.query.impl;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
 import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.dataaccess.cache.IQueryResultCache;
 import de.braintags.vertx.jomnigate.dataaccess.impl.AbstractDataAccessObject;
 import de.braintags.vertx.jomnigate.dataaccess.query.IFieldValueResolver;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
@@ -23,10 +25,13 @@ import de.braintags.vertx.jomnigate.dataaccess.query.IQueryCountResult;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
 import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
 import de.braintags.vertx.jomnigate.dataaccess.query.ISortDefinition;
+import de.braintags.vertx.jomnigate.dataaccess.query.stream.QueryReadStream;
+import de.braintags.vertx.jomnigate.dataaccess.query.stream.QueryReadStreamPojo;
 import de.braintags.vertx.jomnigate.observer.IObserverContext;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.streams.ReadStream;
 
 /**
  * An abstract implementation of {@link IQuery}
@@ -40,12 +45,19 @@ public abstract class Query<T> extends AbstractDataAccessObject<T> implements IQ
   private static final io.vertx.core.logging.Logger LOGGER = io.vertx.core.logging.LoggerFactory.getLogger(Query.class);
 
   private static final long SLOW_QUERY_WARNING_MS = 4000;
+  /**
+   * The number of instances, which are generated at the same time, before a result is stored in the query result cache
+   */
+  private static final int CACHE_CONCURRENCY = 10;
 
   private ISearchCondition searchCondition;
   private boolean returnCompleteCount = false;
   private final SortDefinition<T> sortDefs = new SortDefinition<>();
   private List<String> useFields;
   private Object nativeCommand;
+  private Duration cacheTimeToLive;
+  private boolean prepared;
+  private CompiledSearchCondition<?> compiledSearchCondition;
 
   /**
    * @param mapperClass
@@ -84,14 +96,13 @@ public abstract class Query<T> extends AbstractDataAccessObject<T> implements IQ
           Future<IQueryResult<T>> rf = Future.future();
           rf.setHandler(resultHandler);
           IObserverContext context = IObserverContext.createInstance();
-          preQuery(context).compose(pre -> executeQuery(resolver, limit, offset))
-              .compose(wr -> postQuery(wr, context).map(v -> {
-                long queryTime = System.currentTimeMillis() - startTime;
-                if (queryTime > SLOW_QUERY_WARNING_MS) {
-                  LOGGER.warn("[queryTime: " + queryTime + " ms] Slow query", new SlowQueryException(this));
-                }
-                return wr;
-              })).setHandler(resultHandler);
+          preQuery(context).compose(pre -> executeQuery(resolver, limit, offset, context)).map(wr -> {
+            long queryTime = System.currentTimeMillis() - startTime;
+            if (queryTime > SLOW_QUERY_WARNING_MS) {
+              LOGGER.warn("[queryTime: " + queryTime + " ms] Slow query", new SlowQueryException(this));
+            }
+            return wr;
+          }).setHandler(resultHandler);
         } catch (Exception e) {
           resultHandler.handle(Future.failedFuture(e));
         }
@@ -100,7 +111,7 @@ public abstract class Query<T> extends AbstractDataAccessObject<T> implements IQ
   }
 
   private final Future<IQueryResult<T>> executeQuery(final IFieldValueResolver resolver, final int limit,
-      final int offset) {
+      final int offset, final IObserverContext context) {
     Future<IQueryResult<T>> f = Future.future();
     buildQueryExpression(resolver, result -> {
       if (result.failed()) {
@@ -108,12 +119,85 @@ public abstract class Query<T> extends AbstractDataAccessObject<T> implements IQ
       } else {
         IQueryExpression queryExpression = result.result();
         queryExpression.setLimit(limit, offset);
-        internalExecute(queryExpression, f);
+        if (cacheTimeToLive == null) {
+          executeAndLoad(queryExpression, context).setHandler(f.completer());
+        } else {
+          executeCached(queryExpression, context, f);
+        }
       }
     });
     return f;
   }
 
+  /**
+   * Executes the query expression and informs the observers about the loaded result
+   */
+  private Future<IQueryResult<T>> executeAndLoad(final IQueryExpression queryExpression,
+      final IObserverContext context) {
+    Future<IQueryResult<T>> qf = Future.future();
+    internalExecute(queryExpression, qf);
+    return qf.compose(qr -> postQuery(qr, context).map(v -> qr));
+  }
+
+  /**
+   * Answers the query by the {@link IQueryResultCache} of the datastore, if a result of the same expression is cached.
+   * Otherwise the query is executed and the result is stored in the cache. The event AFTER_LOAD is executed only for
+   * a new result, because the instances of a cached result were already handled by the observers when they were loaded.
+   * All instances of a new result are generated before it is cached, so that callers on several event loops only read
+   * it. The generation of the cache is fetched before the execution, so that a result, which was read before an
+   * invalidation, is not cached
+   */
+  private void executeCached(final IQueryExpression queryExpression, final IObserverContext context,
+      final Future<IQueryResult<T>> f) {
+    IQueryResultCache cache = getDataStore().getQueryResultCache();
+    String key = queryExpression.getCacheKey() + "|" + returnCompleteCount;
+    IQueryResult<T> cached = cache.get(getMapperClass(), key);
+    if (cached != null) {
+      f.complete(cached);
+    } else {
+      long generation = cache.getGeneration(getMapperClass());
+      executeAndLoad(queryExpression, context).setHandler(res -> {
+        if (res.failed()) {
+          f.fail(res.cause());
+        } else {
+          IQueryResult<T> qr = res.result();
+          qr.toList(CACHE_CONCURRENCY, ar -> {
+            if (ar.failed()) {
+              f.fail(ar.cause());
+            } else {
+              if (qr instanceof AbstractQueryResult) {
+                ((AbstractQueryResult<T>) qr).share();
+              }
+              cache.put(getMapperClass(), key, qr, cacheTimeToLive, generation);
+              f.complete(qr);
+            }
+          });
+        }
+      });
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQuery#executeStream()
+   */
+  @Override
+  public final ReadStream<T> executeStream() {
+    return executeStream(null, QueryReadStream.DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * The default implementation executes one query per batch by using a {@link QueryReadStreamPojo}. Implementations
+   * which support server side cursors should overwrite this method
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQuery#executeStream(IFieldValueResolver, int)
+   */
+  @Override
+  public ReadStream<T> executeStream(final IFieldValueResolver resolver, final int batchSize) {
+    return new QueryReadStreamPojo<>(this, batchSize, resolver);
+  }
+
   /**
    * Execution done before instances are stored into the datastore
    * 
@@ -180,7 +264,7 @@ public abstract class Query<T> extends AbstractDataAccessObject<T> implements IQ
   public void buildQueryExpression(final IFieldValueResolver resolver,
       final Handler<AsyncResult<IQueryExpression>> resultHandler) {
     try {
-      IQueryExpression expression = getQueryExpressionClass().newInstance();
+      IQueryExpression expression = createQueryExpression();
       expression.setMapper(getMapper());
       if (getNativeCommand() != null)
         expression.setNativeCommand(getNativeCommand());
@@ -189,12 +273,17 @@ public abstract class Query<T> extends AbstractDataAccessObject<T> implements IQ
       }
       expression.setUseFields(getUseFields());
       if (getSearchCondition() != null) {
-        expression.buildSearchCondition(getSearchCondition(), resolver, result -> {
+        Handler<AsyncResult<Void>> builtHandler = result -> {
           if (result.failed())
             resultHandler.handle(Future.failedFuture(result.cause()));
           else
             resultHandler.handle(Future.succeededFuture(expression));
-        });
+        };
+        if (prepared) {
+          buildPreparedSearchCondition(expression, resolver, builtHandler);
+        } else {
+          expression.buildSearchCondition(getSearchCondition(), resolver, builtHandler);
+        }
       } else {
         resultHandler.handle(Future.succeededFuture(expression));
       }
@@ -203,6 +292,42 @@ public abstract class Query<T> extends AbstractDataAccessObject<T> implements IQ
     }
   }
 
+  /**
+   * Builds the search condition of the expression from the compiled search condition. The search condition is compiled
+   * at the first call
+   */
+  private void buildPreparedSearchCondition(final IQueryExpression expression, final IFieldValueResolver resolver,
+      final Handler<AsyncResult<Void>> handler) {
+    CompiledSearchCondition<?> compiled = compiledSearchCondition;
+    if (compiled != null) {
+      expression.buildSearchCondition(compiled, resolver, handler);
+    } else {
+      ISearchCondition condition = getSearchCondition();
+      expression.compileSearchCondition(condition, result -> {
+        if (result.failed()) {
+          handler.handle(Future.failedFuture(result.cause()));
+        } else {
+          if (condition == getSearchCondition()) {
+            compiledSearchCondition = result.result();
+          }
+          expression.buildSearchCondition(result.result(), resolver, handler);
+        }
+      });
+    }
+  }
+
+  /**
+   * Create a new instance of the {@link IQueryExpression} for the current datastore. The default implementation
+   * creates the instance from {@link #getQueryExpressionClass()} by reflection; implementations should overwrite this
+   * method to create it directly
+   *
+   * @return a new instance of IQueryExpression
+   * @throws ReflectiveOperationException
+   */
+  protected IQueryExpression createQueryExpression() throws ReflectiveOperationException {
+    return getQueryExpressionClass().newInstance();
+  }
+
   /**
    * This method is called after the sync call to execute the query
    *
@@ -246,6 +371,49 @@ public abstract class Query<T> extends AbstractDataAccessObject<T> implements IQ
     return this;
   }
 
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQuery#setCacheable(java.time.Duration)
+   */
+  @Override
+  public final IQuery<T> setCacheable(final Duration timeToLive) {
+    this.cacheTimeToLive = timeToLive;
+    return this;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQuery#setPrepared(boolean)
+   */
+  @Override
+  public final IQuery<T> setPrepared(final boolean prepared) {
+    this.prepared = prepared;
+    this.compiledSearchCondition = null;
+    return this;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQuery#isPrepared()
+   */
+  @Override
+  public final boolean isPrepared() {
+    return prepared;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQuery#getCacheTimeToLive()
+   */
+  @Override
+  public final Duration getCacheTimeToLive() {
+    return cacheTimeToLive;
+  }
+
   /*
    * (non-Javadoc)
    *
@@ -266,11 +434,12 @@ public abstract class Query<T> extends AbstractDataAccessObject<T> implements IQ
     return sortDefs.addSort(fieldName, ascending);
   }
 
-  /**
-   * Get the sort definitions for the current instance
+  /*
+   * (non-Javadoc)
    *
-   * @return a list of {@link SortDefinition}
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQuery#getSortDefinitions()
    */
+  @Override
   public ISortDefinition<T> getSortDefinitions() {
     return sortDefs;
   }
@@ -317,6 +486,7 @@ public abstract class Query<T> extends AbstractDataAccessObject<T> implements IQ
       searchCondition.validate(getMapper());
     }
     this.searchCondition = searchCondition;
+    this.compiledSearchCondition = null;
   }
 
   /*
@@ -49,6 +49,22 @@ public class SortDefinition<T> implements ISortDefinition<T> {
     return this;
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.ISortDefinition#removeSort(java.lang.String)
+   */
+  @Override
+  public ISortDefinition<T> removeSort(String sortField) {
+    for (int i = sortArgs.size() - 1; i >= 0; i--) {
+      if (sortArgs.get(i).fieldName.equals(sortField)) {
+        sortArgs.remove(i);
+        break;
+      }
+    }
+    return this;
+  }
+
   @Override
   public String toString() {
     StringBuffer ret = new StringBuffer();
@@ -0,0 +1,88 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.dataaccess.query.impl;
+
+import java.util.List;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.dataaccess.cache.IEntityCache;
+import de.braintags.vertx.jomnigate.mapping.IMapper;
+import de.braintags.vertx.jomnigate.mapping.IStoreObject;
+import de.braintags.vertx.jomnigate.mapping.IStoreObjectFactory;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+
+/**
+ * A query result, which creates its pojos from objects, which were read from the datastore before, like the objects
+ * held by the {@link IEntityCache}. Each instance creates new pojos, so that results created from the same stored
+ * objects never share an instance
+ * 
+ * @author Michael Remme
+ * @param <T>
+ *          the class of the mapper, which builds the result
+ */
+public class StoredObjectQueryResult<T> extends AbstractQueryResult<T> {
+  private final List<?> storedObjects;
+
+  /**
+   * Constructor
+   * 
+   * @param datastore
+   *          the datastore, whose {@link IStoreObjectFactory} creates the pojos
+   * @param mapper
+   *          the mapper of the pojos
+   * @param storedObjects
+   *          the objects as read from the datastore, which must not be modified
+   * @param originalQuery
+   *          the query expression, which read the objects, can be null
+   */
+  public StoredObjectQueryResult(final IDataStore datastore, final IMapper<T> mapper, final List<?> storedObjects,
+      final IQueryExpression originalQuery) {
+    super(datastore, mapper, storedObjects.size(), originalQuery);
+    this.storedObjects = storedObjects;
+    setCompleteResult(storedObjects.size());
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.impl.AbstractQueryResult#generatePojo(int,
+   * io.vertx.core.Handler)
+   */
+  @SuppressWarnings("unchecked")
+  @Override
+  protected void generatePojo(final int i, final Handler<AsyncResult<T>> handler) {
+    IStoreObjectFactory<Object> sf = (IStoreObjectFactory<Object>) getDataStore().getStoreObjectFactory();
+    sf.createStoreObject(storedObjects.get(i), getMapper(), result -> {
+      if (result.failed()) {
+        handler.handle(Future.failedFuture(result.cause()));
+      } else {
+        IStoreObject<T, Object> storeObject = result.result();
+        takeSnapshot(storeObject);
+        handler.handle(Future.succeededFuture(storeObject.getEntity()));
+      }
+    });
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.impl.AbstractQueryResult#getStoredObject(int)
+   */
+  @Override
+  public Object getStoredObject(final int index) {
+    return storedObjects.get(index);
+  }
+
+}
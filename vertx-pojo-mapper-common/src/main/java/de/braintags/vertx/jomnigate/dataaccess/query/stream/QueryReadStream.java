@@ -13,10 +13,17 @@
 package de.braintags.vertx.jomnigate.dataaccess.query.stream;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import de.braintags.vertx.jomnigate.dataaccess.query.IFieldValueResolver;
+import de.braintags.vertx.jomnigate.dataaccess.query.IIndexedField;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
+import de.braintags.vertx.jomnigate.exception.NoSuchFieldException;
+import de.braintags.vertx.jomnigate.mapping.IMapper;
+import de.braintags.vertx.jomnigate.mapping.IProperty;
 import de.braintags.vertx.jomnigate.util.QueryHelper;
 import de.braintags.vertx.util.ExceptionUtil;
 import io.vertx.codegen.annotations.Nullable;
@@ -38,25 +45,42 @@ public abstract class QueryReadStream<T, U> implements ReadStream<U> {
   private static final io.vertx.core.logging.Logger LOGGER = io.vertx.core.logging.LoggerFactory
       .getLogger(QueryReadStream.class);
 
+  /**
+   * The block size which is used, if none is defined
+   */
+  public static final int DEFAULT_BLOCK_SIZE = 2000;
+
   private final IQuery<T> query;
-  private int blockSize = 2000;
+  private final IFieldValueResolver resolver;
+  private int blockSize = DEFAULT_BLOCK_SIZE;
   private Handler<U> contentHandler;
   private Handler<Throwable> exceptionHandler = new DefaultExceptionHandler();
   private Handler<Void> endHandler;
-  private Iterator<T> queryResult;
+  private Iterator<T> currentBlock;
+  private List<T> nextBlock;
   private int nextStartPosition = 0;
   private IStreamResult<T> streamResult = new DefaultStreamResult<>();
+  private IProperty keysetField;
+  private IIndexedField keysetColumn;
+  private ISearchCondition originalCondition;
+  private boolean queryRestored;
+  private Object lastKeyValue;
 
   private final AtomicBoolean paused = new AtomicBoolean(false);
   private final AtomicBoolean ended = new AtomicBoolean(false);
+  private boolean started;
+  private boolean emitting;
+  private boolean fetching;
+  private boolean lastBlockFetched;
+  private boolean finished;
 
   /**
-   * Constructor which is usind the default block size of 2000
+   * Constructor which is using the default block size of {@value #DEFAULT_BLOCK_SIZE}
    * 
    * @param query
    */
   public QueryReadStream(final IQuery<T> query) {
-    this(query, 2000);
+    this(query, DEFAULT_BLOCK_SIZE);
   }
 
   /**
@@ -67,8 +91,56 @@ public abstract class QueryReadStream<T, U> implements ReadStream<U> {
    *          the maximum number of records per query
    */
   public QueryReadStream(final IQuery<T> query, final int blockSize) {
+    this(query, blockSize, null);
+  }
+
+  /**
+   * execute queries with the given block size and resolve the variables of the search condition by the given resolver
+   * 
+   * @param query
+   * @param blockSize
+   *          the maximum number of records per query
+   * @param resolver
+   *          replaces potential variables in the search condition with an actual value, can be null
+   */
+  public QueryReadStream(final IQuery<T> query, final int blockSize, final IFieldValueResolver resolver) {
     this.query = query;
     this.blockSize = blockSize;
+    this.resolver = resolver;
+  }
+
+  /**
+   * Switch the stream into keyset ( seek ) pagination by using the id field of the mapper. See
+   * {@link #setKeysetField(String)}
+   * 
+   * @return the stream itself for fluent usage
+   */
+  public QueryReadStream<T, U> setKeysetPagination() {
+    return setKeysetField(query.getMapper().getIdInfo().getField().getName());
+  }
+
+  /**
+   * Switch the stream into keyset ( seek ) pagination. Instead of skipping the records of the previous blocks by an
+   * increasing offset, the selection is sorted by the given field and every following block is requested with the
+   * condition "field > last delivered value". By this the cost of a block stays constant, even for very large
+   * selections. The field must be unique inside the selection and the query must not define any other sort
+   * arguments. The condition and the sort argument, which are added to the query, are removed again, when the stream
+   * is closed. This method must be called before a handler is set.
+   * 
+   * @param fieldName
+   *          the name of a unique field of the mapper, which is used as sort key
+   * @return the stream itself for fluent usage
+   */
+  public QueryReadStream<T, U> setKeysetField(final String fieldName) {
+    IProperty field = query.getMapper().getField(fieldName);
+    if (field == null) {
+      throw new NoSuchFieldException(query.getMapper(), fieldName);
+    }
+    this.keysetField = field;
+    this.keysetColumn = new KeysetField(field);
+    this.originalCondition = query.getSearchCondition();
+    query.addSort(fieldName);
+    return this;
   }
 
   @Override
@@ -80,7 +152,10 @@ public abstract class QueryReadStream<T, U> implements ReadStream<U> {
   @Override
   public ReadStream<U> handler(@Nullable final Handler<U> handler) {
     this.contentHandler = handler;
-    resume();
+    if (handler != null) {
+      started = true;
+      drain();
+    }
     return this;
   }
 
@@ -94,55 +169,92 @@ public abstract class QueryReadStream<T, U> implements ReadStream<U> {
   public ReadStream<U> resume() {
     LOGGER.debug("called resume");
     paused.set(false);
-    start();
+    if (started) {
+      drain();
+    }
     return this;
   }
 
-  private void start() {
-    Future<Void> rootFuture = Future.future();
-    loop(rootFuture);
-    rootFuture.setHandler(res -> {
-      if (res.failed()) {
-        ended.set(true);
-        exceptionHandler.handle(res.cause());
-        close();
-      } else {
-        // mark as ended if the handler was registered too late
-        ended.set(true);
-        // automatically close resources
-        close(c -> {
-          if (endHandler != null) {
-            endHandler.handle(null);
+  /**
+   * Delivers the instances of the current block as long as the stream is not paused. A pause, which is requested by
+   * the handler, is honoured in the middle of a block. When the current block is installed, the next one is fetched
+   * in the background, so that at most two blocks are held in memory. The flag emitting guarantees, that only one
+   * loop is running, even if drain is called again from inside the handler
+   */
+  private void drain() {
+    if (emitting || finished) {
+      return;
+    }
+    emitting = true;
+    try {
+      while (!paused.get() && contentHandler != null && !finished) {
+        if (currentBlock != null && currentBlock.hasNext()) {
+          emit(currentBlock.next());
+        } else if (nextBlock != null) {
+          currentBlock = nextBlock.iterator();
+          nextBlock = null;
+          fetchNextBlock();
+        } else if (lastBlockFetched && !fetching) {
+          finish();
+        } else {
+          fetchNextBlock();
+          if (fetching) {
+            // continued by the completion of the fetch
+            break;
           }
-        });
+        }
       }
-    });
+    } finally {
+      emitting = false;
+    }
   }
 
-  private void loop(final Future<Void> parentFuture) {
-    query.execute(null, blockSize, nextStartPosition, qres -> {
+  private void emit(final T entity) {
+    try {
+      append(contentHandler, entity);
+      getStreamResult().succeededEntity(entity);
+    } catch (Throwable e) {
+      getStreamResult().failedEntity(entity, e);
+    }
+  }
+
+  /**
+   * Requests the next block, if no request is running and the last fetched block was not yet installed
+   */
+  private void fetchNextBlock() {
+    if (fetching || nextBlock != null || lastBlockFetched || finished) {
+      return;
+    }
+    fetching = true;
+    int offset = nextStartPosition;
+    if (keysetField != null) {
+      applyKeysetCondition();
+      offset = 0;
+    }
+    query.execute(resolver, blockSize, offset, qres -> {
       if (qres.failed()) {
-        parentFuture.fail(qres.cause());
+        fetching = false;
+        fail(qres.cause());
       } else {
         if (LOGGER.isDebugEnabled()) {
           LOGGER.debug("executed query with startPosition " + nextStartPosition + ": " + qres.result().size());
         }
         setNextStartPosition(qres.result());
         QueryHelper.queryResultToList(qres.result(), lres -> {
+          fetching = false;
           if (lres.failed()) {
-            parentFuture.fail(lres.cause());
+            fail(lres.cause());
           } else {
             try {
-              queryResult = lres.result().iterator();
-              LOGGER.debug("set next result");
-              subLoop();
-              if (nextStartPosition > 0) {
-                loop(parentFuture);
-              } else {
-                parentFuture.complete();
+              if (keysetField != null && !lres.result().isEmpty()) {
+                T lastEntity = lres.result().get(lres.result().size() - 1);
+                lastKeyValue = keysetField.getPropertyAccessor().readData(lastEntity);
               }
+              nextBlock = lres.result();
+              LOGGER.debug("set next result");
+              drain();
             } catch (Exception e) {
-              parentFuture.fail(e);
+              fail(e);
             }
           }
         });
@@ -150,15 +262,55 @@ public abstract class QueryReadStream<T, U> implements ReadStream<U> {
     });
   }
 
-  private void subLoop() {
-    while (queryResult.hasNext()) {
-      T entity = queryResult.next();
-      try {
-        append(contentHandler, entity);
-        getStreamResult().succeededEntity(entity);
-      } catch (Throwable e) {
-        getStreamResult().failedEntity(entity, e);
+  private void finish() {
+    try {
+      endOfStream(contentHandler);
+    } catch (Exception e) {
+      fail(e);
+      return;
+    }
+    finished = true;
+    // mark as ended if the handler was registered too late
+    ended.set(true);
+    // automatically close resources
+    close(c -> {
+      if (endHandler != null) {
+        endHandler.handle(null);
       }
+    });
+  }
+
+  private void fail(final Throwable cause) {
+    if (finished) {
+      LOGGER.error("error after end of stream", cause);
+      return;
+    }
+    finished = true;
+    ended.set(true);
+    close();
+    exceptionHandler.handle(cause);
+  }
+
+  /**
+   * Restricts the query to the records behind the last delivered key value
+   */
+  private void applyKeysetCondition() {
+    if (lastKeyValue != null) {
+      ISearchCondition keyCondition = ISearchCondition.larger(keysetColumn, lastKeyValue);
+      query.setSearchCondition(
+          originalCondition == null ? keyCondition : ISearchCondition.and(originalCondition, keyCondition));
+    }
+  }
+
+  /**
+   * Removes the keyset condition and the sort argument from the query, so that the query of the caller is unchanged
+   * after the stream was closed
+   */
+  private void restoreQuery() {
+    if (keysetField != null && !queryRestored) {
+      queryRestored = true;
+      query.setSearchCondition(originalCondition);
+      query.getSortDefinitions().removeSort(keysetField.getName());
     }
   }
 
@@ -200,8 +352,19 @@ public abstract class QueryReadStream<T, U> implements ReadStream<U> {
    */
   protected abstract void append(Handler<U> handler, T entity);
 
+  /**
+   * Called after the last instance was appended and before the end handler is informed. Implementations, which are
+   * collecting the appended instances, can write their remaining content here
+   * 
+   * @param handler
+   */
+  protected void endOfStream(final Handler<U> handler) {
+    // nothing to do by default
+  }
+
   private void setNextStartPosition(final IQueryResult<T> res) {
     nextStartPosition = res.size() >= blockSize ? nextStartPosition + blockSize : -1;
+    lastBlockFetched = nextStartPosition < 0;
   }
 
   /**
@@ -219,12 +382,43 @@ public abstract class QueryReadStream<T, U> implements ReadStream<U> {
   public void close(final Handler<AsyncResult<Void>> handler) {
     // make sure we stop pumping data
     pause();
+    finished = true;
+    currentBlock = null;
+    nextBlock = null;
+    restoreQuery();
     // call the provided handler
     if (handler != null) {
       handler.handle(Future.succeededFuture());
     }
   }
 
+  /**
+   * The sort key of the keyset pagination, which takes the column name directly from the property, so that fields
+   * with a mapped column name like the id are addressed correctly
+   */
+  private static class KeysetField implements IIndexedField {
+    private final IProperty property;
+
+    KeysetField(final IProperty property) {
+      this.property = property;
+    }
+
+    @Override
+    public String getFieldName() {
+      return property.getName();
+    }
+
+    @Override
+    public String getColumnName(final IMapper<?> mapper) {
+      return property.getColumnInfo().getName();
+    }
+
+    @Override
+    public String toString() {
+      return getFieldName();
+    }
+  }
+
   class DefaultExceptionHandler implements Handler<Throwable> {
 
     @Override
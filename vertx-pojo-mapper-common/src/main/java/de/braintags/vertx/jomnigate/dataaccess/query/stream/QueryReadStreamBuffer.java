@@ -12,32 +12,181 @@
  */
 package de.braintags.vertx.jomnigate.dataaccess.query.stream;
 
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.util.ExceptionUtil;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.Json;
 
 /**
- * An implementation of ReadStream, which serializes each instance as Json. Per instance one line is written
- * 
+ * An implementation of ReadStream, which serializes each instance as Json. By default per instance one line is written
+ * ( NDJSON ), optionally the instances are written as one Json array.
+ * All instances are serialized by one {@link JsonGenerator} into one pooled {@link ByteBuf}. The content is handed to
+ * the handler, when the defined chunk size is reached, by default {@link #DEFAULT_CHUNK_SIZE}. A handler, which needs
+ * one Buffer per instance, can use a chunk size of 1.
+ *
+ * By default the {@link ObjectMapper} of Vert.x is used. Another mapper, like the one of the datastore, and a Jackson
+ * view can be defined by the constructor. Note, that the mapper of a JsonDatastore requires a special generator for
+ * fields, which are Referenced or Embedded, so that it can only be used for mappers without such fields.
+ *
  * @author Michael Remme
- * 
+ *
  */
 public class QueryReadStreamBuffer<T> extends QueryReadStream<T, Buffer> {
+  /**
+   * The chunk size, which is used by the constructors without chunk size. It keeps the number of buffers and of write
+   * calls low, while a single chunk stays small enough for the write queue of a socket or file
+   */
+  public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+  private final ObjectWriter writer;
+  private final int chunkSize;
+  private final boolean jsonArray;
+  private ByteBuf byteBuf;
+  private JsonGenerator generator;
+  private boolean arrayStarted;
+  private int appendedCount;
 
   public QueryReadStreamBuffer(final IQuery<T> query) {
-    super(query);
+    this(query, DEFAULT_BLOCK_SIZE);
   }
 
   public QueryReadStreamBuffer(final IQuery<T> query, final int blockSize) {
+    this(query, blockSize, Json.mapper, null, DEFAULT_CHUNK_SIZE, false);
+  }
+
+  /**
+   * Create a stream, which collects the serialized instances into chunks of the given size
+   *
+   * @param query
+   * @param blockSize
+   *          the maximum number of records per query
+   * @param mapper
+   *          the mapper to be used for serialization
+   * @param view
+   *          an optional Jackson view, can be null
+   * @param chunkSize
+   *          the minimal number of bytes, which are sent to the handler at once ( except the last chunk )
+   * @param jsonArray
+   *          if true, the instances are written as one Json array, otherwise one instance per line
+   */
+  public QueryReadStreamBuffer(final IQuery<T> query, final int blockSize, final ObjectMapper mapper,
+      final Class<?> view, final int chunkSize, final boolean jsonArray) {
     super(query, blockSize);
+    this.writer = view == null ? mapper.writer() : mapper.writerWithView(view);
+    this.chunkSize = chunkSize;
+    this.jsonArray = jsonArray;
   }
 
   @Override
   protected void append(final Handler<Buffer> handler, final T entity) {
-    Buffer buffer = Json.encodeToBuffer(entity);
-    buffer.appendString("\n");
-    handler.handle(buffer);
+    ensureGenerator();
+    int mark = byteBuf.writerIndex();
+    try {
+      if (jsonArray && appendedCount > 0) {
+        generator.writeRaw(',');
+      }
+      writer.writeValue(generator, entity);
+      if (!jsonArray) {
+        generator.writeRaw('\n');
+      }
+      generator.flush();
+    } catch (IOException | RuntimeException e) {
+      // the generator may be in an undefined state, so that the written part is removed and a new generator is used
+      discardGenerator();
+      byteBuf.writerIndex(mark);
+      throw ExceptionUtil.createRuntimeException(e);
+    }
+    appendedCount++;
+    if (byteBuf.readableBytes() >= chunkSize) {
+      writeChunk(handler);
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.stream.QueryReadStream#endOfStream(io.vertx.core.Handler)
+   */
+  @Override
+  protected void endOfStream(final Handler<Buffer> handler) {
+    if (jsonArray) {
+      ensureGenerator();
+      try {
+        generator.writeRaw(']');
+        generator.flush();
+      } catch (IOException e) {
+        throw ExceptionUtil.createRuntimeException(e);
+      }
+    }
+    if (byteBuf != null && byteBuf.isReadable()) {
+      writeChunk(handler);
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.stream.QueryReadStream#close(io.vertx.core.Handler)
+   */
+  @Override
+  public void close(final Handler<AsyncResult<Void>> handler) {
+    discardGenerator();
+    if (byteBuf != null) {
+      byteBuf.release();
+      byteBuf = null;
+    }
+    super.close(handler);
+  }
+
+  private void ensureGenerator() {
+    try {
+      if (byteBuf == null) {
+        byteBuf = PooledByteBufAllocator.DEFAULT.buffer(Math.max(chunkSize, 256));
+      }
+      if (generator == null) {
+        generator = writer.getFactory().createGenerator(new ByteBufOutputStream(byteBuf));
+        generator.setRootValueSeparator(null);
+      }
+      if (jsonArray && !arrayStarted) {
+        generator.writeRaw('[');
+        generator.flush();
+        arrayStarted = true;
+      }
+    } catch (IOException e) {
+      throw ExceptionUtil.createRuntimeException(e);
+    }
+  }
+
+  private void discardGenerator() {
+    if (generator != null) {
+      try {
+        generator.close();
+      } catch (IOException e) {
+        // the generator is not used anymore
+      }
+      generator = null;
+    }
+  }
+
+  /**
+   * Copies the collected content into a Buffer, which is sent to the handler, and resets the pooled buffer
+   */
+  private void writeChunk(final Handler<Buffer> handler) {
+    Buffer chunk = Buffer.buffer(Unpooled.copiedBuffer(byteBuf));
+    byteBuf.clear();
+    handler.handle(chunk);
   }
 
 }
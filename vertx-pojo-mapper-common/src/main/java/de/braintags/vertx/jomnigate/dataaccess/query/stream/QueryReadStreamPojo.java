@@ -0,0 +1,45 @@
+/*-
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.dataaccess.query.stream;
+
+import de.braintags.vertx.jomnigate.dataaccess.query.IFieldValueResolver;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import io.vertx.core.Handler;
+
+/**
+ * An implementation of ReadStream, which delivers the instances of the mapper directly
+ * 
+ * @author Michael Remme
+ * @param <T>
+ *          the mapper class to be handled
+ */
+public class QueryReadStreamPojo<T> extends QueryReadStream<T, T> {
+
+  public QueryReadStreamPojo(final IQuery<T> query) {
+    super(query);
+  }
+
+  public QueryReadStreamPojo(final IQuery<T> query, final int blockSize) {
+    super(query, blockSize);
+  }
+
+  public QueryReadStreamPojo(final IQuery<T> query, final int blockSize, final IFieldValueResolver resolver) {
+    super(query, blockSize, resolver);
+  }
+
+  @Override
+  protected void append(final Handler<T> handler, final T entity) {
+    handler.handle(entity);
+  }
+
+}
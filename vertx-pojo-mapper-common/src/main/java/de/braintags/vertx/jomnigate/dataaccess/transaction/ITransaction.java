@@ -0,0 +1,73 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.dataaccess.transaction;
+
+import java.util.function.Function;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.dataaccess.delete.IDelete;
+import de.braintags.vertx.jomnigate.dataaccess.write.IWrite;
+
+/**
+ * An ITransaction is handed to the work of {@link IDataStore#inTransaction(Function, io.vertx.core.Handler)}. All
+ * {@link IWrite} and {@link IDelete}, which are created by the transaction, are executed as part of it. They are
+ * committed together, when the future returned by the work succeeded, and rolled back, when it failed.
+ * 
+ * @author Michael Remme
+ * 
+ */
+public interface ITransaction {
+
+  /**
+   * Get the {@link IDataStore}, which created the current transaction
+   * 
+   * @return the datastore
+   */
+  IDataStore<?, ?> getDataStore();
+
+  /**
+   * Returns a new {@link IWrite} bound to the given mapper, which is executed inside the current transaction
+   *
+   * @param mapper
+   *          the mapper class
+   * @return an instance of {@link IWrite}
+   */
+  <T> IWrite<T> createWrite(Class<T> mapper);
+
+  /**
+   * Returns a new {@link IDelete} bound to the given mapper, which is executed inside the current transaction
+   *
+   * @param mapper
+   *          the mapper class
+   * @return an instance of {@link IDelete}
+   */
+  <T> IDelete<T> createDelete(Class<T> mapper);
+
+  /**
+   * Check wether the transaction was committed or rolled back already
+   * 
+   * @return true, if the transaction can not be used anymore
+   */
+  boolean isFinished();
+
+  /**
+   * Registers an action, which is executed after the transaction was committed successfully. The actions are dropped,
+   * when the transaction is rolled back or the commit failed. Writes and deletes of the transaction use it to
+   * invalidate the caches and to update the snapshots of saved entities only for changes, which were really stored
+   * 
+   * @param action
+   *          the action to be executed after the commit
+   */
+  void afterCommit(Runnable action);
+
+}
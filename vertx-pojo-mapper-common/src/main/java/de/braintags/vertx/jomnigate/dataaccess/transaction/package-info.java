@@ -0,0 +1,21 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+/**
+ * Contains the definition of transactions, which combine several write and delete actions inside the
+ * {@link de.braintags.vertx.jomnigate.IDataStore}
+ * 
+ * @author Michael Remme
+ * 
+ */
+
+package de.braintags.vertx.jomnigate.dataaccess.transaction;
@@ -45,4 +45,13 @@ public interface IWriteEntry {
    * @return the {@link WriteAction} used
    */
   public WriteAction getAction();
+
+  /**
+   * Get the reason, why the instance could not be written
+   * 
+   * @return the failure, if the action is {@link WriteAction#FAILED}, otherwise null
+   */
+  public default Throwable getFailure() {
+    return null;
+  }
 }
@@ -22,6 +22,14 @@ package de.braintags.vertx.jomnigate.dataaccess.write;
 public enum WriteAction {
   INSERT,
   UPDATE,
+  /**
+   * The instance was loaded from the datastore and was not changed since, so that it was not written
+   */
+  UNCHANGED,
   NOT_MATCHED,
-  UNKNOWN;
+  UNKNOWN,
+  /**
+   * The instance could not be written, the reason is stored in {@link IWriteEntry#getFailure()}
+   */
+  FAILED;
 }
@@ -20,13 +20,16 @@ import java.util.List;
 
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.annotation.lifecycle.AfterSave;
+import de.braintags.vertx.jomnigate.dataaccess.cache.IEntityCache;
 import de.braintags.vertx.jomnigate.dataaccess.impl.AbstractDataAccessObject;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
 import de.braintags.vertx.jomnigate.dataaccess.write.IWrite;
 import de.braintags.vertx.jomnigate.dataaccess.write.IWriteResult;
+import de.braintags.vertx.jomnigate.mapping.IKeyGenerator;
 import de.braintags.vertx.jomnigate.mapping.IProperty;
 import de.braintags.vertx.jomnigate.mapping.IPropertyAccessor;
 import de.braintags.vertx.jomnigate.mapping.IStoreObject;
+import de.braintags.vertx.jomnigate.mapping.impl.keygen.Key;
 import de.braintags.vertx.jomnigate.observer.IObserverContext;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
@@ -75,7 +78,10 @@ public abstract class AbstractWrite<T> extends AbstractDataAccessObject<T> imple
       } else {
         try {
           Future<IWriteResult> rf = Future.future();
-          rf.setHandler(resultHandler);
+          rf.setHandler(res -> {
+            afterCommit(this::invalidateCache);
+            resultHandler.handle(res);
+          });
           IObserverContext context = IObserverContext.createInstance();
           internalSave(context).compose(wr -> postSave(wr, context, rf), rf);
         } catch (Exception e) {
@@ -85,6 +91,24 @@ public abstract class AbstractWrite<T> extends AbstractDataAccessObject<T> imple
     });
   }
 
+  /**
+   * Removes the cached query results of the mapper and the saved instances from the {@link IEntityCache}. Updates by a
+   * query remove all instances of the mapper. Inside a transaction the caches are invalidated after the commit, so that
+   * a concurrent read can't cache the state before the commit again
+   */
+  private void invalidateCache() {
+    getDataStore().getQueryResultCache().invalidate(getMapperClass());
+    IEntityCache cache = getDataStore().getEntityCache();
+    if (cache.isCacheable(getMapper())) {
+      if (query != null) {
+        cache.invalidateAll(getMapper());
+      } else {
+        IPropertyAccessor accessor = getMapper().getIdInfo().getField().getPropertyAccessor();
+        objectsToSave.forEach(entity -> cache.invalidate(getMapper(), accessor.readData(entity)));
+      }
+    }
+  }
+
   /**
    * Execution done after entities were stored into the datastore
    *
@@ -146,6 +170,63 @@ public abstract class AbstractWrite<T> extends AbstractDataAccessObject<T> imple
     getMapper().executeLifecycle(AfterSave.class, entity, resultHandler);
   }
 
+  /**
+   * Get the snapshot of the given entity, by which only the changed values are written. With a query no snapshot is
+   * used, cause the record must be checked by the complete statement
+   *
+   * @param entity
+   *          the entity to be saved
+   * @return the container, which was loaded or saved the last time, or null, if the entity is written completely
+   */
+  protected Object getSnapshot(final T entity) {
+    return query == null ? getDataStore().getEntitySnapshots().get(entity) : null;
+  }
+
+  /**
+   * After an existing entity was written, the snapshot of a tracked entity is replaced by the written container. A
+   * partial update may leave values inside the datastore, which are not part of the container, so that the snapshot is
+   * removed and the next save writes the entity completely. Inside a transaction the snapshot is replaced after the
+   * commit only; after a rollback the entity keeps the snapshot of its stored state, so that the next save writes the
+   * changes again
+   *
+   * @param storeObject
+   *          the written {@link IStoreObject}
+   */
+  protected void updateSnapshot(final IStoreObject<T, ?> storeObject) {
+    EntitySnapshots snapshots = getDataStore().getEntitySnapshots();
+    T entity = storeObject.getEntity();
+    if (snapshots.contains(entity)) {
+      Object container = storeObject.getContainer();
+      boolean partial = partialUpdate;
+      afterCommit(() -> {
+        if (partial) {
+          snapshots.remove(entity);
+        } else {
+          snapshots.put(entity, container);
+        }
+      });
+    }
+  }
+
+  /**
+   * Generates the keys for several new instances at once by the {@link IKeyGenerator} of the mapper, so that an
+   * implementation can reserve them by one request
+   *
+   * @param count
+   *          the number of keys to be generated
+   * @param resultHandler
+   *          the handler to be informed with the keys
+   */
+  protected void generateKeys(final int count, final Handler<AsyncResult<List<Key>>> resultHandler) {
+    IKeyGenerator gen = getMapper().getKeyGenerator();
+    if (gen == null) {
+      resultHandler.handle(Future.failedFuture(new UnsupportedOperationException(
+          "No keygenerator defined for mapper " + getMapper().getMapperClass().getName())));
+    } else {
+      gen.generateKeys(getMapper(), count, resultHandler);
+    }
+  }
+
   /**
    * After inserting an instance, the id is placed into the entity and into the IStoreObject.
    *
@@ -13,49 +13,54 @@
 package de.braintags.vertx.jomnigate.dataaccess.write.impl;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import de.braintags.vertx.jomnigate.dataaccess.write.IWrite;
+import de.braintags.vertx.jomnigate.dataaccess.write.IWriteEntry;
 import de.braintags.vertx.jomnigate.dataaccess.write.IWriteResult;
-import de.braintags.vertx.jomnigate.observer.IObserver;
-import de.braintags.vertx.jomnigate.observer.IObserverContext;
+import de.braintags.vertx.jomnigate.dataaccess.write.WriteAction;
 import de.braintags.vertx.jomnigate.observer.IObserverEvent;
 import de.braintags.vertx.jomnigate.observer.ObserverEventType;
 import de.braintags.vertx.jomnigate.observer.impl.handler.AbstractEventHandler;
 import io.vertx.core.Future;
 
 /**
- * Handles the event {@link ObserverEventType#AFTER_INSERT }
+ * Handles the event {@link ObserverEventType#AFTER_INSERT }. Instances, which could not be written and are reported
+ * by {@link WriteAction#FAILED}, are skipped
  * 
  * @author Michael Remme
  * 
  */
 public class AfterInsertHandler extends AbstractEventHandler<IWrite<?>, IWriteResult> {
 
-  /**
-   * @param observer
-   * @param writeObject
-   * @param context
-   * @return
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * de.braintags.vertx.jomnigate.observer.impl.handler.AbstractEventHandler#createEvents(java.lang.Object,
+   * de.braintags.vertx.jomnigate.dataaccess.IAccessResult)
    */
-  @SuppressWarnings("rawtypes")
   @Override
-  protected List<Future> createEntityFutureList(IObserver observer, IWrite<?> writeObject, IWriteResult result,
-      IObserverContext context) {
-    List<Future> fl = new ArrayList<>();
-    Iterator<?> selection = ((AbstractWrite) writeObject).getSelection();
+  protected Future<List<IObserverEvent>> createEvents(IWrite<?> writeObject, IWriteResult result) {
+    Set<Object> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (IWriteEntry entry : result) {
+      if (entry.getAction() == WriteAction.FAILED) {
+        failed.add(entry.getStoreObject().getEntity());
+      }
+    }
+    List<IObserverEvent> events = new ArrayList<>(writeObject.size());
+    Iterator<?> selection = ((AbstractWrite<?>) writeObject).getSelection();
     while (selection.hasNext()) {
-      IObserverEvent event = IObserverEvent.createEvent(getEventType(), selection.next(), result, writeObject,
-          writeObject.getDataStore());
-      if (observer.canHandleEvent(event, context)) {
-        Future tf = observer.handleEvent(event, context);
-        if (tf != null) {
-          fl.add(tf);
-        }
+      Object entity = selection.next();
+      if (!failed.contains(entity)) {
+        events.add(IObserverEvent.createEvent(getEventType(), entity, result, writeObject, writeObject.getDataStore()));
       }
     }
-    return fl;
+    return Future.succeededFuture(events);
   }
 
   protected ObserverEventType getEventType() {
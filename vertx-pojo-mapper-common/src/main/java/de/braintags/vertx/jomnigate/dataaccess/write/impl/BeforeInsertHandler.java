@@ -20,7 +20,7 @@ import de.braintags.vertx.jomnigate.observer.IObserver;
 import de.braintags.vertx.jomnigate.observer.IObserverContext;
 import de.braintags.vertx.jomnigate.observer.IObserverEvent;
 import de.braintags.vertx.jomnigate.observer.ObserverEventType;
-import io.vertx.core.CompositeFuture;
+import de.braintags.vertx.jomnigate.observer.impl.handler.AbstractEventHandler;
 import io.vertx.core.Future;
 
 /**
@@ -39,16 +39,7 @@ public class BeforeInsertHandler {
    * @return
    */
   public <T> Future<Void> handle(IWrite<T> write, T entity, IObserverContext context, List<IObserver> ol) {
-    Future<Void> f = Future.future();
-    CompositeFuture cf = loopObserver(ol, write, entity, context);
-    cf.setHandler(cfr -> {
-      if (cfr.failed()) {
-        f.fail(cfr.cause());
-      } else {
-        f.complete();
-      }
-    });
-    return f;
+    return AbstractEventHandler.completeAll(loopObserver(ol, write, entity, context));
   }
 
   /**
@@ -58,12 +49,12 @@ public class BeforeInsertHandler {
    * @param write
    * @param storeObject
    * @param context
-   * @return
+   * @return the Futures of the observers, which are not fire-and-forget
    */
   @SuppressWarnings("rawtypes")
-  protected <T> CompositeFuture loopObserver(List<IObserver> ol, IWrite<T> writeObject, T entity,
+  protected <T> List<Future> loopObserver(List<IObserver> ol, IWrite<T> writeObject, T entity,
       IObserverContext context) {
-    List<Future> fl = new ArrayList<>();
+    List<Future> fl = new ArrayList<>(ol.size());
     IObserverEvent event = IObserverEvent.createEvent(getEventType(), entity, null, writeObject,
         writeObject.getDataStore());
     for (IObserver observer : ol) {
@@ -74,7 +65,7 @@ public class BeforeInsertHandler {
         }
       }
     }
-    return CompositeFuture.all(fl);
+    return fl;
   }
 
   protected ObserverEventType getEventType() {
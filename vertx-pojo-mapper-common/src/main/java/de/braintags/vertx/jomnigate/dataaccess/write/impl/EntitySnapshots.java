@@ -0,0 +1,226 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.dataaccess.write.impl;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.MapMaker;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.mapping.IStoreObject;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * EntitySnapshots remembers the container of the {@link IStoreObject}, by which an entity was loaded from the
+ * datastore or by which it was saved the last time. When the entity is saved again, an implementation of
+ * {@link AbstractWrite} compares the new container with the snapshot, so that only the changed values are written and
+ * unchanged entities are not written at all. The entities are held by weak references and compared by identity.
+ * An entity, which is handed to several callers by the query result cache, is marked as shared by
+ * {@link #share(Object)}: a snapshot would be updated by the save of one caller for all others, so that the changes of
+ * another caller could be skipped as unchanged. Shared entities are therefore always written completely.
+ * The tracking is switched off by the property {@link IDataStore#DIRTY_TRACKING} of the datastore.
+ *
+ * @author Michael Remme
+ *
+ */
+public class EntitySnapshots {
+  private static final Object SHARED = new Object();
+
+  private final Map<Object, Object> snapshots = new MapMaker().weakKeys().makeMap();
+  private final boolean enabled;
+
+  /**
+   * @param enabled
+   *          true, if snapshots shall be taken
+   */
+  public EntitySnapshots(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Remembers the container, which contains the values of the entity as they are stored inside the datastore. The
+   * container must not be modified afterwards
+   *
+   * @param entity
+   *          the entity
+   * @param container
+   *          the container of the entity
+   */
+  public void put(Object entity, Object container) {
+    if (enabled && entity != null && container != null) {
+      Object previous = snapshots.putIfAbsent(entity, container);
+      if (previous != null && previous != SHARED) {
+        snapshots.replace(entity, previous, container);
+      }
+    }
+  }
+
+  /**
+   * Marks the given entity as shared by several callers. Its snapshot is removed and no snapshot is taken anymore, so
+   * that the entity is written completely by each save
+   *
+   * @param entity
+   *          the entity, which is handed out by a cache
+   */
+  public void share(Object entity) {
+    if (enabled && entity != null) {
+      snapshots.put(entity, SHARED);
+    }
+  }
+
+  /**
+   * Get the container, which was remembered for the given entity
+   *
+   * @param entity
+   *          the entity
+   * @return the container or null, if the entity is not tracked
+   */
+  public Object get(Object entity) {
+    Object snapshot = entity == null ? null : snapshots.get(entity);
+    return snapshot == SHARED ? null : snapshot;
+  }
+
+  /**
+   * Checks wether a snapshot exists for the given entity
+   *
+   * @param entity
+   *          the entity
+   * @return true, if the entity is tracked
+   */
+  public boolean contains(Object entity) {
+    return get(entity) != null;
+  }
+
+  /**
+   * Forgets the snapshot of the given entity, so that it is written completely by the next save. A shared entity
+   * stays shared
+   *
+   * @param entity
+   *          the entity
+   */
+  public void remove(Object entity) {
+    Object snapshot = entity == null ? null : snapshots.get(entity);
+    if (snapshot != null && snapshot != SHARED) {
+      snapshots.remove(entity, snapshot);
+    }
+  }
+
+  /**
+   * Is the tracking of entities enabled
+   *
+   * @return the value of the property {@link IDataStore#DIRTY_TRACKING}
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Get the given value as Map, if it is a {@link JsonObject} or a Map
+   *
+   * @param value
+   *          the value to be checked
+   * @return the Map or null, if the value is no object
+   */
+  @SuppressWarnings("unchecked")
+  public static Map<String, Object> asMap(Object value) {
+    if (value instanceof JsonObject) {
+      return ((JsonObject) value).getMap();
+    }
+    return value instanceof Map ? (Map<String, Object>) value : null;
+  }
+
+  /**
+   * Compares two values of a container. A {@link JsonObject} is equal to a Map and a {@link JsonArray} is equal to a
+   * List with the same content; numbers are compared by their value, so that an Integer loaded from the datastore is
+   * equal to a Long written before
+   *
+   * @param value1
+   *          the first value
+   * @param value2
+   *          the second value
+   * @return true, if both values are equal
+   */
+  public static boolean isEqual(Object value1, Object value2) {
+    if (value1 == value2) {
+      return true;
+    } else if (value1 == null || value2 == null) {
+      return false;
+    }
+    Map<String, Object> map1 = asMap(value1);
+    Map<String, Object> map2 = asMap(value2);
+    if (map1 != null || map2 != null) {
+      return map1 != null && map2 != null && isEqualMap(map1, map2);
+    }
+    List<?> list1 = asList(value1);
+    List<?> list2 = asList(value2);
+    if (list1 != null || list2 != null) {
+      return list1 != null && list2 != null && isEqualList(list1, list2);
+    }
+    if (value1 instanceof Number && value2 instanceof Number) {
+      return isEqualNumber((Number) value1, (Number) value2);
+    } else if (value1 instanceof CharSequence && value2 instanceof CharSequence) {
+      return value1.toString().equals(value2.toString());
+    } else if (value1 instanceof byte[] && value2 instanceof byte[]) {
+      return Arrays.equals((byte[]) value1, (byte[]) value2);
+    }
+    return value1.equals(value2);
+  }
+
+  private static boolean isEqualMap(Map<String, Object> map1, Map<String, Object> map2) {
+    if (map1.size() != map2.size()) {
+      return false;
+    }
+    for (Map.Entry<String, Object> entry : map1.entrySet()) {
+      if (!map2.containsKey(entry.getKey()) || !isEqual(entry.getValue(), map2.get(entry.getKey()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isEqualList(List<?> list1, List<?> list2) {
+    if (list1.size() != list2.size()) {
+      return false;
+    }
+    Iterator<?> it2 = list2.iterator();
+    for (Object entry : list1) {
+      if (!isEqual(entry, it2.next())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isEqualNumber(Number number1, Number number2) {
+    if (isIntegral(number1) && isIntegral(number2)) {
+      return number1.longValue() == number2.longValue();
+    }
+    return Double.compare(number1.doubleValue(), number2.doubleValue()) == 0;
+  }
+
+  private static boolean isIntegral(Number number) {
+    return number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte;
+  }
+
+  private static List<?> asList(Object value) {
+    if (value instanceof JsonArray) {
+      return ((JsonArray) value).getList();
+    }
+    return value instanceof List ? (List<?>) value : null;
+  }
+
+}
@@ -27,11 +27,30 @@ public class WriteEntry implements IWriteEntry {
   private final IStoreObject<?, ?> sto;
   private final Object id;
   private final WriteAction action;
+  private final Throwable failure;
 
   public WriteEntry(IStoreObject<?, ?> sto, Object id, WriteAction action) {
     this.sto = sto;
     this.id = id;
     this.action = action;
+    this.failure = null;
+  }
+
+  /**
+   * Creates an entry for an instance, which could not be written
+   * 
+   * @param sto
+   *          the {@link IStoreObject} of the instance
+   * @param id
+   *          the id of the instance, if known
+   * @param failure
+   *          the reason of the failure
+   */
+  public WriteEntry(IStoreObject<?, ?> sto, Object id, Throwable failure) {
+    this.sto = sto;
+    this.id = id;
+    this.action = WriteAction.FAILED;
+    this.failure = failure;
   }
 
   /*
@@ -64,6 +83,16 @@ public class WriteEntry implements IWriteEntry {
     return action;
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.dataaccess.write.IWriteEntry#getFailure()
+   */
+  @Override
+  public Throwable getFailure() {
+    return failure;
+  }
+
   @Override
   public String toString() {
     return "Action: " + action + " | " + getStoreObject().toString();
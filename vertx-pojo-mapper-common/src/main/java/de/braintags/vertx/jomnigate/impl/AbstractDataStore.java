@@ -15,9 +15,16 @@ package de.braintags.vertx.jomnigate.impl;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.annotation.KeyGenerator;
+import de.braintags.vertx.jomnigate.dataaccess.cache.IEntityCache;
+import de.braintags.vertx.jomnigate.dataaccess.cache.IQueryResultCache;
+import de.braintags.vertx.jomnigate.dataaccess.cache.impl.EntityCache;
+import de.braintags.vertx.jomnigate.dataaccess.cache.impl.QueryResultCache;
+import de.braintags.vertx.jomnigate.dataaccess.transaction.ITransaction;
+import de.braintags.vertx.jomnigate.dataaccess.write.impl.EntitySnapshots;
 import de.braintags.vertx.jomnigate.exception.UnsupportedKeyGenerator;
 import de.braintags.vertx.jomnigate.init.DataStoreSettings;
 import de.braintags.vertx.jomnigate.mapping.IDataStoreSynchronizer;
@@ -26,10 +33,15 @@ import de.braintags.vertx.jomnigate.mapping.IMapperFactory;
 import de.braintags.vertx.jomnigate.mapping.IStoreObjectFactory;
 import de.braintags.vertx.jomnigate.mapping.ITriggerContextFactory;
 import de.braintags.vertx.jomnigate.mapping.datastore.ITableGenerator;
+import de.braintags.vertx.jomnigate.mapping.impl.EncoderExecutor;
 import de.braintags.vertx.jomnigate.mapping.impl.TriggerContextFactory;
+import de.braintags.vertx.jomnigate.mapping.impl.keygen.BlockKeyGenerator;
 import de.braintags.vertx.jomnigate.mapping.impl.keygen.DebugGenerator;
 import de.braintags.vertx.jomnigate.mapping.impl.keygen.DefaultKeyGenerator;
 import de.braintags.vertx.util.security.crypt.IEncoder;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
 
@@ -55,8 +67,12 @@ public abstract class AbstractDataStore<S, U> implements IDataStore<S, U> {
   private Map<String, IKeyGenerator> keyGeneratorMap = new HashMap<>();
   private ITriggerContextFactory triggerContextFactory = new TriggerContextFactory();
   private Map<String, IEncoder> encoderMap = new HashMap<>();
+  private final EncoderExecutor encoderExecutor;
+  private final EntitySnapshots entitySnapshots;
   private int defaultQueryLimit;
   private DataStoreSettings settings;
+  private IEntityCache entityCache = new EntityCache();
+  private IQueryResultCache queryResultCache = new QueryResultCache();
 
   /**
    * Create a new instance. The possible properties are defined by its concete implementation
@@ -71,6 +87,8 @@ public abstract class AbstractDataStore<S, U> implements IDataStore<S, U> {
     this.properties = properties;
     initSupportedKeyGenerators();
     defaultQueryLimit = properties.getInteger(DEFAULT_QUERY_LIMIT, 500);
+    encoderExecutor = new EncoderExecutor(vertx, properties.getInteger(ENCODER_POOL_SIZE, DEFAULT_ENCODER_POOL_SIZE));
+    entitySnapshots = new EntitySnapshots(properties.getBoolean(DIRTY_TRACKING, true));
     this.settings = settings;
   }
 
@@ -166,6 +184,7 @@ public abstract class AbstractDataStore<S, U> implements IDataStore<S, U> {
   protected void initSupportedKeyGenerators() {
     addSupportedKeyGenerator(new DebugGenerator(this));
     addSupportedKeyGenerator(new DefaultKeyGenerator(this));
+    addSupportedKeyGenerator(new BlockKeyGenerator(this));
   }
 
   /*
@@ -225,6 +244,26 @@ public abstract class AbstractDataStore<S, U> implements IDataStore<S, U> {
     return getEncoderMap().get(name);
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.IDataStore#getEncoderExecutor()
+   */
+  @Override
+  public EncoderExecutor getEncoderExecutor() {
+    return encoderExecutor;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.IDataStore#getEntitySnapshots()
+   */
+  @Override
+  public EntitySnapshots getEntitySnapshots() {
+    return entitySnapshots;
+  }
+
   /*
    * (non-Javadoc)
    * 
@@ -243,4 +282,53 @@ public abstract class AbstractDataStore<S, U> implements IDataStore<S, U> {
     return settings;
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.IDataStore#getEntityCache()
+   */
+  @Override
+  public IEntityCache getEntityCache() {
+    return entityCache;
+  }
+
+  /**
+   * Set the cache of instances to be used
+   * 
+   * @param entityCache
+   *          the entityCache to set
+   */
+  public void setEntityCache(IEntityCache entityCache) {
+    this.entityCache = entityCache;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.IDataStore#getQueryResultCache()
+   */
+  @Override
+  public IQueryResultCache getQueryResultCache() {
+    return queryResultCache;
+  }
+
+  /**
+   * Set the cache of query results to be used
+   * 
+   * @param queryResultCache
+   *          the queryResultCache to set
+   */
+  public void setQueryResultCache(IQueryResultCache queryResultCache) {
+    this.queryResultCache = queryResultCache;
+  }
+
+  /**
+   * Transactions are not supported by default, implementations supporting transactions overwrite this method
+   */
+  @Override
+  public <V> void inTransaction(Function<ITransaction, Future<V>> work, Handler<AsyncResult<V>> resultHandler) {
+    resultHandler.handle(Future.failedFuture(
+        new UnsupportedOperationException("Transactions are not supported by " + getClass().getName())));
+  }
+
 }
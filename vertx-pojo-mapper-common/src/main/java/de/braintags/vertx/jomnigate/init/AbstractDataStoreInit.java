@@ -17,6 +17,7 @@ import java.util.Properties;
 
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.impl.AbstractDataStore;
+import de.braintags.vertx.jomnigate.util.EntityScanner;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
@@ -46,6 +47,13 @@ public abstract class AbstractDataStoreInit implements IDataStoreInit {
    */
   public static final String DBNAME_PROP = "db_name";
 
+  /**
+   * The name of the property, which defines a comma separated list of packages. All classes of these packages, which
+   * are annotated by {@link de.braintags.vertx.jomnigate.annotation.Entity}, are mapped and synchronized during the
+   * init of the datastore
+   */
+  public static final String ENTITY_PACKAGES_PROP = "entityPackages";
+
   protected Vertx vertx;
   protected boolean shared = false;
   private JsonObject config;
@@ -64,8 +72,9 @@ public abstract class AbstractDataStoreInit implements IDataStoreInit {
           initEncoder(settings, result.result());
         } catch (Exception e) {
           handler.handle(Future.failedFuture(e));
+          return;
         }
-        handler.handle(result);
+        preRegisterEntities(result.result(), handler);
       }
     });
   }
@@ -81,6 +90,40 @@ public abstract class AbstractDataStoreInit implements IDataStoreInit {
     esl.forEach(es -> ((AbstractDataStore) ds).getEncoderMap().put(es.getName(), es.toEncoder()));
   }
 
+  /**
+   * If the property {@link #ENTITY_PACKAGES_PROP} is set, the packages are scanned for entities by a worker thread and
+   * the entities are mapped by {@link de.braintags.vertx.jomnigate.mapping.IMapperFactory#warmUp(java.util.Collection,
+   * Handler)}
+   * 
+   * @param ds
+   *          the initialized datastore
+   * @param handler
+   *          the handler, which receives the datastore
+   */
+  protected void preRegisterEntities(IDataStore ds, Handler<AsyncResult<IDataStore>> handler) {
+    String packages = getProperty(ENTITY_PACKAGES_PROP, null);
+    if (packages == null) {
+      handler.handle(Future.succeededFuture(ds));
+      return;
+    }
+    ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
+    ClassLoader classLoader = contextLoader == null ? getClass().getClassLoader() : contextLoader;
+    vertx.<List<Class<?>>> executeBlocking(
+        future -> future.complete(EntityScanner.scan(classLoader, packages.split(","))), false, scanResult -> {
+          if (scanResult.failed()) {
+            handler.handle(Future.failedFuture(scanResult.cause()));
+          } else {
+            ds.getMapperFactory().warmUp(scanResult.result(), warmUpResult -> {
+              if (warmUpResult.failed()) {
+                handler.handle(Future.failedFuture(warmUpResult.cause()));
+              } else {
+                handler.handle(Future.succeededFuture(ds));
+              }
+            });
+          }
+        });
+  }
+
   protected abstract void internalInit(Handler<AsyncResult<IDataStore>> handler);
 
   protected void checkShared() {
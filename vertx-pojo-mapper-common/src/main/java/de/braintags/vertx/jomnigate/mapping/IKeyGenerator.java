@@ -12,10 +12,15 @@
  */
 package de.braintags.vertx.jomnigate.mapping;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.annotation.KeyGenerator;
 import de.braintags.vertx.jomnigate.mapping.impl.keygen.Key;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 
 /**
@@ -49,4 +54,33 @@ public interface IKeyGenerator {
    */
   void generateKey(IMapper<?> mapper, Handler<AsyncResult<Key>> handler);
 
+  /**
+   * Generates the given number of keys at once. This method is used, when several new instances are saved together.
+   * The default implementation requests each key by {@link #generateKey(IMapper, Handler)}; implementations, which can
+   * reserve several keys by one request, should overwrite it
+   * 
+   * @param mapper
+   *          the mapper to generate the keys for
+   * @param count
+   *          the number of keys to be generated
+   * @param handler
+   *          the handler to deliver the keys to
+   */
+  @SuppressWarnings("rawtypes")
+  default void generateKeys(IMapper<?> mapper, int count, Handler<AsyncResult<List<Key>>> handler) {
+    List<Future> futures = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Future<Key> f = Future.future();
+      generateKey(mapper, f.completer());
+      futures.add(f);
+    }
+    CompositeFuture.all(futures).setHandler(res -> {
+      if (res.failed()) {
+        handler.handle(Future.failedFuture(res.cause()));
+      } else {
+        handler.handle(Future.succeededFuture(res.result().list()));
+      }
+    });
+  }
+
 }
@@ -12,9 +12,15 @@
  */
 package de.braintags.vertx.jomnigate.mapping;
 
+import java.util.Collection;
+
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.annotation.Entity;
+import de.braintags.vertx.jomnigate.observer.IObserver;
+import de.braintags.vertx.jomnigate.observer.impl.ObserverPool;
 import de.braintags.vertx.jomnigate.typehandler.ITypeHandlerFactory;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
 
 /**
  * IMapperFactory is responsible to create and store instances of {@link IMapper} for all classes, which shall be
@@ -32,9 +38,35 @@ public interface IMapperFactory {
    * @return
    * @throws Exception
    *           any Exception which can occur in the init process
+   * @throws IllegalStateException
+   *           if called on an event loop thread, while the mapper is still created by another request or by
+   *           asynchronous observers of the mapping process. Use {@link #getMapperAsync(Class, Handler)} there
    */
   <T> IMapper<T> getMapper(Class<T> mapperClass);
 
+  /**
+   * Retrieve the {@link IMapper} for the given class without blocking the current thread. If the class wasn't mapped
+   * yet, the mapper is created by a worker thread together with the observers of the mapping process. If the mapper is
+   * created already by another request, the handler is informed on the current context, when it is finished
+   * 
+   * @param mapperClass
+   *          the class to be mapped
+   * @param handler
+   *          the handler, which receives the mapper
+   */
+  <T> void getMapperAsync(Class<T> mapperClass, Handler<AsyncResult<IMapper<T>>> handler);
+
+  /**
+   * Maps the given classes in parallel by worker threads and synchronizes their tables and indexes by the
+   * {@link IDataStoreSynchronizer} of the datastore, so that the first requests don't have to do that
+   * 
+   * @param mapperClasses
+   *          the classes to be mapped
+   * @param handler
+   *          the handler, which is informed, when all classes are mapped and synchronized
+   */
+  void warmUp(Collection<Class<?>> mapperClasses, Handler<AsyncResult<Void>> handler);
+
   /**
    * Returns true, if the given class specifies a mappable class. At a minimum whic method will have to check, wether
    * the class is marked with the {@link Entity} annotation
@@ -57,6 +89,14 @@ public interface IMapperFactory {
    */
   void reset();
 
+  /**
+   * Get the {@link ObserverPool}, which holds the instances of {@link IObserver}, which are shared by all mappers of
+   * the current instance
+   * 
+   * @return the {@link ObserverPool}
+   */
+  ObserverPool getObserverPool();
+
   /**
    * Get the propriate {@link ITypeHandlerFactory} for the current implementation
    * 
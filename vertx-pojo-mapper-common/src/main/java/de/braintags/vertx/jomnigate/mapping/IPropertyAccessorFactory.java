@@ -0,0 +1,45 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.mapping;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+
+/**
+ * Factory to build the instances of {@link IPropertyAccessor}, which are used to read and write the properties of a
+ * mapper. The factory is chosen by {@link IPropertyMapperFactory#getPropertyAccessorFactory()}
+ * 
+ * @author Michael Remme
+ * 
+ */
+public interface IPropertyAccessorFactory {
+
+  /**
+   * Create an accessor for a public field
+   * 
+   * @param field
+   *          the field to be accessed
+   * @return the new {@link IPropertyAccessor}
+   */
+  IPropertyAccessor createFieldAccessor(Field field);
+
+  /**
+   * Create an accessor for a property in JavaBean format, which is read and written by its getter and setter
+   * 
+   * @param beanDescriptor
+   *          the descriptor of the property
+   * @return the new {@link IPropertyAccessor}
+   */
+  IPropertyAccessor createBeanAccessor(PropertyDescriptor beanDescriptor);
+
+}
@@ -12,6 +12,8 @@
  */
 package de.braintags.vertx.jomnigate.mapping;
 
+import de.braintags.vertx.jomnigate.mapping.impl.GeneratedAccessorFactory;
+
 /**
  * Factory to build instances of {@link IPropertyMapper}
  * 
@@ -29,4 +31,15 @@ public interface IPropertyMapperFactory {
    * @return the generated {@link IPropertyMapper} for the given field
    */
   public IPropertyMapper getPropertyMapper(IProperty field);
+
+  /**
+   * Get the {@link IPropertyAccessorFactory}, which creates the accessors of the properties of a mapper. By default
+   * the accessors are generated by {@link GeneratedAccessorFactory}; to use reflection, return a
+   * {@link de.braintags.vertx.jomnigate.mapping.impl.ReflectionAccessorFactory}
+   * 
+   * @return the factory for instances of {@link IPropertyAccessor}
+   */
+  default IPropertyAccessorFactory getPropertyAccessorFactory() {
+    return new GeneratedAccessorFactory();
+  }
 }
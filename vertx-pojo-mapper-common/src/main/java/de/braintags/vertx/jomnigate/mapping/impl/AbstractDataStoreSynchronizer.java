@@ -12,8 +12,8 @@
  */
 package de.braintags.vertx.jomnigate.mapping.impl;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.common.collect.ImmutableSet;
 
@@ -36,7 +36,7 @@ import io.vertx.core.logging.LoggerFactory;
  */
 public abstract class AbstractDataStoreSynchronizer<T> implements IDataStoreSynchronizer<T> {
   private static final Logger LOGGER = LoggerFactory.getLogger(AbstractDataStoreSynchronizer.class);
-  private final List<String> synchronizedInstances = new ArrayList<>();
+  private final Set<String> synchronizedInstances = ConcurrentHashMap.newKeySet();
 
   /*
    * (non-Javadoc)
@@ -13,25 +13,30 @@
 package de.braintags.vertx.jomnigate.mapping.impl;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.annotation.Entity;
-import de.braintags.vertx.jomnigate.exception.MappingException;
 import de.braintags.vertx.jomnigate.init.ObserverDefinition;
+import de.braintags.vertx.jomnigate.mapping.IDataStoreSynchronizer;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
 import de.braintags.vertx.jomnigate.mapping.IMapperFactory;
 import de.braintags.vertx.jomnigate.observer.IObserver;
 import de.braintags.vertx.jomnigate.observer.IObserverContext;
-import de.braintags.vertx.jomnigate.observer.IObserverHandler;
 import de.braintags.vertx.jomnigate.observer.ObserverEventType;
+import de.braintags.vertx.jomnigate.observer.impl.ObserverPool;
 import de.braintags.vertx.jomnigate.observer.impl.handler.BeforeMappingHandler;
-import de.braintags.vertx.util.ResultObject;
 import de.braintags.vertx.util.exception.InitException;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 
 /**
  * An abstract implementation of IMapperFactory
@@ -43,22 +48,32 @@ public abstract class AbstractMapperFactory implements IMapperFactory {
       .getLogger(AbstractMapperFactory.class);
 
   private final IDataStore<?, ?> datastore;
-  private Map<String, IMapper<?>> mappedClasses = new HashMap<>();
+  private final ConcurrentMap<Class<?>, CompletableFuture<IMapper<?>>> mappedClasses = new ConcurrentHashMap<>();
   private final BeforeMappingHandler beforeMappingHandler = new BeforeMappingHandler();
-  private final Object so = new Object();
+  private final ObserverPool observerPool;
 
   /**
    * @param dataStore
    */
   public AbstractMapperFactory(final IDataStore<?, ?> dataStore) {
     this.datastore = dataStore;
+    this.observerPool = new ObserverPool(dataStore);
   }
 
   @Override
   public void reset() {
-    synchronized (so) {
-      mappedClasses = new HashMap<>();
-    }
+    mappedClasses.clear();
+    observerPool.clear();
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.mapping.IMapperFactory#getObserverPool()
+   */
+  @Override
+  public final ObserverPool getObserverPool() {
+    return observerPool;
   }
 
   /*
@@ -71,98 +86,220 @@ public abstract class AbstractMapperFactory implements IMapperFactory {
     return datastore;
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.mapping.IMapperFactory#getMapper(java.lang.Class)
+   */
   @SuppressWarnings("unchecked")
   @Override
   public final <T> IMapper<T> getMapper(final Class<T> mapperClass) {
-    String className = mapperClass.getName();
-    if (mappedClasses.containsKey(className)) {
-      return (IMapper<T>) mappedClasses.get(className);
+    CompletableFuture<IMapper<?>> entry = mappedClasses.get(mapperClass);
+    if (entry != null && entry.isDone() && !entry.isCompletedExceptionally()) {
+      return (IMapper<T>) entry.join();
     }
-    if (!mapperClass.isAnnotationPresent(Entity.class))
-      throw new UnsupportedOperationException(String
-          .format("The class %s is no mappable entity. Add the annotation Entity to the class", mapperClass.getName()));
-
-    IMapper<T> mapper = createMapperBlocking(mapperClass);
-
-    synchronized (so) {
-      Map<String, IMapper<?>> tmpMap = new HashMap<>(mappedClasses);
-      tmpMap.put(className, mapper);
-      mappedClasses = tmpMap;
+    checkEntity(mapperClass);
+    CompletableFuture<IMapper<?>> created = new CompletableFuture<>();
+    CompletableFuture<IMapper<?>> existing = mappedClasses.putIfAbsent(mapperClass, created);
+    if (existing != null) {
+      return awaitMapper(mapperClass, existing);
     }
-    return mapper;
+    startMapping(mapperClass, created);
+    return awaitMapper(mapperClass, created);
   }
 
-  private final <T> IMapper<T> createMapperBlocking(final Class<T> mapperClass) {
-    IObserverContext context = IObserverContext.createInstance();
-    if (LOGGER.isDebugEnabled()) {
-      LOGGER.debug("pre mapping for " + mapperClass.getName());
-    }
-    preMapping(mapperClass, context);
-    if (LOGGER.isDebugEnabled()) {
-      LOGGER.debug("createMapper for " + mapperClass.getName());
+  /**
+   * Waits for the mapper, which is created by another request or by asynchronous observers of the mapping process. An
+   * event loop thread must not wait, cause the creation may need that event loop to finish. In that case the call fails
+   * and the mapper must be requested by {@link #getMapperAsync(Class, Handler)}
+   */
+  @SuppressWarnings("unchecked")
+  private <T> IMapper<T> awaitMapper(final Class<T> mapperClass, final CompletableFuture<IMapper<?>> entry) {
+    if (!entry.isDone() && Context.isOnEventLoopThread()) {
+      throw new IllegalStateException(String.format(
+          "The mapper for %s is not yet created and getMapper would block the event loop. Use getMapperAsync instead",
+          mapperClass.getName()));
     }
-    IMapper<T> mapper = createMapper(mapperClass);
-    if (LOGGER.isDebugEnabled()) {
-      LOGGER.debug("post mapping for " + mapperClass.getName());
+    try {
+      return (IMapper<T>) entry.join();
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
     }
-    postMapping(mapper, context);
-    return mapper;
   }
 
-  private void preMapping(final Class<?> mapperClass, final IObserverContext context) {
-    CountDownLatch latch = new CountDownLatch(1);
-    ResultObject<Void> ro = new ResultObject<>(null);
-
-    // using only vertx.executeBlocking will potentially block with MongoDatastore
-    // thus - during init - we are using Runnable
-    Runnable runnable = () -> {
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.mapping.IMapperFactory#getMapperAsync(java.lang.Class, io.vertx.core.Handler)
+   */
+  @Override
+  public final <T> void getMapperAsync(final Class<T> mapperClass, final Handler<AsyncResult<IMapper<T>>> handler) {
+    CompletableFuture<IMapper<?>> entry = mappedClasses.get(mapperClass);
+    if (entry == null) {
       try {
-        LOGGER.debug("start handle before mapping");
-        Future<Void> f = handleBeforeMapping(mapperClass, context);
-        LOGGER.debug("stop handle before mapping");
-        if (f.failed()) {
-          ro.setThrowable(f.cause());
-        } else {
-          // no result to be set;
-        }
-      } catch (Exception e) {
-        ro.setThrowable(e);
+        checkEntity(mapperClass);
+      } catch (UnsupportedOperationException e) {
+        handler.handle(Future.failedFuture(e));
+        return;
+      }
+      CompletableFuture<IMapper<?>> created = new CompletableFuture<>();
+      entry = mappedClasses.putIfAbsent(mapperClass, created);
+      if (entry == null) {
+        entry = created;
+        createMapperAsync(mapperClass, created);
       }
-      latch.countDown();
-    };
-    Thread thr = new Thread(runnable);
-    thr.start();
+    }
+    CompletableFuture<IMapper<?>> pending = entry;
+    if (pending.isDone()) {
+      handleMapperResult(pending, handler);
+    } else {
+      Context context = getDataStore().getVertx().getOrCreateContext();
+      pending.whenComplete((mapper, e) -> context.runOnContext(v -> handleMapperResult(pending, handler)));
+    }
+  }
 
+  @SuppressWarnings("unchecked")
+  private <T> void handleMapperResult(final CompletableFuture<IMapper<?>> entry,
+      final Handler<AsyncResult<IMapper<T>>> handler) {
+    AsyncResult<IMapper<T>> result;
     try {
-      latch.await();
-    } catch (InterruptedException e) {
-      throw new InitException("Init of mapping not possible", e);
+      result = Future.succeededFuture((IMapper<T>) entry.join());
+    } catch (CompletionException e) {
+      result = Future.failedFuture(e.getCause());
     }
-    if (ro.isError()) {
-      throw new InitException(ro.getThrowable());
+    handler.handle(result);
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.mapping.IMapperFactory#warmUp(java.util.Collection, io.vertx.core.Handler)
+   */
+  @SuppressWarnings("rawtypes")
+  @Override
+  public void warmUp(final Collection<Class<?>> mapperClasses, final Handler<AsyncResult<Void>> handler) {
+    List<Future> fl = new ArrayList<>();
+    for (Class<?> mapperClass : mapperClasses) {
+      fl.add(warmUp(mapperClass));
     }
+    CompositeFuture.all(fl).<Void> map(cf -> null).setHandler(handler);
+  }
+
+  /**
+   * Maps the given class and synchronizes the table and the indexes
+   */
+  private <T> Future<Void> warmUp(final Class<T> mapperClass) {
+    Future<IMapper<T>> fMapper = Future.future();
+    getMapperAsync(mapperClass, fMapper);
+    return fMapper.compose(mapper -> {
+      Future<Void> f = Future.future();
+      IDataStoreSynchronizer<?> syncer = getDataStore().getDataStoreSynchronizer();
+      if (syncer == null) {
+        f.complete();
+      } else {
+        syncer.synchronize(mapper, syncResult -> {
+          if (syncResult.failed()) {
+            f.fail(syncResult.cause());
+          } else {
+            f.complete();
+          }
+        });
+      }
+      return f;
+    });
+  }
+
+  private void checkEntity(final Class<?> mapperClass) {
+    if (!mapperClass.isAnnotationPresent(Entity.class))
+      throw new UnsupportedOperationException(String
+          .format("The class %s is no mappable entity. Add the annotation Entity to the class", mapperClass.getName()));
   }
 
   /**
-   * Performs the event {@link ObserverEventType#BEFORE_MAPPING} for the given mapper class.
-   * This method is contained inside the current instance and not inside the {@link IObserverHandler}, cause the
-   * IObserverhandler is part of the IMapper, which will be created later
+   * Executes the observers of BEFORE_MAPPING, creates the mapper and executes the observers of AFTER_MAPPING. Every
+   * step starts, when the futures of the observers of the previous step are completed
    * 
    * @param mapperClass
-   * @param context
-   * @return
+   *          the class to be mapped
+   * @return a future, which is completed with the mapper
    */
-  private <T> Future<Void> handleBeforeMapping(final Class<T> mapperClass, final IObserverContext context) {
-    List<IObserver> ol = getObserver(mapperClass, ObserverEventType.BEFORE_MAPPING);
-    Future<Void> f = null;
-    if (ol.isEmpty()) {
-      f = Future.succeededFuture();
-    } else {
-      f = getBeforeMappingHandler().handle(mapperClass, context, ol, this.getDataStore());
+  private <T> Future<IMapper<T>> mapClass(final Class<T> mapperClass) {
+    IObserverContext context = IObserverContext.createInstance();
+    List<IObserver> beforeMapping = getObserver(mapperClass, ObserverEventType.BEFORE_MAPPING);
+    Future<Void> fBefore = Future.succeededFuture();
+    if (!beforeMapping.isEmpty()) {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("pre mapping for " + mapperClass.getName());
+      }
+      fBefore = observerResult(
+          getBeforeMappingHandler().handle(mapperClass, context, beforeMapping, this.getDataStore()));
     }
+    return fBefore.compose(v -> {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("createMapper for " + mapperClass.getName());
+      }
+      IMapper<T> mapper = createMapper(mapperClass);
+      if (mapper.getObserverHandler().getObserver(ObserverEventType.AFTER_MAPPING).isEmpty()) {
+        return Future.succeededFuture(mapper);
+      }
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("post mapping for " + mapperClass.getName());
+      }
+      return observerResult(mapper.getObserverHandler().handleAfterMapping(mapper, context)).map(v2 -> mapper);
+    });
+  }
+
+  /**
+   * Wraps the failure of the observers of the mapping process into an {@link InitException}
+   * 
+   * @param observerFuture
+   *          the composed future of the observers
+   * @return a future, which is completed, when the observers are completed
+   */
+  private Future<Void> observerResult(final Future<Void> observerFuture) {
+    Future<Void> f = Future.future();
+    observerFuture.setHandler(res -> {
+      if (res.failed()) {
+        f.fail(new InitException(res.cause()));
+      } else {
+        f.complete();
+      }
+    });
     return f;
   }
 
+  /**
+   * Starts the mapping of the given class and completes the registered entry, when the mapper and all observers of the
+   * mapping process are finished. A failed entry is removed, so that a later request can try again
+   */
+  private <T> void startMapping(final Class<T> mapperClass, final CompletableFuture<IMapper<?>> created) {
+    Future<IMapper<T>> fMapper;
+    try {
+      fMapper = mapClass(mapperClass);
+    } catch (RuntimeException e) {
+      fMapper = Future.failedFuture(e);
+    }
+    fMapper.setHandler(res -> {
+      if (res.failed()) {
+        mappedClasses.remove(mapperClass, created);
+        created.completeExceptionally(res.cause());
+      } else {
+        created.complete(res.result());
+      }
+    });
+  }
+
+  /**
+   * Creates the mapper on a worker thread and completes the registered entry there, so that the creation doesn't depend
+   * on the context of the request. Requests waiting for the entry are notified on their own context
+   */
+  private <T> void createMapperAsync(final Class<T> mapperClass, final CompletableFuture<IMapper<?>> created) {
+    getDataStore().getVertx().<Void> executeBlocking(fut -> {
+      startMapping(mapperClass, created);
+      created.whenComplete((mapper, e) -> fut.complete());
+    }, false, null);
+  }
+
   /**
    * Get the observer, which are responsible for the event BEFORE_MAPPING for the given class
    * 
@@ -172,55 +309,14 @@ public abstract class AbstractMapperFactory implements IMapperFactory {
   private List<IObserver> getObserver(final Class<?> mapperClass, final ObserverEventType eventType) {
     List<ObserverDefinition<?>> osList = getDataStore().getSettings().getObserverSettings()
         .getObserverDefinitions(mapperClass, eventType);
-    List<IObserver> ol = new ArrayList<>();
-    osList.forEach(os -> {
-      try {
-        ol.add(os.getObserverClass().newInstance());
-      } catch (Exception e) {
-        throw new MappingException(e);
-      }
-    });
+    List<IObserver> ol = new ArrayList<>(osList.size());
+    osList.forEach(os -> ol.add(observerPool.getObserver(os)));
     return ol;
   }
 
-  private void postMapping(final IMapper<?> mapper, final IObserverContext context) {
-    CountDownLatch latch = new CountDownLatch(1);
-    ResultObject<Void> ro = new ResultObject<>(null);
-
-    // using only vertx.executeBlocking will potentially block with MongoDatastore
-    // thus - during init - we are using Runnable
-    Runnable runnable = () -> {
-      try {
-        LOGGER.debug("start handle after mapping");
-        Future<Void> f = mapper.getObserverHandler().handleAfterMapping(mapper, context);
-        LOGGER.debug("stop handle after mapping");
-        if (f.failed()) {
-          ro.setThrowable(f.cause());
-        } else {
-          // no result to be set;
-        }
-      } catch (Exception e) {
-        ro.setThrowable(e);
-      }
-      latch.countDown();
-    };
-
-    Thread thr = new Thread(runnable);
-    thr.start();
-
-    try {
-      latch.await();
-    } catch (InterruptedException e) {
-      throw new InitException("Init of mapping not possible", e);
-    }
-    if (ro.isError()) {
-      throw new InitException(ro.getThrowable());
-    }
-  }
-
   @Override
   public final boolean isMapper(final Class<?> mapperClass) {
-    if (mappedClasses.containsKey(mapperClass.getName()) || mapperClass.isAnnotationPresent(Entity.class))
+    if (mappedClasses.containsKey(mapperClass) || mapperClass.isAnnotationPresent(Entity.class))
       return true;
     return false;
   }
@@ -44,10 +44,23 @@ public class DefaultPropertyMapper implements IPropertyMapper {
     IPropertyAccessor pAcc = field.getPropertyAccessor();
     Object javaValue = pAcc.readData(mapper);
     if (field.getEncoder() != null) {
-      javaValue = field.getEncoder().encode((CharSequence) javaValue);
-      pAcc.writeData(mapper, javaValue);
+      EncoderExecutor executor = field.getMapper().getMapperFactory().getDataStore().getEncoderExecutor();
+      executor.encode(field.getEncoder(), (CharSequence) javaValue, result -> {
+        if (result.failed()) {
+          handler.handle(Future.failedFuture(result.cause()));
+        } else {
+          try {
+            pAcc.writeData(mapper, result.result());
+          } catch (PropertyAccessException e) {
+            handler.handle(Future.failedFuture(e));
+            return;
+          }
+          intoStoreObject(storeObject, field, th, result.result(), handler);
+        }
+      });
+    } else {
+      intoStoreObject(storeObject, field, th, javaValue, handler);
     }
-    intoStoreObject(storeObject, field, th, javaValue, handler);
   }
 
   /*
@@ -150,6 +163,9 @@ public class DefaultPropertyMapper implements IPropertyMapper {
       } else {
         IPropertyAccessor pAcc = field.getPropertyAccessor();
         pAcc.writeData(mapper, javaValue);
+        if (field.getEncoder() != null) {
+          field.getMapper().getMapperFactory().getDataStore().getEncoderExecutor().markEncoded(javaValue);
+        }
         LOGGER.debug("writing data");
       }
       handler.handle(Future.succeededFuture());
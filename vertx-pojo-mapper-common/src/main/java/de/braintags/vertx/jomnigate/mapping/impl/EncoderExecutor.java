@@ -0,0 +1,143 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.mapping.impl;
+
+import java.util.Collections;
+import java.util.Set;
+
+import com.google.common.collect.MapMaker;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.annotation.field.Encoder;
+import de.braintags.vertx.util.security.crypt.IEncoder;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+
+/**
+ * The EncoderExecutor executes the {@link IEncoder} of properties, which are annotated by {@link Encoder}, inside a
+ * dedicated pool of worker threads, so that expensive hashes don't block the event loop. Several values are encoded in
+ * parallel. The size of the pool is defined by the property {@link IDataStore#ENCODER_POOL_SIZE} of the datastore.
+ * The EncoderExecutor remembers the instances of the values, which were created by an encoder or which were loaded
+ * from the datastore, so that a value, which is already encoded, is not encoded again when an instance is saved
+ * another time. Those values are held by weak references and compared by identity.
+ *
+ * @author Michael Remme
+ *
+ */
+public class EncoderExecutor {
+  /**
+   * The name of the shared worker pool, which is used to encode values
+   */
+  public static final String POOL_NAME = "jomnigate-encoder";
+
+  private final Vertx vertx;
+  private final int poolSize;
+  private final Set<Object> encodedValues = Collections.newSetFromMap(new MapMaker().weakKeys().makeMap());
+  private WorkerExecutor executor;
+
+  /**
+   * @param vertx
+   *          the instance of vertx, which creates the worker pool
+   * @param poolSize
+   *          the maximum number of values, which are encoded in parallel
+   */
+  public EncoderExecutor(Vertx vertx, int poolSize) {
+    this.vertx = vertx;
+    this.poolSize = poolSize;
+  }
+
+  /**
+   * Encodes the given value inside the worker pool. If the value was already encoded, it is returned unchanged. The
+   * handler is called inside the context of the caller
+   *
+   * @param encoder
+   *          the encoder to be used
+   * @param value
+   *          the value to be encoded
+   * @param handler
+   *          the handler, which receives the encoded value
+   */
+  public void encode(IEncoder encoder, CharSequence value, Handler<AsyncResult<String>> handler) {
+    if (value == null) {
+      handler.handle(Future.succeededFuture());
+    } else if (isEncoded(value)) {
+      handler.handle(Future.succeededFuture(value.toString()));
+    } else {
+      getExecutor().<String> executeBlocking(future -> future.complete(encodeSync(encoder, value)), false, handler);
+    }
+  }
+
+  /**
+   * Encodes the given value inside the current thread. If the value was already encoded, it is returned unchanged
+   *
+   * @param encoder
+   *          the encoder to be used
+   * @param value
+   *          the value to be encoded
+   * @return the encoded value
+   */
+  public String encodeSync(IEncoder encoder, CharSequence value) {
+    if (value == null) {
+      return null;
+    } else if (isEncoded(value)) {
+      return value.toString();
+    }
+    String encoded = encoder.encode(value);
+    markEncoded(encoded);
+    return encoded;
+  }
+
+  /**
+   * Checks wether the given instance was created by an encoder or was loaded as encoded value from the datastore
+   *
+   * @param value
+   *          the value to be checked
+   * @return true, if the value must not be encoded again
+   */
+  public boolean isEncoded(Object value) {
+    return value != null && encodedValues.contains(value);
+  }
+
+  /**
+   * Remembers the given instance as encoded value, for instance when it was loaded from the datastore
+   *
+   * @param value
+   *          the encoded value
+   */
+  public void markEncoded(Object value) {
+    if (value != null) {
+      encodedValues.add(value);
+    }
+  }
+
+  /**
+   * Closes the worker pool, if it was created
+   */
+  public synchronized void close() {
+    if (executor != null) {
+      executor.close();
+      executor = null;
+    }
+  }
+
+  private synchronized WorkerExecutor getExecutor() {
+    if (executor == null) {
+      executor = vertx.createSharedWorkerExecutor(POOL_NAME, poolSize);
+    }
+    return executor;
+  }
+
+}
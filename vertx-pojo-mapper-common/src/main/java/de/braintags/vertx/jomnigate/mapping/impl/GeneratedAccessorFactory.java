@@ -0,0 +1,235 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.mapping.impl;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import de.braintags.vertx.jomnigate.mapping.IPropertyAccessor;
+import de.braintags.vertx.jomnigate.mapping.IPropertyAccessorFactory;
+
+/**
+ * An {@link IPropertyAccessorFactory}, which generates direct calls of getters and setters by the
+ * {@link LambdaMetafactory} once at mapping time, so that no reflection is used, when a property is read or written.
+ * Fields and methods, which can't be linked that way, because they are not public or not visible from the classloader
+ * of this class, are accessed by a {@link MethodHandle}. Only if a property isn't accessible by a MethodHandle either,
+ * the reflection based {@link JavaFieldAccessor} or {@link JavaBeanAccessor} is used.
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class GeneratedAccessorFactory implements IPropertyAccessorFactory {
+  private static final io.vertx.core.logging.Logger LOGGER = io.vertx.core.logging.LoggerFactory
+      .getLogger(GeneratedAccessorFactory.class);
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+  private static final MethodType READER_TYPE = MethodType.methodType(Object.class, Object.class);
+  private static final MethodType WRITER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.mapping.IPropertyAccessorFactory#createFieldAccessor(java.lang.reflect.Field)
+   */
+  @Override
+  public IPropertyAccessor createFieldAccessor(Field field) {
+    try {
+      return new GeneratedPropertyAccessor(field.getName(), createReader(field), createWriter(field));
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      LOGGER.debug("using reflection to access field " + field, e);
+      return new JavaFieldAccessor(field);
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.mapping.IPropertyAccessorFactory#createBeanAccessor(java.beans.
+   * PropertyDescriptor)
+   */
+  @Override
+  public IPropertyAccessor createBeanAccessor(PropertyDescriptor beanDescriptor) {
+    try {
+      return new GeneratedPropertyAccessor(beanDescriptor.getName(), createReader(beanDescriptor.getReadMethod()),
+          createWriter(beanDescriptor.getWriteMethod()));
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      LOGGER.debug("using reflection to access property " + beanDescriptor.getName(), e);
+      return new JavaBeanAccessor(beanDescriptor);
+    }
+  }
+
+  /**
+   * Create a function, which reads the value of a field or calls a getter method
+   * 
+   * @param member
+   *          a {@link Field} or a non static {@link Method} without parameters
+   * @return the function, which receives the record and returns the value of the property
+   * @throws ReflectiveOperationException
+   *           if the member can't be accessed or is no getter or setter
+   */
+  @SuppressWarnings("unchecked")
+  public static Function<Object, Object> createReader(Member member) throws ReflectiveOperationException {
+    MethodHandle handle;
+    if (member instanceof Method) {
+      Method method = checkMethod((Method) member, 0);
+      handle = LOOKUP.unreflect(method);
+      if (isLinkable(method)) {
+        try {
+          MethodType instantiatedType = MethodType.methodType(method.getReturnType(), method.getDeclaringClass())
+              .wrap();
+          return (Function<Object, Object>) LambdaMetafactory.metafactory(LOOKUP, "apply",
+              MethodType.methodType(Function.class), READER_TYPE, handle, instantiatedType).getTarget().invoke();
+        } catch (Throwable e) {
+          LOGGER.debug("could not generate getter for " + method, e);
+        }
+      }
+    } else if (member instanceof Field) {
+      handle = LOOKUP.unreflectGetter((Field) member);
+    } else {
+      throw new NoSuchMethodException("no field or method: " + member);
+    }
+    MethodHandle reader = handle.asType(READER_TYPE);
+    return record -> {
+      try {
+        return reader.invokeExact(record);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new UndeclaredThrowableException(e);
+      }
+    };
+  }
+
+  /**
+   * Create a function, which writes the value of a field or calls a setter method. A primitive property accepts the
+   * wrappers of smaller primitive types as well, like the reflection based accessors do, so that an Integer can be
+   * written into a long
+   * 
+   * @param member
+   *          a {@link Field} or a non static {@link Method} with one parameter
+   * @return the function, which receives the record and the value to be written
+   * @throws ReflectiveOperationException
+   *           if the member can't be accessed or is no getter or setter
+   */
+  @SuppressWarnings("unchecked")
+  public static BiConsumer<Object, Object> createWriter(Member member) throws ReflectiveOperationException {
+    MethodHandle handle;
+    Class<?> type;
+    if (member instanceof Method) {
+      Method method = checkMethod((Method) member, 1);
+      handle = LOOKUP.unreflect(method);
+      type = method.getParameterTypes()[0];
+      if (isLinkable(method)) {
+        try {
+          MethodType instantiatedType = MethodType.methodType(void.class, method.getDeclaringClass(), type).wrap()
+              .changeReturnType(void.class);
+          return widening(type, (BiConsumer<Object, Object>) LambdaMetafactory.metafactory(LOOKUP, "accept",
+              MethodType.methodType(BiConsumer.class), WRITER_TYPE, handle, instantiatedType).getTarget().invoke());
+        } catch (Throwable e) {
+          LOGGER.debug("could not generate setter for " + method, e);
+        }
+      }
+    } else if (member instanceof Field) {
+      handle = LOOKUP.unreflectSetter((Field) member);
+      type = ((Field) member).getType();
+    } else {
+      throw new NoSuchMethodException("no field or method: " + member);
+    }
+    MethodHandle writer = handle.asType(WRITER_TYPE);
+    return widening(type, (record, data) -> {
+      try {
+        writer.invokeExact(record, data);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new UndeclaredThrowableException(e);
+      }
+    });
+  }
+
+  /**
+   * The generated writer of a primitive property casts the value to the wrapper of the type. To accept the wrappers
+   * of smaller types like reflection does, those values are widened before
+   */
+  private static BiConsumer<Object, Object> widening(Class<?> type, BiConsumer<Object, Object> writer) {
+    if (!type.isPrimitive()) {
+      return writer;
+    }
+    Class<?> wrapper = MethodType.methodType(type).wrap().returnType();
+    return (record, data) -> writer.accept(record, data == null || wrapper.isInstance(data) ? data : widen(type, data));
+  }
+
+  /**
+   * Performs the widening primitive conversion of the value into the given type. Values, which can't be widened, are
+   * returned unchanged and cause a ClassCastException by the writer
+   */
+  private static Object widen(Class<?> type, Object data) {
+    Object value = data instanceof Character ? Integer.valueOf((Character) data) : data;
+    boolean isByte = value instanceof Byte;
+    boolean isShort = isByte || value instanceof Short;
+    boolean isInt = isShort || value instanceof Integer;
+    boolean isLong = isInt || value instanceof Long;
+    if (type == short.class && isByte) {
+      return ((Number) value).shortValue();
+    } else if (type == int.class && (isShort || data instanceof Character)) {
+      return ((Number) value).intValue();
+    } else if (type == long.class && isInt) {
+      return ((Number) value).longValue();
+    } else if (type == float.class && isLong) {
+      return ((Number) value).floatValue();
+    } else if (type == double.class && (isLong || value instanceof Float)) {
+      return ((Number) value).doubleValue();
+    }
+    return data;
+  }
+
+  private static Method checkMethod(Method method, int parameterCount) throws NoSuchMethodException {
+    if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != parameterCount) {
+      throw new NoSuchMethodException("no getter or setter: " + method);
+    }
+    return method;
+  }
+
+  /**
+   * The generated class calls the method directly, so the method and its class must be public and the class must be
+   * visible by the classloader of this factory
+   */
+  private static boolean isLinkable(Method method) {
+    if (!Modifier.isPublic(method.getModifiers())) {
+      return false;
+    }
+    Class<?> declaringClass = method.getDeclaringClass();
+    for (Class<?> cl = declaringClass; cl != null; cl = cl.getEnclosingClass()) {
+      if (!Modifier.isPublic(cl.getModifiers())) {
+        return false;
+      }
+    }
+    try {
+      return Class.forName(declaringClass.getName(), false, GeneratedAccessorFactory.class.getClassLoader())
+          == declaringClass;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+}
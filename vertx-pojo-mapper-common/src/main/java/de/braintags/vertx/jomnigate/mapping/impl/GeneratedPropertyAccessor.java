@@ -0,0 +1,89 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.mapping.impl;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import de.braintags.vertx.jomnigate.mapping.IPropertyAccessor;
+import de.braintags.vertx.util.exception.PropertyAccessException;
+
+/**
+ * An accessor which reads and writes a property by the direct calls generated by {@link GeneratedAccessorFactory}
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class GeneratedPropertyAccessor implements IPropertyAccessor {
+  private final String name;
+  private final Function<Object, Object> reader;
+  private final BiConsumer<Object, Object> writer;
+
+  /**
+   * @param name
+   *          the name of the property
+   * @param reader
+   *          the function, which reads the value of the property from a record
+   * @param writer
+   *          the function, which writes the value of the property into a record
+   */
+  public GeneratedPropertyAccessor(String name, Function<Object, Object> reader, BiConsumer<Object, Object> writer) {
+    this.name = name;
+    this.reader = reader;
+    this.writer = writer;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.mapping.IPropertyAccessor#readData(java.lang.Object)
+   */
+  @Override
+  public Object readData(Object record) {
+    try {
+      return record == null ? null : reader.apply(record);
+    } catch (Exception e) {
+      throw new PropertyAccessException("Cannot read data from property " + name, e);
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.mapping.IPropertyAccessor#writeData(java.lang.Object, java.lang.Object)
+   */
+  @Override
+  public void writeData(Object record, Object data) {
+    try {
+      writer.accept(record, data);
+    } catch (Exception e) {
+      throw new PropertyAccessException("Cannot write data from property " + name, e);
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.mapping.IPropertyAccessor#getName()
+   */
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+
+}
@@ -29,6 +29,7 @@ import de.braintags.vertx.jomnigate.mapping.IIdInfo;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
 import de.braintags.vertx.jomnigate.mapping.IObjectFactory;
 import de.braintags.vertx.jomnigate.mapping.IPropertyAccessor;
+import de.braintags.vertx.jomnigate.mapping.IPropertyAccessorFactory;
 import de.braintags.vertx.util.ClassUtil;
 import de.braintags.vertx.util.exception.ClassAccessException;
 
@@ -122,15 +123,15 @@ public class Mapper<T> extends AbstractMapper<T> {
    * @throws NoSuchFieldException
    */
   private void loopPropertyDescriptors(final PropertyDescriptor[] beanDescriptors) throws NoSuchFieldException {
+    IPropertyAccessorFactory accessorFactory = getPropertyAccessorFactory();
     for (PropertyDescriptor beanDescriptor : beanDescriptors) {
       Method readMethod = beanDescriptor.getReadMethod();
       Method writeMethod = beanDescriptor.getWriteMethod();
       if (readMethod != null && writeMethod != null) {
-        JavaBeanAccessor accessor = new JavaBeanAccessor(beanDescriptor);
-        String name = accessor.getName();
+        String name = beanDescriptor.getName();
         Field field = ClassUtil.getDeclaredField(getMapperClass(), name);
         if (field != null) {
-          addMappedField(name, createMappedField(field, accessor));
+          addMappedField(name, createMappedField(field, accessorFactory.createBeanAccessor(beanDescriptor)));
         }
       }
     }
@@ -140,18 +141,31 @@ public class Mapper<T> extends AbstractMapper<T> {
    * Computes the properties from the public fields of the class, which are not transient
    */
   public void computeFieldProperties() {
+    IPropertyAccessorFactory accessorFactory = getPropertyAccessorFactory();
     Field[] fieldArray = getMapperClass().getFields();
     for (Field field : fieldArray) {
       int fieldModifiers = field.getModifiers();
-      JavaFieldAccessor accessor = new JavaFieldAccessor(field);
-      MappedField mf = createMappedField(field, accessor);
-      if (!mf.isIgnore() && !Modifier.isTransient(fieldModifiers)
-          && Modifier.isPublic(fieldModifiers) && !Modifier.isStatic(fieldModifiers)) {
-        addMappedField(accessor.getName(), createMappedField(field, accessor));
+      if (!Modifier.isTransient(fieldModifiers) && Modifier.isPublic(fieldModifiers)
+          && !Modifier.isStatic(fieldModifiers)) {
+        IPropertyAccessor accessor = accessorFactory.createFieldAccessor(field);
+        MappedField mf = createMappedField(field, accessor);
+        if (!mf.isIgnore()) {
+          addMappedField(accessor.getName(), mf);
+        }
       }
     }
   }
 
+  /**
+   * Get the factory, which creates the accessors of the properties. It is defined by the
+   * {@link de.braintags.vertx.jomnigate.mapping.IPropertyMapperFactory} of the mapper factory
+   * 
+   * @return the {@link IPropertyAccessorFactory} to be used
+   */
+  protected IPropertyAccessorFactory getPropertyAccessorFactory() {
+    return getMapperFactory().getPropertyMapperFactory().getPropertyAccessorFactory();
+  }
+
   /**
    * Adds a mapped field into the list of properties
    * 
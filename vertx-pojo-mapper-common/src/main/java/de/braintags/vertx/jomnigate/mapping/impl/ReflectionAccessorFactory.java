@@ -0,0 +1,51 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.mapping.impl;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+
+import de.braintags.vertx.jomnigate.mapping.IPropertyAccessor;
+import de.braintags.vertx.jomnigate.mapping.IPropertyAccessorFactory;
+
+/**
+ * An {@link IPropertyAccessorFactory}, which creates the reflection based {@link JavaFieldAccessor} and
+ * {@link JavaBeanAccessor}
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class ReflectionAccessorFactory implements IPropertyAccessorFactory {
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.mapping.IPropertyAccessorFactory#createFieldAccessor(java.lang.reflect.Field)
+   */
+  @Override
+  public IPropertyAccessor createFieldAccessor(Field field) {
+    return new JavaFieldAccessor(field);
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.mapping.IPropertyAccessorFactory#createBeanAccessor(java.beans.
+   * PropertyDescriptor)
+   */
+  @Override
+  public IPropertyAccessor createBeanAccessor(PropertyDescriptor beanDescriptor) {
+    return new JavaBeanAccessor(beanDescriptor);
+  }
+
+}
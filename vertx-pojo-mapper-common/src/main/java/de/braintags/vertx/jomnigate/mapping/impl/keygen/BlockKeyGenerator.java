@@ -0,0 +1,217 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.mapping.impl.keygen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.mapping.IMapper;
+import de.braintags.vertx.keygenerator.KeyGeneratorVerticle;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+/**
+ * The BlockKeyGenerator reserves blocks of keys per mapper by using the {@link KeyGeneratorVerticle} and hands them out
+ * locally without locking, so that the eventbus is used once per block instead of once per key. To reserve a block,
+ * the next number of the reference {@link IMapper#getKeyGeneratorReference()} plus {@link #BLOCK_REFERENCE_SUFFIX} is
+ * requested; the block number n contains the keys from n * blockSize up to (n + 1) * blockSize - 1. The size of a block
+ * is defined by the property {@link #BLOCK_SIZE_PROPERTY} of the datastore.
+ * The keys of a block, which was not used up, are lost when the application stops. Because the blocks are counted
+ * independently from the keys of the {@link DefaultKeyGenerator}, a mapper with existing records should not be
+ * switched from one generator to the other.
+ *
+ * @author Michael Remme
+ *
+ */
+public class BlockKeyGenerator extends AbstractKeyGenerator {
+  private static final io.vertx.core.logging.Logger LOGGER = io.vertx.core.logging.LoggerFactory
+      .getLogger(BlockKeyGenerator.class);
+  public static final String NAME = "BlockKeyGenerator";
+
+  /**
+   * The name of the property of the datastore, which defines the number of keys reserved by one request
+   */
+  public static final String BLOCK_SIZE_PROPERTY = "keyGeneratorBlockSize";
+
+  /**
+   * The default value for the property {@link #BLOCK_SIZE_PROPERTY}
+   */
+  public static final int DEFAULT_BLOCK_SIZE = 1000;
+
+  /**
+   * The suffix, which is added to the reference of the mapper to count the reserved blocks
+   */
+  public static final String BLOCK_REFERENCE_SUFFIX = "_block";
+
+  private final Vertx vertx;
+  private final ConcurrentMap<String, BlockState> blockStates = new ConcurrentHashMap<>();
+
+  /**
+   * @param datastore
+   */
+  public BlockKeyGenerator(IDataStore datastore) {
+    super(NAME, datastore);
+    vertx = datastore.getVertx();
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.mapping.IKeyGenerator#generateKey(de.braintags.vertx.jomnigate.mapping.
+   * IMapper, io.vertx.core.Handler)
+   */
+  @Override
+  public void generateKey(IMapper<?> mapper, Handler<AsyncResult<Key>> handler) {
+    BlockState state = getBlockState(mapper);
+    Block block = state.current;
+    if (block != null) {
+      long key = block.next.getAndIncrement();
+      if (key < block.end) {
+        handler.handle(Future.succeededFuture(new Key(key)));
+        return;
+      }
+    }
+    generateKeys(mapper, 1, result -> {
+      if (result.failed()) {
+        handler.handle(Future.failedFuture(result.cause()));
+      } else {
+        handler.handle(Future.succeededFuture(result.result().get(0)));
+      }
+    });
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.mapping.IKeyGenerator#generateKeys(de.braintags.vertx.jomnigate.mapping.IMapper,
+   * int, io.vertx.core.Handler)
+   */
+  @Override
+  public void generateKeys(IMapper<?> mapper, int count, Handler<AsyncResult<List<Key>>> handler) {
+    collectKeys(mapper, getBlockState(mapper), count, new ArrayList<>(count), handler);
+  }
+
+  /**
+   * Get the number of keys, which are reserved by one request
+   *
+   * @return the value of the property {@link #BLOCK_SIZE_PROPERTY} or {@link #DEFAULT_BLOCK_SIZE}
+   */
+  public int getBlockSize() {
+    return getDataStore().getProperties().getInteger(BLOCK_SIZE_PROPERTY, DEFAULT_BLOCK_SIZE);
+  }
+
+  private BlockState getBlockState(IMapper<?> mapper) {
+    return blockStates.computeIfAbsent(mapper.getKeyGeneratorReference(), ref -> new BlockState());
+  }
+
+  /**
+   * Takes keys from the current block until the list contains the requested number. If the block is used up, the
+   * request waits for the next block. A waiting request is continued on the context of its caller, not on the context
+   * of the eventbus reply
+   */
+  private void collectKeys(IMapper<?> mapper, BlockState state, int count, List<Key> keys,
+      Handler<AsyncResult<List<Key>>> handler) {
+    state.take(count - keys.size(), keys);
+    if (keys.size() == count) {
+      handler.handle(Future.succeededFuture(keys));
+    } else {
+      Context context = vertx.getOrCreateContext();
+      state.waiting.add(result -> context.runOnContext(v -> {
+        if (result.failed()) {
+          handler.handle(Future.failedFuture(result.cause()));
+        } else {
+          collectKeys(mapper, state, count, keys, handler);
+        }
+      }));
+      reserveBlock(mapper, state);
+    }
+  }
+
+  /**
+   * Requests a new block, if no request is running for the mapper, and informs all waiting requests afterwards
+   */
+  private void reserveBlock(IMapper<?> mapper, BlockState state) {
+    if (!state.reserving.compareAndSet(false, true)) {
+      return;
+    }
+    int blockSize = getBlockSize();
+    String reference = mapper.getKeyGeneratorReference() + BLOCK_REFERENCE_SUFFIX;
+    vertx.eventBus().send(KeyGeneratorVerticle.SERVICE_NAME, reference, result -> {
+      AsyncResult<Void> blockResult;
+      if (result.failed()) {
+        LOGGER.error(result.cause());
+        blockResult = Future.failedFuture(result.cause());
+      } else {
+        long blockNumber = Long.parseLong(String.valueOf(result.result().body()));
+        long first = blockNumber * blockSize;
+        // a key 0 is treated like an undefined id
+        state.current = new Block(Math.max(first, 1), first + blockSize);
+        blockResult = Future.succeededFuture();
+      }
+      state.reserving.set(false);
+      // requests, which still need keys, are added again and must not be handled in this loop
+      List<Handler<AsyncResult<Void>>> waiting = new ArrayList<>();
+      Handler<AsyncResult<Void>> waiter;
+      while ((waiter = state.waiting.poll()) != null) {
+        waiting.add(waiter);
+      }
+      waiting.forEach(w -> w.handle(blockResult));
+    });
+  }
+
+  /**
+   * The reservation state of one mapper
+   */
+  private static class BlockState {
+    private volatile Block current;
+    private final AtomicBoolean reserving = new AtomicBoolean(false);
+    private final ConcurrentLinkedQueue<Handler<AsyncResult<Void>>> waiting = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Adds up to count keys of the current block to the list
+     */
+    private void take(int count, List<Key> keys) {
+      Block block = current;
+      if (block != null) {
+        long first = block.next.getAndAdd(count);
+        long last = Math.min(first + count, block.end);
+        for (long key = first; key < last; key++) {
+          keys.add(new Key(key));
+        }
+      }
+    }
+  }
+
+  /**
+   * A reserved range of keys, where the keys are taken by increasing {@link #next}
+   */
+  private static class Block {
+    private final AtomicLong next;
+    private final long end;
+
+    Block(long first, long end) {
+      this.next = new AtomicLong(first);
+      this.end = end;
+    }
+  }
+
+}
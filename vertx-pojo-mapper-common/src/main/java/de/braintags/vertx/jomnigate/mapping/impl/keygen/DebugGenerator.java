@@ -12,6 +12,8 @@
  */
 package de.braintags.vertx.jomnigate.mapping.impl.keygen;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 import de.braintags.vertx.jomnigate.IDataStore;
@@ -49,6 +51,22 @@ public class DebugGenerator extends AbstractKeyGenerator {
     handler.handle(Future.succeededFuture(new Key(counter.incrementAndGet())));
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.mapping.IKeyGenerator#generateKeys(de.braintags.vertx.jomnigate.mapping.IMapper,
+   * int, io.vertx.core.Handler)
+   */
+  @Override
+  public void generateKeys(IMapper<?> mapper, int count, Handler<AsyncResult<List<Key>>> handler) {
+    long first = counter.getAndAdd(count) + 1;
+    List<Key> keys = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      keys.add(new Key(first + i));
+    }
+    handler.handle(Future.succeededFuture(keys));
+  }
+
   public void resetCounter() {
     counter.set(0);
   }
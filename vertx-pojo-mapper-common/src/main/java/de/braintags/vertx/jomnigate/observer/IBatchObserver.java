@@ -0,0 +1,46 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.observer;
+
+import java.util.List;
+
+import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
+import de.braintags.vertx.jomnigate.dataaccess.write.IWriteResult;
+import io.vertx.core.Future;
+
+/**
+ * An IBatchObserver is an {@link IObserver}, which receives the events of all entities of one data access in one call,
+ * for instance all records of an {@link IQueryResult} or all records of an {@link IWriteResult}. This allows an
+ * observer to execute one bulk operation instead of one operation per entity. Events, which are concerning one single
+ * entity, like {@link ObserverEventType#BEFORE_INSERT}, or which are concerning no entity at all, like
+ * {@link ObserverEventType#BEFORE_LOAD}, are still executed by {@link #handleEvent(IObserverEvent, IObserverContext)}
+ * 
+ * @author Michael Remme
+ * 
+ */
+public interface IBatchObserver extends IObserver {
+
+  /**
+   * Called to execute the events of one data access. The list contains only those events, for which the method
+   * {@link #canHandleEvent(IObserverEvent, IObserverContext)} returned true; it is never empty
+   * 
+   * @param events
+   *          the events to be handled, one event for each entity in the order of the access
+   * @param context
+   *          the context can be used to store context data during processing of the underlaying complete action
+   * @return the observer can return a valid {@link Future}, where for the surrounding process will wait; or it can
+   *         return NULL, which will process the action as fire-and-forget
+   */
+  Future<Void> handleEvents(List<IObserverEvent> events, IObserverContext context);
+
+}
@@ -20,7 +20,13 @@ import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 
 /**
- * IObserver is the instance, which is executed on a given event
+ * IObserver is the instance, which is executed on a given event.<br/>
+ * <b>NOTE:</b> an observer is created only once for each class and set of properties and this instance is shared by
+ * all mappers, for which it is defined, and by all concurrent events, see
+ * {@link de.braintags.vertx.jomnigate.observer.impl.ObserverPool}. An implementation therefore must not keep state in
+ * its fields, which belongs to one mapper or to one event; use the {@link IObserverContext} or the
+ * {@link IObserverEvent} instead. To get separate instances for different mappers, the definitions can be given
+ * different observer properties.
  * 
  * @author Michael Remme
  * 
@@ -0,0 +1,128 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.observer.impl;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.exception.MappingException;
+import de.braintags.vertx.jomnigate.init.ObserverDefinition;
+import de.braintags.vertx.jomnigate.mapping.IMapperFactory;
+import de.braintags.vertx.jomnigate.observer.IObserver;
+
+/**
+ * The ObserverPool holds the instances of {@link IObserver}, which are created from an {@link ObserverDefinition}.
+ * Observers with the same class and the same properties are created and initialized only once and are shared by all
+ * mappers of an {@link IMapperFactory}. Because of that an observer must not keep state, which belongs to one mapper
+ * or to one event. A warning is logged, when an observer class is created, which declares instance fields, that are
+ * not final, since those fields are shared by all mappers and events.
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class ObserverPool {
+  private static final io.vertx.core.logging.Logger LOGGER = io.vertx.core.logging.LoggerFactory
+      .getLogger(ObserverPool.class);
+
+  private final ConcurrentMap<PoolKey, IObserver> observers = new ConcurrentHashMap<>();
+  private final IDataStore<?, ?> datastore;
+
+  /**
+   * @param datastore
+   *          the datastore, whose instance of Vertx is used to initialize new observers
+   */
+  public ObserverPool(IDataStore<?, ?> datastore) {
+    this.datastore = datastore;
+  }
+
+  /**
+   * Get the shared observer for the given definition. If it does not exist yet, it is created, the properties of the
+   * definition are copied into it and it is initialized
+   * 
+   * @param definition
+   *          the definition of the observer
+   * @return the shared instance
+   * @throws MappingException
+   *           if the observer could not be created
+   */
+  public IObserver getObserver(ObserverDefinition<?> definition) {
+    PoolKey key = new PoolKey(definition.getObserverClass(), definition.getObserverProperties());
+    return observers.computeIfAbsent(key, this::createObserver);
+  }
+
+  /**
+   * Removes all observers, so that they are created again with the next request
+   */
+  public void clear() {
+    observers.clear();
+  }
+
+  private IObserver createObserver(PoolKey key) {
+    try {
+      IObserver observer = key.observerClass.newInstance();
+      observer.getObserverProperties().putAll(key.properties);
+      observer.init(datastore.getVertx());
+      checkMutableFields(key.observerClass);
+      return observer;
+    } catch (Exception e) {
+      throw new MappingException(e);
+    }
+  }
+
+  private static void checkMutableFields(Class<?> observerClass) {
+    for (Class<?> cls = observerClass; cls != null && cls != AbstractObserver.class
+        && cls != Object.class; cls = cls.getSuperclass()) {
+      for (Field field : cls.getDeclaredFields()) {
+        int modifiers = field.getModifiers();
+        if (!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers) && !field.isSynthetic()) {
+          LOGGER.warn("Observer " + observerClass.getName() + " declares the mutable field " + field.getName()
+              + ", but its instance is shared by all mappers and events, for which it is defined");
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * The key of a pooled observer, which contains a copy of the properties of the definition
+   */
+  private static class PoolKey {
+    private final Class<? extends IObserver> observerClass;
+    private final Properties properties = new Properties();
+
+    PoolKey(Class<? extends IObserver> observerClass, Properties properties) {
+      this.observerClass = observerClass;
+      this.properties.putAll(properties);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof PoolKey)) {
+        return false;
+      }
+      PoolKey other = (PoolKey) obj;
+      return observerClass == other.observerClass && properties.equals(other.properties);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(observerClass, properties);
+    }
+  }
+
+}
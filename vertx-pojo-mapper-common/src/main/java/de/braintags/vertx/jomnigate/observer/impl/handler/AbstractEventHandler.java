@@ -16,8 +16,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 import de.braintags.vertx.jomnigate.dataaccess.IAccessResult;
+import de.braintags.vertx.jomnigate.observer.IBatchObserver;
 import de.braintags.vertx.jomnigate.observer.IObserver;
 import de.braintags.vertx.jomnigate.observer.IObserverContext;
+import de.braintags.vertx.jomnigate.observer.IObserverEvent;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 
@@ -42,73 +44,116 @@ public abstract class AbstractEventHandler<T, U extends IAccessResult> {
    * @return
    */
   public Future<Void> handle(T accessObject, U result, IObserverContext context, List<IObserver> ol) {
-    Future<Void> f = Future.future();
-    CompositeFuture cf = loopObserver(ol, accessObject, result, context);
-    cf.setHandler(cfr -> {
-      if (cfr.failed()) {
-        f.fail(cfr.cause());
-      } else {
-        f.complete();
+    return createEvents(accessObject, result).compose(events -> {
+      if (events.isEmpty()) {
+        return Future.succeededFuture();
       }
+      return completeAll(loopObserver(ol, events, context));
     });
-    return f;
   }
 
   /**
-   * for each defined observer, process the entities of the write object
+   * for each defined observer, process the events of the entities
    * 
    * @param ol
-   * @param accessObject
-   * @param result
+   * @param events
    * @param context
-   * @return
+   * @return the Futures of the observers
    */
   @SuppressWarnings("rawtypes")
-  protected CompositeFuture loopObserver(List<IObserver> ol, T accessObject, U result, IObserverContext context) {
-    List<Future> fl = new ArrayList<>();
+  protected List<Future> loopObserver(List<IObserver> ol, List<IObserverEvent> events, IObserverContext context) {
+    List<Future> fl = new ArrayList<>(ol.size());
     for (IObserver observer : ol) {
-      fl.add(loopEntities(observer, accessObject, result, context));
+      fl.add(loopEntities(observer, events, context));
     }
-    return CompositeFuture.all(fl);
+    return fl;
   }
 
   /**
-   * Execute the current observer on each entity of the write object
+   * Execute the current observer on the event of each entity. An {@link IBatchObserver} receives all events, which it
+   * can handle, in one call, if the handled event type concerns a selection of entities, see {@link #isBatchEvent()}
    * 
    * @param observer
-   * @param accessObject
-   * @param result
+   * @param events
    * @param context
    * @return
    */
   @SuppressWarnings("rawtypes")
-  protected Future<Void> loopEntities(IObserver observer, T accessObject, U result, IObserverContext context) {
-    Future<Void> f = Future.future();
-    List<Future> fl = createEntityFutureList(observer, accessObject, result, context);
-    if (fl.isEmpty()) {// if all handlers work fire-and-forget or ifnothing was handled
-      f.complete();
-    } else {
-      CompositeFuture cf = CompositeFuture.all(fl);
-      cf.setHandler(res -> {
-        if (res.failed()) {
-          f.fail(res.cause());
-        } else {
-          f.complete();
+  protected Future<Void> loopEntities(IObserver observer, List<IObserverEvent> events, IObserverContext context) {
+    if (observer instanceof IBatchObserver && isBatchEvent()) {
+      List<IObserverEvent> handled = new ArrayList<>(events.size());
+      for (IObserverEvent event : events) {
+        if (observer.canHandleEvent(event, context)) {
+          handled.add(event);
+        }
+      }
+      Future<Void> f = handled.isEmpty() ? null : ((IBatchObserver) observer).handleEvents(handled, context);
+      return f == null ? Future.succeededFuture() : f;
+    }
+    List<Future> fl = new ArrayList<>();
+    for (IObserverEvent event : events) {
+      if (observer.canHandleEvent(event, context)) {
+        Future tf = observer.handleEvent(event, context);
+        if (tf != null) {
+          fl.add(tf);
         }
-      });
+      }
     }
-    return f;
+    // if all handlers work fire-and-forget or if nothing was handled, the list is empty
+    return completeAll(fl);
   }
 
   /**
-   * Use the entities to create the Future list
+   * Defines, whether the events of this handler are handed to an {@link IBatchObserver} by
+   * {@link IBatchObserver#handleEvents(List, IObserverContext)}. Handlers of an event, which does not concern the
+   * entities of an action, return false, so that the event is executed by
+   * {@link IObserver#handleEvent(IObserverEvent, IObserverContext)}
    * 
-   * @param observer
-   * @param writeObject
-   * @param context
-   * @return
+   * @return true, if the events concern the entities of an action
+   */
+  protected boolean isBatchEvent() {
+    return true;
+  }
+
+  /**
+   * Creates a Future, which is completed, when all Futures of the list are succeeded. Futures, which are completed
+   * already or which are null, are skipped, so that no {@link CompositeFuture} is created, if observers are working
+   * synchronously or fire-and-forget
+   * 
+   * @param fl
+   *          the list of Futures
+   * @return a Future, which is completed, when all Futures are succeeded or which fails with the first failure
    */
   @SuppressWarnings("rawtypes")
-  protected abstract List<Future> createEntityFutureList(IObserver observer, T accessObject, U result,
-      IObserverContext context);
+  public static Future<Void> completeAll(List<Future> fl) {
+    List<Future> pending = null;
+    for (Future f : fl) {
+      if (f == null || f.succeeded()) {
+        continue;
+      } else if (f.failed()) {
+        return Future.failedFuture(f.cause());
+      } else {
+        if (pending == null) {
+          pending = new ArrayList<>(fl.size());
+        }
+        pending.add(f);
+      }
+    }
+    if (pending == null) {
+      return Future.succeededFuture();
+    } else if (pending.size() == 1) {
+      Future<?> single = pending.get(0);
+      return single.map(v -> (Void) null);
+    }
+    return CompositeFuture.all(pending).map(v -> (Void) null);
+  }
+
+  /**
+   * Create the events for the entities of the access, which are handled by all observers
+   * 
+   * @param accessObject
+   * @param result
+   * @return a Future with the list of events in the order of the entities
+   */
+  protected abstract Future<List<IObserverEvent>> createEvents(T accessObject, U result);
 }
@@ -20,7 +20,6 @@ import de.braintags.vertx.jomnigate.observer.IObserver;
 import de.braintags.vertx.jomnigate.observer.IObserverContext;
 import de.braintags.vertx.jomnigate.observer.IObserverEvent;
 import de.braintags.vertx.jomnigate.observer.ObserverEventType;
-import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 
 /**
@@ -40,16 +39,7 @@ public class AfterMappingHandler {
    * @return
    */
   public Future<Void> handle(IMapper<?> mapper, IObserverContext context, List<IObserver> ol) {
-    Future<Void> f = Future.future();
-    CompositeFuture cf = loopObserver(ol, mapper, context);
-    cf.setHandler(cfr -> {
-      if (cfr.failed()) {
-        f.fail(cfr.cause());
-      } else {
-        f.complete();
-      }
-    });
-    return f;
+    return AbstractEventHandler.completeAll(loopObserver(ol, mapper, context));
   }
 
   /**
@@ -58,14 +48,14 @@ public class AfterMappingHandler {
    * @param ol
    * @param mapper
    * @param context
-   * @return
+   * @return the Futures of the observers, which are not fire-and-forget
    */
   @SuppressWarnings("rawtypes")
-  protected CompositeFuture loopObserver(List<IObserver> ol, IMapper<?> mapper, IObserverContext context) {
-    List<Future> fl = new ArrayList<>();
+  protected List<Future> loopObserver(List<IObserver> ol, IMapper<?> mapper, IObserverContext context) {
+    List<Future> fl = new ArrayList<>(ol.size());
+    IObserverEvent event = IObserverEvent.createEvent(ObserverEventType.AFTER_MAPPING, mapper, null, null,
+        mapper.getMapperFactory().getDataStore());
     for (IObserver observer : ol) {
-      IObserverEvent event = IObserverEvent.createEvent(ObserverEventType.AFTER_MAPPING, mapper, null, null,
-          mapper.getMapperFactory().getDataStore());
       if (observer.canHandleEvent(event, context)) {
         Future tf = observer.handleEvent(event, context);
         if (tf != null) {
@@ -73,6 +63,6 @@ public class AfterMappingHandler {
         }
       }
     }
-    return CompositeFuture.all(fl);
+    return fl;
   }
 }
@@ -12,13 +12,11 @@
  */
 package de.braintags.vertx.jomnigate.observer.impl.handler;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
-import de.braintags.vertx.jomnigate.observer.IObserver;
-import de.braintags.vertx.jomnigate.observer.IObserverContext;
 import de.braintags.vertx.jomnigate.observer.IObserverEvent;
 import de.braintags.vertx.jomnigate.observer.ObserverEventType;
 import io.vertx.core.Future;
@@ -31,34 +29,28 @@ import io.vertx.core.Future;
  */
 public class BeforeLoadHandler extends AbstractEventHandler<IQuery<?>, IQueryResult<?>> {
 
-  @SuppressWarnings("rawtypes")
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * de.braintags.vertx.jomnigate.observer.impl.handler.AbstractEventHandler#createEvents(java.lang.Object,
+   * de.braintags.vertx.jomnigate.dataaccess.IAccessResult)
+   */
   @Override
-  protected List<Future> createEntityFutureList(IObserver observer, IQuery<?> queryObject, IQueryResult<?> result,
-      IObserverContext context) {
-    List<Future> fl = new ArrayList<>();
-    fl.add(Future.failedFuture(
-        new UnsupportedOperationException("we should not land here, cause there are no entities before load")));
-    return fl;
+  protected Future<List<IObserverEvent>> createEvents(IQuery<?> accessObject, IQueryResult<?> result) {
+    // there are no entities before load, so one event without source is handled
+    return Future.succeededFuture(Collections.singletonList(IObserverEvent.createEvent(ObserverEventType.BEFORE_LOAD,
+        null, null, accessObject, accessObject.getDataStore())));
   }
 
   /*
    * (non-Javadoc)
    * 
-   * @see
-   * de.braintags.vertx.jomnigate.observer.impl.AbstractEventHandler#loopEntities(de.braintags.vertx.jomnigate.observer.
-   * IObserver, de.braintags.vertx.jomnigate.dataaccess.IDataAccessObject,
-   * de.braintags.vertx.jomnigate.dataaccess.IAccessResult, de.braintags.vertx.jomnigate.observer.IObserverContext)
+   * @see de.braintags.vertx.jomnigate.observer.impl.handler.AbstractEventHandler#isBatchEvent()
    */
   @Override
-  protected Future<Void> loopEntities(IObserver observer, IQuery<?> accessObject, IQueryResult<?> result,
-      IObserverContext context) {
-    IObserverEvent event = IObserverEvent.createEvent(ObserverEventType.BEFORE_LOAD, null, null, accessObject,
-        accessObject.getDataStore());
-    if (observer.canHandleEvent(event, context)) {
-      return observer.handleEvent(event, context);
-    } else {
-      return Future.succeededFuture();
-    }
+  protected boolean isBatchEvent() {
+    return false;
   }
 
 }
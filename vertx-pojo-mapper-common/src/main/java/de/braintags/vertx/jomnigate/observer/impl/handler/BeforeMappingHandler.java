@@ -20,7 +20,6 @@ import de.braintags.vertx.jomnigate.observer.IObserver;
 import de.braintags.vertx.jomnigate.observer.IObserverContext;
 import de.braintags.vertx.jomnigate.observer.IObserverEvent;
 import de.braintags.vertx.jomnigate.observer.ObserverEventType;
-import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 
 /**
@@ -41,16 +40,7 @@ public class BeforeMappingHandler {
    */
   public Future<Void> handle(Class<?> mapperClass, IObserverContext context, List<IObserver> ol,
       IDataStore<?, ?> datastore) {
-    Future<Void> f = Future.future();
-    CompositeFuture cf = loopObserver(ol, mapperClass, context, datastore);
-    cf.setHandler(cfr -> {
-      if (cfr.failed()) {
-        f.fail(cfr.cause());
-      } else {
-        f.complete();
-      }
-    });
-    return f;
+    return AbstractEventHandler.completeAll(loopObserver(ol, mapperClass, context, datastore));
   }
 
   /**
@@ -59,15 +49,15 @@ public class BeforeMappingHandler {
    * @param ol
    * @param mapper
    * @param context
-   * @return
+   * @return the Futures of the observers, which are not fire-and-forget
    */
   @SuppressWarnings("rawtypes")
-  protected CompositeFuture loopObserver(List<IObserver> ol, Class<?> mapperClass, IObserverContext context,
+  protected List<Future> loopObserver(List<IObserver> ol, Class<?> mapperClass, IObserverContext context,
       IDataStore<?, ?> datastore) {
-    List<Future> fl = new ArrayList<>();
+    List<Future> fl = new ArrayList<>(ol.size());
+    IObserverEvent event = IObserverEvent.createEvent(ObserverEventType.AFTER_MAPPING, mapperClass, null, null,
+        datastore);
     for (IObserver observer : ol) {
-      IObserverEvent event = IObserverEvent.createEvent(ObserverEventType.AFTER_MAPPING, mapperClass, null, null,
-          datastore);
       if (observer.canHandleEvent(event, context)) {
         Future tf = observer.handleEvent(event, context);
         if (tf != null) {
@@ -75,6 +65,6 @@ public class BeforeMappingHandler {
         }
       }
     }
-    return CompositeFuture.all(fl);
+    return fl;
   }
 }
@@ -13,7 +13,8 @@
 package de.braintags.vertx.jomnigate.observer.impl.handler;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 
@@ -32,13 +33,13 @@ import de.braintags.vertx.jomnigate.dataaccess.write.impl.AfterInsertHandler;
 import de.braintags.vertx.jomnigate.dataaccess.write.impl.AfterUpdateHandler;
 import de.braintags.vertx.jomnigate.dataaccess.write.impl.BeforeInsertHandler;
 import de.braintags.vertx.jomnigate.dataaccess.write.impl.BeforeUpdateHandler;
-import de.braintags.vertx.jomnigate.exception.MappingException;
 import de.braintags.vertx.jomnigate.init.ObserverDefinition;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
 import de.braintags.vertx.jomnigate.observer.IObserver;
 import de.braintags.vertx.jomnigate.observer.IObserverContext;
 import de.braintags.vertx.jomnigate.observer.IObserverHandler;
 import de.braintags.vertx.jomnigate.observer.ObserverEventType;
+import de.braintags.vertx.jomnigate.observer.impl.ObserverPool;
 import de.braintags.vertx.jomnigate.versioning.ExecuteVersionConverter;
 import io.vertx.core.Future;
 
@@ -49,8 +50,10 @@ import io.vertx.core.Future;
  * 
  */
 public class DefaultObserverHandler implements IObserverHandler {
+  private static final Map<ObserverEventType, List<IObserver>> EMPTY_DISPATCH_TABLE = createEmptyDispatchTable();
+
   private List<ObserverDefinition<?>> observerList = new ArrayList<>();
-  private Map<ObserverEventType, List<IObserver>> eventObserverCache = new HashMap<>();
+  private volatile Map<ObserverEventType, List<IObserver>> dispatchTable;
   private IMapper<?> mapper;
   private BeforeInsertHandler beforeInsertHandler = new BeforeInsertHandler();
   private BeforeUpdateHandler beforeUpdateHandler = new BeforeUpdateHandler();
@@ -98,25 +101,50 @@ public class DefaultObserverHandler implements IObserverHandler {
 
   @Override
   public List<IObserver> getObserver(ObserverEventType event) {
-    if (!eventObserverCache.containsKey(event)) {
+    Map<ObserverEventType, List<IObserver>> table = dispatchTable;
+    if (table == null) {
+      table = getDispatchTable();
+    }
+    return table.get(event);
+  }
+
+  /**
+   * The dispatch table contains the observers for each event type. It is built once with the first request, so that
+   * an observer, which can't be created, causes an exception with this request. Mappers without any observer share an
+   * empty table
+   */
+  private synchronized Map<ObserverEventType, List<IObserver>> getDispatchTable() {
+    if (dispatchTable == null) {
+      if (observerList.isEmpty() && mapper.getVersionInfo() == null) {
+        dispatchTable = EMPTY_DISPATCH_TABLE;
+      } else {
+        dispatchTable = createDispatchTable();
+      }
+    }
+    return dispatchTable;
+  }
+
+  private Map<ObserverEventType, List<IObserver>> createDispatchTable() {
+    ObserverPool pool = mapper.getMapperFactory().getObserverPool();
+    VersionInfo vi = mapper.getVersionInfo();
+    Map<ObserverEventType, List<IObserver>> table = new EnumMap<>(ObserverEventType.class);
+    for (ObserverEventType event : ObserverEventType.values()) {
       List<IObserver> ol = new ArrayList<>();
-      observerList.stream().filter(os -> os.isApplicableFor(event)).forEach(os -> {
-        try {
-          IObserver observer = os.getObserverClass().newInstance();
-          observer.getObserverProperties().putAll(os.getObserverProperties());
-          observer.init(mapper.getMapperFactory().getDataStore().getVertx());
-          ol.add(observer);
-        } catch (Exception e) {
-          throw new MappingException(e);
-        }
-      });
-      if (mapper.getVersionInfo() != null && event.equals(mapper.getVersionInfo().eventType())) {
-        VersionInfo vi = mapper.getVersionInfo();
+      observerList.stream().filter(os -> os.isApplicableFor(event)).forEach(os -> ol.add(pool.getObserver(os)));
+      if (vi != null && event.equals(vi.eventType())) {
         ol.add(new ExecuteVersionConverter(vi));
       }
-      eventObserverCache.put(event, ol);
+      table.put(event, ol.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(ol));
+    }
+    return Collections.unmodifiableMap(table);
+  }
+
+  private static Map<ObserverEventType, List<IObserver>> createEmptyDispatchTable() {
+    Map<ObserverEventType, List<IObserver>> table = new EnumMap<>(ObserverEventType.class);
+    for (ObserverEventType event : ObserverEventType.values()) {
+      table.put(event, Collections.emptyList());
     }
-    return eventObserverCache.get(event);
+    return Collections.unmodifiableMap(table);
   }
 
   /*
@@ -129,13 +157,10 @@ public class DefaultObserverHandler implements IObserverHandler {
   @Override
   public <T> Future<Void> handleBeforeUpdate(IWrite<T> writeObject, T entity, IObserverContext context) {
     List<IObserver> ol = getObserver(ObserverEventType.BEFORE_UPDATE);
-    Future<Void> f = Future.future();
     if (ol.isEmpty() || writeObject.size() <= 0) {
-      f.complete();
-    } else {
-      f = getBeforeUpdateHandler().handle(writeObject, entity, context, ol);
+      return Future.succeededFuture();
     }
-    return f;
+    return getBeforeUpdateHandler().handle(writeObject, entity, context, ol);
   }
 
   /*
@@ -149,13 +174,10 @@ public class DefaultObserverHandler implements IObserverHandler {
   @Override
   public <T> Future<Void> handleAfterUpdate(IWrite<T> writeObject, IWriteResult writeResult, IObserverContext context) {
     List<IObserver> ol = getObserver(ObserverEventType.AFTER_UPDATE);
-    Future<Void> f = Future.future();
     if (ol.isEmpty() || writeObject.size() <= 0) {
-      f.complete();
-    } else {
-      f = getAfterUpdateHandler().handle(writeObject, writeResult, context, ol);
+      return Future.succeededFuture();
     }
-    return f;
+    return getAfterUpdateHandler().handle(writeObject, writeResult, context, ol);
   }
 
   /*
@@ -168,25 +190,19 @@ public class DefaultObserverHandler implements IObserverHandler {
   @Override
   public <T> Future<Void> handleBeforeInsert(IWrite<T> writeObject, T entity, IObserverContext context) {
     List<IObserver> ol = getObserver(ObserverEventType.BEFORE_INSERT);
-    Future<Void> f = Future.future();
     if (ol.isEmpty() || writeObject.size() <= 0) {
-      f.complete();
-    } else {
-      f = getBeforeInsertHandler().handle(writeObject, entity, context, ol);
+      return Future.succeededFuture();
     }
-    return f;
+    return getBeforeInsertHandler().handle(writeObject, entity, context, ol);
   }
 
   @Override
   public <T> Future<Void> handleAfterInsert(IWrite<T> writeObject, IWriteResult writeResult, IObserverContext context) {
     List<IObserver> ol = getObserver(ObserverEventType.AFTER_INSERT);
-    Future<Void> f = Future.future();
     if (ol.isEmpty() || writeObject.size() <= 0) {
-      f.complete();
-    } else {
-      f = getAfterInsertHandler().handle(writeObject, writeResult, context, ol);
+      return Future.succeededFuture();
     }
-    return f;
+    return getAfterInsertHandler().handle(writeObject, writeResult, context, ol);
   }
 
   /*
@@ -199,13 +215,10 @@ public class DefaultObserverHandler implements IObserverHandler {
   @Override
   public <T> Future<Void> handleBeforeLoad(IQuery<T> queryObject, IObserverContext context) {
     List<IObserver> ol = getObserver(ObserverEventType.BEFORE_LOAD);
-    Future<Void> f = Future.future();
     if (ol.isEmpty()) {
-      f.complete();
-    } else {
-      f = getBeforeLoadHandler().handle(queryObject, null, context, ol);
+      return Future.succeededFuture();
     }
-    return f;
+    return getBeforeLoadHandler().handle(queryObject, null, context, ol);
   }
 
   /*
@@ -220,13 +233,10 @@ public class DefaultObserverHandler implements IObserverHandler {
   public <T> Future<Void> handleAfterLoad(IQuery<T> queryObject, IQueryResult<T> queryResult,
       IObserverContext context) {
     List<IObserver> ol = getObserver(ObserverEventType.AFTER_LOAD);
-    Future<Void> f = Future.future();
     if (ol.isEmpty() || queryResult.isEmpty()) {
-      f.complete();
-    } else {
-      f = getAfterLoadHandler().handle(queryObject, queryResult, context, ol);
+      return Future.succeededFuture();
     }
-    return f;
+    return getAfterLoadHandler().handle(queryObject, queryResult, context, ol);
   }
 
   /*
@@ -239,13 +249,10 @@ public class DefaultObserverHandler implements IObserverHandler {
   @Override
   public <T> Future<Void> handleBeforeDelete(IDelete<T> deleteObject, IObserverContext context) {
     List<IObserver> ol = getObserver(ObserverEventType.BEFORE_DELETE);
-    Future<Void> f = Future.future();
     if (ol.isEmpty()) {
-      f.complete();
-    } else {
-      f = getBeforeDeleteHandler().handle(deleteObject, null, context, ol);
+      return Future.succeededFuture();
     }
-    return f;
+    return getBeforeDeleteHandler().handle(deleteObject, null, context, ol);
   }
 
   /*
@@ -260,13 +267,10 @@ public class DefaultObserverHandler implements IObserverHandler {
   public <T> Future<Void> handleAfterDelete(IDelete<T> deleteObject, IDeleteResult deleteResult,
       IObserverContext context) {
     List<IObserver> ol = getObserver(ObserverEventType.AFTER_DELETE);
-    Future<Void> f = Future.future();
     if (ol.isEmpty() || deleteObject.size() <= 0) {
-      f.complete();
-    } else {
-      f = getAfterDeleteHandler().handle(deleteObject, deleteResult, context, ol);
+      return Future.succeededFuture();
     }
-    return f;
+    return getAfterDeleteHandler().handle(deleteObject, deleteResult, context, ol);
   }
 
   /*
@@ -279,13 +283,10 @@ public class DefaultObserverHandler implements IObserverHandler {
   @Override
   public <T> Future<Void> handleAfterMapping(IMapper<T> mapper, IObserverContext context) {
     List<IObserver> ol = getObserver(ObserverEventType.AFTER_MAPPING);
-    Future<Void> f = Future.future();
     if (ol.isEmpty()) {
-      f.complete();
-    } else {
-      f = getAfterMappingHandler().handle(mapper, context, ol);
+      return Future.succeededFuture();
     }
-    return f;
+    return getAfterMappingHandler().handle(mapper, context, ol);
   }
 
   /**
@@ -55,6 +55,12 @@
  * beginning of an action like saving object(s) and is delivered to any observer, which participates on this action, so
  * that participating obervers are able to share some data.
  * 
+ * An observer, which shall process all entities of one action together, like all records of a query or of a write
+ * action, can implement {@link de.braintags.vertx.jomnigate.observer.IBatchObserver}. Its method `handleEvents`
+ * receives the events of all entities in one call, so that the observer can execute one bulk operation instead of one
+ * operation per entity. Observer instances are shared between all mappers, thus an observer must not store data of one
+ * mapper or one event inside its fields.
+ * 
  * Registration of observers is done either by adding some information into the section `observerSettings` of the
  * DataStoreSettings or by adding the annotation {@link de.braintags.vertx.jomnigate.annotation.Observer} to a mapper
  * class.
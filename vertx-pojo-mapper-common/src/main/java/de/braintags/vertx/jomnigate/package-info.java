@@ -412,7 +412,7 @@
  * {@link de.braintags.vertx.jomnigate.annotation.KeyGenerator} to the classes head and optionally define the type
  * of keygenerator, which shall be used.
  * 
- * Currently there are existing three implementations of {@link de.braintags.vertx.jomnigate.mapping.IKeyGenerator}:
+ * Currently there are existing four implementations of {@link de.braintags.vertx.jomnigate.mapping.IKeyGenerator}:
  * 
  * * {@link de.braintags.vertx.jomnigate.mapping.impl.keygen.DefaultKeyGenerator} +
  * an implementation which uses the eventbus to request a key from
@@ -421,6 +421,11 @@
  * link:https://github.com/BraintagsGmbH/vertx-key-generator/blob/master/src/docs/asciidoc/java/index.adoc[*vertx-key-
  * generator*]
  * 
+ * * {@link de.braintags.vertx.jomnigate.mapping.impl.keygen.BlockKeyGenerator} +
+ * uses the KeyGeneratorVerticle as well, but reserves blocks of keys per mapper and hands them out locally. This
+ * avoids one eventbus request per new record, which is useful for mass inserts. The size of a block is defined by the
+ * property {@link de.braintags.vertx.jomnigate.mapping.impl.keygen.BlockKeyGenerator#BLOCK_SIZE_PROPERTY}
+ * 
  * * {@link de.braintags.vertx.keygenerator.impl.DebugGenerator} +
  * a local implementation which starts at zero by each launch and maybe useful for unint tests etc.
  * 
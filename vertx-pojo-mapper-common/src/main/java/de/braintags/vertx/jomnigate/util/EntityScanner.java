@@ -0,0 +1,131 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import de.braintags.vertx.jomnigate.annotation.Entity;
+import de.braintags.vertx.util.exception.InitException;
+
+/**
+ * Scans packages of the classpath for classes, which are annotated by {@link Entity}. Directories and jar files are
+ * supported; subpackages are scanned as well
+ *
+ * @author Michael Remme
+ *
+ */
+public class EntityScanner {
+  private static final io.vertx.core.logging.Logger LOGGER = io.vertx.core.logging.LoggerFactory
+      .getLogger(EntityScanner.class);
+  private static final String CLASS_SUFFIX = ".class";
+
+  private EntityScanner() {
+  }
+
+  /**
+   * Get all classes inside the given packages, which are annotated by {@link Entity}
+   *
+   * @param classLoader
+   *          the classloader, which is used to find and load the classes
+   * @param packageNames
+   *          the names of the packages to be scanned
+   * @return the entity classes
+   */
+  public static List<Class<?>> scan(ClassLoader classLoader, String... packageNames) {
+    Set<String> classNames = new LinkedHashSet<>();
+    for (String packageName : packageNames) {
+      String path = packageName.trim().replace('.', '/');
+      try {
+        Enumeration<URL> resources = classLoader.getResources(path);
+        while (resources.hasMoreElements()) {
+          collectClassNames(resources.nextElement(), path, classNames);
+        }
+      } catch (IOException e) {
+        throw new InitException("could not scan package " + packageName, e);
+      }
+    }
+    List<Class<?>> entities = new ArrayList<>();
+    for (String className : classNames) {
+      try {
+        Class<?> cl = Class.forName(className, false, classLoader);
+        if (cl.isAnnotationPresent(Entity.class)) {
+          entities.add(cl);
+        }
+      } catch (ClassNotFoundException | LinkageError e) {
+        LOGGER.debug("skipping class " + className, e);
+      }
+    }
+    return entities;
+  }
+
+  private static void collectClassNames(URL url, String path, Set<String> classNames) throws IOException {
+    URLConnection connection = url.openConnection();
+    if (connection instanceof JarURLConnection) {
+      // the cached jar file is used by the classloader and must not be closed
+      connection.setUseCaches(false);
+      try (JarFile jarFile = ((JarURLConnection) connection).getJarFile()) {
+        Enumeration<JarEntry> entries = jarFile.entries();
+        while (entries.hasMoreElements()) {
+          String name = entries.nextElement().getName();
+          if (name.startsWith(path + "/") && name.endsWith(CLASS_SUFFIX)) {
+            classNames.add(toClassName(name));
+          }
+        }
+      }
+    } else if ("file".equals(url.getProtocol())) {
+      collectFromDirectory(new File(decode(url.getPath())), path, classNames);
+    } else {
+      LOGGER.warn("unsupported classpath entry " + url);
+    }
+  }
+
+  private static void collectFromDirectory(File directory, String path, Set<String> classNames) {
+    File[] files = directory.listFiles();
+    if (files == null) {
+      return;
+    }
+    for (File file : files) {
+      if (file.isDirectory()) {
+        collectFromDirectory(file, path + "/" + file.getName(), classNames);
+      } else if (file.getName().endsWith(CLASS_SUFFIX)) {
+        classNames.add(toClassName(path + "/" + file.getName()));
+      }
+    }
+  }
+
+  private static String toClassName(String resourceName) {
+    return resourceName.substring(0, resourceName.length() - CLASS_SUFFIX.length()).replace('/', '.');
+  }
+
+  private static String decode(String path) {
+    try {
+      return URLDecoder.decode(path, "UTF-8");
+    } catch (UnsupportedEncodingException e) {
+      return path;
+    }
+  }
+
+}
@@ -13,13 +13,18 @@
 package de.braintags.vertx.jomnigate.util;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.dataaccess.cache.IEntityCache;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
 import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
+import de.braintags.vertx.jomnigate.dataaccess.query.impl.AbstractQueryResult;
+import de.braintags.vertx.jomnigate.dataaccess.query.impl.StoredObjectQueryResult;
 import de.braintags.vertx.jomnigate.exception.NoSuchRecordException;
+import de.braintags.vertx.jomnigate.observer.IObserverContext;
 import de.braintags.vertx.util.IteratorAsync;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
@@ -39,7 +44,8 @@ public class QueryHelper {
   }
 
   /**
-   * Performs a query by id and returns the found instance, or null, if none
+   * Performs a query by id and returns the found instance, or null, if none. If the mapper is cached by the
+   * {@link IEntityCache} of the datastore, the cache is used and a new instance is created from the cached object
    *
    * @param datastore
    *          the datastore to be used
@@ -54,7 +60,73 @@ public class QueryHelper {
       final Handler<AsyncResult<T>> handler) {
     IQuery<T> query = datastore.createQuery(mapperClass);
     query.setSearchCondition(ISearchCondition.isEqual(query.getMapper().getIdInfo().getIndexedField(), id));
-    executeToFirstRecord(query, handler);
+    IEntityCache cache = datastore.getEntityCache();
+    if (!cache.isCacheable(query.getMapper())) {
+      executeToFirstRecord(query, handler);
+      return;
+    }
+    Object cached = cache.get(query.getMapper(), id);
+    if (cached != null) {
+      createFromStoredObjects(query, Collections.singletonList(cached), result -> {
+        if (result.failed()) {
+          handler.handle(Future.failedFuture(result.cause()));
+        } else {
+          handler.handle(Future.succeededFuture(result.result().get(0)));
+        }
+      });
+      return;
+    }
+    long generation = cache.getGeneration(query.getMapper());
+    query.execute(null, 1, 0, result -> {
+      if (result.failed()) {
+        handler.handle(Future.failedFuture(result.cause()));
+      } else if (result.result().size() == 0) {
+        handler.handle(Future.succeededFuture(null));
+      } else {
+        cache.put(query.getMapper(), id, getStoredObject(result.result(), 0), generation);
+        result.result().iterator().next(handler);
+      }
+    });
+  }
+
+  /**
+   * Creates new instances from objects, which were read from the datastore before, like the objects held by the
+   * {@link IEntityCache}. The observers of the event AFTER_LOAD are executed for the new instances like for instances,
+   * which are loaded from the datastore
+   *
+   * @param query
+   *          the query, whose mapper is used to create the instances
+   * @param storedObjects
+   *          the objects as read from the datastore
+   * @param handler
+   *          the handler, which receives the new instances in the order of the stored objects
+   */
+  public static <T> void createFromStoredObjects(final IQuery<T> query, final List<?> storedObjects,
+      final Handler<AsyncResult<List<T>>> handler) {
+    IQueryResult<T> qr = new StoredObjectQueryResult<>(query.getDataStore(), query.getMapper(), storedObjects, null);
+    query.getMapper().getObserverHandler().handleAfterLoad(query, qr, IObserverContext.createInstance())
+        .setHandler(result -> {
+          if (result.failed()) {
+            handler.handle(Future.failedFuture(result.cause()));
+          } else {
+            queryResultToList(qr, handler);
+          }
+        });
+  }
+
+  /**
+   * Get the object at position index of the given {@link IQueryResult} as it was read from the datastore
+   *
+   * @param queryResult
+   *          the query result
+   * @param index
+   *          the position inside the result
+   * @return the object as read from the datastore or null, if the query result does not support it
+   * @see AbstractQueryResult#getStoredObject(int)
+   */
+  public static Object getStoredObject(final IQueryResult<?> queryResult, final int index) {
+    return queryResult instanceof AbstractQueryResult ? ((AbstractQueryResult<?>) queryResult).getStoredObject(index)
+        : null;
   }
 
   /**
@@ -152,4 +224,20 @@ public class QueryHelper {
     });
   }
 
+  /**
+   * Creates a complete {@link List} of objects from the given {@link IQueryResult}, where up to concurrency objects are
+   * generated at the same time
+   *
+   * @param queryResult
+   *          the {@link IQueryResult} to be handled
+   * @param concurrency
+   *          the maximum number of objects, which are generated at the same time
+   * @param handler
+   *          the handler to be informed
+   */
+  public static final <T> void queryResultToList(final IQueryResult<T> queryResult, final int concurrency,
+      final Handler<AsyncResult<List<T>>> handler) {
+    queryResult.toList(concurrency, handler);
+  }
+
 }
@@ -20,21 +20,23 @@ import java.util.List;
 import de.braintags.vertx.jomnigate.annotation.VersionConverterDefinition;
 import de.braintags.vertx.jomnigate.annotation.VersionInfo;
 import de.braintags.vertx.jomnigate.exception.MappingException;
+import de.braintags.vertx.jomnigate.observer.IBatchObserver;
 import de.braintags.vertx.jomnigate.observer.IObserverContext;
 import de.braintags.vertx.jomnigate.observer.IObserverEvent;
 import de.braintags.vertx.jomnigate.observer.impl.AbstractObserver;
-import io.vertx.core.CompositeFuture;
+import de.braintags.vertx.jomnigate.observer.impl.handler.AbstractEventHandler;
 import io.vertx.core.Future;
 
 /**
  * This observer implementation is used to execute version conversion for those instances, where a {@link VersionInfo}
  * is defined. It is created and added into the observer list automatically by the mapper, when {@link VersionInfo} is
- * found.
+ * found. Because it is an {@link IBatchObserver}, the conversions of all records of one access are combined into one
+ * Future.
  * 
  * @author Michael Remme
  * 
  */
-public class ExecuteVersionConverter extends AbstractObserver {
+public class ExecuteVersionConverter extends AbstractObserver implements IBatchObserver {
   private List<ConverterEntry> converterList = new ArrayList<>();
   private long currentVersion;
 
@@ -73,36 +75,51 @@ public class ExecuteVersionConverter extends AbstractObserver {
    * de.braintags.vertx.jomnigate.observer.IObserver#handleEvent(de.braintags.vertx.jomnigate.observer.IObserverEvent,
    * de.braintags.vertx.jomnigate.observer.IObserverContext)
    */
-  @SuppressWarnings("unchecked")
+  @SuppressWarnings("rawtypes")
   @Override
   public Future<Void> handleEvent(IObserverEvent event, IObserverContext context) {
+    List<Future> fl = new ArrayList<>();
+    try {
+      addConversions(event, context, fl);
+    } catch (Exception e) {
+      return Future.failedFuture(e);
+    }
+    return AbstractEventHandler.completeAll(fl);
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.observer.IBatchObserver#handleEvents(java.util.List,
+   * de.braintags.vertx.jomnigate.observer.IObserverContext)
+   */
+  @SuppressWarnings("rawtypes")
+  @Override
+  public Future<Void> handleEvents(List<IObserverEvent> events, IObserverContext context) {
+    List<Future> fl = new ArrayList<>(events.size());
+    try {
+      for (IObserverEvent event : events) {
+        addConversions(event, context, fl);
+      }
+    } catch (Exception e) {
+      return Future.failedFuture(e);
+    }
+    return AbstractEventHandler.completeAll(fl);
+  }
+
+  /**
+   * Executes the converters, which are needed to bring the record of the event to the current version, and adds their
+   * Futures to the list
+   */
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  private void addConversions(IObserverEvent event, IObserverContext context, List<Future> fl) {
     IMapperVersion record = (IMapperVersion) event.getSource();
     Iterator<ConverterEntry> entries = converterList.stream()
         .filter(con -> con.destinationVersion > record.getMapperVersion()).iterator();
-    if (entries.hasNext()) {
-      List<Future> fl = new ArrayList<>();
-      while (entries.hasNext()) {
-        try {
-          ConverterEntry entry = entries.next();
-          record.setMapperVersion(entry.destinationVersion);
-          Future<Void> tmp = entry.converter.convert(event.getDataStore(), record, context);
-          fl.add(tmp);
-        } catch (Exception e) {
-          return Future.failedFuture(e);
-        }
-      }
-      CompositeFuture cf = CompositeFuture.all(fl);
-      Future<Void> f = Future.future();
-      cf.setHandler(res -> {
-        if (res.failed()) {
-          f.fail(res.cause());
-        } else {
-          f.complete();
-        }
-      });
-      return f;
-    } else {
-      return Future.succeededFuture();
+    while (entries.hasNext()) {
+      ConverterEntry entry = entries.next();
+      record.setMapperVersion(entry.destinationVersion);
+      fl.add(entry.converter.convert(event.getDataStore(), record, context));
     }
   }
 
@@ -15,15 +15,18 @@ package de.braintags.vertx.jomnigate.json.dataaccess;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.InjectableValues;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 
 import de.braintags.vertx.jomnigate.exception.MappingException;
 import de.braintags.vertx.jomnigate.json.JsonDatastore;
 import de.braintags.vertx.jomnigate.json.jackson.JOmnigateFactory;
+import de.braintags.vertx.jomnigate.json.jackson.deserializer.JsonObjectParser;
+import de.braintags.vertx.jomnigate.json.jackson.deserializer.referenced.ReferenceBatchLoader;
 import de.braintags.vertx.jomnigate.json.jackson.deserializer.referenced.ReferencedPostHandler;
 import de.braintags.vertx.jomnigate.json.jackson.serializer.JOmnigateGenerator;
 import de.braintags.vertx.jomnigate.json.mapping.jackson.JacksonMapper;
@@ -55,9 +58,14 @@ public class JsonStoreObject<T> extends AbstractStoreObject<T, JsonObject> {
    * The key, which is used to store the list of referenced composites
    */
   public static final String REFERENCED_LIST = "referencedList";
+  /**
+   * The key of the injectable value, which contains the {@link ReferenceBatchLoader} or null, if none is used
+   */
+  public static final String REFERENCE_LOADER = "referenceLoader";
   private Object generatedId = null;
 
   private final Class<?> view;
+  private ReferenceBatchLoader referenceLoader;
 
   /**
    * Constructor
@@ -109,8 +117,8 @@ public class JsonStoreObject<T> extends AbstractStoreObject<T, JsonObject> {
     try {
       JsonDatastore datastore = (JsonDatastore) getMapper().getMapperFactory().getDataStore();
 
-      JOmnigateGenerator jgen = JOmnigateFactory.createGenerator(datastore);
       ObjectMapper mapper = datastore.getMapperForView(view);
+      JOmnigateGenerator jgen = JOmnigateFactory.createGenerator(datastore, mapper);
       mapper.writer().writeValue(jgen, getEntity());
       jgen.getResult(res -> {
         if (res.failed()) {
@@ -126,15 +134,17 @@ public class JsonStoreObject<T> extends AbstractStoreObject<T, JsonObject> {
   }
 
   /**
-   * @param js
+   * @param generated
+   *          the Map, which was generated from the entity
    * @param handler
    */
-  private void storeJson(final String js, final Handler<AsyncResult<Void>> handler) {
+  @SuppressWarnings("unchecked")
+  private void storeJson(final Object generated, final Handler<AsyncResult<Void>> handler) {
     try {
+      container = new JsonObject((Map<String, Object>) generated);
       if (LOGGER.isDebugEnabled()) {
-        LOGGER.debug("Storing json: " + js);
+        LOGGER.debug("Storing json: " + container.encode());
       }
-      container = new JsonObject(js);
       IProperty idField = getMapper().getIdInfo().getField();
       container.remove(idField.getName()); // do not write the java fieldname of id, but the column
       Object javaValue = idField.getPropertyAccessor().readData(getEntity());
@@ -155,13 +165,24 @@ public class JsonStoreObject<T> extends AbstractStoreObject<T, JsonObject> {
   }
 
   /**
-   * The implementation is calling jackson serializer first and afterwards it is calling single handlers
+   * Set the loader, which is used to load referenced instances. If a loader is shared between several instances of
+   * JsonStoreObject, the referenced instances of all of them are loaded together. If none is set, each referenced
+   * instance is loaded by its own query
+   *
+   * @param referenceLoader
+   *          the loader to be used or null
+   */
+  public void setReferenceLoader(final ReferenceBatchLoader referenceLoader) {
+    this.referenceLoader = referenceLoader;
+  }
+
+  /**
+   * The implementation is calling jackson serializer first and afterwards it is calling single handlers. The container
+   * is read by a {@link JsonObjectParser}, which reports the id column under the name of the id field, so that the
+   * container stays unchanged
    */
   @Override
   public void initToEntity(final Handler<AsyncResult<Void>> handler) {
-    IProperty idField = getMapper().getIdInfo().getField();
-    String id = (String) getContainer().remove(idField.getColumnInfo().getName());
-    getContainer().put(idField.getName(), id);
     doMapping(res -> {
       if (res.failed()) {
         handler.handle(Future.failedFuture(res.cause()));
@@ -174,12 +195,14 @@ public class JsonStoreObject<T> extends AbstractStoreObject<T, JsonObject> {
   private void doMapping(final Handler<AsyncResult<T>> handler) {
     ObjectMapper mapper = ((JsonDatastore) getMapper().getMapperFactory().getDataStore()).getJacksonMapper();
     List<ReferencedPostHandler> valueList = new ArrayList<>();
-    InjectableValues iv = new InjectableValues.Std().addValue(REFERENCED_LIST, valueList);
-    ObjectReader reader = mapper.reader(iv);
+    InjectableValues iv = new InjectableValues.Std().addValue(REFERENCED_LIST, valueList)
+        .addValue(REFERENCE_LOADER, referenceLoader);
+    ObjectReader reader = mapper.reader(iv).forType(((JacksonMapper<T>) getMapper()).getCreatorClass());
+    IProperty idField = getMapper().getIdInfo().getField();
     T instance;
-    try {
-      instance = reader.forType(((JacksonMapper<T>) getMapper()).getCreatorClass())
-          .readValue(mapper.<JsonNode> valueToTree(getContainer().getMap()));
+    try (JsonParser parser = new JsonObjectParser(reader, getContainer().getMap(), idField.getColumnInfo().getName(),
+        idField.getName())) {
+      instance = reader.readValue(parser);
     } catch (IOException e) {
       handler.handle(Future.failedFuture(e));
       return;
@@ -18,15 +18,14 @@ import java.io.Writer;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.io.IOContext;
-import com.fasterxml.jackson.core.io.SegmentedStringWriter;
 import com.fasterxml.jackson.databind.MappingJsonFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 
 import de.braintags.vertx.jomnigate.annotation.field.Embedded;
 import de.braintags.vertx.jomnigate.annotation.field.Referenced;
 import de.braintags.vertx.jomnigate.json.JsonDatastore;
 import de.braintags.vertx.jomnigate.json.jackson.serializer.JOmnigateGenerator;
-import de.braintags.vertx.util.ExceptionUtil;
 
 /**
  * An extension of {@link JsonFactory} to allow ReferencedSerializers and Embedded Serializers to store Future, which
@@ -60,24 +59,31 @@ public class JOmnigateFactory extends MappingJsonFactory {
    */
   @Override
   protected JsonGenerator _createGenerator(final Writer out, final IOContext ctxt) throws IOException {
-    return new JOmnigateGenerator(datastore, super._createGenerator(out, ctxt), (SegmentedStringWriter) out);
+    return new JOmnigateGenerator(datastore, super._createGenerator(out, ctxt));
   }
 
   /**
-   * Create a new instance of JOmnigateGenerator
+   * Create a new instance of JOmnigateGenerator, which collects the content inside a {@link TokenBuffer}
    *
    * @param datastore
    *          the datastore to be used
    * @return
    */
   public static final JOmnigateGenerator createGenerator(final JsonDatastore datastore) {
-    try {
-      ObjectMapper mapper = datastore.getJacksonMapper();
-      SegmentedStringWriter sw = new SegmentedStringWriter(mapper.getFactory()._getBufferRecycler());
-      return (JOmnigateGenerator) mapper.getFactory().createGenerator(sw);
-    } catch (Exception e) {
-      throw ExceptionUtil.createRuntimeException(e);
-    }
+    return createGenerator(datastore, datastore.getJacksonMapper());
+  }
+
+  /**
+   * Create a new instance of JOmnigateGenerator, which collects the content inside a {@link TokenBuffer}
+   *
+   * @param datastore
+   *          the datastore to be used
+   * @param mapper
+   *          the mapper, which is used to serialize values, which are written as Object
+   * @return
+   */
+  public static final JOmnigateGenerator createGenerator(final JsonDatastore datastore, final ObjectMapper mapper) {
+    return new JOmnigateGenerator(datastore, new TokenBuffer(mapper, false));
   }
 
   @Override
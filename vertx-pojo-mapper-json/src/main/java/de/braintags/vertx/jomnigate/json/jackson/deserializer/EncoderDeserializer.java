@@ -0,0 +1,60 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-json
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.json.jackson.deserializer;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.annotation.field.Encoder;
+import de.braintags.vertx.jomnigate.mapping.impl.EncoderExecutor;
+
+/**
+ * Deserializes properties, which are annotated by {@link Encoder}. The loaded value is registered as encoded value by
+ * the {@link EncoderExecutor} of the datastore, so that it is not encoded again, when the instance is saved unchanged
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class EncoderDeserializer extends AbstractDataStoreDeserializer<String> {
+
+  /**
+   * Comment for <code>serialVersionUID</code>
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * @param datastore
+   * @param annotated
+   */
+  public EncoderDeserializer(IDataStore datastore, Annotated annotated) {
+    super(datastore, annotated);
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.fasterxml.jackson.databind.JsonDeserializer#deserialize(com.fasterxml.jackson.core.JsonParser,
+   * com.fasterxml.jackson.databind.DeserializationContext)
+   */
+  @Override
+  public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+    String value = p.getValueAsString();
+    getDatastore().getEncoderExecutor().markEncoded(value);
+    return value;
+  }
+
+}
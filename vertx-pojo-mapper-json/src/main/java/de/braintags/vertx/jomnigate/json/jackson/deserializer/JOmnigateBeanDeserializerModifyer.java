@@ -22,6 +22,7 @@ import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
 import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
 
 import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.annotation.field.Encoder;
 import de.braintags.vertx.jomnigate.annotation.field.Referenced;
 import de.braintags.vertx.jomnigate.json.jackson.deserializer.referenced.AbstractReferencedDeserializer;
 import de.braintags.vertx.jomnigate.json.jackson.deserializer.referenced.ReferencedArrayDeserializer;
@@ -31,7 +32,8 @@ import de.braintags.vertx.jomnigate.json.jackson.deserializer.referenced.Referen
 
 /**
  * For {@link Referenced} we need special deserializer, which gain a SettableBeanProperty to set the field content at
- * the end, when referenced instances were loaded async
+ * the end, when referenced instances were loaded async. Properties annotated by {@link Encoder} are read by the
+ * {@link EncoderDeserializer}
  * 
  * @author Michael Remme
  * 
@@ -60,6 +62,8 @@ public class JOmnigateBeanDeserializerModifyer extends BeanDeserializerModifier
       SettableBeanProperty p = it.next();
       if (p.getAnnotation(Referenced.class) != null) {
         builder.addOrReplaceProperty(p.withValueDeserializer(findReferencedDeserializer(builder, beanDesc, p)), true);
+      } else if (p.getAnnotation(Encoder.class) != null && p.getType().hasRawClass(String.class)) {
+        builder.addOrReplaceProperty(p.withValueDeserializer(new EncoderDeserializer(datastore, p.getMember())), true);
       }
     }
     return builder;
@@ -0,0 +1,555 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-json
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.json.jackson.deserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.core.base.ParserMinimalBase;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * A JsonParser, which streams the tokens directly from the Maps and Lists of a {@link JsonObject}, so that an instance
+ * can be deserialized by jackson without building an intermediate JsonNode tree first. Nested {@link JsonObject} and
+ * {@link JsonArray} are handled like Maps and Lists; values, which are no json types, like byte[] or Instant, are
+ * reported as {@link JsonToken#VALUE_EMBEDDED_OBJECT}.
+ * Additionally one field of the root object can be renamed while reading, which is used to hand over the id column
+ * under the name of the java field, without modifying the source.
+ *
+ * @author Michael Remme
+ *
+ */
+public class JsonObjectParser extends ParserMinimalBase {
+  private final Map<String, Object> source;
+  private final String sourceName;
+  private final String targetName;
+  private ObjectCodec codec;
+  private Context context = new Context(null, JsonStreamContext.TYPE_ROOT);
+  private Object value;
+  private boolean started;
+  private boolean closed;
+
+  /**
+   * Creates a parser, which reads the given source
+   *
+   * @param codec
+   *          the codec, which is used by deserializers to read trees
+   * @param source
+   *          the Map of a JsonObject
+   */
+  public JsonObjectParser(final ObjectCodec codec, final Map<String, Object> source) {
+    this(codec, source, null, null);
+  }
+
+  /**
+   * Creates a parser, which reads the given source and reports the field sourceName of the root object as targetName
+   *
+   * @param codec
+   *          the codec, which is used by deserializers to read trees
+   * @param source
+   *          the Map of a JsonObject
+   * @param sourceName
+   *          the name of a field of the root object, which shall be renamed, or null
+   * @param targetName
+   *          the name, under which the field is reported. A field of the root object with this name is skipped
+   */
+  public JsonObjectParser(final ObjectCodec codec, final Map<String, Object> source, final String sourceName,
+      final String targetName) {
+    this.codec = codec;
+    this.source = Objects.requireNonNull(source, "the source must not be null");
+    this.sourceName = sourceName;
+    this.targetName = targetName;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.base.ParserMinimalBase#nextToken()
+   */
+  @Override
+  public JsonToken nextToken() throws IOException {
+    if (closed) {
+      return null;
+    }
+    if (!started) {
+      started = true;
+      return _currToken = startValue(source);
+    }
+    if (context.inObject()) {
+      return _currToken = nextInObject(context);
+    } else if (context.inArray()) {
+      return _currToken = nextInArray(context);
+    }
+    value = null;
+    return _currToken = null;
+  }
+
+  private JsonToken nextInArray(final Context array) {
+    if (array.elements.hasNext()) {
+      array.next();
+      return startValue(array.elements.next());
+    }
+    context = array.parent;
+    value = null;
+    return JsonToken.END_ARRAY;
+  }
+
+  private JsonToken nextInObject(final Context object) {
+    if (object.pendingValue) {
+      object.pendingValue = false;
+      return startValue(object.fieldValue);
+    }
+    boolean rootObject = object.parent.parent == null;
+    while (object.fields.hasNext()) {
+      Map.Entry<String, Object> entry = object.fields.next();
+      String name = entry.getKey();
+      if (rootObject && sourceName != null && !sourceName.equals(targetName)) {
+        if (name.equals(targetName)) {
+          continue;
+        } else if (name.equals(sourceName)) {
+          name = targetName;
+        }
+      }
+      object.next();
+      object.name = name;
+      object.fieldValue = entry.getValue();
+      object.pendingValue = true;
+      value = null;
+      return JsonToken.FIELD_NAME;
+    }
+    context = object.parent;
+    value = null;
+    return JsonToken.END_OBJECT;
+  }
+
+  @SuppressWarnings("unchecked")
+  private JsonToken startValue(final Object v) {
+    value = v;
+    if (v == null) {
+      return JsonToken.VALUE_NULL;
+    } else if (v instanceof String) {
+      return JsonToken.VALUE_STRING;
+    } else if (v instanceof Boolean) {
+      return ((Boolean) v) ? JsonToken.VALUE_TRUE : JsonToken.VALUE_FALSE;
+    } else if (v instanceof Number) {
+      return isIntegral(v) ? JsonToken.VALUE_NUMBER_INT : JsonToken.VALUE_NUMBER_FLOAT;
+    } else if (v instanceof Map || v instanceof JsonObject) {
+      Map<String, Object> map = v instanceof JsonObject ? ((JsonObject) v).getMap() : (Map<String, Object>) v;
+      context = new Context(context, JsonStreamContext.TYPE_OBJECT);
+      context.fields = map.entrySet().iterator();
+      value = null;
+      return JsonToken.START_OBJECT;
+    } else if (v instanceof List || v instanceof JsonArray) {
+      List<Object> list = v instanceof JsonArray ? ((JsonArray) v).getList() : (List<Object>) v;
+      context = new Context(context, JsonStreamContext.TYPE_ARRAY);
+      context.elements = list.iterator();
+      value = null;
+      return JsonToken.START_ARRAY;
+    } else if (v instanceof CharSequence || v instanceof Enum) {
+      value = v.toString();
+      return JsonToken.VALUE_STRING;
+    }
+    return JsonToken.VALUE_EMBEDDED_OBJECT;
+  }
+
+  private static boolean isIntegral(final Object v) {
+    return v instanceof Integer || v instanceof Long || v instanceof Short || v instanceof Byte
+        || v instanceof BigInteger;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.base.ParserMinimalBase#_handleEOF()
+   */
+  @Override
+  protected void _handleEOF() {
+    // the source is always complete
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.base.ParserMinimalBase#getCurrentName()
+   */
+  @Override
+  public String getCurrentName() {
+    if (_currToken == JsonToken.START_OBJECT || _currToken == JsonToken.START_ARRAY) {
+      return context.parent.getCurrentName();
+    }
+    return context.getCurrentName();
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.base.ParserMinimalBase#overrideCurrentName(java.lang.String)
+   */
+  @Override
+  public void overrideCurrentName(final String name) {
+    Context ctx = _currToken == JsonToken.START_OBJECT || _currToken == JsonToken.START_ARRAY ? context.parent
+        : context;
+    ctx.name = name;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.base.ParserMinimalBase#close()
+   */
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    _currToken = null;
+    value = null;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.base.ParserMinimalBase#isClosed()
+   */
+  @Override
+  public boolean isClosed() {
+    return closed;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.base.ParserMinimalBase#getParsingContext()
+   */
+  @Override
+  public JsonStreamContext getParsingContext() {
+    return context;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.JsonParser#getTokenLocation()
+   */
+  @Override
+  public JsonLocation getTokenLocation() {
+    return JsonLocation.NA;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.JsonParser#getCurrentLocation()
+   */
+  @Override
+  public JsonLocation getCurrentLocation() {
+    return JsonLocation.NA;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.base.ParserMinimalBase#getText()
+   */
+  @Override
+  public String getText() {
+    if (_currToken == null) {
+      return null;
+    }
+    switch (_currToken) {
+    case FIELD_NAME:
+      return context.name;
+    case VALUE_STRING:
+    case VALUE_NUMBER_INT:
+    case VALUE_NUMBER_FLOAT:
+      return String.valueOf(value);
+    case VALUE_EMBEDDED_OBJECT:
+      if (value instanceof byte[]) {
+        return Base64Variants.getDefaultVariant().encode((byte[]) value);
+      }
+      return value == null ? null : value.toString();
+    default:
+      return _currToken.asString();
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.base.ParserMinimalBase#getTextCharacters()
+   */
+  @Override
+  public char[] getTextCharacters() {
+    String text = getText();
+    return text == null ? null : text.toCharArray();
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.base.ParserMinimalBase#hasTextCharacters()
+   */
+  @Override
+  public boolean hasTextCharacters() {
+    return false;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.base.ParserMinimalBase#getTextLength()
+   */
+  @Override
+  public int getTextLength() {
+    String text = getText();
+    return text == null ? 0 : text.length();
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.base.ParserMinimalBase#getTextOffset()
+   */
+  @Override
+  public int getTextOffset() {
+    return 0;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.base.ParserMinimalBase#getBinaryValue(com.fasterxml.jackson.core.Base64Variant)
+   */
+  @Override
+  public byte[] getBinaryValue(final Base64Variant b64variant) throws IOException {
+    if (value instanceof byte[]) {
+      return (byte[]) value;
+    } else if (_currToken == JsonToken.VALUE_STRING) {
+      try {
+        return b64variant.decode((String) value);
+      } catch (IllegalArgumentException e) {
+        throw _constructError(e.getMessage());
+      }
+    } else if (_currToken == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    throw _constructError("Current token (" + _currToken + ") is not binary data");
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.JsonParser#getEmbeddedObject()
+   */
+  @Override
+  public Object getEmbeddedObject() {
+    return _currToken == JsonToken.VALUE_EMBEDDED_OBJECT ? value : null;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.JsonParser#getCodec()
+   */
+  @Override
+  public ObjectCodec getCodec() {
+    return codec;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.JsonParser#setCodec(com.fasterxml.jackson.core.ObjectCodec)
+   */
+  @Override
+  public void setCodec(final ObjectCodec codec) {
+    this.codec = codec;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.JsonParser#version()
+   */
+  @Override
+  public Version version() {
+    return Version.unknownVersion();
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.JsonParser#getNumberValue()
+   */
+  @Override
+  public Number getNumberValue() throws IOException {
+    if (value instanceof Number) {
+      return (Number) value;
+    }
+    throw _constructError("Current token (" + _currToken + ") not numeric, can not use numeric value accessors");
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.JsonParser#getNumberType()
+   */
+  @Override
+  public NumberType getNumberType() throws IOException {
+    if (!(value instanceof Number)) {
+      return null;
+    } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      return NumberType.INT;
+    } else if (value instanceof Long) {
+      return NumberType.LONG;
+    } else if (value instanceof BigInteger) {
+      return NumberType.BIG_INTEGER;
+    } else if (value instanceof BigDecimal) {
+      return NumberType.BIG_DECIMAL;
+    } else if (value instanceof Float) {
+      return NumberType.FLOAT;
+    }
+    return NumberType.DOUBLE;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.JsonParser#getIntValue()
+   */
+  @Override
+  public int getIntValue() throws IOException {
+    return getNumberValue().intValue();
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.JsonParser#getLongValue()
+   */
+  @Override
+  public long getLongValue() throws IOException {
+    return getNumberValue().longValue();
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.JsonParser#getBigIntegerValue()
+   */
+  @Override
+  public BigInteger getBigIntegerValue() throws IOException {
+    Number number = getNumberValue();
+    if (number instanceof BigInteger) {
+      return (BigInteger) number;
+    } else if (isIntegral(number)) {
+      return BigInteger.valueOf(number.longValue());
+    }
+    return getDecimalValue().toBigInteger();
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.JsonParser#getFloatValue()
+   */
+  @Override
+  public float getFloatValue() throws IOException {
+    return getNumberValue().floatValue();
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.JsonParser#getDoubleValue()
+   */
+  @Override
+  public double getDoubleValue() throws IOException {
+    return getNumberValue().doubleValue();
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see com.fasterxml.jackson.core.JsonParser#getDecimalValue()
+   */
+  @Override
+  public BigDecimal getDecimalValue() throws IOException {
+    Number number = getNumberValue();
+    if (number instanceof BigDecimal) {
+      return (BigDecimal) number;
+    } else if (number instanceof BigInteger) {
+      return new BigDecimal((BigInteger) number);
+    } else if (isIntegral(number)) {
+      return BigDecimal.valueOf(number.longValue());
+    }
+    return new BigDecimal(number.toString());
+  }
+
+  /**
+   * The context of an object or array, which is currently read. Like in the streaming parsers of jackson, the context
+   * of a container is entered with its start token and left with its end token
+   */
+  private static class Context extends JsonStreamContext {
+    private final Context parent;
+    private Iterator<Map.Entry<String, Object>> fields;
+    private Iterator<Object> elements;
+    private String name;
+    private Object fieldValue;
+    private boolean pendingValue;
+    private Object currentValue;
+
+    Context(final Context parent, final int type) {
+      this.parent = parent;
+      this._type = type;
+      this._index = -1;
+    }
+
+    private void next() {
+      _index++;
+    }
+
+    @Override
+    public JsonStreamContext getParent() {
+      return parent;
+    }
+
+    @Override
+    public String getCurrentName() {
+      return name;
+    }
+
+    @Override
+    public Object getCurrentValue() {
+      return currentValue;
+    }
+
+    @Override
+    public void setCurrentValue(final Object v) {
+      currentValue = v;
+    }
+  }
+
+}
@@ -83,6 +83,29 @@ public abstract class AbstractReferencedDeserializer<T> extends AbstractDataStor
     return f;
   }
 
+  /**
+   * Loads an instance from the datastore by the referenced ID. If the current deserialization is using a
+   * {@link ReferenceBatchLoader}, the instance is loaded together with the other references of the query result
+   * 
+   * @param ct
+   *          the current context of deserialization
+   * @param id
+   *          the referenced id
+   * @param mapperClass
+   *          the mapper class of the referenced instance
+   * @return a future, which receives the instance
+   */
+  @SuppressWarnings("rawtypes")
+  protected Future getReferencedObjectById(final DeserializationContext ct, final Object id,
+      final Class mapperClass) {
+    ReferenceBatchLoader loader = (ReferenceBatchLoader) ct.findInjectableValue(JsonStoreObject.REFERENCE_LOADER, null,
+        null);
+    if (loader == null) {
+      return getReferencedObjectById(id, mapperClass);
+    }
+    return loader.load(mapperClass, id.toString());
+  }
+
   /**
    * Loads all instances by id from the given array and stores them into the given collection
    * 
@@ -0,0 +1,154 @@
+/*-
+ * #%L
+ * vertx-pojo-mapper-json
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.json.jackson.deserializer.referenced;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.dataaccess.cache.IEntityCache;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
+import de.braintags.vertx.jomnigate.mapping.IProperty;
+import de.braintags.vertx.jomnigate.util.QueryHelper;
+import io.vertx.core.Future;
+
+/**
+ * Collects the ids of referenced instances, which are requested while the records of one query result are
+ * deserialized, and loads them with one query per mapper class. The ids, which are requested during one run of the
+ * event loop, are loaded together in the next run. Each id is loaded only once per loader, so that records, which
+ * are referencing the same instance, are sharing the loaded instance. Instances, which are held by the
+ * {@link IEntityCache} of the datastore, are created from the cached object instead of being loaded.
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class ReferenceBatchLoader {
+  private static final io.vertx.core.logging.Logger LOGGER = io.vertx.core.logging.LoggerFactory
+      .getLogger(ReferenceBatchLoader.class);
+
+  /**
+   * The maximum number of ids, which are loaded by one query
+   */
+  public static final int MAX_IDS_PER_QUERY = 1000;
+
+  private final IDataStore<?, ?> datastore;
+  private final Map<Class<?>, Map<String, Future<Object>>> requested = new HashMap<>();
+  private final Map<Class<?>, Map<String, Future<Object>>> pending = new LinkedHashMap<>();
+  private boolean dispatchScheduled;
+
+  /**
+   * Constructor
+   * 
+   * @param datastore
+   *          the datastore to load the instances from
+   */
+  public ReferenceBatchLoader(final IDataStore<?, ?> datastore) {
+    this.datastore = datastore;
+  }
+
+  /**
+   * Request the instance of the given mapper class with the given id
+   * 
+   * @param mapperClass
+   *          the mapper class of the referenced instance
+   * @param id
+   *          the id of the referenced instance
+   * @return a future, which receives the instance or null, if it does not exist
+   */
+  public Future<Object> load(final Class<?> mapperClass, final String id) {
+    Map<String, Future<Object>> classRequests = requested.computeIfAbsent(mapperClass, c -> new HashMap<>());
+    Future<Object> f = classRequests.get(id);
+    if (f == null) {
+      Object cached = datastore.getEntityCache().get(datastore.getMapperFactory().getMapper(mapperClass), id);
+      f = Future.future();
+      if (cached != null) {
+        classRequests.put(id, f);
+        createFromCache(mapperClass, cached, f);
+        return f;
+      }
+      classRequests.put(id, f);
+      pending.computeIfAbsent(mapperClass, c -> new LinkedHashMap<>()).put(id, f);
+      scheduleDispatch();
+    }
+    return f;
+  }
+
+  private void scheduleDispatch() {
+    if (!dispatchScheduled) {
+      dispatchScheduled = true;
+      datastore.getVertx().runOnContext(v -> dispatch());
+    }
+  }
+
+  private void dispatch() {
+    dispatchScheduled = false;
+    List<Map.Entry<Class<?>, Map<String, Future<Object>>>> entries = new ArrayList<>(pending.entrySet());
+    pending.clear();
+    for (Map.Entry<Class<?>, Map<String, Future<Object>>> entry : entries) {
+      List<String> ids = new ArrayList<>(entry.getValue().keySet());
+      for (int start = 0; start < ids.size(); start += MAX_IDS_PER_QUERY) {
+        List<String> chunk = ids.subList(start, Math.min(ids.size(), start + MAX_IDS_PER_QUERY));
+        loadChunk(entry.getKey(), chunk, entry.getValue());
+      }
+    }
+  }
+
+  private <T> void loadChunk(final Class<T> mapperClass, final List<String> ids,
+      final Map<String, Future<Object>> futures) {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("loading " + ids.size() + " referenced instances of " + mapperClass.getSimpleName());
+    }
+    IQuery<T> q = datastore.createQuery(mapperClass);
+    IProperty idField = q.getMapper().getIdInfo().getField();
+    q.setSearchCondition(ISearchCondition.in(q.getMapper().getIdInfo().getIndexedField(), new ArrayList<>(ids)));
+    IEntityCache cache = datastore.getEntityCache();
+    long generation = cache.getGeneration(q.getMapper());
+    q.execute(qr -> {
+      if (qr.failed()) {
+        ids.forEach(id -> futures.get(id).fail(qr.cause()));
+        return;
+      }
+      QueryHelper.queryResultToList(qr.result(), res -> {
+        if (res.failed()) {
+          ids.forEach(id -> futures.get(id).fail(res.cause()));
+        } else {
+          Map<String, Object> found = new HashMap<>();
+          List<T> instances = res.result();
+          for (int i = 0; i < instances.size(); i++) {
+            String id = String.valueOf(idField.getPropertyAccessor().readData(instances.get(i)));
+            found.put(id, instances.get(i));
+            cache.put(q.getMapper(), id, QueryHelper.getStoredObject(qr.result(), i), generation);
+          }
+          ids.forEach(id -> futures.get(id).complete(found.get(id)));
+        }
+      });
+    });
+  }
+
+  private <T> void createFromCache(final Class<T> mapperClass, final Object cached, final Future<Object> f) {
+    QueryHelper.createFromStoredObjects(datastore.createQuery(mapperClass), Collections.singletonList(cached),
+        res -> {
+          if (res.failed()) {
+            f.fail(res.cause());
+          } else {
+            f.complete(res.result().get(0));
+          }
+        });
+  }
+
+}
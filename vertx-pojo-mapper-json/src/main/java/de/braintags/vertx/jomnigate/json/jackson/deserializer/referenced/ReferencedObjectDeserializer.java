@@ -59,7 +59,7 @@ public class ReferencedObjectDeserializer extends AbstractReferencedDeserializer
     Object instance = p.getCurrentValue();
     JsonNode node = p.getCodec().readTree(p);
     String id = node.asText();
-    Future f = getReferencedObjectById(id, type.getRawClass());
+    Future f = getReferencedObjectById(ct, id, type.getRawClass());
     storePostHandler(ct, instance, f);
     // return null, the real instance will be placed at the end by using the result of the Future
     return null;
@@ -25,10 +25,15 @@ import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
 
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.annotation.field.Encoder;
+import de.braintags.vertx.jomnigate.mapping.impl.EncoderExecutor;
 import de.braintags.vertx.util.security.crypt.IEncoder;
+import io.vertx.core.Future;
 
 /**
- * 
+ * Serializes properties, which are annotated by {@link Encoder}. If the generator is a collecting
+ * {@link JOmnigateGenerator}, the value is encoded inside the worker pool of the {@link EncoderExecutor} and the
+ * encoded value is placed into the generated tree and into the instance, when the result of the generator is
+ * requested. Values, which are already encoded, are written unchanged
  * 
  * @author Michael Remme
  * 
@@ -61,10 +66,30 @@ public class EncoderSerializer extends AbstractDataStoreSerializer {
    */
   @Override
   public void serialize(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
-    String encoded = encoder.encode((CharSequence) value);
+    EncoderExecutor executor = getDatastore().getEncoderExecutor();
     Object current = gen.getCurrentValue();
-    gen.writeString(encoded);
-    setter.setValue(current, encoded);
+    if (executor.isEncoded(value)) {
+      gen.writeString(value.toString());
+    } else if (gen instanceof JOmnigateGenerator && ((JOmnigateGenerator) gen).isCollecting()) {
+      Future<Object> future = Future.future();
+      executor.encode(encoder, (CharSequence) value, result -> {
+        if (result.failed()) {
+          future.fail(result.cause());
+        } else {
+          try {
+            setter.setValue(current, result.result());
+            future.complete(result.result());
+          } catch (Exception e) {
+            future.fail(e);
+          }
+        }
+      });
+      gen.writeString(((JOmnigateGenerator) gen).addValueEntry(future));
+    } else {
+      String encoded = executor.encodeSync(encoder, (CharSequence) value);
+      gen.writeString(encoded);
+      setter.setValue(current, encoded);
+    }
   }
 
   private void computeEncoder(String encoderName, JavaType type, String fieldName) {
@@ -15,8 +15,8 @@ package de.braintags.vertx.jomnigate.json.jackson.serializer;
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.dataaccess.write.IWriteResult;
 import de.braintags.vertx.jomnigate.json.jackson.serializer.impl.SerializationReference_Entity;
+import de.braintags.vertx.jomnigate.json.jackson.serializer.impl.SerializationReference_Value;
 import de.braintags.vertx.jomnigate.json.jackson.serializer.impl.SerializationReference_WriteResult;
-import de.braintags.vertx.util.ResultObject;
 import io.vertx.core.Future;
 
 /**
@@ -41,6 +41,10 @@ public interface ISerializationReference<T> {
     return new SerializationReference_WriteResult(future, reference, asArrayMembers);
   }
 
+  public static ISerializationReference createValueReference(Future<Object> future, String reference) {
+    return new SerializationReference_Value(future, reference);
+  }
+
   /**
    * Get the underlaying Future
    * 
@@ -57,14 +61,19 @@ public interface ISerializationReference<T> {
   String getReference();
 
   /**
-   * Method replaces the reference, which was written by a previous serializer, against the result object
+   * Resolves the value, which replaces the reference inside the generated json
    * 
    * @param datastore
-   * @param ro
-   *          the ResultObject, which contains the String to be modified and where the modified content will be stored
-   *          again
-   * @return
+   * @return a Future with the resolved value: the id of a referenced instance, a List of ids, if
+   *         {@link #isArrayMembers()} is true, or the tree of an embedded instance
+   */
+  Future<Object> resolveReference(IDataStore<?, ?> datastore);
+
+  /**
+   * If true, the resolved value is a List, whose members replace the reference inside the surrounding array
+   * 
+   * @return true, if the resolved value is inserted as members of an array
    */
-  Future<Void> resolveReference(IDataStore<?, ?> datastore, ResultObject<String> ro);
+  boolean isArrayMembers();
 
 }
\ No newline at end of file
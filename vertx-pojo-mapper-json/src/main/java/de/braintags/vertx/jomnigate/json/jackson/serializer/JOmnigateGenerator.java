@@ -12,51 +12,77 @@
  */
 package de.braintags.vertx.jomnigate.json.jackson.serializer;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import com.fasterxml.jackson.core.JsonGenerator;
-import com.fasterxml.jackson.core.io.SegmentedStringWriter;
 import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.annotation.field.Embedded;
 import de.braintags.vertx.jomnigate.annotation.field.Referenced;
 import de.braintags.vertx.jomnigate.dataaccess.write.IWriteResult;
 import de.braintags.vertx.jomnigate.json.JsonDatastore;
-import de.braintags.vertx.util.ResultObject;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.json.Json;
 
 /**
  * Special Generator which is enabled to track objects, which are annotated as {@link Referenced} or {@link Embedded}.
  * The Generator is used during Serialization to collect referenced records and to fill the gap between synchrone
- * execution of jackson and async execution of datastore
+ * execution of jackson and async execution of datastore.
+ * The generated content is collected inside a {@link TokenBuffer}, from which the result is read as tree of Maps and
+ * Lists, like it is used by JsonObject and JsonArray. The references are replaced inside this tree by their resolved
+ * values, so that the generated source is never written as String
  * 
  * @author Michael Remme
  *
  */
 public class JOmnigateGenerator extends JsonGeneratorDelegate {
-  private static final io.vertx.core.logging.Logger LOGGER = io.vertx.core.logging.LoggerFactory
-      .getLogger(JOmnigateGenerator.class);
-
-  private static final String REFERENCE_IDENTIFYER = "$REFERENCE_IDENTIFYER$%s$";
+  private static final String REFERENCE_PREFIX = "$REFERENCE_IDENTIFYER$";
+  private static final String REFERENCE_IDENTIFYER = REFERENCE_PREFIX + "%s$";
   private AtomicInteger counter = new AtomicInteger();
-  private List<ISerializationReference> referencedList = new ArrayList<>();
+  private Map<String, ISerializationReference> referenceMap = new LinkedHashMap<>();
   private JOmnigateGenerator parentGenerator;
-  private SegmentedStringWriter writer;
+  private TokenBuffer buffer;
   private JsonDatastore datastore;
 
   /**
+   * Creates a generator, which writes into the given generator. The result of such a generator can not be fetched by
+   * {@link #getResult(Handler)}
+   * 
+   * @param datastore
    * @param d
+   *          the generator to write into
    */
-  public JOmnigateGenerator(JsonDatastore datastore, JsonGenerator d, SegmentedStringWriter writer) {
+  public JOmnigateGenerator(JsonDatastore datastore, JsonGenerator d) {
     super(d);
-    this.writer = writer;
+    this.datastore = datastore;
+  }
+
+  /**
+   * Creates a generator, which collects the content in the given {@link TokenBuffer}
+   * 
+   * @param datastore
+   * @param buffer
+   *          the buffer to write into
+   */
+  public JOmnigateGenerator(JsonDatastore datastore, TokenBuffer buffer) {
+    super(buffer);
+    this.buffer = buffer;
     this.datastore = datastore;
   }
 
@@ -73,7 +99,8 @@ public class JOmnigateGenerator extends JsonGeneratorDelegate {
       return parentGenerator.addEntry(future, asArrayMembers);
     } else {
       String identifyer = String.format(REFERENCE_IDENTIFYER, String.valueOf(counter.incrementAndGet()));
-      addEntry(ISerializationReference.createSerializationReference(future, identifyer, asArrayMembers));
+      referenceMap.put(identifyer,
+          ISerializationReference.createSerializationReference(future, identifyer, asArrayMembers));
       return identifyer;
     }
   }
@@ -91,15 +118,36 @@ public class JOmnigateGenerator extends JsonGeneratorDelegate {
       return parentGenerator.addEntry(future);
     } else {
       String identifyer = String.format(REFERENCE_IDENTIFYER, String.valueOf(counter.incrementAndGet()));
-      addEntry(ISerializationReference.createSerializationReference(future, identifyer, this));
+      referenceMap.put(identifyer, ISerializationReference.createSerializationReference(future, identifyer, this));
       return identifyer;
     }
   }
 
-  private void addEntry(ISerializationReference ref) {
-    List<ISerializationReference> list = referencedList == null ? new ArrayList() : new ArrayList(referencedList);
-    list.add(ref);
-    referencedList = list;
+  /**
+   * adds the given {@link Future} as new entry and returns the reference, which will be replaced against the value of
+   * the Future itself, like an encoded value, which is computed asynchronously
+   * 
+   * @param future
+   *          which contains the value, which will replace the identifyer, which is generated here
+   * @return the identifyer to be written
+   */
+  public String addValueEntry(Future<Object> future) {
+    if (parentGenerator != null) {
+      return parentGenerator.addValueEntry(future);
+    } else {
+      String identifyer = String.format(REFERENCE_IDENTIFYER, String.valueOf(counter.incrementAndGet()));
+      referenceMap.put(identifyer, ISerializationReference.createValueReference(future, identifyer));
+      return identifyer;
+    }
+  }
+
+  /**
+   * Checks wether the references added to this generator are resolved by {@link #getResult(Handler)}
+   * 
+   * @return true, if the generator collects the content in a {@link TokenBuffer}
+   */
+  public boolean isCollecting() {
+    return parentGenerator != null ? parentGenerator.isCollecting() : buffer != null;
   }
 
   /**
@@ -109,7 +157,7 @@ public class JOmnigateGenerator extends JsonGeneratorDelegate {
    */
   private CompositeFuture createComposite() {
     List<Future> fl = new ArrayList();
-    referencedList.stream().forEach(e -> fl.add(e.getFuture()));
+    referenceMap.values().stream().forEach(e -> fl.add(e.getFuture()));
     return CompositeFuture.all(fl);
   }
 
@@ -119,18 +167,30 @@ public class JOmnigateGenerator extends JsonGeneratorDelegate {
    * @return the referencedFutureList
    */
   public List<ISerializationReference> getReferenceList() {
-    return Collections.unmodifiableList(referencedList);
+    return Collections.unmodifiableList(new ArrayList<>(referenceMap.values()));
   }
 
   /**
-   * Get the result of serialization. This includes resolvement of referenced or embedded elements
+   * Get the result of serialization. This includes resolvement of referenced or embedded elements. The result is a
+   * tree of Maps and Lists, like it is used inside JsonObject and JsonArray
    * 
    * @param handler
    */
-  public void getResult(Handler<AsyncResult<String>> handler) {
-    String generatedSource = getWriter().getAndClear();
-    if (getReferenceList().isEmpty()) {
-      handler.handle(Future.succeededFuture(generatedSource));
+  public void getResult(Handler<AsyncResult<Object>> handler) {
+    if (buffer == null) {
+      handler.handle(Future.failedFuture(
+          new UnsupportedOperationException("the result is available for generators with a TokenBuffer only")));
+      return;
+    }
+    Object generatedSource;
+    try {
+      generatedSource = Json.mapper.readValue(buffer.asParser(), Object.class);
+    } catch (IOException e) {
+      handler.handle(Future.failedFuture(e));
+      return;
+    }
+    if (referenceMap.isEmpty()) {
+      resolveTree(generatedSource, Collections.emptyMap(), handler);
     } else {
       CompositeFuture cf = createComposite();
       cf.setHandler(res -> {
@@ -144,50 +204,121 @@ public class JOmnigateGenerator extends JsonGeneratorDelegate {
   }
 
   /**
-   * @param jgen
-   * @param generatedSource
-   * @param handler
+   * Resolves the values of all references and places them into the generated tree
    */
   @SuppressWarnings({ "rawtypes", "unchecked" })
-  private void referenceLoop(IDataStore datastore, String generatedSource, Handler<AsyncResult<String>> handler) {
+  private void referenceLoop(IDataStore datastore, Object generatedSource, Handler<AsyncResult<Object>> handler) {
     try {
-      ResultObject<String> ro = new ResultObject<>(null);
-      ro.setResult(generatedSource);
       List<Future> fl = new ArrayList<>();
-      List<ISerializationReference> list = getReferenceList();
-      for (ISerializationReference ref : list) {
-        fl.add(ref.resolveReference(datastore, ro));
+      for (ISerializationReference ref : referenceMap.values()) {
+        fl.add(ref.resolveReference(datastore));
       }
       CompositeFuture cf = CompositeFuture.all(fl);
       cf.setHandler(result -> {
         if (result.failed()) {
           handler.handle(Future.failedFuture(result.cause()));
         } else {
-          String modSource = ro.getResult();
-          validateResult(handler, modSource);
+          Map<String, Object> resolvedValues = new HashMap<>();
+          int i = 0;
+          for (String reference : referenceMap.keySet()) {
+            resolvedValues.put(reference, result.result().resultAt(i++));
+          }
+          resolveTree(generatedSource, resolvedValues, handler);
         }
       });
     } catch (Exception e) {
-      LOGGER.error("", e);
+      handler.handle(Future.failedFuture(e));
+    }
+  }
+
+  private void resolveTree(Object generatedSource, Map<String, Object> resolvedValues,
+      Handler<AsyncResult<Object>> handler) {
+    try {
+      handler.handle(Future.succeededFuture(replaceValues(generatedSource, resolvedValues)));
+    } catch (Exception e) {
       handler.handle(Future.failedFuture(e));
     }
   }
 
   /**
-   * @param handler
-   * @param newSource
+   * Walks once through the generated tree and replaces the references by their resolved values. Values, which are read
+   * from the {@link TokenBuffer} in another form than from a json source, are converted like a json parser would have
+   * created them
+   * 
+   * @param value
+   *          the current node of the tree
+   * @param resolvedValues
+   *          the resolved values by their reference
+   * @return the value to be stored at the position of the current node
    */
-  private void validateResult(Handler<AsyncResult<String>> handler, String newSource) {
-    if (newSource.contains("$REFERENCE_IDENTIFYER")) {
-      handler.handle(
-          Future.failedFuture(new IllegalArgumentException("references not completely resolved: " + newSource)));
-    } else {
-      handler.handle(Future.succeededFuture(newSource));
+  @SuppressWarnings("unchecked")
+  private Object replaceValues(Object value, Map<String, Object> resolvedValues) {
+    if (value instanceof Map) {
+      for (Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+        entry.setValue(replaceValues(entry.getValue(), resolvedValues));
+      }
+      return value;
+    } else if (value instanceof List) {
+      for (ListIterator<Object> it = ((List<Object>) value).listIterator(); it.hasNext();) {
+        Object member = it.next();
+        ISerializationReference ref = member instanceof String ? referenceMap.get(member) : null;
+        if (ref != null && ref.isArrayMembers()) {
+          it.remove();
+          for (Object id : (List<Object>) resolvedValues.get(member)) {
+            it.add(id);
+          }
+        } else {
+          it.set(replaceValues(member, resolvedValues));
+        }
+      }
+      return value;
+    } else if (value instanceof String) {
+      String s = (String) value;
+      if (s.startsWith(REFERENCE_PREFIX)) {
+        if (!resolvedValues.containsKey(s)) {
+          throw new IllegalArgumentException("references not completely resolved: " + s);
+        }
+        return resolvedValues.get(s);
+      }
+      return value;
+    } else if (value instanceof Short || value instanceof Byte) {
+      return ((Number) value).intValue();
+    } else if (value instanceof Long && (Long) value <= Integer.MAX_VALUE && (Long) value >= Integer.MIN_VALUE) {
+      return ((Long) value).intValue();
+    } else if (value instanceof Float) {
+      return Double.valueOf(value.toString());
+    } else if (value instanceof BigDecimal) {
+      return normalizeBigDecimal((BigDecimal) value);
+    } else if (value instanceof BigInteger) {
+      return normalizeBigInteger((BigInteger) value);
+    } else if (value instanceof byte[]) {
+      return Base64.getEncoder().encodeToString((byte[]) value);
+    }
+    return value;
+  }
+
+  /**
+   * A BigDecimal is written by its String representation, which a json parser reads as Double, if it contains a
+   * fraction or an exponent, and as integral number otherwise
+   */
+  private static Object normalizeBigDecimal(BigDecimal value) {
+    String text = value.toString();
+    if (text.indexOf('.') >= 0 || text.indexOf('E') >= 0) {
+      return value.doubleValue();
     }
+    return normalizeBigInteger(value.toBigIntegerExact());
   }
 
-  private SegmentedStringWriter getWriter() {
-    return writer;
+  /**
+   * A json parser reads an integral number as Integer or Long, if it fits, and as BigInteger otherwise
+   */
+  private static Object normalizeBigInteger(BigInteger value) {
+    if (value.bitLength() < Integer.SIZE) {
+      return value.intValue();
+    } else if (value.bitLength() < Long.SIZE) {
+      return value.longValue();
+    }
+    return value;
   }
 
-}
\ No newline at end of file
+}
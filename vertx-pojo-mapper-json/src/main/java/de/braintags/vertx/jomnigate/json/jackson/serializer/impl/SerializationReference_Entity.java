@@ -16,7 +16,6 @@ import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.json.JsonDatastore;
 import de.braintags.vertx.jomnigate.json.jackson.JOmnigateFactory;
 import de.braintags.vertx.jomnigate.json.jackson.serializer.JOmnigateGenerator;
-import de.braintags.vertx.util.ResultObject;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
@@ -51,24 +50,26 @@ public class SerializationReference_Entity extends AbstractSerializerReference<O
    * 
    * @see
    * de.braintags.vertx.jomnigate.json.jackson.serializer.ISerializationReference#resolveReference(de.braintags.vertx.
-   * jomnigate.IDataStore, java.lang.String)
+   * jomnigate.IDataStore)
    */
   @Override
-  public Future<Void> resolveReference(IDataStore<?, ?> datastore, ResultObject<String> ro) {
-    Future<Void> f = Future.future();
-    getResolvedReference(datastore, res -> {
-      if (res.failed()) {
-        f.fail(res.cause());
-      } else {
-        String result = ro.getResult().replace("\"" + getReference() + "\"", res.result());
-        ro.setResult(result);
-        f.complete();
-      }
-    });
+  public Future<Object> resolveReference(IDataStore<?, ?> datastore) {
+    Future<Object> f = Future.future();
+    getResolvedReference(datastore, f.completer());
     return f;
   }
 
-  protected void getResolvedReference(IDataStore<?, ?> datastore, Handler<AsyncResult<String>> handler) {
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.json.jackson.serializer.ISerializationReference#isArrayMembers()
+   */
+  @Override
+  public boolean isArrayMembers() {
+    return false;
+  }
+
+  protected void getResolvedReference(IDataStore<?, ?> datastore, Handler<AsyncResult<Object>> handler) {
     try {
       JOmnigateGenerator gen = JOmnigateFactory.createGenerator((JsonDatastore) datastore);
       Object result = getFuture().result();
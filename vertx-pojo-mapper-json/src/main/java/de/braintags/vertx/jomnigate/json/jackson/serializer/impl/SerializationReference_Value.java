@@ -0,0 +1,58 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-json
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.json.jackson.serializer.impl;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import io.vertx.core.Future;
+
+/**
+ * SerializationReference for a value, which is computed asynchronously during serialization, like an encoded value.
+ * The reference is replaced by the result of the Future without further processing
+ * 
+ * @author Michael Remme
+ *
+ */
+public class SerializationReference_Value extends AbstractSerializerReference<Object> {
+
+  /**
+   * @param future
+   *          the Future, which contains the value to be written
+   * @param reference
+   */
+  public SerializationReference_Value(Future<Object> future, String reference) {
+    super(reference, future);
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * de.braintags.vertx.jomnigate.json.jackson.serializer.ISerializationReference#resolveReference(de.braintags.vertx.
+   * jomnigate.IDataStore)
+   */
+  @Override
+  public Future<Object> resolveReference(IDataStore<?, ?> datastore) {
+    return Future.succeededFuture(getFuture().result());
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.json.jackson.serializer.ISerializationReference#isArrayMembers()
+   */
+  @Override
+  public boolean isArrayMembers() {
+    return false;
+  }
+
+}
@@ -12,14 +12,14 @@
  */
 package de.braintags.vertx.jomnigate.json.jackson.serializer.impl;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.dataaccess.write.IWriteEntry;
 import de.braintags.vertx.jomnigate.dataaccess.write.IWriteResult;
-import de.braintags.vertx.util.ResultObject;
 import io.vertx.core.Future;
-import io.vertx.core.buffer.Buffer;
 
 /**
  * SerializationReference stores information about references, which are written during serialization. It is used to
@@ -49,33 +49,35 @@ public class SerializationReference_WriteResult extends AbstractSerializerRefere
    * 
    * @see
    * de.braintags.vertx.jomnigate.json.jackson.serializer.ISerializationReference#resolveReference(de.braintags.vertx.
-   * jomnigate.IDataStore, de.braintags.vertx.util.ResultObject)
+   * jomnigate.IDataStore)
    */
   @Override
-  public final Future<Void> resolveReference(IDataStore<?, ?> datastore, ResultObject<String> ro) {
+  public final Future<Object> resolveReference(IDataStore<?, ?> datastore) {
     try {
-      String resolved = getResolvedReference(datastore);
-      String result = ro.getResult().replace(getReference(), resolved);
-      ro.setResult(result);
-      return Future.succeededFuture();
+      return Future.succeededFuture(getResolvedReference());
     } catch (Exception e) {
       return Future.failedFuture(e);
     }
   }
 
-  private String getResolvedReference(IDataStore<?, ?> datastore) {
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.json.jackson.serializer.ISerializationReference#isArrayMembers()
+   */
+  @Override
+  public boolean isArrayMembers() {
+    return asArrayMembers;
+  }
+
+  private Object getResolvedReference() {
     if (asArrayMembers) {
-      Buffer buffer = Buffer.buffer();
+      List<String> ids = new ArrayList<>(getFuture().result().size());
       Iterator<IWriteEntry> it = getFuture().result().iterator();
       while (it.hasNext()) {
-        // write a sequence like 23", "24", "25 -> cause the value to be replaced is stored within quotation marks
-        // like "$REFERENCE_IDENTIFYER$555$
-        if (buffer.length() > 0) {
-          buffer.appendString("\", \"");
-        }
-        buffer.appendString(it.next().getId().toString());
+        ids.add(it.next().getId().toString());
       }
-      return buffer.toString();
+      return ids;
     } else {
       if (getFuture().result().size() != 1) {
         throw new IllegalArgumentException("Expected ONE instance for single object");
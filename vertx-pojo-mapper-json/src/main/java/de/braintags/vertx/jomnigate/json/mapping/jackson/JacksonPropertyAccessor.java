@@ -12,29 +12,66 @@
  */
 package de.braintags.vertx.jomnigate.json.mapping.jackson;
 
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
 import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
 import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
 
 import de.braintags.vertx.jomnigate.mapping.IPropertyAccessor;
+import de.braintags.vertx.jomnigate.mapping.impl.GeneratedAccessorFactory;
 
 /**
- * An implementation of {@link IPropertyAccessor} for jackson
+ * An implementation of {@link IPropertyAccessor} for jackson. The accessor and the mutator of the property are called by
+ * the direct calls, which are generated by {@link GeneratedAccessorFactory}; if that is not possible, the reflection
+ * of jackson is used
  * 
  * @author Michael Remme
  * 
  */
 public class JacksonPropertyAccessor implements IPropertyAccessor {
-  private AnnotatedMember getter;
-  private AnnotatedMember setter;
+  private static final io.vertx.core.logging.Logger LOGGER = io.vertx.core.logging.LoggerFactory
+      .getLogger(JacksonPropertyAccessor.class);
+
+  private Function<Object, Object> reader;
+  private BiConsumer<Object, Object> writer;
   private String name;
 
   /**
    * 
    */
   public JacksonPropertyAccessor(BeanPropertyDefinition definition) {
-    this.getter = definition.getAccessor();
-    this.setter = definition.getMutator();
     this.name = definition.getName();
+    this.reader = createReader(definition.getAccessor());
+    this.writer = createWriter(definition.getMutator());
+  }
+
+  private Function<Object, Object> createReader(AnnotatedMember getter) {
+    if (getter == null) {
+      return record -> {
+        throw new UnsupportedOperationException("property " + name + " can not be read");
+      };
+    }
+    try {
+      return GeneratedAccessorFactory.createReader(getter.getMember());
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      LOGGER.debug("using reflection to read property " + name, e);
+      return getter::getValue;
+    }
+  }
+
+  private BiConsumer<Object, Object> createWriter(AnnotatedMember setter) {
+    if (setter == null) {
+      return (record, data) -> {
+        throw new UnsupportedOperationException("property " + name + " can not be written");
+      };
+    }
+    try {
+      return GeneratedAccessorFactory.createWriter(setter.getMember());
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      LOGGER.debug("using reflection to write property " + name, e);
+      return setter::setValue;
+    }
   }
 
   /*
@@ -54,7 +91,7 @@ public class JacksonPropertyAccessor implements IPropertyAccessor {
    */
   @Override
   public Object readData(Object record) {
-    return getter.getValue(record);
+    return reader.apply(record);
   }
 
   /*
@@ -64,7 +101,7 @@ public class JacksonPropertyAccessor implements IPropertyAccessor {
    */
   @Override
   public void writeData(Object record, Object data) {
-    setter.setValue(record, data);
+    writer.accept(record, data);
   }
 
 }
@@ -24,6 +24,7 @@ import de.braintags.vertx.jomnigate.mapping.IProperty;
 import de.braintags.vertx.jomnigate.mapping.IPropertyAccessor;
 import de.braintags.vertx.jomnigate.mapping.IPropertyMapper;
 import de.braintags.vertx.jomnigate.mapping.IStoreObject;
+import de.braintags.vertx.jomnigate.mapping.impl.EncoderExecutor;
 import de.braintags.vertx.util.exception.PropertyAccessException;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
@@ -87,16 +88,39 @@ public class JacksonPropertyMapper implements IPropertyMapper {
       IPropertyAccessor pAcc = field.getPropertyAccessor();
       Object javaValue = pAcc.readData(entity);
       if (field.getEncoder() != null) {
-        javaValue = field.getEncoder().encode((CharSequence) javaValue);
-        pAcc.writeData(entity, javaValue);
+        EncoderExecutor executor = field.getMapper().getMapperFactory().getDataStore().getEncoderExecutor();
+        executor.encode(field.getEncoder(), (CharSequence) javaValue, result -> {
+          if (result.failed()) {
+            handler.handle(Future.failedFuture(result.cause()));
+          } else {
+            try {
+              pAcc.writeData(entity, result.result());
+            } catch (PropertyAccessException e) {
+              handler.handle(Future.failedFuture(e));
+              return;
+            }
+            putConverted(storeObject, field, result.result(), handler);
+          }
+        });
+      } else {
+        putConverted(storeObject, field, javaValue, handler);
       }
+    } catch (Exception e) {
+      handler.handle(Future.failedFuture(e));
+    }
+  }
+
+  private <T> void putConverted(IStoreObject<T, ?> storeObject, IProperty field, Object javaValue,
+      Handler<AsyncResult<Void>> handler) {
+    try {
       String converted = javaValue != null && javaValue instanceof CharSequence ? String.valueOf(javaValue)
           : objectMapper.writeValueAsString(javaValue);
       storeObject.put(field, converted);
-      handler.handle(Future.succeededFuture());
     } catch (Exception e) {
       handler.handle(Future.failedFuture(e));
+      return;
     }
+    handler.handle(Future.succeededFuture());
   }
 
   /*
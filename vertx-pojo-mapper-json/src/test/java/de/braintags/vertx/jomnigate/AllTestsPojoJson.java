@@ -17,7 +17,8 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses({ TMapperFactory.class, TQuery.class, TReflection.class, TJacksonSerialize.class })
+@SuiteClasses({ TMapperFactory.class, TQuery.class, TReflection.class, TJacksonSerialize.class,
+    TPropertyAccessor.class, TJsonObjectParser.class, TJOmnigateGenerator.class })
 public class AllTestsPojoJson {
 
 }
@@ -0,0 +1,79 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-json
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+
+import org.junit.Test;
+
+import de.braintags.vertx.jomnigate.json.jackson.JOmnigateFactory;
+import de.braintags.vertx.jomnigate.json.jackson.serializer.JOmnigateGenerator;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Tests for {@link JOmnigateGenerator}. The tree, which is read from its TokenBuffer, must contain the same values like
+ * a json String, which is parsed into a {@link JsonObject}
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class TJOmnigateGenerator {
+
+  @Test
+  public void testNumbers() throws Exception {
+    NumberBean bean = new NumberBean();
+    Map<String, Object> expected = new JsonObject(Json.mapper.writeValueAsString(bean)).getMap();
+    Map<String, Object> generated = generate(bean);
+    assertEquals(expected.keySet(), generated.keySet());
+    for (Map.Entry<String, Object> entry : expected.entrySet()) {
+      Object value = generated.get(entry.getKey());
+      assertEquals(entry.getKey(), entry.getValue(), value);
+      assertEquals(entry.getKey(), entry.getValue().getClass(), value.getClass());
+    }
+    assertTrue(generated.get("decimal") instanceof Double);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> generate(Object bean) throws Exception {
+    // without references the generator does not need a datastore
+    JOmnigateGenerator jgen = JOmnigateFactory.createGenerator(null, Json.mapper);
+    Json.mapper.writer().writeValue(jgen, bean);
+    Object[] result = new Object[1];
+    jgen.getResult(res -> {
+      if (res.failed()) {
+        throw new AssertionError(res.cause());
+      }
+      result[0] = res.result();
+    });
+    return (Map<String, Object>) result[0];
+  }
+
+  public static class NumberBean {
+    public BigDecimal decimal = new BigDecimal("55.55");
+    public BigDecimal wholeDecimal = new BigDecimal("10");
+    public BigDecimal largeDecimal = new BigDecimal("1E+3");
+    public BigInteger smallInteger = BigInteger.valueOf(5);
+    public BigInteger longInteger = BigInteger.valueOf(Long.MAX_VALUE);
+    public BigInteger hugeInteger = BigInteger.ONE.shiftLeft(70);
+    public long longValue = 7;
+    public float floatValue = 2.5f;
+    public short shortValue = 3;
+  }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-json
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import de.braintags.vertx.jomnigate.json.jackson.deserializer.JsonObjectParser;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Tests for {@link JsonObjectParser}. The main method compares the time of the parser with the deserialization by an
+ * intermediate JsonNode tree
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class TJsonObjectParser {
+  private static final int LOOP = 1000000;
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  @Test
+  public void testReadBean() throws Exception {
+    JsonObject source = createSource();
+    ParserBean bean = read(source);
+    assertEquals("4711", bean.id);
+    assertEquals("name", bean.name);
+    assertEquals(5, bean.count);
+    assertEquals(2.5, bean.value, 0);
+    assertEquals(true, bean.active);
+    assertNull(bean.description);
+    assertEquals(3, bean.numbers.size());
+    assertEquals("sub", bean.child.name);
+    assertEquals("child", bean.children.get(0).name);
+    assertArrayEquals(new byte[] { 1, 2, 3 }, bean.data);
+    assertEquals("the source must not be changed", "4711", source.getString("_id"));
+  }
+
+  @Test
+  public void testSameResultAsTree() throws Exception {
+    JsonObject source = createSource();
+    source.remove("data");
+    ParserBean bean = read(source);
+    source.put("id", source.remove("_id"));
+    ParserBean treeBean = MAPPER.readerFor(ParserBean.class).readValue(MAPPER.readTree(source.encode()));
+    assertEquals(MAPPER.writeValueAsString(treeBean), MAPPER.writeValueAsString(bean));
+  }
+
+  @Test
+  public void testReadTree() throws Exception {
+    ObjectReader reader = MAPPER.readerFor(JsonNode.class);
+    JsonNode node = reader.readValue(new JsonObjectParser(reader, createSource().getMap()));
+    assertEquals("4711", node.get("_id").asText());
+    assertEquals(3, node.get("numbers").size());
+    assertEquals("child", node.get("children").get(0).get("name").asText());
+  }
+
+  private static ParserBean read(JsonObject source) throws Exception {
+    ObjectReader reader = MAPPER.readerFor(ParserBean.class);
+    try (JsonParser parser = new JsonObjectParser(reader, source.getMap(), "_id", "id")) {
+      return reader.readValue(parser);
+    }
+  }
+
+  private static JsonObject createSource() {
+    JsonObject source = new JsonObject().put("_id", "4711").put("name", "name").put("count", 5).put("value", 2.5)
+        .put("active", true).putNull("description").put("numbers", new JsonArray().add(1).add(2L).add(3))
+        .put("child", new JsonObject().put("name", "sub"))
+        .put("children", new JsonArray().add(new JsonObject().put("name", "child")).add(new JsonObject()));
+    source.getMap().put("data", new byte[] { 1, 2, 3 });
+    return source;
+  }
+
+  public static void main(String[] args) throws Exception {
+    JsonObject source = createSource();
+    source.remove("data");
+    source.put("id", source.remove("_id"));
+    ObjectReader reader = MAPPER.readerFor(ParserBean.class);
+    for (int round = 0; round < 3; round++) {
+      long start = System.nanoTime();
+      for (int i = 0; i < LOOP; i++) {
+        reader.readValue(Json.mapper.<JsonNode> valueToTree(source.getMap()));
+      }
+      long tree = System.nanoTime() - start;
+      start = System.nanoTime();
+      for (int i = 0; i < LOOP; i++) {
+        reader.readValue(new JsonObjectParser(reader, source.getMap()));
+      }
+      long parser = System.nanoTime() - start;
+      System.out.println("tree: " + tree / 1000000 + " ms, parser: " + parser / 1000000 + " ms");
+    }
+  }
+
+  public static class ParserBean {
+    public String id;
+    public String name;
+    public int count;
+    public double value;
+    public boolean active;
+    public String description;
+    public List<Long> numbers;
+    public ParserBean child;
+    public List<ParserBean> children;
+    public byte[] data;
+    public Map<String, Object> extra;
+  }
+
+}
@@ -0,0 +1,179 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-json
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.beans.PropertyDescriptor;
+
+import org.junit.Test;
+
+import de.braintags.vertx.jomnigate.mapping.IPropertyAccessor;
+import de.braintags.vertx.jomnigate.mapping.IPropertyAccessorFactory;
+import de.braintags.vertx.jomnigate.mapping.impl.GeneratedAccessorFactory;
+import de.braintags.vertx.jomnigate.mapping.impl.GeneratedPropertyAccessor;
+import de.braintags.vertx.jomnigate.mapping.impl.JavaBeanAccessor;
+import de.braintags.vertx.jomnigate.mapping.impl.ReflectionAccessorFactory;
+import de.braintags.vertx.util.exception.PropertyAccessException;
+
+/**
+ * Tests for the accessors created by {@link GeneratedAccessorFactory}. The main method compares the time of the
+ * generated accessors with the reflection based accessors
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class TPropertyAccessor {
+  private static final int LOOP = 10000000;
+
+  @Test
+  public void testBeanAccessor() throws Exception {
+    IPropertyAccessor count = new GeneratedAccessorFactory()
+        .createBeanAccessor(new PropertyDescriptor("count", AccessorBean.class));
+    IPropertyAccessor name = new GeneratedAccessorFactory()
+        .createBeanAccessor(new PropertyDescriptor("name", AccessorBean.class));
+    assertTrue(count instanceof GeneratedPropertyAccessor);
+    AccessorBean bean = new AccessorBean();
+    count.writeData(bean, 5);
+    name.writeData(bean, "test");
+    assertEquals(5, count.readData(bean));
+    assertEquals("test", name.readData(bean));
+    assertNull(name.readData(null));
+  }
+
+  @Test
+  public void testFieldAccessor() throws Exception {
+    IPropertyAccessor value = new GeneratedAccessorFactory()
+        .createFieldAccessor(AccessorBean.class.getField("value"));
+    assertTrue(value instanceof GeneratedPropertyAccessor);
+    AccessorBean bean = new AccessorBean();
+    value.writeData(bean, 7L);
+    assertEquals(7L, value.readData(bean));
+    assertEquals(Long.valueOf(7), bean.value);
+  }
+
+  @Test(expected = PropertyAccessException.class)
+  public void testWrongType() throws Exception {
+    IPropertyAccessor count = new GeneratedAccessorFactory()
+        .createBeanAccessor(new PropertyDescriptor("count", AccessorBean.class));
+    count.writeData(new AccessorBean(), "wrong");
+  }
+
+  /**
+   * A primitive property must accept the wrapper of a smaller primitive type like the reflection based accessors
+   */
+  @Test
+  public void testPrimitiveWidening() throws Exception {
+    IPropertyAccessor total = new GeneratedAccessorFactory()
+        .createBeanAccessor(new PropertyDescriptor("total", AccessorBean.class));
+    IPropertyAccessor ratio = new GeneratedAccessorFactory()
+        .createFieldAccessor(AccessorBean.class.getField("ratio"));
+    assertTrue(total instanceof GeneratedPropertyAccessor);
+    assertTrue(ratio instanceof GeneratedPropertyAccessor);
+    AccessorBean bean = new AccessorBean();
+    total.writeData(bean, 5);
+    assertEquals(5L, bean.getTotal());
+    total.writeData(bean, (short) 6);
+    assertEquals(6L, total.readData(bean));
+    total.writeData(bean, 'a');
+    assertEquals(97L, bean.getTotal());
+    ratio.writeData(bean, 2);
+    assertEquals(2d, bean.ratio, 0);
+    ratio.writeData(bean, 1.5f);
+    assertEquals(1.5d, ratio.readData(bean));
+  }
+
+  @Test(expected = PropertyAccessException.class)
+  public void testNarrowingRejected() throws Exception {
+    IPropertyAccessor count = new GeneratedAccessorFactory()
+        .createBeanAccessor(new PropertyDescriptor("count", AccessorBean.class));
+    count.writeData(new AccessorBean(), 5L);
+  }
+
+  @Test
+  public void testReflectionFallback() throws Exception {
+    IPropertyAccessor hidden = new GeneratedAccessorFactory()
+        .createBeanAccessor(new PropertyDescriptor("hidden", HiddenBean.class));
+    assertTrue(hidden instanceof JavaBeanAccessor);
+  }
+
+  public static void main(String[] args) throws Exception {
+    PropertyDescriptor descriptor = new PropertyDescriptor("name", AccessorBean.class);
+    for (int i = 0; i < 5; i++) {
+      System.out.println("reflection: " + measure(new ReflectionAccessorFactory(), descriptor) + " ms, generated: "
+          + measure(new GeneratedAccessorFactory(), descriptor) + " ms");
+    }
+  }
+
+  private static long measure(IPropertyAccessorFactory factory, PropertyDescriptor descriptor) {
+    IPropertyAccessor accessor = factory.createBeanAccessor(descriptor);
+    AccessorBean bean = new AccessorBean();
+    long startTime = System.currentTimeMillis();
+    int length = 0;
+    for (int i = 0; i < LOOP; i++) {
+      accessor.writeData(bean, i % 2 == 0 ? "even" : "odd");
+      length += ((String) accessor.readData(bean)).length();
+    }
+    if (length == 0) {
+      throw new IllegalStateException();
+    }
+    return System.currentTimeMillis() - startTime;
+  }
+
+  public static class AccessorBean {
+    private int count;
+    private String name;
+    private long total;
+    public Long value;
+    public double ratio;
+
+    public int getCount() {
+      return count;
+    }
+
+    public void setCount(int count) {
+      this.count = count;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public long getTotal() {
+      return total;
+    }
+
+    public void setTotal(long total) {
+      this.total = total;
+    }
+  }
+
+  static class HiddenBean {
+    private String hidden;
+
+    public String getHidden() {
+      return hidden;
+    }
+
+    public void setHidden(String hidden) {
+      this.hidden = hidden;
+    }
+  }
+
+}
@@ -12,15 +12,23 @@
  */
 package de.braintags.vertx.jomnigate.impl;
 
+import java.util.function.Function;
+
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.IDataStoreMetaData;
+import de.braintags.vertx.jomnigate.dataaccess.cache.IEntityCache;
+import de.braintags.vertx.jomnigate.dataaccess.cache.IQueryResultCache;
+import de.braintags.vertx.jomnigate.dataaccess.cache.impl.EntityCache;
+import de.braintags.vertx.jomnigate.dataaccess.cache.impl.QueryResultCache;
 import de.braintags.vertx.jomnigate.dataaccess.delete.IDelete;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQueryCountResult;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.IQueryExpression;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.Query;
+import de.braintags.vertx.jomnigate.dataaccess.transaction.ITransaction;
 import de.braintags.vertx.jomnigate.dataaccess.write.IWrite;
+import de.braintags.vertx.jomnigate.dataaccess.write.impl.EntitySnapshots;
 import de.braintags.vertx.jomnigate.init.DataStoreSettings;
 import de.braintags.vertx.jomnigate.json.mapping.JsonPropertyMapperFactory;
 import de.braintags.vertx.jomnigate.json.typehandler.JsonTypeHandlerFactory;
@@ -31,6 +39,7 @@ import de.braintags.vertx.jomnigate.mapping.IPropertyMapperFactory;
 import de.braintags.vertx.jomnigate.mapping.IStoreObjectFactory;
 import de.braintags.vertx.jomnigate.mapping.ITriggerContextFactory;
 import de.braintags.vertx.jomnigate.mapping.datastore.ITableGenerator;
+import de.braintags.vertx.jomnigate.mapping.impl.EncoderExecutor;
 import de.braintags.vertx.jomnigate.mapping.impl.MapperFactory;
 import de.braintags.vertx.jomnigate.typehandler.ITypeHandlerFactory;
 import de.braintags.vertx.util.security.crypt.IEncoder;
@@ -54,10 +63,15 @@ public class DummyDataStore implements IDataStore<String, String> {
   private JsonObject properties;
   private ITriggerContextFactory triggerContextFactory;
   private DataStoreSettings settings = new DataStoreSettings();
+  private IEntityCache entityCache = new EntityCache();
+  private IQueryResultCache queryResultCache = new QueryResultCache();
   private Vertx vertx;
+  private EncoderExecutor encoderExecutor;
+  private EntitySnapshots entitySnapshots = new EntitySnapshots(true);
 
   public DummyDataStore() {
     this.vertx = Vertx.vertx();
+    this.encoderExecutor = new EncoderExecutor(vertx, DEFAULT_ENCODER_POOL_SIZE);
   }
 
   public DummyDataStore(ITypeHandlerFactory tf, IPropertyMapperFactory pf, DataStoreSettings settings) {
@@ -292,6 +306,26 @@ public class DummyDataStore implements IDataStore<String, String> {
     return null;
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.IDataStore#getEncoderExecutor()
+   */
+  @Override
+  public EncoderExecutor getEncoderExecutor() {
+    return encoderExecutor;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.IDataStore#getEntitySnapshots()
+   */
+  @Override
+  public EntitySnapshots getEntitySnapshots() {
+    return entitySnapshots;
+  }
+
   /*
    * (non-Javadoc)
    * 
@@ -322,4 +356,35 @@ public class DummyDataStore implements IDataStore<String, String> {
     return settings;
   }
 
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.IDataStore#getEntityCache()
+   */
+  @Override
+  public IEntityCache getEntityCache() {
+    return entityCache;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.IDataStore#getQueryResultCache()
+   */
+  @Override
+  public IQueryResultCache getQueryResultCache() {
+    return queryResultCache;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.IDataStore#inTransaction(java.util.function.Function, io.vertx.core.Handler)
+   */
+  @Override
+  public <V> void inTransaction(Function<ITransaction, Future<V>> work, Handler<AsyncResult<V>> resultHandler) {
+    resultHandler.handle(Future.failedFuture(
+        new UnsupportedOperationException("Transactions are not supported by the DummyDataStore")));
+  }
+
 }
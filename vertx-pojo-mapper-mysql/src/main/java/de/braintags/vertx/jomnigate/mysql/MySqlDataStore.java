@@ -13,9 +13,13 @@
 
 package de.braintags.vertx.jomnigate.mysql;
 
+import java.util.Objects;
+import java.util.function.Function;
+
 import de.braintags.vertx.jomnigate.IDataStoreMetaData;
 import de.braintags.vertx.jomnigate.dataaccess.delete.IDelete;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.dataaccess.transaction.ITransaction;
 import de.braintags.vertx.jomnigate.dataaccess.write.IWrite;
 import de.braintags.vertx.jomnigate.impl.AbstractDataStore;
 import de.braintags.vertx.jomnigate.init.DataStoreSettings;
@@ -24,6 +28,7 @@ import de.braintags.vertx.jomnigate.mapping.impl.keygen.DefaultKeyGenerator;
 import de.braintags.vertx.jomnigate.mysql.dataaccess.SqlDelete;
 import de.braintags.vertx.jomnigate.mysql.dataaccess.SqlQuery;
 import de.braintags.vertx.jomnigate.mysql.dataaccess.SqlStoreObjectFactory;
+import de.braintags.vertx.jomnigate.mysql.dataaccess.SqlTransaction;
 import de.braintags.vertx.jomnigate.mysql.dataaccess.SqlWrite;
 import de.braintags.vertx.jomnigate.mysql.mapping.SqlDataStoreSynchronizer;
 import de.braintags.vertx.jomnigate.mysql.mapping.SqlMapperFactory;
@@ -31,10 +36,12 @@ import de.braintags.vertx.jomnigate.mysql.mapping.SqlPropertyMapperFactory;
 import de.braintags.vertx.jomnigate.mysql.mapping.datastore.SqlTableGenerator;
 import de.braintags.vertx.jomnigate.mysql.typehandler.SqlTypeHandlerFactory;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.asyncsql.AsyncSQLClient;
+import io.vertx.ext.sql.SQLConnection;
 
 /**
  * 
@@ -47,6 +54,28 @@ public class MySqlDataStore extends AbstractDataStore<Object, String> {
    */
   public static final String DATABASE_NAME = "database";
 
+  /**
+   * The name of the property, which defines the maximum number of records, which are combined into one multi row
+   * insert statement. A value of 1 or lower disables the combined insert
+   */
+  public static final String INSERT_BATCH_SIZE = "insertBatchSize";
+
+  /**
+   * The default value for the property {@link #INSERT_BATCH_SIZE}
+   */
+  public static final int DEFAULT_INSERT_BATCH_SIZE = 100;
+
+  /**
+   * The name of the property, which defines the maximum number of existing records, which are combined into one
+   * multi row UPDATE statement. A value of 1 or lower updates each record by its own UPDATE statement
+   */
+  public static final String UPDATE_BATCH_SIZE = "updateBatchSize";
+
+  /**
+   * The default value for the property {@link #UPDATE_BATCH_SIZE}
+   */
+  public static final int DEFAULT_UPDATE_BATCH_SIZE = 100;
+
   private AsyncSQLClient sqlClient;
   private MySqlMetaData metaData;
   private DefaultKeyGenerator defaultKeyGenerator = new DefaultKeyGenerator(this);
@@ -130,6 +159,69 @@ public class MySqlDataStore extends AbstractDataStore<Object, String> {
     return getProperties().getString(DATABASE_NAME);
   }
 
+  /**
+   * Get the maximum number of new records, which are stored by one multi row insert statement
+   * 
+   * @return the value of the property {@link #INSERT_BATCH_SIZE} or {@link #DEFAULT_INSERT_BATCH_SIZE}
+   */
+  public final int getInsertBatchSize() {
+    return getProperties().getInteger(INSERT_BATCH_SIZE, DEFAULT_INSERT_BATCH_SIZE);
+  }
+
+  /**
+   * Get the maximum number of existing records, which are stored by one multi row update statement
+   * 
+   * @return the value of the property {@link #UPDATE_BATCH_SIZE} or {@link #DEFAULT_UPDATE_BATCH_SIZE}
+   */
+  public final int getUpdateBatchSize() {
+    return getProperties().getInteger(UPDATE_BATCH_SIZE, DEFAULT_UPDATE_BATCH_SIZE);
+  }
+
+  /**
+   * The work is executed by one connection of the pool with disabled auto commit. All statements of the writes and
+   * deletes created by the {@link ITransaction} are sent by this connection and committed at once. Observers and
+   * queries are still executed outside of the transaction. Instances of mappers with referenced fields can not be saved
+   * inside a transaction, because the referenced instances would be saved outside of it; such a write fails with an
+   * {@link UnsupportedOperationException}.
+   */
+  @Override
+  public <V> void inTransaction(Function<ITransaction, Future<V>> work, Handler<AsyncResult<V>> resultHandler) {
+    SqlUtil.getConnection(this, cr -> {
+      if (cr.failed()) {
+        resultHandler.handle(Future.failedFuture(cr.cause()));
+        return;
+      }
+      SQLConnection connection = cr.result();
+      connection.setAutoCommit(false, acr -> {
+        if (acr.failed()) {
+          connection.close();
+          resultHandler.handle(Future.failedFuture(acr.cause()));
+        } else {
+          executeTransaction(new SqlTransaction(this, connection), work, resultHandler);
+        }
+      });
+    });
+  }
+
+  private <V> void executeTransaction(SqlTransaction transaction, Function<ITransaction, Future<V>> work,
+      Handler<AsyncResult<V>> resultHandler) {
+    Future<V> workFuture;
+    try {
+      workFuture = Objects.requireNonNull(work.apply(transaction), "the work must return a Future");
+    } catch (Exception e) {
+      workFuture = Future.failedFuture(e);
+    }
+    workFuture.setHandler(wr -> transaction.finish(wr.succeeded(), fr -> {
+      if (wr.failed()) {
+        resultHandler.handle(wr);
+      } else if (fr.failed()) {
+        resultHandler.handle(Future.failedFuture(fr.cause()));
+      } else {
+        resultHandler.handle(wr);
+      }
+    }));
+  }
+
   /*
    * (non-Javadoc)
    * 
@@ -137,6 +229,7 @@ public class MySqlDataStore extends AbstractDataStore<Object, String> {
    */
   @Override
   public void shutdown(Handler<AsyncResult<Void>> resultHandler) {
+    getEncoderExecutor().close();
     sqlClient.close(resultHandler);
   }
 
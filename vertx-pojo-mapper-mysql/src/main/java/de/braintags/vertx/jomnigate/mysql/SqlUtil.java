@@ -569,11 +569,112 @@ public class SqlUtil {
     });
   }
 
-  private static void executeUpdateWithParams(final SQLConnection connection, final String command, final JsonArray params,
+  /**
+   * Executes the given update command on the given connection and informs the {@link Handler}. The connection is NOT
+   * closed, so that several commands can be executed by the same connection
+   * 
+   * @param connection
+   *          the connection to be used
+   * @param command
+   *          the command to be executed
+   * @param resultHandler
+   *          a resulthandler to be informed
+   */
+  public static void update(final SQLConnection connection, final String command,
+      final Handler<AsyncResult<UpdateResult>> resultHandler) {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("update: " + command);
+    }
+    connection.update(command, qr -> {
+      if (qr.failed()) {
+        Exception sqlEx = new SqlException(ERROR_EXECUTING_COMMAND_STATEMENT + command, qr.cause());
+        LOGGER.error("", sqlEx);
+        resultHandler.handle(Future.failedFuture(sqlEx));
+      } else {
+        LOGGER.debug(COMMAND_SUCCESS);
+        resultHandler.handle(Future.succeededFuture(qr.result()));
+      }
+    });
+  }
+
+  /**
+   * Executes the given query on the given connection and returns the {@link ResultSet} to the {@link Handler}. The
+   * connection is NOT closed, so that several commands can be executed by the same connection
+   * 
+   * @param connection
+   *          the connection to be used
+   * @param command
+   *          the command to be executed
+   * @param params
+   *          the parameters of the command
+   * @param resultHandler
+   *          a resulthandler to be informed
+   */
+  public static void queryWithParams(final SQLConnection connection, final String command, final JsonArray params,
+      final Handler<AsyncResult<ResultSet>> resultHandler) {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("queryWithParams: " + command + " | " + params);
+    }
+    connection.queryWithParams(command, params, qr -> {
+      if (qr.failed()) {
+        Exception sqlEx = new SqlException(ERROR_EXECUTING_COMMAND_STATEMENT + command + " | " + params, qr.cause());
+        LOGGER.error("", sqlEx);
+        resultHandler.handle(Future.failedFuture(sqlEx));
+      } else {
+        LOGGER.debug(COMMAND_SUCCESS);
+        resultHandler.handle(Future.succeededFuture(qr.result()));
+      }
+    });
+  }
+
+  /**
+   * Obtains a connection from the pool of the datastore. The caller is responsible to close the connection
+   * 
+   * @param datastore
+   *          the datastore to obtain the connection from
+   * @param resultHandler
+   *          a resulthandler to be informed
+   */
+  public static void getConnection(final MySqlDataStore datastore,
+      final Handler<AsyncResult<SQLConnection>> resultHandler) {
+    ((AsyncSQLClient) datastore.getClient()).getConnection(cr -> {
+      if (cr.failed()) {
+        Exception sqlEx = new SqlException(ERROR_GAINING_CONNECTION, cr.cause());
+        LOGGER.error("", sqlEx);
+        resultHandler.handle(Future.failedFuture(sqlEx));
+      } else {
+        LOGGER.debug(GAINED_SUCCESSFULLY_A_CONNECTION);
+        resultHandler.handle(Future.succeededFuture(cr.result()));
+      }
+    });
+  }
+
+  /**
+   * Executes the given command on the given connection and informs the {@link Handler}. The connection is NOT closed,
+   * so that several commands can be executed by the same connection. A duplicate primary key is reported as
+   * {@link DuplicateKeyException}
+   * 
+   * @param connection
+   *          the connection to be used
+   * @param command
+   *          the command to be executed
+   * @param params
+   *          the parameters of the command
+   * @param resultHandler
+   *          a resulthandler to be informed
+   */
+  public static void updateWithParams(final SQLConnection connection, final String command, final JsonArray params,
+      final Handler<AsyncResult<UpdateResult>> resultHandler) {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("updateWithParams: " + command + " | " + params);
+    }
+    doUpdateWithParams(connection, command, params, resultHandler);
+  }
+
+  private static void doUpdateWithParams(final SQLConnection connection, final String command, final JsonArray params,
       final Handler<AsyncResult<UpdateResult>> resultHandler) {
     connection.updateWithParams(command, params, qr -> {
       if (qr.failed()) {
-        connection.close();
         Throwable error = qr.cause();
         if (error instanceof MySQLException && error.getMessage().indexOf("Duplicate entry") >= 0
             && error.getMessage().indexOf("for key 'PRIMARY'") >= 0) {
@@ -584,13 +685,20 @@ public class SqlUtil {
         }
       } else {
         LOGGER.debug(COMMAND_SUCCESS);
-        connection.close();
-        LOGGER.debug(CONNECTION_CLOSED);
         resultHandler.handle(Future.succeededFuture(qr.result()));
       }
     });
   }
 
+  private static void executeUpdateWithParams(final SQLConnection connection, final String command, final JsonArray params,
+      final Handler<AsyncResult<UpdateResult>> resultHandler) {
+    doUpdateWithParams(connection, command, params, qr -> {
+      connection.close();
+      LOGGER.debug(CONNECTION_CLOSED);
+      resultHandler.handle(qr);
+    });
+  }
+
   private static class IndexResult {
     short state = -1;
     JsonObject read;
@@ -36,13 +36,37 @@ import io.vertx.ext.sql.UpdateResult;
  */
 
 public class SqlDelete<T> extends Delete<T> {
+  private final SqlTransaction transaction;
 
   /**
    * @param mapperClass
    * @param datastore
    */
   public SqlDelete(Class<T> mapperClass, IDataStore datastore) {
+    this(mapperClass, datastore, null);
+  }
+
+  /**
+   * Creates an instance, which executes the deletion inside the given transaction
+   * 
+   * @param mapperClass
+   * @param datastore
+   * @param transaction
+   *          the transaction to be used or null
+   */
+  public SqlDelete(Class<T> mapperClass, IDataStore datastore, SqlTransaction transaction) {
     super(mapperClass, datastore);
+    this.transaction = transaction;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.dataaccess.impl.AbstractDataAccessObject#getTransaction()
+   */
+  @Override
+  protected SqlTransaction getTransaction() {
+    return transaction;
   }
 
   /*
@@ -64,17 +88,21 @@ public class SqlDelete<T> extends Delete<T> {
   }
 
   private void handleDelete(SqlExpression expression, Handler<AsyncResult<IDeleteResult>> resultHandler) {
-    SqlUtil.updateWithParams((MySqlDataStore) getDataStore(), expression.getDeleteExpression(),
-        expression.getParameters(), ur -> {
-          if (ur.failed()) {
-            resultHandler.handle(Future.failedFuture(new SqlException(expression, ur.cause())));
-            return;
-          }
-          UpdateResult updateResult = ur.result();
-          SqlDeleteResult deleteResult = new SqlDeleteResult(getDataStore(), getMapper(), expression, updateResult);
-          resultHandler.handle(Future.succeededFuture(deleteResult));
-        });
-
+    Handler<AsyncResult<UpdateResult>> updateHandler = ur -> {
+      if (ur.failed()) {
+        resultHandler.handle(Future.failedFuture(new SqlException(expression, ur.cause())));
+        return;
+      }
+      UpdateResult updateResult = ur.result();
+      SqlDeleteResult deleteResult = new SqlDeleteResult(getDataStore(), getMapper(), expression, updateResult);
+      resultHandler.handle(Future.succeededFuture(deleteResult));
+    };
+    if (transaction != null) {
+      transaction.updateWithParams(expression.getDeleteExpression(), expression.getParameters(), updateHandler);
+    } else {
+      SqlUtil.updateWithParams((MySqlDataStore) getDataStore(), expression.getDeleteExpression(),
+          expression.getParameters(), updateHandler);
+    }
   }
 
 }
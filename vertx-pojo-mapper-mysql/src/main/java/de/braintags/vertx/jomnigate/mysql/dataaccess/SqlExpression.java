@@ -18,7 +18,6 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 
@@ -39,7 +38,6 @@ import de.braintags.vertx.jomnigate.dataaccess.query.impl.GeoSearchArgument;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.IQueryExpression;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.SortDefinition;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.SortDefinition.SortArgument;
-import de.braintags.vertx.jomnigate.mapping.IMapper;
 import de.braintags.vertx.jomnigate.mapping.datastore.IColumnInfo;
 import de.braintags.vertx.jomnigate.mapping.datastore.ITableInfo;
 import de.braintags.vertx.jomnigate.mysql.dataaccess.SqlExpression.SqlWhereFragment;
@@ -62,10 +60,6 @@ import io.vertx.core.json.JsonArray;
 
 public class SqlExpression extends AbstractQueryExpression<SqlWhereFragment> {
 
-  private static final String SELECT_STATEMENT = "SELECT %s from %s";
-  private static final String DELETE_STATEMENT = "DELETE from %s";
-  private static final String COUNT_STATEMENT = "SELECT count(*) from %s";
-
   private static final Pair<String, QueryOperatorPosition> AND = new ImmutablePair<>("AND",
       QueryOperatorPosition.INFIX);
 
@@ -75,61 +69,18 @@ public class SqlExpression extends AbstractQueryExpression<SqlWhereFragment> {
       QueryOperatorPosition.PREFIX);
 
   private String nativeCommand = null;
-  private StringBuilder select;
-  private StringBuilder delete;
-  private StringBuilder count;
 
   private final StringBuilder whereClause = new StringBuilder();
   private final StringBuilder orderByClause = new StringBuilder();
   private final JsonArray parameters = new JsonArray();
 
-  private String tableName;
-  private String mapperFieldNames;
   private String useFields;
 
-  /*
-   * (non-Javadoc)
-   *
-   * @see
-   * de.braintags.vertx.jomnigate.dataaccess.query.impl.AbstractQueryExpression#setMapper(de.braintags.vertx.
-   * pojomapper.mapping.IMapper)
-   */
-  @Override
-  public void setMapper(final IMapper<?> mapper) {
-    super.setMapper(mapper);
-    this.tableName = mapper.getTableInfo().getName();
-    this.mapperFieldNames = ((SqlMapper<?>) mapper).getQueryFieldNames();
-  }
-
-  /**
-   * Build the initial count statement, if it has not yet been built
-   */
-  private void buildCountStatement() {
-    if (count == null) {
-      count = new StringBuilder(String.format(COUNT_STATEMENT, tableName));
-    }
-  }
-
   /**
-   * Build the initial delete statement, if it has not yet been built
+   * The statement heads are cached by the {@link SqlMapper}, so that they are not built for each query
    */
-  private void buildDeleteStatement() {
-    if (delete == null)
-      delete = new StringBuilder(String.format(DELETE_STATEMENT, tableName));
-  }
-
-  /**
-   * Build the initial where statement, if it has not yet been built
-   */
-  private void buildSelectStatement() {
-    if (select == null) {
-      String fieldNames = "";
-      if (StringUtils.isNotBlank(useFields))
-        fieldNames = useFields;
-      else if (StringUtils.isNotBlank(mapperFieldNames))
-        fieldNames = mapperFieldNames;
-      select = new StringBuilder(String.format(SELECT_STATEMENT, fieldNames, tableName));
-    }
+  private SqlMapper<?> getSqlMapper() {
+    return (SqlMapper<?>) getMapper();
   }
 
   /*
@@ -382,8 +333,7 @@ public class SqlExpression extends AbstractQueryExpression<SqlWhereFragment> {
     if (nativeCommand != null) {
       return nativeCommand;
     }
-    buildCountStatement();
-    StringBuilder countExpression = new StringBuilder(count);
+    StringBuilder countExpression = new StringBuilder(getSqlMapper().getCountStatement());
     appendWhereClause(countExpression);
     return countExpression.toString();
   }
@@ -397,8 +347,7 @@ public class SqlExpression extends AbstractQueryExpression<SqlWhereFragment> {
     if (nativeCommand != null) {
       return nativeCommand;
     }
-    buildSelectStatement();
-    StringBuilder selectExpression = new StringBuilder(select);
+    StringBuilder selectExpression = new StringBuilder(getSqlMapper().getSelectStatement(useFields));
     appendWhereClause(selectExpression);
     appendOrderByClause(selectExpression);
     appendLimitClause(selectExpression);
@@ -411,8 +360,7 @@ public class SqlExpression extends AbstractQueryExpression<SqlWhereFragment> {
    * @return the complete expression
    */
   public String getDeleteExpression() {
-    buildDeleteStatement();
-    StringBuilder deleteExpression = new StringBuilder(delete);
+    StringBuilder deleteExpression = new StringBuilder(getSqlMapper().getDeleteStatement());
     appendWhereClause(deleteExpression);
     return deleteExpression.toString();
   }
@@ -484,6 +432,16 @@ public class SqlExpression extends AbstractQueryExpression<SqlWhereFragment> {
       this.useFields = useFields.stream().collect(Collectors.joining(","));
   }
 
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.impl.AbstractQueryExpression#getCacheKey()
+   */
+  @Override
+  public String getCacheKey() {
+    return getSelectExpression() + "|" + getParameters().encode();
+  }
+
   /*
    * (non-Javadoc)
    *
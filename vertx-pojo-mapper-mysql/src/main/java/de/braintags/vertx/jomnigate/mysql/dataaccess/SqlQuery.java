@@ -158,4 +158,14 @@ public class SqlQuery<T> extends Query<T> {
     return SqlExpression.class;
   }
 
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.impl.Query#createQueryExpression()
+   */
+  @Override
+  protected IQueryExpression createQueryExpression() {
+    return new SqlExpression();
+  }
+
 }
@@ -15,6 +15,7 @@ package de.braintags.vertx.jomnigate.mysql.dataaccess;
 
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.AbstractQueryResult;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
+import de.braintags.vertx.jomnigate.mapping.IStoreObject;
 import de.braintags.vertx.jomnigate.mysql.MySqlDataStore;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
@@ -65,12 +66,23 @@ public class SqlQueryResult<T> extends AbstractQueryResult<T> {
         handler.handle(Future.failedFuture(result.cause()));
       } else {
         @SuppressWarnings("unchecked")
-        T pojo = result.result().getEntity();
-        handler.handle(Future.succeededFuture(pojo));
+        IStoreObject<T, ?> storeObject = (IStoreObject<T, ?>) result.result();
+        takeSnapshot(storeObject);
+        handler.handle(Future.succeededFuture(storeObject.getEntity()));
       }
     });
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.impl.AbstractQueryResult#getStoredObject(int)
+   */
+  @Override
+  public Object getStoredObject(int index) {
+    return resultSet.getRows().get(index);
+  }
+
   /**
    * @return the result set of this query result
    */
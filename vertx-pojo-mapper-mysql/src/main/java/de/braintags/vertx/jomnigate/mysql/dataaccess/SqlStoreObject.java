@@ -13,18 +13,21 @@
 
 package de.braintags.vertx.jomnigate.mysql.dataaccess;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
+import de.braintags.vertx.jomnigate.dataaccess.write.impl.EntitySnapshots;
 import de.braintags.vertx.jomnigate.exception.MappingException;
 import de.braintags.vertx.jomnigate.mapping.IKeyGenerator;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
 import de.braintags.vertx.jomnigate.mapping.IProperty;
 import de.braintags.vertx.jomnigate.mapping.IStoreObject;
 import de.braintags.vertx.jomnigate.mapping.datastore.IColumnInfo;
-import de.braintags.vertx.jomnigate.mapping.datastore.ITableInfo;
 import de.braintags.vertx.jomnigate.mapping.impl.AbstractStoreObject;
+import de.braintags.vertx.jomnigate.mapping.impl.keygen.Key;
+import de.braintags.vertx.jomnigate.mysql.mapping.SqlMapper;
 import de.braintags.vertx.jomnigate.mysql.typehandler.SqlFunction;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
@@ -133,7 +136,8 @@ public class SqlStoreObject<T> extends AbstractStoreObject<T, Object> {
   }
 
   /**
-   * Generates the sql statement to insert a record into the database and a list of fitting parameters
+   * Generates the sql statement to insert a record into the database and a list of fitting parameters. The statement
+   * text is taken from the {@link SqlMapper}, so that per record only the parameters are collected
    * 
    * @param resultHandler
    *          the handler to be informed
@@ -141,21 +145,36 @@ public class SqlStoreObject<T> extends AbstractStoreObject<T, Object> {
    */
   public void generateSqlInsertStatement(final Handler<AsyncResult<SqlSequence>> resultHandler) {
     try {
-      ITableInfo tInfo = getMapper().getTableInfo();
-      SqlSequence sequence = new SqlSequence(tInfo.getName());
-      Set<String> fieldNames = getMapper().getFieldNames();
-      for (String fieldName : fieldNames) {
-        IProperty field = getMapper().getField(fieldName);
-        if (!field.isIdField()) {
-          sequence.addEntry(field.getColumnInfo().getName(), get(field));
-        }
-      }
-      getNextId(sequence, resultHandler);
+      getNextId(createInsertSequence(), resultHandler);
     } catch (Exception e) {
       resultHandler.handle(Future.failedFuture(e));
     }
   }
 
+  /**
+   * Generates the sql statement to insert a record into the database with a key, which was generated before
+   * 
+   * @param key
+   *          the key to be used as id of the new record
+   * @param resultHandler
+   *          the handler to be informed
+   */
+  public void generateSqlInsertStatement(final Key key, final Handler<AsyncResult<SqlSequence>> resultHandler) {
+    try {
+      applyKey(createInsertSequence(), key, resultHandler);
+    } catch (Exception e) {
+      resultHandler.handle(Future.failedFuture(e));
+    }
+  }
+
+  private SqlSequence createInsertSequence() {
+    SqlSequence sequence = new SqlSequence(true, null);
+    for (IProperty field : getSqlMapper().getWriteFields()) {
+      sequence.addEntry(get(field));
+    }
+    return sequence;
+  }
+
   private void getNextId(final SqlSequence sequence, final Handler<AsyncResult<SqlSequence>> resultHandler) {
     IKeyGenerator gen = this.getMapper().getKeyGenerator();
     if (gen == null) {
@@ -167,95 +186,127 @@ public class SqlStoreObject<T> extends AbstractStoreObject<T, Object> {
       if (keyResult.failed()) {
         resultHandler.handle(Future.failedFuture(keyResult.cause()));
       } else {
-        Object genKey = keyResult.result().getKey();
-        IProperty idField = getMapper().getIdInfo().getField();
-        idField.getTypeHandler().intoStore(genKey, idField, thResult -> {
-          if (thResult.failed()) {
-            resultHandler.handle(Future.failedFuture(thResult.cause()));
-          } else {
-            Object idValue = thResult.result().getResult();
-            sequence.addEntry(idField.getColumnInfo().getName(), idValue);
-            put(idField, idValue);
-            resultHandler.handle(Future.succeededFuture(sequence));
-          }
-        });
+        applyKey(sequence, keyResult.result(), resultHandler);
+      }
+    });
+  }
+
+  private void applyKey(final SqlSequence sequence, final Key key,
+      final Handler<AsyncResult<SqlSequence>> resultHandler) {
+    IProperty idField = getMapper().getIdInfo().getField();
+    idField.getTypeHandler().intoStore(key.getKey(), idField, thResult -> {
+      if (thResult.failed()) {
+        resultHandler.handle(Future.failedFuture(thResult.cause()));
+      } else {
+        Object idValue = thResult.result().getResult();
+        sequence.addEntry(idValue);
+        put(idField, idValue);
+        resultHandler.handle(Future.succeededFuture(sequence));
       }
     });
   }
 
   /**
-   * Generates the sql statement to update a record into the database and a list of fitting parameters
+   * Generates the sql statement to update a record into the database and a list of fitting parameters. The statement
+   * text is taken from the {@link SqlMapper}, so that per record only the parameters are collected
    * 
    * @return the sql statement to be executed
    */
   public SqlSequence generateSqlUpdateStatement() {
-    ITableInfo tInfo = getMapper().getTableInfo();
     IProperty idField = getMapper().getIdInfo().getField();
-    Object id = get(idField);
-
-    SqlSequence sequence = new SqlSequence(tInfo.getName(), idField.getColumnInfo(), id);
+    SqlSequence sequence = new SqlSequence(false, get(idField));
+    for (IProperty field : getSqlMapper().getWriteFields()) {
+      sequence.addEntry(get(field));
+    }
+    return sequence;
+  }
 
-    Set<String> fieldNames = getMapper().getFieldNames();
-    for (String fieldName : fieldNames) {
-      IProperty field = getMapper().getField(fieldName);
-      if (field != idField) {
-        sequence.addEntry(tInfo.getColumnInfo(field).getName(), get(field));
+  /**
+   * Generates the sql statement for a partial update of a record, which writes only the columns with a value
+   * 
+   * @return the sql statement to be executed
+   */
+  public SqlSequence generateSqlPartialUpdateStatement() {
+    IProperty idField = getMapper().getIdInfo().getField();
+    SqlSequence sequence = new SqlSequence(false, get(idField));
+    sequence.partialColumns = new ArrayList<>();
+    for (IProperty field : getSqlMapper().getWriteFields()) {
+      Object value = get(field);
+      if (value != null) {
+        sequence.partialColumns.add(field.getColumnInfo().getName());
+        sequence.addEntry(value);
       }
     }
     return sequence;
   }
 
-  class SqlSequence {
+  /**
+   * Generates the sql statement for an update of a record, which writes only the columns, whose value differs from the
+   * given snapshot of the record
+   * 
+   * @param snapshot
+   *          the columns of the record, as it was loaded or saved the last time
+   * @param writeNull
+   *          if false, like with a partial update, columns without a value are not written
+   * @return the sql statement to be executed or null, if no column was changed
+   */
+  public SqlSequence generateSqlChangedUpdateStatement(final Map<String, Object> snapshot, final boolean writeNull) {
+    IProperty idField = getMapper().getIdInfo().getField();
+    SqlSequence sequence = new SqlSequence(false, get(idField));
+    sequence.partialColumns = new ArrayList<>();
+    for (IProperty field : getSqlMapper().getWriteFields()) {
+      String column = field.getColumnInfo().getName();
+      Object value = get(field);
+      if ((value != null || writeNull)
+          && (!snapshot.containsKey(column) || !EntitySnapshots.isEqual(snapshot.get(column), value))) {
+        sequence.partialColumns.add(column);
+        sequence.addEntry(value);
+      }
+    }
+    return sequence.partialColumns.isEmpty() ? null : sequence;
+  }
 
-    boolean added = false;
-    private final StringBuilder headStatement;
-    private final StringBuilder setStatement;
-    private StringBuilder whereStatement;
-    private Object id;
-    private final JsonArray parameters = new JsonArray();
+  private SqlMapper<T> getSqlMapper() {
+    return (SqlMapper<T>) getMapper();
+  }
 
-    /**
-     * Constructor for an insert command
-     * 
-     * @param tableName
-     */
-    public SqlSequence(final String tableName) {
-      headStatement = new StringBuilder("Insert into ").append(tableName);
-      setStatement = new StringBuilder(" set ");
-    }
+  /**
+   * The parameters of an insert or update of one record. The statement text is taken from the {@link SqlMapper}; only
+   * if a value is a {@link SqlFunction}, which needs its own placeholder, the text is built for the record
+   */
+  class SqlSequence {
+    private final boolean insert;
+    private final Object id;
+    private final JsonArray parameters = new JsonArray();
+    private String[] functions;
+    private List<String> partialColumns;
+    private String additionalWhereClause;
 
     /**
-     * Constructor for an update command
+     * Constructor
      * 
-     * @param tableName
-     *          the name of the table
-     * @param idColInfo
-     *          the {@link IColumnInfo} for the id column
+     * @param insert
+     *          true for an insert, false for an update
      * @param idValue
-     *          the id value
+     *          the id value of an update
      */
-    public SqlSequence(final String tableName, final IColumnInfo idColInfo, final Object idValue) {
-      headStatement = new StringBuilder("UPDATE ").append(tableName);
-      setStatement = new StringBuilder(" set ");
-      whereStatement = new StringBuilder(" WHERE ").append(idColInfo.getName()).append(" = ?");
+    SqlSequence(final boolean insert, final Object idValue) {
+      this.insert = insert;
       this.id = idValue;
     }
 
-    void addEntry(final String colName, final Object value) {
-      if (added)
-        setStatement.append(", ");
+    void addEntry(final Object value) {
       if (value instanceof SqlFunction) {
-        setStatement.append(colName).append(" = ").append(((SqlFunction) value).getFunctionName()).append(" ( ? )");
+        if (functions == null) {
+          functions = new String[getSqlMapper().getInsertColumns().size()];
+        }
+        functions[parameters.size()] = ((SqlFunction) value).getFunctionName() + " ( ? )";
         parameters.add(((SqlFunction) value).getContent());
+      } else if (value == null) {
+        parameters.addNull();
       } else {
-        setStatement.append(colName).append(" = ?");
-        if (value == null) {
-          parameters.addNull();
-        } else {
-          parameters.add(value);
-        }
+        parameters.add(value);
       }
-      added = true;
     }
 
     /**
@@ -264,16 +315,100 @@ public class SqlStoreObject<T> extends AbstractStoreObject<T, Object> {
      * @return the sqlStatement
      */
     public final String getSqlStatement() {
-      StringBuilder ret = new StringBuilder(headStatement);
-      if (parameters.isEmpty())
-        ret.append(" () VALUES ()");// insert into SimpleMapper () VALUES ()
-      else
-        ret.append(setStatement);
-      if (whereStatement != null)
-        ret.append(whereStatement);
+      String statement;
+      if (functions == null && partialColumns == null) {
+        statement = insert ? getSqlMapper().getInsertStatement() : getSqlMapper().getUpdateStatement();
+      } else {
+        statement = buildStatement();
+      }
+      return additionalWhereClause == null ? statement : statement + additionalWhereClause;
+    }
+
+    private String buildStatement() {
+      List<String> columns = partialColumns != null ? partialColumns : getSqlMapper().getInsertColumns();
+      int count = insert || partialColumns != null ? columns.size() : columns.size() - 1;
+      StringBuilder ret = new StringBuilder(insert ? "Insert into " : "UPDATE ")
+          .append(getMapper().getTableInfo().getName()).append(" set ");
+      for (int i = 0; i < count; i++) {
+        if (i > 0) {
+          ret.append(", ");
+        }
+        ret.append(columns.get(i)).append(" = ").append(getPlaceholder(i));
+      }
+      if (!insert) {
+        String idColumn = getMapper().getIdInfo().getField().getColumnInfo().getName();
+        if (count == 0) {
+          // a partial update without any value
+          ret.append(idColumn).append(" = ").append(idColumn);
+        }
+        ret.append(" WHERE ").append(idColumn).append(" = ?");
+      }
       return ret.toString();
     }
 
+    /**
+     * Get the placeholder of the parameter at the given position, which is "?" or a sql function
+     * 
+     * @param index
+     *          the position of the parameter
+     * @return the placeholder
+     */
+    final String getPlaceholder(final int index) {
+      return functions == null || functions[index] == null ? "?" : functions[index];
+    }
+
+    /**
+     * Get the value list in the form "(?, ?, ?)", which is fitting to {@link SqlMapper#getInsertColumnList()}. Used to
+     * combine several inserts or full updates into one multi row statement
+     * 
+     * @return the value list
+     */
+    final String getValueList() {
+      if (functions == null) {
+        return getSqlMapper().getInsertValueList();
+      }
+      StringBuilder ret = new StringBuilder("(");
+      for (int i = 0; i < parameters.size(); i++) {
+        if (i > 0) {
+          ret.append(", ");
+        }
+        ret.append(getPlaceholder(i));
+      }
+      if (id != null) {
+        ret.append(parameters.isEmpty() ? "?" : ", ?");
+      }
+      return ret.append(")").toString();
+    }
+
+    /**
+     * Get the columns of a partial update
+     * 
+     * @return the written columns without the id column or null, if all columns are written
+     */
+    final List<String> getPartialColumns() {
+      return partialColumns;
+    }
+
+    /**
+     * Get the value of the parameter at the given position
+     * 
+     * @param index
+     *          the position of the parameter
+     * @return the value
+     */
+    final Object getParameter(final int index) {
+      return parameters.getValue(index);
+    }
+
+    /**
+     * Get the id of an update
+     * 
+     * @return the id value
+     */
+    final Object getId() {
+      return id;
+    }
+
     /**
      * Combine the where clauses of the passed expression to this expression
      * 
@@ -281,7 +416,7 @@ public class SqlStoreObject<T> extends AbstractStoreObject<T, Object> {
      *          to take the where clause from
      */
     public final void combineWhereClauses(final SqlExpression expression) {
-      whereStatement.append(" AND " + expression.getWhereClause());
+      additionalWhereClause = " AND " + expression.getWhereClause();
     }
 
     /**
@@ -0,0 +1,250 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-mysql
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.mysql.dataaccess;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.braintags.vertx.jomnigate.dataaccess.delete.IDelete;
+import de.braintags.vertx.jomnigate.dataaccess.transaction.ITransaction;
+import de.braintags.vertx.jomnigate.dataaccess.write.IWrite;
+import de.braintags.vertx.jomnigate.mysql.MySqlDataStore;
+import de.braintags.vertx.jomnigate.mysql.SqlUtil;
+import de.braintags.vertx.jomnigate.mysql.exception.SqlException;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
+import io.vertx.ext.sql.ResultSet;
+import io.vertx.ext.sql.SQLConnection;
+import io.vertx.ext.sql.UpdateResult;
+
+/**
+ * An implementation of {@link ITransaction} for sql databases. The transaction owns one {@link SQLConnection} with
+ * disabled auto commit. Because a connection can execute only one statement at a time, all statements of the
+ * {@link SqlWrite} and {@link SqlDelete} created by the transaction are queued and sent one after the other. Commit
+ * and rollback are queued behind the statements as well and close the connection. The actions registered by
+ * {@link #afterCommit(Runnable)} are executed after a successful commit and dropped otherwise.
+ *
+ * @author Michael Remme
+ *
+ */
+public class SqlTransaction implements ITransaction {
+  private static final io.vertx.core.logging.Logger LOGGER = io.vertx.core.logging.LoggerFactory
+      .getLogger(SqlTransaction.class);
+
+  private final MySqlDataStore datastore;
+  private final SQLConnection connection;
+  private final List<Runnable> commitActions = new ArrayList<>();
+  private Future<Void> lastStatement = Future.succeededFuture();
+  private boolean finished = false;
+
+  /**
+   * Creates a transaction for the given connection, where auto commit must be disabled already
+   *
+   * @param datastore
+   *          the datastore, which created the transaction
+   * @param connection
+   *          the connection to be used for all statements
+   */
+  public SqlTransaction(final MySqlDataStore datastore, final SQLConnection connection) {
+    this.datastore = datastore;
+    this.connection = connection;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.transaction.ITransaction#getDataStore()
+   */
+  @Override
+  public MySqlDataStore getDataStore() {
+    return datastore;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.transaction.ITransaction#createWrite(java.lang.Class)
+   */
+  @Override
+  public <T> IWrite<T> createWrite(final Class<T> mapper) {
+    return new SqlWrite<>(mapper, datastore, this);
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.transaction.ITransaction#createDelete(java.lang.Class)
+   */
+  @Override
+  public <T> IDelete<T> createDelete(final Class<T> mapper) {
+    return new SqlDelete<>(mapper, datastore, this);
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.transaction.ITransaction#isFinished()
+   */
+  @Override
+  public boolean isFinished() {
+    return finished;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.transaction.ITransaction#afterCommit(java.lang.Runnable)
+   */
+  @Override
+  public void afterCommit(final Runnable action) {
+    commitActions.add(action);
+  }
+
+  /**
+   * Executes the given update command inside the transaction
+   *
+   * @param command
+   *          the command to be executed
+   * @param resultHandler
+   *          a resulthandler to be informed
+   */
+  public void update(final String command, final Handler<AsyncResult<UpdateResult>> resultHandler) {
+    if (checkFinished(resultHandler)) {
+      enqueue(done -> SqlUtil.update(connection, command, res -> {
+        done.complete();
+        resultHandler.handle(res);
+      }), e -> resultHandler.handle(Future.failedFuture(e)));
+    }
+  }
+
+  /**
+   * Executes the given update command with parameters inside the transaction
+   *
+   * @param command
+   *          the command to be executed
+   * @param params
+   *          the parameters of the command
+   * @param resultHandler
+   *          a resulthandler to be informed
+   */
+  public void updateWithParams(final String command, final JsonArray params,
+      final Handler<AsyncResult<UpdateResult>> resultHandler) {
+    if (checkFinished(resultHandler)) {
+      enqueue(done -> SqlUtil.updateWithParams(connection, command, params, res -> {
+        done.complete();
+        resultHandler.handle(res);
+      }), e -> resultHandler.handle(Future.failedFuture(e)));
+    }
+  }
+
+  /**
+   * Executes the given query with parameters inside the transaction
+   *
+   * @param command
+   *          the query to be executed
+   * @param params
+   *          the parameters of the query
+   * @param resultHandler
+   *          a resulthandler to be informed
+   */
+  public void queryWithParams(final String command, final JsonArray params,
+      final Handler<AsyncResult<ResultSet>> resultHandler) {
+    if (checkFinished(resultHandler)) {
+      enqueue(done -> SqlUtil.queryWithParams(connection, command, params, res -> {
+        done.complete();
+        resultHandler.handle(res);
+      }), e -> resultHandler.handle(Future.failedFuture(e)));
+    }
+  }
+
+  /**
+   * Commits or rolls back the transaction after all queued statements were executed and closes the connection.
+   * Afterwards the transaction can not be used anymore
+   *
+   * @param commit
+   *          true to commit, false to roll back
+   * @param resultHandler
+   *          the handler to be informed
+   */
+  public void finish(final boolean commit, final Handler<AsyncResult<Void>> resultHandler) {
+    if (checkFinished(resultHandler)) {
+      finished = true;
+      enqueue(done -> {
+        Handler<AsyncResult<Void>> endHandler = res -> connection.setAutoCommit(true, acr -> {
+          connection.close();
+          done.complete();
+          if (res.failed()) {
+            commitActions.clear();
+            SqlException sqlEx = new SqlException((commit ? "commit" : "rollback") + " failed", res.cause());
+            LOGGER.error("", sqlEx);
+            resultHandler.handle(Future.failedFuture(sqlEx));
+          } else {
+            if (commit) {
+              commitActions.forEach(Runnable::run);
+            }
+            commitActions.clear();
+            resultHandler.handle(Future.succeededFuture());
+          }
+        });
+        if (commit) {
+          connection.commit(endHandler);
+        } else {
+          connection.rollback(endHandler);
+        }
+      }, e -> {
+        commitActions.clear();
+        connection.close();
+        resultHandler.handle(Future.failedFuture(e));
+      });
+    }
+  }
+
+  private <R> boolean checkFinished(final Handler<AsyncResult<R>> resultHandler) {
+    if (finished) {
+      resultHandler.handle(Future.failedFuture(new IllegalStateException("The transaction is finished already")));
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Adds a statement to the queue. The statement is started, when the previous one completed its Future. If the
+   * statement throws an exception before it completed its Future, the Future is completed, so that the following
+   * statements are executed, and the exception is handed to the failureHandler
+   *
+   * @param statement
+   *          the statement to be executed
+   * @param failureHandler
+   *          the handler to be informed about an exception thrown by the statement
+   */
+  private void enqueue(final Handler<Future<Void>> statement, final Handler<Throwable> failureHandler) {
+    Future<Void> done = Future.future();
+    Future<Void> previous = lastStatement;
+    lastStatement = done;
+    previous.setHandler(pr -> {
+      try {
+        statement.handle(done);
+      } catch (Exception e) {
+        if (!done.tryComplete()) {
+          // the exception was thrown by the result handler after the statement finished
+          throw e;
+        }
+        LOGGER.error("", e);
+        failureHandler.handle(e);
+      }
+    });
+  }
+
+}
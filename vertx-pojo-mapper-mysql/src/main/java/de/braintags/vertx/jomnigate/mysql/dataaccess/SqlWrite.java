@@ -14,8 +14,11 @@
 package de.braintags.vertx.jomnigate.mysql.dataaccess;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.dataaccess.write.IWrite;
@@ -23,6 +26,7 @@ import de.braintags.vertx.jomnigate.dataaccess.write.IWriteEntry;
 import de.braintags.vertx.jomnigate.dataaccess.write.IWriteResult;
 import de.braintags.vertx.jomnigate.dataaccess.write.WriteAction;
 import de.braintags.vertx.jomnigate.dataaccess.write.impl.AbstractWrite;
+import de.braintags.vertx.jomnigate.dataaccess.write.impl.EntitySnapshots;
 import de.braintags.vertx.jomnigate.dataaccess.write.impl.WriteEntry;
 import de.braintags.vertx.jomnigate.exception.DuplicateKeyException;
 import de.braintags.vertx.jomnigate.exception.WriteException;
@@ -32,13 +36,17 @@ import de.braintags.vertx.jomnigate.mapping.IStoreObject;
 import de.braintags.vertx.jomnigate.mysql.MySqlDataStore;
 import de.braintags.vertx.jomnigate.mysql.SqlUtil;
 import de.braintags.vertx.jomnigate.mysql.dataaccess.SqlStoreObject.SqlSequence;
+import de.braintags.vertx.jomnigate.mysql.mapping.SqlMapper;
 import de.braintags.vertx.jomnigate.observer.IObserverContext;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
+import io.vertx.ext.sql.ResultSet;
+import io.vertx.ext.sql.SQLConnection;
 import io.vertx.ext.sql.UpdateResult;
 
 /**
@@ -55,24 +63,50 @@ public class SqlWrite<T> extends AbstractWrite<T> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(SqlWrite.class);
 
+  private final SqlTransaction transaction;
+
   /**
    * @param mapperClass
    * @param datastore
    */
   public SqlWrite(final Class<T> mapperClass, final IDataStore<?, ?> datastore) {
+    this(mapperClass, datastore, null);
+  }
+
+  /**
+   * Creates an instance, which executes all statements inside the given transaction
+   *
+   * @param mapperClass
+   * @param datastore
+   * @param transaction
+   *          the transaction to be used or null
+   */
+  public SqlWrite(final Class<T> mapperClass, final IDataStore<?, ?> datastore, final SqlTransaction transaction) {
     super(mapperClass, datastore);
+    this.transaction = transaction;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.impl.AbstractDataAccessObject#getTransaction()
+   */
+  @Override
+  protected SqlTransaction getTransaction() {
+    return transaction;
   }
 
   @Override
   public Future<IWriteResult> internalSave(final IObserverContext context) {
-    if (partialUpdate) {
-      throw new UnsupportedOperationException("Partial updates are not supported for sql right now");
-    }
     Future<IWriteResult> f = Future.future();
     List<T> entities = getObjectsToSave();
     IMapper<T> mapper = getMapper();
     if (entities.isEmpty()) {
       f.complete(new SqlWriteResult());
+    } else if (getTransaction() != null && mapper.hasReferencedFields()) {
+      // referenced instances are saved by their own writes, which would not be part of the transaction
+      f.fail(new UnsupportedOperationException("Mapper " + getMapperClass().getName()
+          + " contains referenced fields and can not be saved inside a transaction"));
     } else {
       ((SqlStoreObjectFactory) getDataStore().getStoreObjectFactory()).createStoreObjects(mapper, entities,
           stoResult -> {
@@ -96,13 +130,56 @@ public class SqlWrite<T> extends AbstractWrite<T> {
 
   @SuppressWarnings({ "rawtypes", "unchecked" })
   private CompositeFuture saveRecords(final List<IStoreObject<T, Object>> storeObjects) {
+    int insertBatchSize = ((MySqlDataStore) getDataStore()).getInsertBatchSize();
+    int updateBatchSize = ((MySqlDataStore) getDataStore()).getUpdateBatchSize();
     List<Future> fl = new ArrayList<>(storeObjects.size());
-    for (IStoreObject<T, ?> storeObject : storeObjects) {
-      fl.add(saveStoreObject((SqlStoreObject<T>) storeObject));
+    List<SqlStoreObject<T>> inserts = new ArrayList<>();
+    List<Future<IWriteEntry>> insertFutures = new ArrayList<>();
+    List<SqlStoreObject<T>> updates = new ArrayList<>();
+    List<SqlSequence> updateSequences = new ArrayList<>();
+    List<Future<IWriteEntry>> updateFutures = new ArrayList<>();
+    for (IStoreObject<T, ?> so : storeObjects) {
+      SqlStoreObject<T> storeObject = (SqlStoreObject<T>) so;
+      boolean newRecord = isNewRecord(storeObject);
+      if (getQuery() == null && newRecord && insertBatchSize > 1) {
+        Future<IWriteEntry> f = Future.future();
+        inserts.add(storeObject);
+        insertFutures.add(f);
+        fl.add(f);
+      } else if (getQuery() == null && !newRecord) {
+        Future<IWriteEntry> f = Future.future();
+        SqlSequence seq = generateUpdateSequence(storeObject);
+        if (seq == null) {
+          // an unchanged record is not written
+          finishUpdate(storeObject, WriteAction.UNCHANGED, f.completer());
+        } else if (updateBatchSize > 1) {
+          updates.add(storeObject);
+          updateSequences.add(seq);
+          updateFutures.add(f);
+        } else {
+          update(storeObject, f.completer(), seq);
+        }
+        fl.add(f);
+      } else {
+        fl.add(saveStoreObject(storeObject));
+      }
+    }
+    if (inserts.size() == 1) {
+      handleInsert(inserts.get(0), insertFutures.get(0).completer());
+    } else if (!inserts.isEmpty()) {
+      handleBatchInsert(inserts, insertFutures, insertBatchSize);
+    }
+    if (!updates.isEmpty()) {
+      handleBatchUpdate(updates, updateSequences, updateFutures, updateBatchSize);
     }
     return CompositeFuture.all(fl);
   }
 
+  private boolean isNewRecord(final SqlStoreObject<T> storeObject) {
+    Object currentId = storeObject.get(getMapper().getIdInfo().getField());
+    return currentId == null || (currentId instanceof Number && ((Number) currentId).intValue() == 0);
+  }
+
   /**
    * execute the action to store ONE instance in mongo
    *
@@ -111,8 +188,7 @@ public class SqlWrite<T> extends AbstractWrite<T> {
    */
   private Future saveStoreObject(final SqlStoreObject<T> storeObject) {
     Future<IWriteEntry> f = Future.future();
-    Object currentId = storeObject.get(getMapper().getIdInfo().getField());
-    if (currentId == null || (currentId instanceof Number && ((Number) currentId).intValue() == 0)) {
+    if (isNewRecord(storeObject)) {
       if (getQuery() != null) {
         throw new IllegalStateException("Can not update with a query and objects without id");
       }
@@ -123,6 +199,266 @@ public class SqlWrite<T> extends AbstractWrite<T> {
     return f;
   }
 
+  /**
+   * Inserts the given new records by multi row insert statements of the size of
+   * {@link MySqlDataStore#getInsertBatchSize()}, which are executed one after the other by one connection. The keys of
+   * all records are requested at once. The Future at the same position like the {@link IStoreObject} is informed about
+   * the result of the record
+   *
+   * @param storeObjects
+   *          the records to be inserted
+   * @param futures
+   *          the futures to be informed, one per record
+   * @param batchSize
+   *          the maximum number of records per statement
+   */
+  @SuppressWarnings("rawtypes")
+  private void handleBatchInsert(final List<SqlStoreObject<T>> storeObjects, final List<Future<IWriteEntry>> futures,
+      final int batchSize) {
+    generateKeys(storeObjects.size(), keyResult -> {
+      if (keyResult.failed()) {
+        futures.forEach(f -> f.fail(keyResult.cause()));
+        return;
+      }
+      List<Future> sequenceFutures = new ArrayList<>(storeObjects.size());
+      for (int i = 0; i < storeObjects.size(); i++) {
+        Future<SqlSequence> f = Future.future();
+        storeObjects.get(i).generateSqlInsertStatement(keyResult.result().get(i), f.completer());
+        sequenceFutures.add(f);
+      }
+      CompositeFuture.all(sequenceFutures).setHandler(sr -> {
+        if (sr.failed()) {
+          futures.forEach(f -> f.fail(sr.cause()));
+        } else {
+          executeChunks(storeObjects, sr.result().list(), futures, batchSize, false);
+        }
+      });
+    });
+  }
+
+  /**
+   * Updates the given existing records by multi row UPDATE statements of the size of
+   * {@link MySqlDataStore#getUpdateBatchSize()}, one per chunk of records with the same columns. A full update writes
+   * all columns, a partial update only the columns with a value. Like the single row update, a record which does not
+   * exist is not inserted. MySQL reports the number of changed rows for the whole statement only, so that the existing
+   * ids of a chunk are queried, if not all of its records were changed. Those records are reported as updated, the
+   * others as not matched
+   *
+   * @param storeObjects
+   *          the records to be updated
+   * @param sequences
+   *          the update sequences of the records
+   * @param futures
+   *          the futures to be informed, one per record
+   * @param batchSize
+   *          the maximum number of records per statement
+   */
+  private void handleBatchUpdate(final List<SqlStoreObject<T>> storeObjects, final List<SqlSequence> sequences,
+      final List<Future<IWriteEntry>> futures, final int batchSize) {
+    executeChunks(storeObjects, sequences, futures, batchSize, true);
+  }
+
+  /**
+   * Executes the multi row statements for the given records by the transaction, if one is defined, otherwise by one
+   * connection of the pool
+   */
+  private void executeChunks(final List<SqlStoreObject<T>> storeObjects, final List<SqlSequence> sequences,
+      final List<Future<IWriteEntry>> futures, final int batchSize, final boolean update) {
+    if (transaction != null) {
+      executeChunk(null, storeObjects, sequences, futures, batchSize, update, 0);
+    } else {
+      SqlUtil.getConnection((MySqlDataStore) getDataStore(), cr -> {
+        if (cr.failed()) {
+          futures.forEach(f -> f.fail(new WriteException(cr.cause())));
+        } else {
+          executeChunk(cr.result(), storeObjects, sequences, futures, batchSize, update, 0);
+        }
+      });
+    }
+  }
+
+  /**
+   * Executes the next chunk of records by the given connection or, if the connection is null, by the transaction.
+   * Consecutive records with the same columns are combined into one statement
+   */
+  private void executeChunk(final SQLConnection connection, final List<SqlStoreObject<T>> storeObjects,
+      final List<SqlSequence> sequences, final List<Future<IWriteEntry>> futures, final int batchSize,
+      final boolean update, final int start) {
+    if (start >= storeObjects.size()) {
+      if (connection != null) {
+        connection.close();
+      }
+      return;
+    }
+    try {
+      List<String> partialColumns = sequences.get(start).getPartialColumns();
+      int end = start + 1;
+      while (end < storeObjects.size() && end - start < batchSize
+          && Objects.equals(partialColumns, sequences.get(end).getPartialColumns())) {
+        end++;
+      }
+      JsonArray params = new JsonArray();
+      List<SqlSequence> chunk = sequences.subList(start, end);
+      String command;
+      if (!update) {
+        command = createMultiRowInsert(chunk, params);
+      } else if (partialColumns == null) {
+        List<String> columns = ((SqlMapper<T>) getMapper()).getInsertColumns();
+        command = createMultiRowUpdate(chunk, columns.subList(0, columns.size() - 1), params);
+      } else {
+        command = createMultiRowUpdate(chunk, partialColumns, params);
+      }
+      int chunkEnd = end;
+      Handler<AsyncResult<UpdateResult>> chunkHandler = ur -> {
+        if (update && ur.succeeded() && ur.result().getUpdated() < chunkEnd - start) {
+          // MySQL counts only changed rows, so the missing ones may be unchanged or not existing records
+          queryExistingIds(connection, chunk, er -> finishChunk(connection, storeObjects, sequences, futures,
+              batchSize, update, start, chunkEnd, er.failed() ? Future.failedFuture(er.cause()) : ur,
+              er.succeeded() ? er.result() : null));
+        } else {
+          finishChunk(connection, storeObjects, sequences, futures, batchSize, update, start, chunkEnd, ur, null);
+        }
+      };
+      if (connection != null) {
+        SqlUtil.updateWithParams(connection, command, params, chunkHandler);
+      } else {
+        transaction.updateWithParams(command, params, chunkHandler);
+      }
+    } catch (Exception e) {
+      failChunks(connection, futures, start, e);
+    }
+  }
+
+  /**
+   * Informs the futures of the records of the executed chunk and executes the next chunk
+   *
+   * @param result
+   *          the result of the statement of the chunk
+   * @param existingIds
+   *          the ids of the updated records, which exist in the table, or null, if all records of the chunk were
+   *          updated
+   */
+  private void finishChunk(final SQLConnection connection, final List<SqlStoreObject<T>> storeObjects,
+      final List<SqlSequence> sequences, final List<Future<IWriteEntry>> futures, final int batchSize,
+      final boolean update, final int start, final int chunkEnd, final AsyncResult<?> result,
+      final Set<String> existingIds) {
+    try {
+      for (int i = start; i < chunkEnd; i++) {
+        if (result.succeeded()) {
+          if (!update) {
+            finishInsert(storeObjects.get(i), futures.get(i).completer());
+          } else if (existingIds == null || existingIds.contains(String.valueOf(sequences.get(i).getId()))) {
+            finishUpdate(storeObjects.get(i), WriteAction.UPDATE, futures.get(i).completer());
+          } else {
+            finishNotMatched(storeObjects.get(i), futures.get(i).completer());
+          }
+        } else if (!update && result.cause() instanceof DuplicateKeyException) {
+          // the statement was rolled back completely, the records are inserted one by one with new keys where needed
+          insertWithParameters(storeObjects.get(i), sequences.get(i), futures.get(i).completer());
+        } else {
+          futures.get(i).fail(new WriteException(result.cause()));
+        }
+      }
+    } catch (Exception e) {
+      failChunks(connection, futures, start, e);
+      return;
+    }
+    executeChunk(connection, storeObjects, sequences, futures, batchSize, update, chunkEnd);
+  }
+
+  /**
+   * Fails the futures of all records from start on, which are not finished yet, and closes the connection
+   */
+  private void failChunks(final SQLConnection connection, final List<Future<IWriteEntry>> futures, final int start,
+      final Exception e) {
+    LOGGER.error("", e);
+    for (int i = start; i < futures.size(); i++) {
+      futures.get(i).tryFail(new WriteException(e));
+    }
+    if (connection != null) {
+      connection.close();
+    }
+  }
+
+  /**
+   * Queries the ids of the given records, which exist in the table, by the given connection or, if the connection is
+   * null, by the transaction
+   */
+  private void queryExistingIds(final SQLConnection connection, final List<SqlSequence> chunk,
+      final Handler<AsyncResult<Set<String>>> handler) {
+    String idColumn = getMapper().getIdInfo().getField().getColumnInfo().getName();
+    StringBuilder command = new StringBuilder("SELECT ").append(idColumn).append(" FROM ")
+        .append(getMapper().getTableInfo().getName()).append(" WHERE ").append(idColumn).append(" IN (");
+    JsonArray params = new JsonArray();
+    for (int i = 0; i < chunk.size(); i++) {
+      command.append(i > 0 ? ", ?" : "?");
+      params.add(chunk.get(i).getId());
+    }
+    command.append(")");
+    Handler<AsyncResult<ResultSet>> resultHandler = qr -> {
+      if (qr.failed()) {
+        handler.handle(Future.failedFuture(qr.cause()));
+      } else {
+        Set<String> ids = new HashSet<>();
+        qr.result().getResults().forEach(row -> ids.add(String.valueOf(row.getValue(0))));
+        handler.handle(Future.succeededFuture(ids));
+      }
+    };
+    if (connection != null) {
+      SqlUtil.queryWithParams(connection, command.toString(), params, resultHandler);
+    } else {
+      transaction.queryWithParams(command.toString(), params, resultHandler);
+    }
+  }
+
+  /**
+   * Creates a statement of the form "INSERT INTO table (col1, id) VALUES (?, ?), (?, ?)"
+   */
+  private String createMultiRowInsert(final List<SqlSequence> chunk, final JsonArray params) {
+    SqlMapper<T> mapper = (SqlMapper<T>) getMapper();
+    StringBuilder command = new StringBuilder("INSERT INTO ").append(mapper.getTableInfo().getName()).append(' ')
+        .append(mapper.getInsertColumnList()).append(" VALUES ");
+    for (int i = 0; i < chunk.size(); i++) {
+      if (i > 0) {
+        command.append(", ");
+      }
+      command.append(chunk.get(i).getValueList());
+      params.addAll(chunk.get(i).getParameters());
+    }
+    return command.toString();
+  }
+
+  /**
+   * Creates a statement of the form
+   * "UPDATE table SET col1 = CASE id WHEN ? THEN ? WHEN ? THEN ? ELSE col1 END WHERE id IN (?, ?)", which writes only
+   * the given columns. Records, which do not exist, are not inserted
+   */
+  private String createMultiRowUpdate(final List<SqlSequence> chunk, final List<String> columns,
+      final JsonArray params) {
+    String idColumn = getMapper().getIdInfo().getField().getColumnInfo().getName();
+    StringBuilder command = new StringBuilder("UPDATE ").append(getMapper().getTableInfo().getName()).append(" SET ");
+    if (columns.isEmpty()) {
+      command.append(idColumn).append(" = ").append(idColumn);
+    }
+    for (int c = 0; c < columns.size(); c++) {
+      if (c > 0) {
+        command.append(", ");
+      }
+      command.append(columns.get(c)).append(" = CASE ").append(idColumn);
+      for (SqlSequence seq : chunk) {
+        command.append(" WHEN ? THEN ").append(seq.getPlaceholder(c));
+        params.add(seq.getId()).add(seq.getParameter(c));
+      }
+      command.append(" ELSE ").append(columns.get(c)).append(" END");
+    }
+    command.append(" WHERE ").append(idColumn).append(" IN (");
+    for (int i = 0; i < chunk.size(); i++) {
+      command.append(i > 0 ? ", ?" : "?");
+      params.add(chunk.get(i).getId());
+    }
+    return command.append(")").toString();
+  }
+
   /**
    * Perform an update of a record into the datastore
    *
@@ -136,7 +472,7 @@ public class SqlWrite<T> extends AbstractWrite<T> {
   @SuppressWarnings("rawtypes")
   private void handleUpdate(final SqlStoreObject<T> storeObject,
       final Handler<AsyncResult<IWriteEntry>> resultHandler) {
-    SqlSequence seq = storeObject.generateSqlUpdateStatement();
+    SqlSequence seq = generateUpdateSequence(storeObject);
     if (getQuery() != null) {
       if (getQuery().getNativeCommand() != null) {
         throw new IllegalStateException("Cann not update with a native command");
@@ -154,11 +490,25 @@ public class SqlWrite<T> extends AbstractWrite<T> {
     }
   }
 
+  /**
+   * Generates the sequence to update the record, which contains all columns or, with a partial update, only the
+   * columns with a value. If a snapshot of the record exists, only the changed columns are written
+   *
+   * @return the sequence or null, if the record was not changed since the snapshot was taken
+   */
+  private SqlSequence generateUpdateSequence(final SqlStoreObject<T> storeObject) {
+    Map<String, Object> snapshot = EntitySnapshots.asMap(getSnapshot(storeObject.getEntity()));
+    if (snapshot != null) {
+      return storeObject.generateSqlChangedUpdateStatement(snapshot, !partialUpdate);
+    }
+    return partialUpdate ? storeObject.generateSqlPartialUpdateStatement() : storeObject.generateSqlUpdateStatement();
+  }
+
   @SuppressWarnings("rawtypes")
   private void update(final SqlStoreObject<T> storeObject, final Handler<AsyncResult<IWriteEntry>> resultHandler,
       final SqlSequence seq) {
     if (seq.getParameters().isEmpty()) {
-      SqlUtil.update((MySqlDataStore) getDataStore(), seq.getSqlStatement(),
+      executeUpdate(seq.getSqlStatement(),
           updateResult -> checkUpdateResult(updateResult, checkResult -> {
             if (checkResult.failed()) {
               resultHandler.handle(Future.failedFuture(checkResult.cause()));
@@ -167,7 +517,7 @@ public class SqlWrite<T> extends AbstractWrite<T> {
             }
           }));
     } else {
-      SqlUtil.updateWithParams((MySqlDataStore) getDataStore(), seq.getSqlStatement(), seq.getParameters(),
+      executeUpdate(seq.getSqlStatement(), seq.getParameters(),
           updateResult -> checkUpdateResult(updateResult, checkResult -> {
             if (checkResult.failed()) {
               resultHandler.handle(Future.failedFuture(checkResult.cause()));
@@ -180,19 +530,34 @@ public class SqlWrite<T> extends AbstractWrite<T> {
 
   private void finishUpdate(final SqlStoreObject<T> storeObject, final UpdateResult updateResult,
       final Handler<AsyncResult<IWriteEntry>> resultHandler) {
+    if (updateResult.getUpdated() == 0) {
+      finishNotMatched(storeObject, resultHandler);
+    } else {
+      finishUpdate(storeObject, WriteAction.UPDATE, resultHandler);
+    }
+  }
+
+  private void finishNotMatched(final SqlStoreObject<T> storeObject,
+      final Handler<AsyncResult<IWriteEntry>> resultHandler) {
+    Object id = getMapper().getIdInfo().getField().getPropertyAccessor().readData(storeObject.getEntity());
+    resultHandler.handle(Future.succeededFuture(new WriteEntry(storeObject, id, WriteAction.NOT_MATCHED)));
+  }
+
+  private void finishUpdate(final SqlStoreObject<T> storeObject, final WriteAction action,
+      final Handler<AsyncResult<IWriteEntry>> resultHandler) {
+    if (action == WriteAction.UPDATE) {
+      updateSnapshot(storeObject);
+    }
     Object id = getMapper().getIdInfo().getField().getPropertyAccessor().readData(storeObject.getEntity());
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("updated record with id " + id);
     }
-    if (updateResult.getUpdated() == 0) {
-      resultHandler.handle(Future.succeededFuture(new WriteEntry(storeObject, id, WriteAction.NOT_MATCHED)));
-    }
     try {
       executePostSave(storeObject.getEntity(), lcr -> {
         if (lcr.failed()) {
           resultHandler.handle(Future.failedFuture(lcr.cause()));
         } else {
-          resultHandler.handle(Future.succeededFuture(new WriteEntry(storeObject, id, WriteAction.UPDATE)));
+          resultHandler.handle(Future.succeededFuture(new WriteEntry(storeObject, id, action)));
         }
       });
     } catch (Exception e) {
@@ -229,7 +594,7 @@ public class SqlWrite<T> extends AbstractWrite<T> {
   @SuppressWarnings("rawtypes")
   private void insertWithoutParameters(final SqlStoreObject<T> storeObject, final SqlSequence seq,
       final Handler<AsyncResult<IWriteEntry>> resultHandler) {
-    SqlUtil.update((MySqlDataStore) getDataStore(), seq.getSqlStatement(),
+    executeUpdate(seq.getSqlStatement(),
         updateResult -> checkUpdateResult(updateResult, checkResult -> {
           if (checkResult.failed()) {
             resultHandler.handle(Future.failedFuture(checkResult.cause()));
@@ -242,7 +607,7 @@ public class SqlWrite<T> extends AbstractWrite<T> {
   @SuppressWarnings({ "rawtypes" })
   private void insertWithParameters(final SqlStoreObject<T> storeObject, final SqlSequence seq,
       final Handler<AsyncResult<IWriteEntry>> resultHandler) {
-    SqlUtil.updateWithParams((MySqlDataStore) getDataStore(), seq.getSqlStatement(), seq.getParameters(),
+    executeUpdate(seq.getSqlStatement(), seq.getParameters(),
         updateResult -> checkUpdateResult(updateResult, checkResult -> {
           if (checkResult.failed()) {
             handleInsertError(checkResult.cause(), storeObject, resultHandler);
@@ -274,6 +639,30 @@ public class SqlWrite<T> extends AbstractWrite<T> {
     }
   }
 
+  /**
+   * Executes the update command by the transaction, if one is defined, otherwise by a connection of the pool
+   */
+  private void executeUpdate(final String command, final Handler<AsyncResult<UpdateResult>> resultHandler) {
+    if (transaction != null) {
+      transaction.update(command, resultHandler);
+    } else {
+      SqlUtil.update((MySqlDataStore) getDataStore(), command, resultHandler);
+    }
+  }
+
+  /**
+   * Executes the update command with parameters by the transaction, if one is defined, otherwise by a connection of
+   * the pool
+   */
+  private void executeUpdate(final String command, final JsonArray params,
+      final Handler<AsyncResult<UpdateResult>> resultHandler) {
+    if (transaction != null) {
+      transaction.updateWithParams(command, params, resultHandler);
+    } else {
+      SqlUtil.updateWithParams((MySqlDataStore) getDataStore(), command, params, resultHandler);
+    }
+  }
+
   /**
    * Checks the UpdateResult and informs the Handler with an error, if needed
    *
@@ -245,7 +245,25 @@ public class MySqlDataStoreinit extends AbstractDataStoreInit {
     return new JsonObject().put(HOST_PROPERTY, getHostName()).put(USERNAME_PROPERTY, getUserName())
         .put(IDataStore.HANDLE_REFERENCED_RECURSIVE, handleReferencedRecursive).put(PASSWORD_PROPERTY, getPassword())
         .put("database", getDatabaseName()).put(PORT_PROPERTY, getPort(DEFAULT_PORT))
-        .put(IKeyGenerator.DEFAULT_KEY_GENERATOR, getKeygeneratorName());
+        .put(IKeyGenerator.DEFAULT_KEY_GENERATOR, getKeygeneratorName())
+        .put(MySqlDataStore.INSERT_BATCH_SIZE,
+            getBatchSize(MySqlDataStore.INSERT_BATCH_SIZE, MySqlDataStore.DEFAULT_INSERT_BATCH_SIZE))
+        .put(MySqlDataStore.UPDATE_BATCH_SIZE,
+            getBatchSize(MySqlDataStore.UPDATE_BATCH_SIZE, MySqlDataStore.DEFAULT_UPDATE_BATCH_SIZE))
+        .put(IDataStore.ENCODER_POOL_SIZE,
+            getBatchSize(IDataStore.ENCODER_POOL_SIZE, IDataStore.DEFAULT_ENCODER_POOL_SIZE))
+        .put(IDataStore.DIRTY_TRACKING, getBooleanProperty(IDataStore.DIRTY_TRACKING, true));
+  }
+
+  private int getBatchSize(String property, int defaultSize) {
+    Object size = settings.getProperties().get(property);
+    if (size == null) {
+      return defaultSize;
+    } else if (size instanceof String) {
+      return Integer.parseInt((String) size);
+    } else {
+      return (Integer) size;
+    }
   }
 
   private int getPort(int defaultPort) {
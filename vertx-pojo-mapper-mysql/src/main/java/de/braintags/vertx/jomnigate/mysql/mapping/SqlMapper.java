@@ -12,20 +12,39 @@
  */
 package de.braintags.vertx.jomnigate.mysql.mapping;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+
 import de.braintags.vertx.jomnigate.datatypes.geojson.GeoJsonObject;
+import de.braintags.vertx.jomnigate.mapping.IProperty;
 import de.braintags.vertx.jomnigate.mapping.impl.MappedField;
 import de.braintags.vertx.jomnigate.mapping.impl.Mapper;
 import de.braintags.vertx.jomnigate.mapping.impl.MapperFactory;
 
 /**
- * 
+ * An extension of {@link Mapper} for sql databases. Beside the field list for queries it caches the text of the
+ * statements, which are used to write, delete and select records of the mapper, so that they are built once per
+ * mapper and not per record. Because the statement text stays the same, the driver is able to reuse its prepared
+ * statements as well.
  * 
  * @author Michael Remme
  * 
  */
 public class SqlMapper<T> extends Mapper<T> {
+  private static final String SELECT_STATEMENT = "SELECT %s from %s";
+  private static final String DELETE_STATEMENT = "DELETE from %s";
+  private static final String COUNT_STATEMENT = "SELECT count(*) from %s";
+
   private boolean queryWithFieldNames = false;
   private String queryFieldList = null;
+  private volatile WriteStatements writeStatements;
+  private final Map<String, String> selectStatements = new ConcurrentHashMap<>();
 
   /**
    * @param mapperClass
@@ -68,4 +87,147 @@ public class SqlMapper<T> extends Mapper<T> {
     }
   }
 
+  /**
+   * Get the fields, which are written by insert and update statements, without the id field. The order is the same
+   * like the order of the columns in {@link #getInsertColumns()} and {@link #getUpdateStatement()}
+   * 
+   * @return the fields to be written
+   */
+  public List<IProperty> getWriteFields() {
+    return getWriteStatements().writeFields;
+  }
+
+  /**
+   * Get the names of the columns of an insert, which are the columns of {@link #getWriteFields()} followed by the id
+   * column
+   * 
+   * @return the column names
+   */
+  public List<String> getInsertColumns() {
+    return getWriteStatements().insertColumns;
+  }
+
+  /**
+   * Get the statement to insert one record in the form "Insert into table set col1 = ?, id = ?"
+   * 
+   * @return the insert statement
+   */
+  public String getInsertStatement() {
+    return getWriteStatements().insertStatement;
+  }
+
+  /**
+   * Get the column list of a multi row insert in the form "(col1, id)"
+   * 
+   * @return the column list
+   */
+  public String getInsertColumnList() {
+    return getWriteStatements().insertColumnList;
+  }
+
+  /**
+   * Get the value list of one record of a multi row insert in the form "(?, ?)"
+   * 
+   * @return the value list
+   */
+  public String getInsertValueList() {
+    return getWriteStatements().insertValueList;
+  }
+
+  /**
+   * Get the statement to update one record by its id in the form "UPDATE table set col1 = ? WHERE id = ?"
+   * 
+   * @return the update statement
+   */
+  public String getUpdateStatement() {
+    return getWriteStatements().updateStatement;
+  }
+
+  /**
+   * Get the head of a select statement for the given projection
+   * 
+   * @param useFields
+   *          the comma separated column names to be selected or null to select all fields of the mapper
+   * @return the select statement without where clause
+   */
+  public String getSelectStatement(String useFields) {
+    String key = useFields == null ? "" : useFields;
+    return selectStatements.computeIfAbsent(key, k -> {
+      String fieldNames = "";
+      if (StringUtils.isNotBlank(k)) {
+        fieldNames = k;
+      } else if (StringUtils.isNotBlank(getQueryFieldNames())) {
+        fieldNames = getQueryFieldNames();
+      }
+      return String.format(SELECT_STATEMENT, fieldNames, getTableInfo().getName());
+    });
+  }
+
+  /**
+   * Get the head of a delete statement without where clause
+   * 
+   * @return the delete statement
+   */
+  public String getDeleteStatement() {
+    return getWriteStatements().deleteStatement;
+  }
+
+  /**
+   * Get the head of a count statement without where clause
+   * 
+   * @return the count statement
+   */
+  public String getCountStatement() {
+    return getWriteStatements().countStatement;
+  }
+
+  private WriteStatements getWriteStatements() {
+    WriteStatements ws = writeStatements;
+    if (ws == null) {
+      ws = new WriteStatements(this);
+      writeStatements = ws;
+    }
+    return ws;
+  }
+
+  /**
+   * The statements of a mapper, which are created once, when they are requested the first time
+   */
+  private static class WriteStatements {
+    private final List<IProperty> writeFields;
+    private final List<String> insertColumns;
+    private final String insertStatement;
+    private final String insertColumnList;
+    private final String insertValueList;
+    private final String updateStatement;
+    private final String deleteStatement;
+    private final String countStatement;
+
+    WriteStatements(SqlMapper<?> mapper) {
+      String tableName = mapper.getTableInfo().getName();
+      IProperty idField = mapper.getIdInfo().getField();
+      List<IProperty> fields = new ArrayList<>();
+      List<String> columns = new ArrayList<>();
+      for (String fieldName : mapper.getFieldNames()) {
+        IProperty field = mapper.getField(fieldName);
+        if (field != idField) {
+          fields.add(field);
+          columns.add(field.getColumnInfo().getName());
+        }
+      }
+      String idColumn = idField.getColumnInfo().getName();
+      String setList = columns.stream().map(col -> col + " = ?").collect(Collectors.joining(", "));
+      updateStatement = "UPDATE " + tableName + " set " + setList + " WHERE " + idColumn + " = ?";
+      insertStatement = "Insert into " + tableName + " set " + (setList.isEmpty() ? "" : setList + ", ")
+          + idColumn + " = ?";
+      columns.add(idColumn);
+      insertColumnList = "(" + String.join(", ", columns) + ")";
+      insertValueList = "(" + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+      deleteStatement = String.format(DELETE_STATEMENT, tableName);
+      countStatement = String.format(COUNT_STATEMENT, tableName);
+      writeFields = Collections.unmodifiableList(fields);
+      insertColumns = Collections.unmodifiableList(columns);
+    }
+  }
+
 }
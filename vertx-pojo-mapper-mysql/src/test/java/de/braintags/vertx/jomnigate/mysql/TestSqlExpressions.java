@@ -18,6 +18,8 @@ import java.util.List;
 import org.junit.Test;
 
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
+import de.braintags.vertx.jomnigate.mysql.mapping.SqlMapper;
 import de.braintags.vertx.jomnigate.testdatastore.DatastoreBaseTest;
 import de.braintags.vertx.jomnigate.testdatastore.ResultContainer;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.MiniMapper;
@@ -102,6 +104,24 @@ public class TestSqlExpressions extends DatastoreBaseTest {
     saveRecords(context, write);
   }
 
+  @Test
+  public void testStatementCache(TestContext context) {
+    MySqlDataStore ds = (MySqlDataStore) getDataStore(context);
+    SqlMapper<MiniMapper> mapper = (SqlMapper<MiniMapper>) ds.getMapperFactory().getMapper(MiniMapper.class);
+    context.assertTrue(mapper.getInsertStatement() == mapper.getInsertStatement(), "insert statement not cached");
+    context.assertTrue(mapper.getUpdateStatement() == mapper.getUpdateStatement(), "update statement not cached");
+    context.assertTrue(mapper.getSelectStatement(null) == mapper.getSelectStatement(null), "select not cached");
+    context.assertEquals(mapper.getInsertColumns().size(), mapper.getWriteFields().size() + 1);
+    context.assertTrue(mapper.getUpdateStatement().startsWith("UPDATE MiniMapper set "),
+        mapper.getUpdateStatement());
+    context.assertEquals("SELECT id, name from MiniMapper", mapper.getSelectStatement("id, name"));
+
+    prepare(context);
+    IQuery<MiniMapper> query = ds.createQuery(MiniMapper.class);
+    query.setSearchCondition(ISearchCondition.startsWith(MiniMapper.NAME, "native"));
+    find(context, query, 10);
+  }
+
   @Test
   public void testWrongNativeFormat(TestContext context) {
     MySqlDataStore ds = (MySqlDataStore) getDataStore(context);
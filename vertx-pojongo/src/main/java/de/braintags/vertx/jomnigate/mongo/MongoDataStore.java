@@ -26,6 +26,10 @@ import de.braintags.vertx.jomnigate.mongo.dataaccess.MongoWrite;
 import de.braintags.vertx.jomnigate.mongo.init.MongoDataStoreSynchronizer;
 import de.braintags.vertx.jomnigate.mongo.mapper.MongoMapperFactory;
 import de.braintags.vertx.jomnigate.mongo.mapper.datastore.MongoTableGenerator;
+import de.braintags.vertx.jomnigate.mongo.throttle.ExponentialBackoffRetryPolicy;
+import de.braintags.vertx.jomnigate.mongo.throttle.IRetryPolicy;
+import de.braintags.vertx.jomnigate.mongo.throttle.ThrottlingMetrics;
+import de.braintags.vertx.jomnigate.mongo.throttle.TokenBucketRateLimiter;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
@@ -51,8 +55,85 @@ public class MongoDataStore extends JsonDatastore {
    * The name of the property, which describes the database to be used
    */
   public static final String DATABASE_NAME = "db_name";
+
+  /**
+   * The name of the property, which defines the maximum number of operations sent by one bulk write
+   */
+  public static final String BULK_CHUNK_SIZE = "bulkChunkSize";
+
+  /**
+   * The default value for the property {@link #BULK_CHUNK_SIZE}
+   */
+  public static final int DEFAULT_BULK_CHUNK_SIZE = 1000;
+
+  /**
+   * The name of the property, which defines wether bulk writes are executed ordered. If true ( the default ), the
+   * chunks of a write are sent one after the other and the first error fails the complete write. If false, the
+   * operations are executed unordered, the chunks are sent in parallel and the instances, which could not be written,
+   * are reported by {@link de.braintags.vertx.jomnigate.dataaccess.write.WriteAction#FAILED}
+   */
+  public static final String BULK_ORDERED = "bulkOrdered";
+
+  /**
+   * The name of the property, which defines the maximum number of chunks of an unordered write, which are sent in
+   * parallel
+   */
+  public static final String BULK_CONCURRENCY = "bulkConcurrency";
+
+  /**
+   * The default value for the property {@link #BULK_CONCURRENCY}
+   */
+  public static final int DEFAULT_BULK_CONCURRENCY = 4;
+
+  /**
+   * The name of the property, which defines the maximum delay in milliseconds of the first retry of a request, which
+   * was rejected by the rate limit of the server. The maximum delay is doubled by each further retry
+   */
+  public static final String RETRY_BASE_DELAY = "retryBaseDelay";
+
+  /**
+   * The default value for the property {@link #RETRY_BASE_DELAY}
+   */
+  public static final int DEFAULT_RETRY_BASE_DELAY = 100;
+
+  /**
+   * The name of the property, which defines the upper limit in milliseconds of the delay of a retry
+   */
+  public static final String RETRY_MAX_DELAY = "retryMaxDelay";
+
+  /**
+   * The default value for the property {@link #RETRY_MAX_DELAY}
+   */
+  public static final int DEFAULT_RETRY_MAX_DELAY = 5000;
+
+  /**
+   * The name of the property, which defines the maximum number of retries of a request, which was rejected by the rate
+   * limit of the server
+   */
+  public static final String MAX_RETRIES = "maxRetries";
+
+  /**
+   * The default value for the property {@link #MAX_RETRIES}
+   */
+  public static final int DEFAULT_MAX_RETRIES = 9;
+
+  /**
+   * The name of the property, which defines the maximum number of requests per second, which are sent to the server.
+   * Further requests are queued locally. A value of 0 or lower disables the client side rate limit
+   */
+  public static final String RATE_LIMIT = "rateLimit";
+
+  /**
+   * The name of the property, which defines the number of requests, which may be sent at once after a period without
+   * requests. By default the value of {@link #RATE_LIMIT} is used
+   */
+  public static final String RATE_LIMIT_BURST = "rateLimitBurst";
+
   private MongoClient client;
   private MongoMetaData metaData;
+  private IRetryPolicy retryPolicy;
+  private TokenBucketRateLimiter rateLimiter;
+  private final ThrottlingMetrics throttlingMetrics = new ThrottlingMetrics();
 
   /**
    * Constructor using the given {@link MongoClient}
@@ -71,6 +152,13 @@ public class MongoDataStore extends JsonDatastore {
     setStoreObjectFactory(new MongoStoreObjectFactory());
     setDataStoreSynchronizer(new MongoDataStoreSynchronizer(this));
     setTableGenerator(new MongoTableGenerator());
+    JsonObject props = getProperties();
+    retryPolicy = new ExponentialBackoffRetryPolicy(props.getInteger(RETRY_BASE_DELAY, DEFAULT_RETRY_BASE_DELAY),
+        props.getInteger(RETRY_MAX_DELAY, DEFAULT_RETRY_MAX_DELAY), props.getInteger(MAX_RETRIES, DEFAULT_MAX_RETRIES));
+    int rateLimit = props.getInteger(RATE_LIMIT, 0);
+    if (rateLimit > 0) {
+      rateLimiter = new TokenBucketRateLimiter(vertx, rateLimit, props.getInteger(RATE_LIMIT_BURST, rateLimit));
+    }
   }
 
   /*
@@ -131,6 +219,70 @@ public class MongoDataStore extends JsonDatastore {
     return getProperties().getString(DATABASE_NAME).toLowerCase();
   }
 
+  /**
+   * Get the maximum number of operations sent by one bulk write
+   * 
+   * @return the value of the property {@link #BULK_CHUNK_SIZE} or {@link #DEFAULT_BULK_CHUNK_SIZE}
+   */
+  public final int getBulkChunkSize() {
+    return getProperties().getInteger(BULK_CHUNK_SIZE, DEFAULT_BULK_CHUNK_SIZE);
+  }
+
+  /**
+   * Get the info wether bulk writes are executed ordered
+   * 
+   * @return the value of the property {@link #BULK_ORDERED}, true by default
+   */
+  public final boolean isBulkOrdered() {
+    return getProperties().getBoolean(BULK_ORDERED, true);
+  }
+
+  /**
+   * Get the maximum number of chunks of an unordered write, which are sent in parallel
+   * 
+   * @return the value of the property {@link #BULK_CONCURRENCY} or {@link #DEFAULT_BULK_CONCURRENCY}
+   */
+  public final int getBulkConcurrency() {
+    return getProperties().getInteger(BULK_CONCURRENCY, DEFAULT_BULK_CONCURRENCY);
+  }
+
+  /**
+   * Get the policy, which decides about the retry of requests, which were rejected by the rate limit of the server
+   * 
+   * @return the retry policy, by default an {@link ExponentialBackoffRetryPolicy}
+   */
+  public IRetryPolicy getRetryPolicy() {
+    return retryPolicy;
+  }
+
+  /**
+   * Set the policy, which decides about the retry of requests, which were rejected by the rate limit of the server
+   * 
+   * @param retryPolicy
+   *          the retry policy to be used
+   */
+  public void setRetryPolicy(IRetryPolicy retryPolicy) {
+    this.retryPolicy = retryPolicy;
+  }
+
+  /**
+   * Get the client side rate limiter, which is used by all queries, writes and deletes of this datastore
+   * 
+   * @return the rate limiter or null, if the property {@link #RATE_LIMIT} is not set
+   */
+  public TokenBucketRateLimiter getRateLimiter() {
+    return rateLimiter;
+  }
+
+  /**
+   * Get the metrics about throttled, retried and locally delayed requests
+   * 
+   * @return the throttling metrics
+   */
+  public ThrottlingMetrics getThrottlingMetrics() {
+    return throttlingMetrics;
+  }
+
   /*
    * (non-Javadoc)
    * 
@@ -139,6 +291,7 @@ public class MongoDataStore extends JsonDatastore {
   @Override
   public void shutdown(Handler<AsyncResult<Void>> resultHandler) {
     try {
+      getEncoderExecutor().close();
       client.close();
       resultHandler.handle(Future.succeededFuture());
     } catch (Exception e) {
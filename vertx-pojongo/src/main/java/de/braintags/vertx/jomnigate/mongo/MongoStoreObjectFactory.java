@@ -13,6 +13,7 @@
 package de.braintags.vertx.jomnigate.mongo;
 
 import de.braintags.vertx.jomnigate.annotation.lifecycle.BeforeSave;
+import de.braintags.vertx.jomnigate.json.jackson.deserializer.referenced.ReferenceBatchLoader;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
 import de.braintags.vertx.jomnigate.mapping.IStoreObject;
 import de.braintags.vertx.jomnigate.mapping.impl.AbstractStoreObjectFactory;
@@ -53,7 +54,25 @@ public class MongoStoreObjectFactory extends AbstractStoreObjectFactory<JsonObje
   @Override
   public <T> void createStoreObject(final JsonObject storedObject, final IMapper<T> mapper,
       final Handler<AsyncResult<IStoreObject<T, JsonObject>>> handler) {
+    createStoreObject(storedObject, mapper, null, handler);
+  }
+
+  /**
+   * Creates a store object from the stored json and loads referenced instances by the given loader
+   *
+   * @param storedObject
+   *          the json read from the datastore
+   * @param mapper
+   *          the mapper to be used
+   * @param referenceLoader
+   *          the loader for referenced instances, which is shared by all records of a query result, can be null
+   * @param handler
+   *          the handler to be informed
+   */
+  public <T> void createStoreObject(final JsonObject storedObject, final IMapper<T> mapper,
+      final ReferenceBatchLoader referenceLoader, final Handler<AsyncResult<IStoreObject<T, JsonObject>>> handler) {
     MongoStoreObject<T> storeObject = new MongoStoreObject<>(storedObject, mapper);
+    storeObject.setReferenceLoader(referenceLoader);
     storeObject.initToEntity(result -> {
       if (result.failed()) {
         handler.handle(Future.failedFuture(result.cause()));
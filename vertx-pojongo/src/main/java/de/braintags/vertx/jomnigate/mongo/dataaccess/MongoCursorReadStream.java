@@ -0,0 +1,253 @@
+/*-
+ * #%L
+ * vertx-pojongo
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.mongo.dataaccess;
+
+import java.util.List;
+
+import com.mongodb.async.AsyncBatchCursor;
+
+import de.braintags.vertx.jomnigate.dataaccess.query.IFieldValueResolver;
+import de.braintags.vertx.jomnigate.mongo.MongoDataStore;
+import de.braintags.vertx.jomnigate.mongo.init.JomnigateMongoClient;
+import de.braintags.vertx.jomnigate.mongo.mapper.MongoMapper;
+import de.braintags.vertx.jomnigate.observer.IObserverContext;
+import de.braintags.vertx.util.IteratorAsync;
+import io.vertx.codegen.annotations.Nullable;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+
+/**
+ * An implementation of {@link ReadStream} which reads the selection of a {@link MongoQuery} from one server side
+ * cursor. The documents are fetched batch by batch and are mapped into pojos while they are delivered, so that only
+ * one batch is held in memory at once. The cursor is opened, when the first handler is set
+ *
+ * @author Michael Remme
+ * @param <T>
+ *          the type of the underlaying mapper
+ */
+public class MongoCursorReadStream<T> implements ReadStream<T> {
+  private static final io.vertx.core.logging.Logger LOGGER = io.vertx.core.logging.LoggerFactory
+      .getLogger(MongoCursorReadStream.class);
+
+  private final MongoQuery<T> query;
+  private final IFieldValueResolver resolver;
+  private final int batchSize;
+  private Handler<T> handler;
+  private Handler<Throwable> exceptionHandler;
+  private Handler<Void> endHandler;
+  private IObserverContext observerContext;
+  private MongoQueryExpression queryExpression;
+  private AsyncBatchCursor<JsonObject> cursor;
+  private IteratorAsync<T> currentBatch;
+
+  private boolean started;
+  private boolean paused;
+  private boolean fetching;
+  private boolean mapping;
+  private boolean draining;
+  private boolean exhausted;
+  private boolean ended;
+
+  /**
+   * Constructor
+   *
+   * @param query
+   *          the query to be executed
+   * @param resolver
+   *          replaces potential variables in the search condition with an actual value, can be null
+   * @param batchSize
+   *          the number of documents, which are fetched from the server per round trip
+   */
+  MongoCursorReadStream(final MongoQuery<T> query, final IFieldValueResolver resolver, final int batchSize) {
+    this.query = query;
+    this.resolver = resolver;
+    this.batchSize = batchSize;
+  }
+
+  @Override
+  public ReadStream<T> exceptionHandler(final Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public ReadStream<T> handler(@Nullable final Handler<T> handler) {
+    this.handler = handler;
+    if (handler == null) {
+      close();
+    } else if (!started) {
+      started = true;
+      open();
+    } else {
+      drain();
+    }
+    return this;
+  }
+
+  @Override
+  public ReadStream<T> pause() {
+    paused = true;
+    return this;
+  }
+
+  @Override
+  public ReadStream<T> resume() {
+    paused = false;
+    drain();
+    return this;
+  }
+
+  @Override
+  public ReadStream<T> endHandler(@Nullable final Handler<Void> endHandler) {
+    this.endHandler = endHandler;
+    return this;
+  }
+
+  /**
+   * Stop reading and release the server side cursor. No further events are sent to the handlers
+   */
+  public void close() {
+    ended = true;
+    closeCursor();
+  }
+
+  private void open() {
+    fetching = true;
+    observerContext = IObserverContext.createInstance();
+    query.buildStreamExpression(resolver, observerContext).compose(expression -> {
+      queryExpression = expression;
+      return query.openCursor(expression, batchSize);
+    }).setHandler(result -> {
+      if (result.failed()) {
+        fail(result.cause());
+      } else {
+        cursor = result.result();
+        fetching = false;
+        if (ended) {
+          closeCursor();
+        } else {
+          drain();
+        }
+      }
+    });
+  }
+
+  /**
+   * Delivers the mapped instances of the current batch as long as the stream is not paused. If the current batch is
+   * completely delivered, the next one is requested from the cursor
+   */
+  private void drain() {
+    if (draining) {
+      return;
+    }
+    draining = true;
+    try {
+      while (!paused && !mapping && !ended && handler != null) {
+        if (currentBatch != null && currentBatch.hasNext()) {
+          mapping = true;
+          currentBatch.next(this::handleEntity);
+        } else {
+          currentBatch = null;
+          if (exhausted) {
+            end();
+          } else if (!fetching && cursor != null) {
+            fetchNextBatch();
+          }
+          break;
+        }
+      }
+    } finally {
+      draining = false;
+    }
+  }
+
+  private void handleEntity(final AsyncResult<T> result) {
+    mapping = false;
+    if (result.failed()) {
+      fail(result.cause());
+      return;
+    }
+    if (handler != null && !ended) {
+      handler.handle(result.result());
+    }
+    // when the pojo was created asynchronously, the loop of drain has been left already
+    if (!draining) {
+      drain();
+    }
+  }
+
+  private void fetchNextBatch() {
+    fetching = true;
+    ((JomnigateMongoClient) query.getMongoClient()).nextBatch(cursor).setHandler(result -> {
+      if (result.failed()) {
+        fetching = false;
+        fail(result.cause());
+      } else if (result.result() == null || result.result().isEmpty() && cursor.isClosed()) {
+        fetching = false;
+        exhausted = true;
+        drain();
+      } else {
+        handleBatch(result.result());
+      }
+    });
+  }
+
+  private void handleBatch(final List<JsonObject> batch) {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("fetched batch of " + batch.size() + " documents from " + query.getCollection());
+    }
+    MongoQueryResult<T> qr = new MongoQueryResult<>(batch, (MongoDataStore) query.getDataStore(),
+        (MongoMapper) query.getMapper(), queryExpression);
+    qr.setCompleteResult(-1);
+    query.getMapper().getObserverHandler().handleAfterLoad(query, qr, observerContext).setHandler(result -> {
+      fetching = false;
+      if (result.failed()) {
+        fail(result.cause());
+      } else {
+        currentBatch = qr.iterator();
+        drain();
+      }
+    });
+  }
+
+  private void end() {
+    if (!ended) {
+      ended = true;
+      closeCursor();
+      if (endHandler != null) {
+        endHandler.handle(null);
+      }
+    }
+  }
+
+  private void fail(final Throwable cause) {
+    if (!ended) {
+      ended = true;
+      closeCursor();
+      if (exceptionHandler != null) {
+        exceptionHandler.handle(cause);
+      } else {
+        LOGGER.error("error while streaming " + query.getCollection(), cause);
+      }
+    }
+  }
+
+  private void closeCursor() {
+    if (cursor != null && !cursor.isClosed()) {
+      cursor.close();
+    }
+  }
+
+}
@@ -1,21 +1,18 @@
 package de.braintags.vertx.jomnigate.mongo.dataaccess;
 
-import java.util.function.Function;
-
-import com.mongodb.MongoCommandException;
+import java.util.function.Supplier;
 
 import de.braintags.vertx.jomnigate.dataaccess.IDataAccessObject;
 import de.braintags.vertx.jomnigate.mongo.MongoDataStore;
+import de.braintags.vertx.jomnigate.mongo.throttle.ExponentialBackoffRetryPolicy;
+import de.braintags.vertx.jomnigate.mongo.throttle.IRetryPolicy;
+import de.braintags.vertx.jomnigate.mongo.throttle.ThrottlingMetrics;
+import de.braintags.vertx.jomnigate.mongo.throttle.TokenBucketRateLimiter;
 import io.vertx.core.Future;
 import io.vertx.ext.mongo.MongoClient;
 
 interface MongoDataAccesObject<T> extends IDataAccessObject<T> {
 
-  int RETRY_TIMEOUT = 500;
-  int RATE_LIMIT_ERROR_CODE = 16500;
-  int MAX_RETRIES = 9;
-  int START_TRY_COUNT = 0;
-
   default String getCollection() {
     return getMapper().getTableInfo().getName();
   }
@@ -24,17 +21,49 @@ interface MongoDataAccesObject<T> extends IDataAccessObject<T> {
     return (MongoClient) ((MongoDataStore) getDataStore()).getClient();
   }
 
-  default <A> Function<Throwable, Future<A>> retryMethod(final int tryCount,
-      final Function<Integer, Future<A>> action) {
-    return e -> {
-      if (e instanceof MongoCommandException && ((MongoCommandException) e).getCode() == RATE_LIMIT_ERROR_CODE
-          && tryCount < MAX_RETRIES) {
-        Future<Void> f = Future.future();
-        getDataStore().getVertx().setTimer(RETRY_TIMEOUT, res -> f.complete());
-        return f.compose(v -> action.apply(tryCount + 1));
-      } else {
+  /**
+   * Executes the request, as soon as the rate limiter of the datastore allows it, and repeats it, as long as the
+   * {@link IRetryPolicy} of the datastore requests it
+   *
+   * @param request
+   *          creates the Future of one execution of the request
+   * @return a Future with the result of the last execution
+   */
+  default <A> Future<A> executeRequest(final Supplier<Future<A>> request) {
+    return executeRequest(request, 0);
+  }
+
+  default <A> Future<A> executeRequest(final Supplier<Future<A>> request, final int retryCount) {
+    MongoDataStore datastore = (MongoDataStore) getDataStore();
+    ThrottlingMetrics metrics = datastore.getThrottlingMetrics();
+    TokenBucketRateLimiter rateLimiter = datastore.getRateLimiter();
+    Future<Void> permit = Future.future();
+    if (rateLimiter == null) {
+      permit.complete();
+    } else {
+      rateLimiter.acquire(waited -> {
+        if (waited > 0) {
+          metrics.limited(waited);
+        }
+        permit.complete();
+      });
+    }
+    return permit.compose(v -> request.get()).recover(e -> {
+      boolean throttled = ExponentialBackoffRetryPolicy.isRateLimitError(e);
+      if (throttled) {
+        metrics.throttled();
+      }
+      long delay = datastore.getRetryPolicy().getRetryDelay(e, retryCount);
+      if (delay == IRetryPolicy.NO_RETRY) {
+        if (throttled) {
+          metrics.exhausted();
+        }
         return Future.failedFuture(e);
       }
-    };
+      metrics.retried(delay);
+      Future<Void> f = Future.future();
+      datastore.getVertx().setTimer(Math.max(1, delay), id -> f.complete());
+      return f.compose(v -> executeRequest(request, retryCount + 1));
+    });
   }
 }
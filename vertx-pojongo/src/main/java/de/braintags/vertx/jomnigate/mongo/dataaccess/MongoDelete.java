@@ -57,17 +57,19 @@ public class MongoDelete<T> extends Delete<T> implements MongoDataAccesObject<T>
       if (qDefResult.failed()) {
         resultHandler.handle(Future.failedFuture(qDefResult.cause()));
       } else {
-        removeDocuments(((MongoQueryExpression) qDefResult.result()).getQueryDefinition(), START_TRY_COUNT)
+        removeDocuments(((MongoQueryExpression) qDefResult.result()).getQueryDefinition())
             .<IDeleteResult> map(result -> new MongoDeleteResult(getDataStore(), getMapper(), result))
             .setHandler(resultHandler);
       }
     });
   }
 
-  private Future<MongoClientDeleteResult> removeDocuments(final JsonObject queryExpression, final int tryCount) {
-    Future<MongoClientDeleteResult> f = Future.future();
-    getMongoClient().removeDocuments(getCollection(), queryExpression, f);
-    return f.recover(retryMethod(tryCount, count -> removeDocuments(queryExpression, count)));
+  private Future<MongoClientDeleteResult> removeDocuments(final JsonObject queryExpression) {
+    return executeRequest(() -> {
+      Future<MongoClientDeleteResult> f = Future.future();
+      getMongoClient().removeDocuments(getCollection(), queryExpression, f);
+      return f;
+    });
   }
 
 }
@@ -14,7 +14,10 @@ package de.braintags.vertx.jomnigate.mongo.dataaccess;
 
 import java.util.List;
 
+import com.mongodb.async.AsyncBatchCursor;
+
 import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.dataaccess.query.IFieldValueResolver;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQueryCountResult;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
@@ -22,12 +25,16 @@ import de.braintags.vertx.jomnigate.dataaccess.query.impl.IQueryExpression;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.Query;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.QueryCountResult;
 import de.braintags.vertx.jomnigate.exception.QueryException;
+import de.braintags.vertx.jomnigate.mapping.ISyncResult;
 import de.braintags.vertx.jomnigate.mongo.MongoDataStore;
+import de.braintags.vertx.jomnigate.mongo.init.JomnigateMongoClient;
 import de.braintags.vertx.jomnigate.mongo.mapper.MongoMapper;
+import de.braintags.vertx.jomnigate.observer.IObserverContext;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
 
 /**
  * An implementation of {@link IQuery} for Mongo
@@ -70,6 +77,58 @@ public class MongoQuery<T> extends Query<T> implements MongoDataAccesObject<T> {
     }
   }
 
+  /**
+   * If the datastore is using a {@link JomnigateMongoClient}, the selection is read from one server side cursor by a
+   * {@link MongoCursorReadStream}, otherwise one query per batch is executed
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.impl.Query#executeStream(IFieldValueResolver, int)
+   */
+  @Override
+  public ReadStream<T> executeStream(final IFieldValueResolver resolver, final int batchSize) {
+    if (getMongoClient() instanceof JomnigateMongoClient) {
+      return new MongoCursorReadStream<>(this, resolver, batchSize);
+    }
+    return super.executeStream(resolver, batchSize);
+  }
+
+  /**
+   * Synchronizes the mapper, informs the observers about the coming load and builds the query expression for a
+   * {@link MongoCursorReadStream}
+   *
+   * @param resolver
+   *          replaces potential variables in the search condition with an actual value, can be null
+   * @param context
+   *          the context of the observers
+   * @return a future, which receives the built expression
+   */
+  Future<MongoQueryExpression> buildStreamExpression(final IFieldValueResolver resolver,
+      final IObserverContext context) {
+    Future<ISyncResult> fSync = Future.future();
+    sync(fSync);
+    return fSync.compose(sr -> preQuery(context)).compose(v -> {
+      Future<IQueryExpression> fExpression = Future.future();
+      buildQueryExpression(resolver, fExpression);
+      return fExpression;
+    }).map(expression -> (MongoQueryExpression) expression);
+  }
+
+  /**
+   * Opens a server side cursor for the given expression
+   *
+   * @param queryExpression
+   *          the expression to be executed
+   * @param batchSize
+   *          the number of documents, which are fetched per round trip
+   * @return a future, which receives the opened cursor
+   */
+  Future<AsyncBatchCursor<JsonObject>> openCursor(final MongoQueryExpression queryExpression, final int batchSize) {
+    if (LOGGER.isDebugEnabled())
+      LOGGER.debug(String.format(SEARCH_LOG, getDataStore().getSettings().getDatabaseName(), getCollection(),
+          queryExpression.getQueryDefinition()));
+    return executeRequest(() -> ((JomnigateMongoClient) getMongoClient()).findBatchCursor(getCollection(),
+        queryExpression.getQueryDefinition(), queryExpression.getFindOptions(), batchSize));
+  }
+
   /*
    * (non-Javadoc)
    *
@@ -90,16 +149,18 @@ public class MongoQuery<T> extends Query<T> implements MongoDataAccesObject<T> {
   @Override
   public void internalExecuteCount(final IQueryExpression queryExpression,
       final Handler<AsyncResult<IQueryCountResult>> resultHandler) {
-    count(((MongoQueryExpression) queryExpression).getQueryDefinition(), START_TRY_COUNT)
+    count(((MongoQueryExpression) queryExpression).getQueryDefinition())
         .<IQueryCountResult> map(
             queryResult -> new QueryCountResult(getMapper(), getDataStore(), queryResult, queryExpression))
         .setHandler(resultHandler);
   }
 
-  private Future<Long> count(final JsonObject queryDefinition, final int tryCount) {
-    Future<Long> f = Future.future();
-    getMongoClient().count(getCollection(), queryDefinition, f);
-    return f.recover(retryMethod(tryCount, count -> count(queryDefinition, count)));
+  private Future<Long> count(final JsonObject queryDefinition) {
+    return executeRequest(() -> {
+      Future<Long> f = Future.future();
+      getMongoClient().count(getCollection(), queryDefinition, f);
+      return f;
+    });
   }
 
   private void doFind(final MongoQueryExpression queryExpression,
@@ -108,7 +169,7 @@ public class MongoQuery<T> extends Query<T> implements MongoDataAccesObject<T> {
       LOGGER.debug(String.format(SEARCH_LOG, getDataStore().getSettings().getDatabaseName(), getCollection(),
           queryExpression.getQueryDefinition()));
 
-    find(queryExpression, 1).setHandler(res -> {
+    find(queryExpression).setHandler(res -> {
       if (res.failed()) {
         resultHandler.handle(Future.failedFuture(new QueryException(queryExpression, res.cause())));
       } else {
@@ -117,11 +178,13 @@ public class MongoQuery<T> extends Query<T> implements MongoDataAccesObject<T> {
     });
   }
 
-  private Future<List<JsonObject>> find(final MongoQueryExpression queryExpression, final int tryCount) {
-    Future<List<JsonObject>> f = Future.future();
-    getMongoClient().findWithOptions(getCollection(), queryExpression.getQueryDefinition(),
-        queryExpression.getFindOptions(), f);
-    return f.recover(retryMethod(tryCount, count -> find(queryExpression, count)));
+  private Future<List<JsonObject>> find(final MongoQueryExpression queryExpression) {
+    return executeRequest(() -> {
+      Future<List<JsonObject>> f = Future.future();
+      getMongoClient().findWithOptions(getCollection(), queryExpression.getQueryDefinition(),
+          queryExpression.getFindOptions(), f);
+      return f;
+    });
   }
 
   private void createQueryResult(final List<JsonObject> findList, final MongoQueryExpression queryExpression,
@@ -165,4 +228,14 @@ public class MongoQuery<T> extends Query<T> implements MongoDataAccesObject<T> {
     return MongoQueryExpression.class;
   }
 
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.impl.Query#createQueryExpression()
+   */
+  @Override
+  protected IQueryExpression createQueryExpression() {
+    return new MongoQueryExpression();
+  }
+
 }
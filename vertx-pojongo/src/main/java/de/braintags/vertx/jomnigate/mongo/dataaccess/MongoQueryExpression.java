@@ -83,6 +83,17 @@ public class MongoQueryExpression extends AbstractQueryExpression<JsonObject> {
     return findOptions;
   }
 
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.impl.AbstractQueryExpression#copyTemplate(java.lang.Object)
+   */
+  @Override
+  protected JsonObject copyTemplate(final JsonObject template) {
+    // the search condition is handed to the MongoClient, which may modify it, so each execution gets its own copy
+    return template.copy();
+  }
+
   /*
    * (non-Javadoc)
    *
@@ -325,6 +336,16 @@ public class MongoQueryExpression extends AbstractQueryExpression<JsonObject> {
     }
   }
 
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.impl.AbstractQueryExpression#getCacheKey()
+   */
+  @Override
+  public String getCacheKey() {
+    return String.valueOf(getQueryDefinition()) + "|" + getFindOptions().toJson().encode();
+  }
+
   /*
    * (non-Javadoc)
    *
@@ -16,8 +16,11 @@ import java.util.List;
 
 import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.AbstractQueryResult;
+import de.braintags.vertx.jomnigate.json.jackson.deserializer.referenced.ReferenceBatchLoader;
+import de.braintags.vertx.jomnigate.mapping.IStoreObject;
 import de.braintags.vertx.jomnigate.mapping.IStoreObjectFactory;
 import de.braintags.vertx.jomnigate.mongo.MongoDataStore;
+import de.braintags.vertx.jomnigate.mongo.MongoStoreObjectFactory;
 import de.braintags.vertx.jomnigate.mongo.mapper.MongoMapper;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
@@ -36,6 +39,10 @@ public class MongoQueryResult<T> extends AbstractQueryResult<T> {
    * Contains the original result from mongo
    */
   private List<JsonObject> jsonResult;
+  /**
+   * Loads the referenced instances of all records of this result together
+   */
+  private ReferenceBatchLoader referenceLoader;
 
   /**
    * @param jsonResult
@@ -55,19 +62,39 @@ public class MongoQueryResult<T> extends AbstractQueryResult<T> {
    * @see de.braintags.vertx.jomnigate.dataaccess.query.impl.AbstractQueryResult#generatePojo(int,
    * io.vertx.core.Handler)
    */
+  @SuppressWarnings("unchecked")
   @Override
   protected void generatePojo(int i, Handler<AsyncResult<T>> handler) {
     JsonObject sourceObject = jsonResult.get(i);
-    IStoreObjectFactory<JsonObject> sf = getDataStore().getStoreObjectFactory();
-    sf.createStoreObject(sourceObject, getMapper(), result -> {
+    IStoreObjectFactory<JsonObject> sf = (IStoreObjectFactory<JsonObject>) getDataStore().getStoreObjectFactory();
+    Handler<AsyncResult<IStoreObject<T, JsonObject>>> resultHandler = result -> {
       if (result.failed()) {
         handler.handle(Future.failedFuture(result.cause()));
       } else {
-        @SuppressWarnings("unchecked")
-        T pojo = result.result().getEntity();
-        handler.handle(Future.succeededFuture(pojo));
+        IStoreObject<T, JsonObject> storeObject = result.result();
+        takeSnapshot(storeObject);
+        handler.handle(Future.succeededFuture(storeObject.getEntity()));
+      }
+    };
+    if (sf instanceof MongoStoreObjectFactory) {
+      if (referenceLoader == null) {
+        referenceLoader = new ReferenceBatchLoader(getDataStore());
       }
-    });
+      ((MongoStoreObjectFactory) sf).createStoreObject(sourceObject, getMapper(), referenceLoader, resultHandler);
+    } else {
+      // a replaced factory loads the references of each record by itself
+      sf.createStoreObject(sourceObject, getMapper(), resultHandler);
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.impl.AbstractQueryResult#getStoredObject(int)
+   */
+  @Override
+  public Object getStoredObject(int index) {
+    return jsonResult.get(index);
   }
 
   public List<JsonObject> getOriginalResult() {
@@ -13,12 +13,19 @@
 package de.braintags.vertx.jomnigate.mongo.dataaccess;
 
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.IntStream;
+import java.util.Map;
+import java.util.Set;
 
 import com.mongodb.MongoBulkWriteException;
 import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
 
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
 import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
@@ -28,6 +35,7 @@ import de.braintags.vertx.jomnigate.dataaccess.write.IWriteEntry;
 import de.braintags.vertx.jomnigate.dataaccess.write.IWriteResult;
 import de.braintags.vertx.jomnigate.dataaccess.write.WriteAction;
 import de.braintags.vertx.jomnigate.dataaccess.write.impl.AbstractWrite;
+import de.braintags.vertx.jomnigate.dataaccess.write.impl.EntitySnapshots;
 import de.braintags.vertx.jomnigate.dataaccess.write.impl.WriteEntry;
 import de.braintags.vertx.jomnigate.exception.DuplicateKeyException;
 import de.braintags.vertx.jomnigate.exception.WriteException;
@@ -41,9 +49,12 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.mongo.BulkOperation;
 import io.vertx.ext.mongo.BulkOperation.BulkOperationType;
+import io.vertx.ext.mongo.BulkWriteOptions;
+import io.vertx.ext.mongo.FindOptions;
 import io.vertx.ext.mongo.MongoClientBulkWriteResult;
 
 /**
@@ -55,6 +66,13 @@ import io.vertx.ext.mongo.MongoClientBulkWriteResult;
  */
 public class MongoWrite<T> extends AbstractWrite<T> implements MongoDataAccesObject<T> {
 
+  /**
+   * The number of tries to write a new instance with a new id after a duplicate key error of the id, counted for each
+   * instance
+   */
+  private static final int MAX_KEY_TRIES = 3;
+  private static final int DUPLICATE_KEY_ERROR_CODE = 11000;
+
   protected Class<?> view;
   private JsonObject setOnInsertFields;
 
@@ -82,63 +100,245 @@ public class MongoWrite<T> extends AbstractWrite<T> implements MongoDataAccesObj
       CompositeFuture.all(entities.stream().map(entity -> convertEntity(entity, context)).collect(toList()))
           .compose(cfConvert -> {
             List<StoreObjectHolder> holders = cfConvert.list();
-            return writeEntities(holders).recover(e -> {
-              if (entities.size() == 1 && e instanceof MongoBulkWriteException)
-                return handleSingleWriteError(holders, (MongoBulkWriteException) e);
-              else
-                return Future.failedFuture(e);
-            });
-          }).compose(cfWrite -> {
-            f.complete(new MongoWriteResult(cfWrite.list()));
+            List<StoreObjectHolder> changed = holders.stream().filter(holder -> holder.bulkOperation != null)
+                .collect(toList());
+            Future<List<IWriteEntry>> fWrite = changed.isEmpty()
+                ? Future.<List<IWriteEntry>> succeededFuture(Collections.emptyList())
+                : new ChunkWriter(changed).start();
+            return fWrite.compose(written -> addUnchanged(holders, written));
+          }).compose(entries -> {
+            f.complete(new MongoWriteResult(entries));
           }, f);
     }
     return f;
 
   }
 
-  private Future<CompositeFuture> handleSingleWriteError(final List<StoreObjectHolder> holders,
-      final MongoBulkWriteException bulkException) {
-    if (bulkException.getWriteErrors().size() == 1) {
-      BulkWriteError writeError = bulkException.getWriteErrors().get(0);
-      if (writeError.getCode() == 11000) {
-        if (writeError.getMessage().indexOf("_id_") >= 0) {
-          if (getMapper().getKeyGenerator() != null) {
-            Future<Void> fNextId = Future.future();
-            holders.get(0).storeObject.getNextId(fNextId);
-            return fNextId.compose(v -> writeEntities(holders));
-          } else {
-            return Future.failedFuture(new DuplicateKeyException(
-                "Duplicate key error on insert, but no KeyGenerator is defined", bulkException));
-          }
-        } else {
-          return Future.failedFuture(new DuplicateKeyException(bulkException));
-        }
+  /**
+   * Creates the entries of the unchanged instances, which were not written, and merges them with the entries of the
+   * written instances in the order of the holders
+   */
+  private Future<List<IWriteEntry>> addUnchanged(final List<StoreObjectHolder> holders,
+      final List<IWriteEntry> written) {
+    if (written.size() == holders.size()) {
+      return Future.succeededFuture(written);
+    }
+    @SuppressWarnings("rawtypes")
+    List<Future> entries = new ArrayList<>(holders.size());
+    Iterator<IWriteEntry> writtenIterator = written.iterator();
+    for (StoreObjectHolder holder : holders) {
+      if (holder.bulkOperation == null) {
+        Future<IWriteEntry> f = Future.future();
+        MongoStoreObject<T> storeObject = holder.storeObject;
+        finishUpdate(storeObject.get(getMapper().getIdInfo().getField()), storeObject.getEntity(), storeObject,
+            WriteAction.UNCHANGED, f);
+        entries.add(f);
+      } else {
+        entries.add(Future.succeededFuture(writtenIterator.next()));
       }
     }
-    return Future.failedFuture(bulkException);
+    return CompositeFuture.all(entries).map(cf -> cf.<IWriteEntry> list());
+  }
+
+  /**
+   * Writes the given operations by one bulk write and handles write errors
+   *
+   * @param chunk
+   *          the operations to be written
+   * @param ordered
+   *          true, if the operations shall be executed ordered
+   * @return a Future with one {@link IWriteEntry} per operation
+   */
+  private Future<List<IWriteEntry>> writeChunk(final List<StoreObjectHolder> chunk, final boolean ordered) {
+    List<BulkOperation> bulkOperations = chunk.stream().map(holder -> holder.bulkOperation).collect(toList());
+    Future<List<IWriteEntry>> f = Future.future();
+    write(bulkOperations, ordered).setHandler(writeResult -> {
+      if (writeResult.succeeded()) {
+        finishChunk(chunk, new WriteCounts(writeResult.result())).setHandler(f);
+      } else if (writeResult.cause() instanceof MongoBulkWriteException) {
+        handleBulkWriteError(chunk, (MongoBulkWriteException) writeResult.cause(), ordered).setHandler(f);
+      } else {
+        f.fail(writeResult.cause());
+      }
+    });
+    return f;
   }
 
-  private Future<CompositeFuture> writeEntities(final List<StoreObjectHolder> holders) {
-    List<BulkOperation> bulkOperations = holders.stream().map(storeObjectHolder -> storeObjectHolder.bulkOperation)
-        .collect(toList());
-    return write(bulkOperations, START_TRY_COUNT).compose(writeResult -> {
+  /**
+   * Finishes the given operations, which were executed successfully. Each update or replace must match or upsert a
+   * document. A delta update does not insert a missing document, so that the documents of the delta updates are
+   * checked, if less documents were matched or upserted. Missing documents are written completely by an upsert, like
+   * an instance without snapshot
+   *
+   * @param chunk
+   *          the executed operations
+   * @param counts
+   *          the counts of the executed operations
+   * @return a Future with one {@link IWriteEntry} per operation
+   */
+  private Future<List<IWriteEntry>> finishChunk(final List<StoreObjectHolder> chunk, final WriteCounts counts) {
+    long updates = chunk.stream().filter(holder -> holder.bulkOperation.getType() != BulkOperationType.INSERT)
+        .count();
+    List<StoreObjectHolder> deltaUpdates = chunk.stream().filter(this::isDeltaUpdate).collect(toList());
+    Future<Void> fMissing = deltaUpdates.isEmpty() || counts.matched + counts.upserted >= updates
+        ? Future.succeededFuture()
+        : upsertMissing(deltaUpdates);
+    return fMissing.compose(v -> {
       @SuppressWarnings("rawtypes")
-      List<Future> futures = IntStream.range(0, holders.size())
-          .mapToObj(i -> finishWrite(getObjectsToSave().get(i), holders.get(i), writeResult)).collect(toList());
-      return CompositeFuture.all(futures);
+      List<Future> futures = chunk.stream().map(holder -> finishWrite(holder, counts)).collect(toList());
+      return CompositeFuture.all(futures).map(cf -> cf.<IWriteEntry> list());
     });
   }
 
-  private Future<MongoClientBulkWriteResult> write(final List<BulkOperation> bulkOperations, final int tryCount) {
-    Future<MongoClientBulkWriteResult> fBulk = Future.future();
-    getMongoClient().bulkWrite(getCollection(), bulkOperations, fBulk);
-    return fBulk.recover(retryMethod(tryCount, count -> write(bulkOperations, count)));
+  private boolean isDeltaUpdate(final StoreObjectHolder holder) {
+    return getQuery() == null && holder.bulkOperation.getType() == BulkOperationType.UPDATE
+        && !holder.bulkOperation.isUpsert();
+  }
+
+  /**
+   * Queries, which documents of the given delta updates exist, and writes the missing ones completely by an upsert
+   */
+  private Future<Void> upsertMissing(final List<StoreObjectHolder> deltaUpdates) {
+    JsonArray ids = new JsonArray();
+    deltaUpdates.forEach(holder -> ids.add(getId(holder)));
+    JsonObject query = new JsonObject().put(MongoColumnInfo.ID_FIELD_NAME, new JsonObject().put("$in", ids));
+    FindOptions options = new FindOptions().setFields(new JsonObject().put(MongoColumnInfo.ID_FIELD_NAME, 1));
+    return executeRequest(() -> {
+      Future<List<JsonObject>> fFind = Future.future();
+      getMongoClient().findWithOptions(getCollection(), query, options, fFind);
+      return fFind;
+    }).compose(found -> {
+      Set<Object> existing = found.stream().map(doc -> doc.getValue(MongoColumnInfo.ID_FIELD_NAME)).collect(toSet());
+      List<BulkOperation> upserts = deltaUpdates.stream().filter(holder -> !existing.contains(getId(holder)))
+          .map(holder -> BulkOperation.createReplace(
+              new JsonObject().put(MongoColumnInfo.ID_FIELD_NAME, getId(holder)), holder.storeObject.getContainer(),
+              true))
+          .collect(toList());
+      return upserts.isEmpty() ? Future.<Void> succeededFuture() : write(upserts, false).map(result -> (Void) null);
+    });
+  }
+
+  /**
+   * An ordered write stops at the first error. If it is a duplicate id of a new instance, a new id is generated and the
+   * instance is written again together with the following, not executed operations; otherwise the write fails.
+   * With an unordered write all other operations were executed. Instances with a duplicate id are written again with
+   * a new id, all other failed instances are reported by {@link WriteAction#FAILED}. The instances, which were written
+   * successfully, are finished with the counts of the executed operations. Each instance is written with a new id up
+   * to {@link #MAX_KEY_TRIES} times, independent of the other instances of the chunk
+   */
+  private Future<List<IWriteEntry>> handleBulkWriteError(final List<StoreObjectHolder> chunk,
+      final MongoBulkWriteException bulkException, final boolean ordered) {
+    WriteCounts counts = new WriteCounts(bulkException.getWriteResult());
+    if (ordered) {
+      BulkWriteError error = bulkException.getWriteErrors().get(0);
+      int index = error.getIndex();
+      StoreObjectHolder holder = chunk.get(index);
+      if (!isRetryableDuplicateId(error, holder)) {
+        return Future.failedFuture(createWriteException(error, bulkException));
+      }
+      holder.keyTries--;
+      return finishChunk(chunk.subList(0, index), counts)
+          .compose(written -> regenerateId(holder)
+              .compose(v -> writeChunk(chunk.subList(index, chunk.size()), true))
+              .map(rest -> {
+                List<IWriteEntry> entries = new ArrayList<>(written);
+                entries.addAll(rest);
+                return entries;
+              }));
+    }
+    Map<Integer, BulkWriteError> errors = bulkException.getWriteErrors().stream()
+        .collect(toMap(BulkWriteError::getIndex, error -> error));
+    @SuppressWarnings("rawtypes")
+    List<Future> entries = new ArrayList<>(chunk.size());
+    List<StoreObjectHolder> written = new ArrayList<>();
+    List<Future<IWriteEntry>> writtenFutures = new ArrayList<>();
+    List<StoreObjectHolder> retries = new ArrayList<>();
+    List<Future<IWriteEntry>> retryFutures = new ArrayList<>();
+    for (int i = 0; i < chunk.size(); i++) {
+      StoreObjectHolder holder = chunk.get(i);
+      BulkWriteError error = errors.get(i);
+      if (error == null) {
+        Future<IWriteEntry> writtenFuture = Future.future();
+        written.add(holder);
+        writtenFutures.add(writtenFuture);
+        entries.add(writtenFuture);
+      } else if (isRetryableDuplicateId(error, holder)) {
+        holder.keyTries--;
+        Future<IWriteEntry> retryFuture = Future.future();
+        retries.add(holder);
+        retryFutures.add(retryFuture);
+        entries.add(retryFuture);
+      } else {
+        entries.add(Future.succeededFuture(
+            new WriteEntry(holder.storeObject, getId(holder), createWriteException(error, bulkException))));
+      }
+    }
+    finishChunk(written, counts).setHandler(writtenResult -> {
+      for (int i = 0; i < writtenFutures.size(); i++) {
+        if (writtenResult.failed()) {
+          writtenFutures.get(i).fail(writtenResult.cause());
+        } else {
+          writtenFutures.get(i).complete(writtenResult.result().get(i));
+        }
+      }
+    });
+    if (!retries.isEmpty()) {
+      CompositeFuture.all(retries.stream().map(this::regenerateId).collect(toList()))
+          .compose(v -> writeChunk(retries, false)).setHandler(retryResult -> {
+            for (int i = 0; i < retryFutures.size(); i++) {
+              if (retryResult.failed()) {
+                retryFutures.get(i).fail(retryResult.cause());
+              } else {
+                retryFutures.get(i).complete(retryResult.result().get(i));
+              }
+            }
+          });
+    }
+    return CompositeFuture.all(entries).map(cf -> cf.<IWriteEntry> list());
+  }
+
+  private boolean isRetryableDuplicateId(final BulkWriteError error, final StoreObjectHolder holder) {
+    return holder.keyTries > 0 && error.getCode() == DUPLICATE_KEY_ERROR_CODE
+        && error.getMessage().indexOf("_id_") >= 0 && getMapper().getKeyGenerator() != null
+        && holder.bulkOperation.getType() == BulkOperationType.INSERT;
+  }
+
+  private Throwable createWriteException(final BulkWriteError error, final MongoBulkWriteException bulkException) {
+    if (error.getCode() != DUPLICATE_KEY_ERROR_CODE) {
+      return bulkException;
+    } else if (error.getMessage().indexOf("_id_") >= 0 && getMapper().getKeyGenerator() == null) {
+      return new DuplicateKeyException("Duplicate key error on insert, but no KeyGenerator is defined", bulkException);
+    } else {
+      return new DuplicateKeyException(bulkException);
+    }
+  }
+
+  private Future<Void> regenerateId(final StoreObjectHolder holder) {
+    Future<Void> fNextId = Future.future();
+    holder.storeObject.getNextId(fNextId);
+    return fNextId;
+  }
+
+  private Object getId(final StoreObjectHolder holder) {
+    if (holder.bulkOperation.getType() == BulkOperationType.INSERT) {
+      return holder.bulkOperation.getDocument().getValue(MongoColumnInfo.ID_FIELD_NAME);
+    }
+    return holder.storeObject.get(getMapper().getIdInfo().getField());
   }
 
-  private Future<IWriteEntry> finishWrite(final T entity, final StoreObjectHolder holder,
-      final MongoClientBulkWriteResult writeResult) {
+  private Future<MongoClientBulkWriteResult> write(final List<BulkOperation> bulkOperations, final boolean ordered) {
+    return executeRequest(() -> {
+      Future<MongoClientBulkWriteResult> fBulk = Future.future();
+      getMongoClient().bulkWriteWithOptions(getCollection(), bulkOperations,
+          new BulkWriteOptions().setOrdered(ordered), fBulk);
+      return fBulk;
+    });
+  }
+
+  private Future<IWriteEntry> finishWrite(final StoreObjectHolder holder, final WriteCounts counts) {
     BulkOperation bulkOperation = holder.bulkOperation;
     MongoStoreObject<T> storeObject = holder.storeObject;
+    T entity = storeObject.getEntity();
     Future<IWriteEntry> fAfterWrite = Future.future();
     if (bulkOperation.getType() == BulkOperationType.INSERT) {
       Object newId = bulkOperation.getDocument().getString("_id");
@@ -147,10 +347,11 @@ public class MongoWrite<T> extends AbstractWrite<T> implements MongoDataAccesObj
       finishInsert(newId, entity, storeObject, fAfterWrite);
     } else {
       Object currentId = storeObject.get(getMapper().getIdInfo().getField());
-      if (getQuery() == null)
-        finishUpdate(currentId, entity, storeObject, fAfterWrite);
-      else
-        finishQueryUpdate(currentId, entity, storeObject, writeResult, fAfterWrite);
+      if (getQuery() == null) {
+        updateSnapshot(storeObject);
+        finishUpdate(currentId, entity, storeObject, WriteAction.UPDATE, fAfterWrite);
+      } else
+        finishQueryUpdate(currentId, entity, storeObject, counts, fAfterWrite);
     }
     return fAfterWrite;
   }
@@ -186,8 +387,13 @@ public class MongoWrite<T> extends AbstractWrite<T> implements MongoDataAccesObj
         });
       } else {
         JsonObject filter = new JsonObject().put(MongoColumnInfo.ID_FIELD_NAME, currentId);
+        Map<String, Object> snapshot = EntitySnapshots.asMap(getSnapshot(storeObject.getEntity()));
         BulkOperation bulkOperation;
-        if (partialUpdate)
+        if (snapshot != null) {
+          JsonObject document = createDeltaUpdate(snapshot, storeObject.getContainer());
+          // an unchanged instance is not written
+          bulkOperation = document.isEmpty() ? null : BulkOperation.createUpdate(filter, document, false, false);
+        } else if (partialUpdate)
           bulkOperation = createPartialUpdate(filter, storeObject.getContainer(), true);
         else
           bulkOperation = BulkOperation.createReplace(filter, storeObject.getContainer(), true);
@@ -204,9 +410,86 @@ public class MongoWrite<T> extends AbstractWrite<T> implements MongoDataAccesObj
     return BulkOperation.createUpdate(filter, document, upsert, false);
   }
 
+  /**
+   * Creates an update document, which contains only the differences between the snapshot and the new container: a
+   * changed value is set by its path, embedded objects are compared field by field and removed fields are unset,
+   * unless a partial update is executed. Arrays are always set as a whole
+   *
+   * @param snapshot
+   *          the container, by which the instance was loaded or saved the last time
+   * @param container
+   *          the new container of the instance
+   * @return the update document, which is empty, if the instance was not changed
+   */
+  private JsonObject createDeltaUpdate(final Map<String, Object> snapshot, final JsonObject container) {
+    JsonObject setFields = new JsonObject();
+    JsonObject unsetFields = new JsonObject();
+    collectChanges("", snapshot, container.getMap(), setFields, unsetFields);
+    JsonObject document = new JsonObject();
+    if (!setFields.isEmpty()) {
+      document.put("$set", setFields);
+    }
+    if (!unsetFields.isEmpty()) {
+      document.put("$unset", unsetFields);
+    }
+    return document;
+  }
+
+  private void collectChanges(final String path, final Map<String, Object> oldValues,
+      final Map<String, Object> newValues, final JsonObject setFields, final JsonObject unsetFields) {
+    for (Map.Entry<String, Object> entry : newValues.entrySet()) {
+      String fieldPath = path + entry.getKey();
+      Object newValue = entry.getValue();
+      if (!oldValues.containsKey(entry.getKey())) {
+        setFields.put(fieldPath, newValue);
+      } else {
+        Object oldValue = oldValues.get(entry.getKey());
+        if (!EntitySnapshots.isEqual(oldValue, newValue)) {
+          Map<String, Object> oldObject = EntitySnapshots.asMap(oldValue);
+          Map<String, Object> newObject = EntitySnapshots.asMap(newValue);
+          if (oldObject != null && newObject != null) {
+            collectChanges(fieldPath + ".", oldObject, newObject, setFields, unsetFields);
+          } else {
+            setFields.put(fieldPath, newValue);
+          }
+        }
+      }
+    }
+    if (!partialUpdate) {
+      oldValues.keySet().stream().filter(key -> !newValues.containsKey(key))
+          .forEach(key -> unsetFields.put(path + key, ""));
+    }
+  }
+
+  /**
+   * The number of documents matched and modified by a bulk write. A write with a query contains exactly one operation,
+   * so that the counts of the bulk write are the counts of this operation
+   */
+  private static class WriteCounts {
+    private final long matched;
+    private final long modified;
+    private final long upserted;
+
+    WriteCounts(final MongoClientBulkWriteResult writeResult) {
+      this.matched = writeResult.getMatchedCount();
+      this.modified = writeResult.getModifiedCount();
+      this.upserted = writeResult.getUpserts() == null ? 0 : writeResult.getUpserts().size();
+    }
+
+    /**
+     * Takes the counts of the operations, which were executed before or beside the failed ones
+     */
+    WriteCounts(final BulkWriteResult writeResult) {
+      this.matched = writeResult.getMatchedCount();
+      this.modified = writeResult.isModifiedCountAvailable() ? writeResult.getModifiedCount() : matched;
+      this.upserted = writeResult.getUpserts().size();
+    }
+  }
+
   private class StoreObjectHolder {
     private final MongoStoreObject<T> storeObject;
     private final BulkOperation bulkOperation;
+    private int keyTries = MAX_KEY_TRIES;
 
     protected StoreObjectHolder(final MongoStoreObject<T> storeObject, final BulkOperation bulkOperation) {
       this.storeObject = storeObject;
@@ -215,6 +498,63 @@ public class MongoWrite<T> extends AbstractWrite<T> implements MongoDataAccesObj
 
   }
 
+  /**
+   * Splits the operations of a write into chunks of {@link MongoDataStore#getBulkChunkSize()}. With an ordered write
+   * the chunks are written one after the other, otherwise up to {@link MongoDataStore#getBulkConcurrency()} chunks
+   * are written in parallel. The callbacks of the MongoClient are executed on the context of the write, so that no
+   * synchronization is needed
+   */
+  private class ChunkWriter {
+    private final List<List<StoreObjectHolder>> chunks = new ArrayList<>();
+    private final List<List<IWriteEntry>> results;
+    private final boolean ordered;
+    private final int concurrency;
+    private final Future<List<IWriteEntry>> future = Future.future();
+    private int nextChunk;
+    private int openChunks;
+
+    ChunkWriter(final List<StoreObjectHolder> holders) {
+      MongoDataStore datastore = (MongoDataStore) getDataStore();
+      int chunkSize = Math.max(1, datastore.getBulkChunkSize());
+      for (int i = 0; i < holders.size(); i += chunkSize) {
+        chunks.add(holders.subList(i, Math.min(i + chunkSize, holders.size())));
+      }
+      results = new ArrayList<>(Collections.nCopies(chunks.size(), null));
+      ordered = datastore.isBulkOrdered();
+      concurrency = ordered ? 1 : Math.max(1, datastore.getBulkConcurrency());
+      openChunks = chunks.size();
+    }
+
+    Future<List<IWriteEntry>> start() {
+      for (int i = 0; i < Math.min(concurrency, chunks.size()); i++) {
+        writeNextChunk();
+      }
+      return future;
+    }
+
+    private void writeNextChunk() {
+      if (nextChunk >= chunks.size() || future.isComplete()) {
+        return;
+      }
+      int index = nextChunk++;
+      writeChunk(chunks.get(index), ordered).setHandler(res -> {
+        if (future.isComplete()) {
+          return;
+        }
+        if (res.failed()) {
+          future.fail(res.cause());
+        } else {
+          results.set(index, res.result());
+          if (--openChunks == 0) {
+            future.complete(results.stream().flatMap(List::stream).collect(toList()));
+          } else {
+            writeNextChunk();
+          }
+        }
+      });
+    }
+  }
+
   private Future<MongoStoreObject<T>> createStoreObject(final T entity) {
     Future<MongoStoreObject<T>> f = Future.future();
     ((MongoStoreObjectFactory) getDataStore().getStoreObjectFactory()).createStoreObject(getMapper(), entity, view,
@@ -247,14 +587,15 @@ public class MongoWrite<T> extends AbstractWrite<T> implements MongoDataAccesObj
   }
 
   private void finishQueryUpdate(final Object id, final T entity, final MongoStoreObject<T> storeObject,
-      final MongoClientBulkWriteResult updateResult, final Handler<AsyncResult<IWriteEntry>> resultHandler) {
-    if (updateResult.getMatchedCount() != 0 && updateResult.getMatchedCount() == updateResult.getModifiedCount()) {
-      finishUpdate(id, entity, storeObject, resultHandler);
-    } else if (updateResult.getMatchedCount() == 0 && updateResult.getModifiedCount() == 0) {
+      final WriteCounts counts, final Handler<AsyncResult<IWriteEntry>> resultHandler) {
+    if (counts.matched != 0 && counts.matched == counts.modified) {
+      updateSnapshot(storeObject);
+      finishUpdate(id, entity, storeObject, WriteAction.UPDATE, resultHandler);
+    } else if (counts.matched == 0 && counts.modified == 0) {
       resultHandler.handle(Future.succeededFuture(new WriteEntry(storeObject, id, WriteAction.NOT_MATCHED)));
     } else {
-      resultHandler.handle(Future.failedFuture(new WriteException("Matched " + updateResult.getMatchedCount()
-          + "documents but modified: " + updateResult.getModifiedCount() + "documents")));
+      resultHandler.handle(Future.failedFuture(new WriteException(
+          "Matched " + counts.matched + "documents but modified: " + counts.modified + "documents")));
     }
   }
 
@@ -277,12 +618,12 @@ public class MongoWrite<T> extends AbstractWrite<T> implements MongoDataAccesObj
   }
 
   private void finishUpdate(final Object id, final T entity, final MongoStoreObject<T> storeObject,
-      final Handler<AsyncResult<IWriteEntry>> resultHandler) {
+      final WriteAction action, final Handler<AsyncResult<IWriteEntry>> resultHandler) {
     executePostSave(entity, lcr -> {
       if (lcr.failed()) {
         resultHandler.handle(Future.failedFuture(lcr.cause()));
       } else {
-        resultHandler.handle(Future.succeededFuture(new WriteEntry(storeObject, id, WriteAction.UPDATE)));
+        resultHandler.handle(Future.succeededFuture(new WriteEntry(storeObject, id, action)));
       }
     });
   }
@@ -6,13 +6,17 @@ import java.util.UUID;
 
 import org.bson.conversions.Bson;
 
+import com.mongodb.async.AsyncBatchCursor;
+import com.mongodb.async.client.FindIterable;
 import com.mongodb.async.client.MongoCollection;
 
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.FindOptions;
 import io.vertx.ext.mongo.impl.MongoClientImpl;
+import io.vertx.ext.mongo.impl.codec.json.JsonObjectBsonAdapter;
 import io.vertx.ext.mongo.impl.config.MongoClientOptionsParser;
 
 public class JomnigateMongoClient extends MongoClientImpl {
@@ -89,4 +93,67 @@ public class JomnigateMongoClient extends MongoClientImpl {
     return f;
   }
 
+  /**
+   * Opens a server side cursor for the given query. The records are fetched from the cursor by
+   * {@link #nextBatch(AsyncBatchCursor)} in batches of the given size, so that a complete selection can be read without
+   * holding it in memory
+   *
+   * @param collectionName
+   *          the name of the collection to search in
+   * @param query
+   *          the native query definition
+   * @param options
+   *          sort, projection, limit and skip of the selection
+   * @param batchSize
+   *          the number of records, which are fetched from the server per round trip
+   * @return a future, which receives the opened cursor
+   */
+  public Future<AsyncBatchCursor<JsonObject>> findBatchCursor(final String collectionName, final JsonObject query,
+      final FindOptions options, final int batchSize) {
+    Future<AsyncBatchCursor<JsonObject>> f = Future.future();
+    Context context = vertx.getOrCreateContext();
+    FindIterable<JsonObject> find = getCollection(collectionName).find(new JsonObjectBsonAdapter(query));
+    if (options.getLimit() > 0) {
+      find.limit(options.getLimit());
+    }
+    if (options.getSkip() > 0) {
+      find.skip(options.getSkip());
+    }
+    if (options.getSort() != null && !options.getSort().isEmpty()) {
+      find.sort(new JsonObjectBsonAdapter(options.getSort()));
+    }
+    if (options.getFields() != null && !options.getFields().isEmpty()) {
+      find.projection(new JsonObjectBsonAdapter(options.getFields()));
+    }
+    find.batchSize(batchSize).batchCursor((cursor, error) -> context.runOnContext(v -> {
+      if (error != null) {
+        f.fail(error);
+      } else {
+        f.complete(cursor);
+      }
+    }));
+    return f;
+  }
+
+  /**
+   * Fetch the next batch of records from a cursor, which was opened by
+   * {@link #findBatchCursor(String, JsonObject, FindOptions, int)}
+   *
+   * @param cursor
+   *          the cursor to read from
+   * @return a future, which receives the next batch or null, if the cursor is exhausted
+   */
+  public Future<List<JsonObject>> nextBatch(final AsyncBatchCursor<JsonObject> cursor) {
+    Future<List<JsonObject>> f = Future.future();
+    Context context = vertx.getOrCreateContext();
+    cursor.next((batch, error) -> context.runOnContext(v -> {
+      if (error != null) {
+        f.fail(error);
+      } else {
+        f.complete(batch);
+      }
+    }));
+    return f;
+  }
+
 }
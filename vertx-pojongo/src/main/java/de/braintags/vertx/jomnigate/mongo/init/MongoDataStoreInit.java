@@ -275,6 +275,23 @@ public class MongoDataStoreInit extends AbstractDataStoreInit implements IDataSt
     if (writeConcern != null) {
       config.put(WRITE_CONCERN_PROP, writeConcern);
     }
+    config.put(MongoDataStore.BULK_CHUNK_SIZE,
+        getIntegerProperty(MongoDataStore.BULK_CHUNK_SIZE, MongoDataStore.DEFAULT_BULK_CHUNK_SIZE));
+    config.put(MongoDataStore.BULK_ORDERED, getBooleanProperty(MongoDataStore.BULK_ORDERED, true));
+    config.put(MongoDataStore.BULK_CONCURRENCY,
+        getIntegerProperty(MongoDataStore.BULK_CONCURRENCY, MongoDataStore.DEFAULT_BULK_CONCURRENCY));
+    config.put(MongoDataStore.RETRY_BASE_DELAY,
+        getIntegerProperty(MongoDataStore.RETRY_BASE_DELAY, MongoDataStore.DEFAULT_RETRY_BASE_DELAY));
+    config.put(MongoDataStore.RETRY_MAX_DELAY,
+        getIntegerProperty(MongoDataStore.RETRY_MAX_DELAY, MongoDataStore.DEFAULT_RETRY_MAX_DELAY));
+    config.put(MongoDataStore.MAX_RETRIES,
+        getIntegerProperty(MongoDataStore.MAX_RETRIES, MongoDataStore.DEFAULT_MAX_RETRIES));
+    int rateLimit = getIntegerProperty(MongoDataStore.RATE_LIMIT, 0);
+    config.put(MongoDataStore.RATE_LIMIT, rateLimit);
+    config.put(MongoDataStore.RATE_LIMIT_BURST, getIntegerProperty(MongoDataStore.RATE_LIMIT_BURST, rateLimit));
+    config.put(IDataStore.ENCODER_POOL_SIZE,
+        getIntegerProperty(IDataStore.ENCODER_POOL_SIZE, IDataStore.DEFAULT_ENCODER_POOL_SIZE));
+    config.put(IDataStore.DIRTY_TRACKING, getBooleanProperty(IDataStore.DIRTY_TRACKING, true));
     return config;
   }
 
@@ -28,6 +28,15 @@
  * Please take the possible properties, which can be set from
  * {@link de.braintags.vertx.jomnigate.mongo.init.MongoDataStoreInit}
  * 
+ * === Throttling
+ * Requests, which are rejected by the rate limit of the server, are repeated with an exponential backoff, which is
+ * defined by the properties {@link de.braintags.vertx.jomnigate.mongo.MongoDataStore#RETRY_BASE_DELAY},
+ * {@link de.braintags.vertx.jomnigate.mongo.MongoDataStore#RETRY_MAX_DELAY} and
+ * {@link de.braintags.vertx.jomnigate.mongo.MongoDataStore#MAX_RETRIES}. Another policy can be set by
+ * MongoDataStore#setRetryPolicy. With the property {@link de.braintags.vertx.jomnigate.mongo.MongoDataStore#RATE_LIMIT}
+ * the number of requests per second can be limited on the client side. The counters of throttled and delayed requests
+ * are available by MongoDataStore#getThrottlingMetrics
+ * 
  * === Information about JsonDatastore
  * {@link de.braintags.vertx.jomnigate.json}
  * 
@@ -0,0 +1,125 @@
+/*
+ * #%L
+ * vertx-pojongo
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.mongo.throttle;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongUnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.mongodb.MongoServerException;
+
+/**
+ * Repeats requests, which were rejected by the server because of a rate limit, with an exponential backoff. The delay
+ * of a retry is chosen randomly between 0 and baseDelay * 2^retryCount, limited by maxDelay, so that concurrent
+ * requests don't retry at the same time. If the error contains a hint like "RetryAfterMs=100", the delay is at least
+ * that long.
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class ExponentialBackoffRetryPolicy implements IRetryPolicy {
+
+  /**
+   * The error code, which is returned by the server, if a request was rejected because of a rate limit
+   */
+  public static final int RATE_LIMIT_ERROR_CODE = 16500;
+
+  private static final Pattern RETRY_AFTER_PATTERN = Pattern.compile("RetryAfterMs=(\\d+)");
+  private static final int MAX_SHIFT = 30;
+
+  private final long baseDelay;
+  private final long maxDelay;
+  private final int maxRetries;
+  private final LongUnaryOperator random;
+
+  /**
+   * @param baseDelay
+   *          the maximum delay in milliseconds of the first retry
+   * @param maxDelay
+   *          the upper limit in milliseconds of the calculated delay
+   * @param maxRetries
+   *          the maximum number of retries of one request
+   */
+  public ExponentialBackoffRetryPolicy(long baseDelay, long maxDelay, int maxRetries) {
+    this(baseDelay, maxDelay, maxRetries, bound -> ThreadLocalRandom.current().nextLong(bound));
+  }
+
+  /**
+   * @param baseDelay
+   *          the maximum delay in milliseconds of the first retry
+   * @param maxDelay
+   *          the upper limit in milliseconds of the calculated delay
+   * @param maxRetries
+   *          the maximum number of retries of one request
+   * @param random
+   *          the source of the jitter, which returns a random value between 0 ( inclusive ) and the given bound (
+   *          exclusive )
+   */
+  public ExponentialBackoffRetryPolicy(long baseDelay, long maxDelay, int maxRetries, LongUnaryOperator random) {
+    this.baseDelay = Math.max(1, baseDelay);
+    this.maxDelay = Math.max(this.baseDelay, maxDelay);
+    this.maxRetries = maxRetries;
+    this.random = random;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.mongo.throttle.IRetryPolicy#getRetryDelay(java.lang.Throwable, int)
+   */
+  @Override
+  public long getRetryDelay(Throwable cause, int retryCount) {
+    if (retryCount >= maxRetries || !isRateLimitError(cause)) {
+      return NO_RETRY;
+    }
+    long backoff = Math.min(maxDelay, baseDelay << Math.min(retryCount, MAX_SHIFT));
+    long delay = random.applyAsLong(backoff + 1);
+    return Math.max(delay, getRetryAfterHint(cause));
+  }
+
+  /**
+   * Checks wether the given error was caused by the rate limit of the server
+   * 
+   * @param cause
+   *          the error to be checked
+   * @return true, if the error contains the code {@link #RATE_LIMIT_ERROR_CODE}
+   */
+  public static boolean isRateLimitError(Throwable cause) {
+    return cause instanceof MongoServerException
+        && ((MongoServerException) cause).getCode() == RATE_LIMIT_ERROR_CODE;
+  }
+
+  /**
+   * Get the delay, which is requested by the server by a hint like "RetryAfterMs=100" inside the error message
+   * 
+   * @param cause
+   *          the error of the server
+   * @return the requested delay in milliseconds or 0, if no hint is contained
+   */
+  public static long getRetryAfterHint(Throwable cause) {
+    String message = cause.getMessage();
+    if (message != null) {
+      Matcher matcher = RETRY_AFTER_PATTERN.matcher(message);
+      if (matcher.find()) {
+        try {
+          return Long.parseLong(matcher.group(1));
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 0;
+  }
+
+}
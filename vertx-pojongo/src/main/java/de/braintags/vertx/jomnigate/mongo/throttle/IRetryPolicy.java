@@ -0,0 +1,39 @@
+/*
+ * #%L
+ * vertx-pojongo
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.mongo.throttle;
+
+/**
+ * An IRetryPolicy decides, wether a failed request to the datastore is executed again and how long to wait before
+ * 
+ * @author Michael Remme
+ * 
+ */
+public interface IRetryPolicy {
+
+  /**
+   * The value returned by {@link #getRetryDelay(Throwable, int)}, if the request shall not be repeated
+   */
+  long NO_RETRY = -1;
+
+  /**
+   * Get the delay before the failed request is executed again
+   * 
+   * @param cause
+   *          the error of the failed request
+   * @param retryCount
+   *          the number of retries, which were executed already
+   * @return the delay in milliseconds or {@link #NO_RETRY}
+   */
+  long getRetryDelay(Throwable cause, int retryCount);
+
+}
@@ -0,0 +1,146 @@
+/*
+ * #%L
+ * vertx-pojongo
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.mongo.throttle;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Counts the requests, which were rejected by the server because of a rate limit, and the time, which was spent by
+ * waiting for retries and for the client side rate limiter
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class ThrottlingMetrics {
+  private final AtomicLong throttled = new AtomicLong();
+  private final AtomicLong retries = new AtomicLong();
+  private final AtomicLong retryDelay = new AtomicLong();
+  private final AtomicLong exhausted = new AtomicLong();
+  private final AtomicLong limited = new AtomicLong();
+  private final AtomicLong limiterDelay = new AtomicLong();
+
+  /**
+   * Registers a request, which was rejected by the server because of a rate limit
+   */
+  public void throttled() {
+    throttled.incrementAndGet();
+  }
+
+  /**
+   * Registers a failed request, which is executed again after the given delay
+   * 
+   * @param delay
+   *          the delay in milliseconds
+   */
+  public void retried(long delay) {
+    retries.incrementAndGet();
+    retryDelay.addAndGet(delay);
+  }
+
+  /**
+   * Registers a request, which was rejected by the server because of a rate limit and failed, because no further retry
+   * is allowed
+   */
+  public void exhausted() {
+    exhausted.incrementAndGet();
+  }
+
+  /**
+   * Registers a request, which was delayed by the client side rate limiter
+   * 
+   * @param delay
+   *          the delay in milliseconds
+   */
+  public void limited(long delay) {
+    limited.incrementAndGet();
+    limiterDelay.addAndGet(delay);
+  }
+
+  /**
+   * Get the number of requests, which were rejected by the server because of a rate limit
+   * 
+   * @return the number of throttled requests
+   */
+  public long getThrottled() {
+    return throttled.get();
+  }
+
+  /**
+   * Get the number of executed retries
+   * 
+   * @return the number of retries
+   */
+  public long getRetries() {
+    return retries.get();
+  }
+
+  /**
+   * Get the summed up delay of all retries
+   * 
+   * @return the delay in milliseconds
+   */
+  public long getRetryDelay() {
+    return retryDelay.get();
+  }
+
+  /**
+   * Get the number of requests, which failed after the last allowed retry
+   * 
+   * @return the number of failed requests
+   */
+  public long getExhausted() {
+    return exhausted.get();
+  }
+
+  /**
+   * Get the number of requests, which were delayed by the client side rate limiter
+   * 
+   * @return the number of delayed requests
+   */
+  public long getLimited() {
+    return limited.get();
+  }
+
+  /**
+   * Get the summed up delay of all requests, which were delayed by the client side rate limiter
+   * 
+   * @return the delay in milliseconds
+   */
+  public long getLimiterDelay() {
+    return limiterDelay.get();
+  }
+
+  /**
+   * Get the current values as JsonObject
+   * 
+   * @return the metrics
+   */
+  public JsonObject toJson() {
+    return new JsonObject().put("throttled", getThrottled()).put("retries", getRetries())
+        .put("retryDelay", getRetryDelay()).put("exhausted", getExhausted()).put("limited", getLimited())
+        .put("limiterDelay", getLimiterDelay());
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return toJson().encode();
+  }
+
+}
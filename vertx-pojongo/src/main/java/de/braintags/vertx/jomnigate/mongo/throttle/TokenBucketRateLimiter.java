@@ -0,0 +1,152 @@
+/*
+ * #%L
+ * vertx-pojongo
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.mongo.throttle;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+/**
+ * A token bucket, which limits the number of requests per second sent to the datastore. Each request takes one token;
+ * the bucket is refilled continuously with the given rate and holds up to burst tokens. Requests, which find the bucket
+ * empty, are queued in their order and executed on their own context, as soon as a token is available.
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class TokenBucketRateLimiter {
+  private final Vertx vertx;
+  private final LongSupplier clock;
+  private final double tokensPerMilli;
+  private final double burst;
+  private final Deque<Waiter> waiting = new ArrayDeque<>();
+  private double tokens;
+  private long lastRefill;
+  private boolean timerActive;
+
+  /**
+   * @param vertx
+   *          the instance of vertx, which is used to schedule queued requests
+   * @param requestsPerSecond
+   *          the number of requests, which are allowed per second
+   * @param burst
+   *          the maximum number of requests, which may be executed at once after a period without requests
+   */
+  public TokenBucketRateLimiter(Vertx vertx, int requestsPerSecond, int burst) {
+    this(vertx, requestsPerSecond, burst, System::currentTimeMillis);
+  }
+
+  /**
+   * @param vertx
+   *          the instance of vertx, which is used to schedule queued requests
+   * @param requestsPerSecond
+   *          the number of requests, which are allowed per second
+   * @param burst
+   *          the maximum number of requests, which may be executed at once after a period without requests
+   * @param clock
+   *          the source of the current time in milliseconds, by which the bucket is refilled
+   */
+  public TokenBucketRateLimiter(Vertx vertx, int requestsPerSecond, int burst, LongSupplier clock) {
+    if (requestsPerSecond <= 0) {
+      throw new IllegalArgumentException("requestsPerSecond must be greater than 0");
+    }
+    this.vertx = vertx;
+    this.clock = clock;
+    this.tokensPerMilli = requestsPerSecond / 1000d;
+    this.burst = Math.max(1, burst);
+    this.tokens = this.burst;
+    this.lastRefill = clock.getAsLong();
+  }
+
+  /**
+   * Takes one token and calls the handler, if a token is available and no other request is waiting. Otherwise the
+   * request is queued and the handler is called on the current context, as soon as it's his turn
+   * 
+   * @param handler
+   *          the handler, which receives the time in milliseconds, the request was waiting
+   */
+  public void acquire(Handler<Long> handler) {
+    synchronized (this) {
+      refill();
+      if (!waiting.isEmpty() || tokens < 1) {
+        waiting.add(new Waiter(vertx.getOrCreateContext(), handler, lastRefill));
+        scheduleDrain();
+        return;
+      }
+      tokens--;
+    }
+    handler.handle(0L);
+  }
+
+  /**
+   * Get the number of requests, which are currently waiting for a token
+   * 
+   * @return the number of queued requests
+   */
+  public synchronized int getQueueSize() {
+    return waiting.size();
+  }
+
+  private void refill() {
+    long now = clock.getAsLong();
+    tokens = Math.min(burst, tokens + (now - lastRefill) * tokensPerMilli);
+    lastRefill = now;
+  }
+
+  private void scheduleDrain() {
+    if (!timerActive) {
+      timerActive = true;
+      long delay = Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerMilli));
+      vertx.setTimer(delay, id -> drain());
+    }
+  }
+
+  private void drain() {
+    List<Waiter> ready = new ArrayList<>();
+    synchronized (this) {
+      timerActive = false;
+      refill();
+      while (!waiting.isEmpty() && tokens >= 1) {
+        tokens--;
+        ready.add(waiting.poll());
+      }
+      if (!waiting.isEmpty()) {
+        scheduleDrain();
+      }
+    }
+    long now = clock.getAsLong();
+    ready.forEach(waiter -> waiter.context.runOnContext(v -> waiter.handler.handle(now - waiter.queued)));
+  }
+
+  /**
+   * A request, which is waiting for a token
+   */
+  private static class Waiter {
+    private final Context context;
+    private final Handler<Long> handler;
+    private final long queued;
+
+    Waiter(Context context, Handler<Long> handler, long queued) {
+      this.context = context;
+      this.handler = handler;
+      this.queued = queued;
+    }
+  }
+
+}
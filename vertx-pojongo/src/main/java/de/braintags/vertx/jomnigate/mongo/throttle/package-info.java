@@ -0,0 +1,21 @@
+/*
+ * #%L
+ * vertx-pojongo
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+/**
+ * Retry policies, the client side rate limiter and the metrics, which are used by the MongoDataStore to deal with
+ * throttling errors of the server
+ * 
+ * @author Michael Remme
+ * 
+ */
+
+package de.braintags.vertx.jomnigate.mongo.throttle;
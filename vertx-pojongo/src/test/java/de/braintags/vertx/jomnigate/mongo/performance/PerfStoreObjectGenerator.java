@@ -0,0 +1,115 @@
+/*
+ * #%L
+ * vertx-pojongo
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.mongo.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.braintags.vertx.jomnigate.json.jackson.JOmnigateFactory;
+import de.braintags.vertx.jomnigate.json.jackson.serializer.JOmnigateGenerator;
+import de.braintags.vertx.jomnigate.mongo.MongoDataStore;
+import de.braintags.vertx.jomnigate.mongo.performance.mapper.PerfDocument;
+import de.braintags.vertx.util.ResultObject;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.MongoClient;
+
+/**
+ * Compares the generation of the JsonObject of a store object by a String, which is written by jackson and parsed
+ * again, against the generation by a TokenBuffer, which is read as tree of Maps and Lists. Both variants use the same
+ * {@link ObjectMapper} of the datastore and the same instances, which are created before the measurement. The
+ * document contains no references, so that no access to the database is measured
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class PerfStoreObjectGenerator {
+  private static final int LOOP = 5000;
+  private static final int RUNS = 20;
+
+  /**
+   * The former generation: serialize into a String and parse the String into a JsonObject
+   */
+  private static long byString(ObjectMapper mapper, List<PerfDocument> documents) throws Exception {
+    long startTime = System.nanoTime();
+    for (PerfDocument document : documents) {
+      String js = mapper.writer().writeValueAsString(document);
+      JsonObject result = new JsonObject(js);
+      check(result);
+    }
+    return System.nanoTime() - startTime;
+  }
+
+  /**
+   * The current generation: serialize into a TokenBuffer and read the tree of Maps and Lists from it
+   */
+  @SuppressWarnings("unchecked")
+  private static long byTokenBuffer(MongoDataStore ds, ObjectMapper mapper, List<PerfDocument> documents)
+      throws Exception {
+    long startTime = System.nanoTime();
+    for (PerfDocument document : documents) {
+      JOmnigateGenerator jgen = JOmnigateFactory.createGenerator(ds, mapper);
+      mapper.writer().writeValue(jgen, document);
+      ResultObject<Object> ro = new ResultObject<>(null);
+      jgen.getResult(res -> {
+        if (res.failed()) {
+          throw new IllegalStateException(res.cause());
+        }
+        ro.setResult(res.result());
+      });
+      JsonObject result = new JsonObject((Map<String, Object>) ro.getResult());
+      check(result);
+    }
+    return System.nanoTime() - startTime;
+  }
+
+  private static void check(JsonObject result) {
+    if (result.getJsonObject("values").size() != PerfDocument.FIELDS) {
+      throw new IllegalStateException("unexpected result: " + result);
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Vertx vertx = Vertx.vertx();
+    JsonObject config = new JsonObject();
+    config.put("connection_string", "mongodb://localhost:27017");
+    config.put("db_name", "PojongoTestDatabase");
+    MongoClient mongoClient = MongoClient.createNonShared(vertx, config);
+    MongoDataStore store = new MongoDataStore(vertx, mongoClient, config, null);
+    store.getMapperFactory().getMapper(PerfDocument.class);
+    ObjectMapper mapper = store.getJacksonMapper();
+
+    List<PerfDocument> documents = new ArrayList<>();
+    for (int i = 0; i < LOOP; i++) {
+      documents.add(new PerfDocument(i));
+    }
+    // warm up both variants before measuring
+    byString(mapper, documents);
+    byTokenBuffer(store, mapper, documents);
+
+    long stringTime = 0;
+    long bufferTime = 0;
+    for (int i = 0; i < RUNS; i++) {
+      stringTime += byString(mapper, documents);
+      bufferTime += byTokenBuffer(store, mapper, documents);
+    }
+    System.out.println("String:      " + stringTime / RUNS / 1000000 + " ms per " + LOOP + " documents");
+    System.out.println("TokenBuffer: " + bufferTime / RUNS / 1000000 + " ms per " + LOOP + " documents");
+    mongoClient.close();
+    vertx.close();
+  }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * #%L
+ * vertx-pojongo
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.mongo.performance.mapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.braintags.vertx.jomnigate.annotation.Entity;
+import de.braintags.vertx.jomnigate.annotation.field.Id;
+
+/**
+ * A large document with 200 simple values and 50 children, which are written inline. It contains no referenced or
+ * embedded entities, so that its serialization needs no access to the datastore
+ * 
+ * @author Michael Remme
+ * 
+ */
+@Entity
+public class PerfDocument {
+  public static final int FIELDS = 200;
+  public static final int CHILDREN = 50;
+
+  @Id
+  public String id;
+  public Map<String, String> values = new HashMap<>();
+  public List<Map<String, Object>> children = new ArrayList<>();
+
+  /**
+   * 
+   */
+  public PerfDocument() {
+  }
+
+  /**
+   * 
+   */
+  public PerfDocument(final int count) {
+    this.id = String.valueOf(count);
+    for (int i = 0; i < FIELDS; i++) {
+      values.put("field" + i, "value of field " + i);
+    }
+    for (int i = 0; i < CHILDREN; i++) {
+      Map<String, Object> child = new HashMap<>();
+      child.put("name", "name " + i);
+      child.put("secondProperty", "sec prop " + i);
+      child.put("number", i);
+      children.add(child);
+    }
+  }
+
+}
@@ -0,0 +1,195 @@
+/*
+ * #%L
+ * vertx-pojongo
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.mongo.throttle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.mongodb.MongoQueryException;
+import com.mongodb.ServerAddress;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+
+/**
+ * Tests for {@link ExponentialBackoffRetryPolicy}, {@link TokenBucketRateLimiter} and {@link ThrottlingMetrics}. Time
+ * and randomness are injected, so that the results are predictable
+ * 
+ * @author Michael Remme
+ * 
+ */
+@RunWith(VertxUnitRunner.class)
+public class TThrottling {
+  private Vertx vertx;
+  private final AtomicLong clock = new AtomicLong(1000);
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @After
+  public void tearDown(TestContext context) {
+    vertx.close(context.asyncAssertSuccess());
+  }
+
+  @Test
+  public void testJitterBounds(TestContext context) {
+    List<Long> bounds = new ArrayList<>();
+    ExponentialBackoffRetryPolicy maxJitter = new ExponentialBackoffRetryPolicy(10, 100, 10, bound -> {
+      bounds.add(bound);
+      return bound - 1;
+    });
+    context.assertEquals(10L, maxJitter.getRetryDelay(createRateLimitError("rate limit"), 0));
+    context.assertEquals(20L, maxJitter.getRetryDelay(createRateLimitError("rate limit"), 1));
+    context.assertEquals(80L, maxJitter.getRetryDelay(createRateLimitError("rate limit"), 3));
+    // limited by maxDelay
+    context.assertEquals(100L, maxJitter.getRetryDelay(createRateLimitError("rate limit"), 4));
+    context.assertEquals(100L, maxJitter.getRetryDelay(createRateLimitError("rate limit"), 9));
+    context.assertEquals(11L, bounds.get(0), "the jitter must include the backoff itself");
+    context.assertEquals(101L, bounds.get(bounds.size() - 1));
+
+    ExponentialBackoffRetryPolicy minJitter = new ExponentialBackoffRetryPolicy(10, 100, 10, bound -> 0);
+    context.assertEquals(0L, minJitter.getRetryDelay(createRateLimitError("rate limit"), 5));
+
+    ExponentialBackoffRetryPolicy random = new ExponentialBackoffRetryPolicy(10, 100, 40);
+    for (int i = 0; i < 40; i++) {
+      long delay = random.getRetryDelay(createRateLimitError("rate limit"), i);
+      context.assertTrue(delay >= 0 && delay <= 100, "delay out of bounds: " + delay);
+    }
+  }
+
+  @Test
+  public void testNoRetry(TestContext context) {
+    ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy(10, 100, 2, bound -> 0);
+    context.assertEquals(IRetryPolicy.NO_RETRY, policy.getRetryDelay(createRateLimitError("rate limit"), 2));
+    context.assertEquals(IRetryPolicy.NO_RETRY, policy.getRetryDelay(new IllegalStateException("other"), 0));
+    context.assertEquals(IRetryPolicy.NO_RETRY,
+        policy.getRetryDelay(new MongoQueryException(new ServerAddress(), 2, "bad query"), 0));
+  }
+
+  @Test
+  public void testRetryAfterHint(TestContext context) {
+    ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy(10, 100, 10, bound -> 0);
+    context.assertEquals(250L, policy.getRetryDelay(createRateLimitError("Request rate is large RetryAfterMs=250"), 0));
+    // the hint is a lower bound, a longer backoff is kept
+    ExponentialBackoffRetryPolicy maxJitter = new ExponentialBackoffRetryPolicy(10, 100, 10, bound -> bound - 1);
+    context.assertEquals(80L, maxJitter.getRetryDelay(createRateLimitError("RetryAfterMs=5"), 3));
+    context.assertEquals(0L, ExponentialBackoffRetryPolicy.getRetryAfterHint(createRateLimitError("no hint")));
+    context.assertEquals(0L,
+        ExponentialBackoffRetryPolicy.getRetryAfterHint(createRateLimitError("RetryAfterMs=99999999999999999999")));
+  }
+
+  @Test
+  public void testTokenRefill(TestContext context) {
+    TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(vertx, 10, 2, clock::get);
+    List<Long> waited = new ArrayList<>();
+    limiter.acquire(waited::add);
+    limiter.acquire(waited::add);
+    context.assertEquals(2, waited.size(), "the burst must be executed at once");
+    // 10 requests per second refill one token each 100 milliseconds
+    clock.addAndGet(99);
+    Async refilled = context.async();
+    limiter.acquire(w -> {
+      context.assertEquals(1L, w);
+      refilled.complete();
+    });
+    context.assertEquals(1, limiter.getQueueSize(), "no token may be available yet");
+    clock.addAndGet(1);
+    refilled.await();
+
+    // the bucket holds no more than the burst
+    clock.addAndGet(1000);
+    limiter.acquire(waited::add);
+    limiter.acquire(waited::add);
+    context.assertEquals(4, waited.size());
+    context.assertEquals(0L, waited.get(3));
+    Async queued = context.async();
+    limiter.acquire(w -> queued.complete());
+    context.assertEquals(1, limiter.getQueueSize(), "only burst tokens may be stored");
+    clock.addAndGet(100);
+    queued.await();
+    context.assertEquals(0, limiter.getQueueSize());
+  }
+
+  @Test
+  public void testDispatchOnContext(TestContext context) {
+    TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(vertx, 10, 2, clock::get);
+    limiter.acquire(w -> {
+    });
+    limiter.acquire(w -> {
+    });
+    Context first = vertx.getOrCreateContext();
+    Context second = vertx.getOrCreateContext();
+    context.assertFalse(first == second);
+    Async executed = context.async(2);
+    Async firstQueued = context.async();
+    first.runOnContext(v -> {
+      limiter.acquire(waited -> {
+        context.assertTrue(Vertx.currentContext() == first, "not executed on the context of the request");
+        context.assertEquals(200L, waited);
+        executed.countDown();
+      });
+      firstQueued.complete();
+    });
+    firstQueued.await();
+    Async secondQueued = context.async();
+    second.runOnContext(v -> {
+      limiter.acquire(waited -> {
+        context.assertTrue(Vertx.currentContext() == second, "not executed on the context of the request");
+        executed.countDown();
+      });
+      secondQueued.complete();
+    });
+    secondQueued.await();
+    context.assertEquals(2, limiter.getQueueSize());
+    clock.addAndGet(200);
+    executed.await();
+    context.assertEquals(0, limiter.getQueueSize());
+  }
+
+  @Test
+  public void testMetrics(TestContext context) {
+    ThrottlingMetrics metrics = new ThrottlingMetrics();
+    metrics.throttled();
+    metrics.throttled();
+    metrics.retried(30);
+    metrics.retried(50);
+    metrics.exhausted();
+    metrics.limited(20);
+    context.assertEquals(2L, metrics.getThrottled());
+    context.assertEquals(2L, metrics.getRetries());
+    context.assertEquals(80L, metrics.getRetryDelay());
+    context.assertEquals(1L, metrics.getExhausted());
+    context.assertEquals(1L, metrics.getLimited());
+    context.assertEquals(20L, metrics.getLimiterDelay());
+    JsonObject json = metrics.toJson();
+    context.assertEquals(80L, json.getLong("retryDelay"));
+    context.assertEquals(json.encode(), metrics.toString());
+  }
+
+  private MongoQueryException createRateLimitError(String message) {
+    return new MongoQueryException(new ServerAddress(), ExponentialBackoffRetryPolicy.RATE_LIMIT_ERROR_CODE, message);
+  }
+
+}